@@ -58,11 +58,24 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         // Required for externalization
     }
 
+    /**
+     * Creates a marshalled value from the serialized form returned by {@link #getBytes()}.
+     * @param bytes the serialized form of the value
+     */
+    public SimpleMarshalledValue(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
     T peek() {
         return this.object;
     }
 
-    byte[] getBytes() throws IOException {
+    /**
+     * Returns the serialized form of this value, marshalling the value if necessary.
+     * @return the serialized form, or null if the value is null
+     * @throws IOException if the value could not be marshalled
+     */
+    public byte[] getBytes() throws IOException {
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
         if (this.object == null) return null;
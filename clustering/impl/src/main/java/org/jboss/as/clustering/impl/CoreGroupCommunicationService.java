@@ -120,6 +120,15 @@ import static org.jboss.as.clustering.impl.ClusteringImplMessages.MESSAGES;
 public class CoreGroupCommunicationService implements Service<CoreGroupCommunicationService>, GroupRpcDispatcher, GroupMembershipNotifier, GroupStateTransferService {
     private static final byte NULL_VALUE = 0;
     private static final byte SERIALIZABLE_VALUE = 1;
+    /**
+     * Leads a request framed by {@link #objectToBufferRequestInternal(Object, boolean)}. A marshalled stream never starts
+     * with it, so requests in the former Object[]{service_name, byte[]} format can still be told apart.
+     */
+    static final byte FRAMED_REQUEST = (byte) 0xFF;
+    /** The service through which members find out whether they all understand framed requests */
+    static final String WIRE_FORMAT_SERVICE = CoreGroupCommunicationService.class.getName() + ".WireFormat";
+    static final String SUPPORTS_FRAMED_REQUESTS = "supportsFramedRequests";
+    private static final Object NEGOTIATE_WIRE_FORMAT = new Object();
 
     public static ServiceName getServiceName(String name) {
         return ServiceName.JBOSS.append("cluster").append(name);
@@ -182,6 +191,11 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     volatile ClusterNode me = null;
     /** The current view of the group */
     private volatile GroupView groupView = new GroupView();
+    /** Whether all other members of the current view understand framed requests */
+    private volatile boolean framedRequests = false;
+    private final Object wireFormatLock = new Object();
+    private final MarshallingBuffer.SizeEstimate requestSize = new MarshallingBuffer.SizeEstimate(512);
+    private final MarshallingBuffer.SizeEstimate responseSize = new MarshallingBuffer.SizeEstimate(256);
 
     private long method_call_timeout = 60000;
     final short scopeId;
@@ -785,6 +799,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
         this.stateIdPrefix = this.getClass().getName() + "." + this.scopeId + ".";
 
+        this.rpcHandlers.put(WIRE_FORMAT_SERVICE, new WireFormat());
+
         // Subscribe to events generated by the channel
         MembershipListener meml = new MembershipListenerImpl();
         MessageListener msgl = this.stateIdPrefix == null ? null : new MessageListenerImpl();
@@ -803,10 +819,16 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
         // Start the asynch listener handler thread
         this.asynchHandler.start();
+        try {
+            this.asynchHandler.queueEvent(NEGOTIATE_WIRE_FORMAT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public void stop() {
         this.asynchHandler.stop();
+        this.rpcHandlers.remove(WIRE_FORMAT_SERVICE);
 
         if (this.dispatcher != null) {
             this.dispatcher.stop();
@@ -880,6 +902,81 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         return output.toByteArray();
     }
 
+    /**
+     * Serializes a request into a {@link Buffer}. If framed, a {@link MethodCall} is written in a single pass as the
+     * {@link #FRAMED_REQUEST} marker, followed by a stream holding the name of the target service and then the call
+     * itself. Otherwise it is wrapped in Object[]{service_name, byte[]}, which is all that former versions understand.
+     * Either way, the receiver can find the service without unmarshalling the call first.
+     */
+    Buffer objectToBufferRequestInternal(Object object, boolean framed) throws Exception {
+        if (!(object instanceof MethodCall)) {
+            return this.objectToBufferInternal(object, false, null);
+        }
+        String name = ((MethodCall) object).getName();
+        String serviceName = name.substring(0, name.lastIndexOf('.'));
+        if (!framed) {
+            return new Buffer(this.objectToByteBufferInternal(new Object[] { serviceName, this.objectToByteBufferInternal(object) }));
+        }
+        return this.objectToBufferInternal(object, true, serviceName);
+    }
+
+    private Buffer objectToBufferInternal(Object object, boolean framed, String serviceName) throws Exception {
+        MarshallingBuffer output = new MarshallingBuffer(this.requestSize);
+        Marshaller marshaller = marshallerFactory.createMarshaller(this.marshallingConfig);
+        if (framed) {
+            output.write(FRAMED_REQUEST);
+        }
+        marshaller.start(Marshalling.createByteOutput(output));
+        if (framed) {
+            marshaller.writeUTF(serviceName);
+        }
+        marshaller.writeObject(object);
+        marshaller.close();
+        return output.toBuffer();
+    }
+
+    /**
+     * Indicates whether requests are currently sent framed, i.e. whether all other members of the current view answered
+     * that they understand the framed format.
+     */
+    boolean isFramedRequests() {
+        return this.framedRequests;
+    }
+
+    /**
+     * Asks the other members of the current view whether they understand framed requests. Former versions answer
+     * {@link NoHandlerForRPC}. Requests are sent framed only once every member of the view said so, and go back to
+     * the former format as soon as the view changes.
+     */
+    void negotiateWireFormat() {
+        GroupView view = this.groupView;
+        boolean supported = true;
+        int others = view.allMembers.size() - 1;
+        if (others > 0) {
+            int supporting = 0;
+            try {
+                List<Boolean> responses = this.callMethodOnCluster(WIRE_FORMAT_SERVICE, SUPPORTS_FRAMED_REQUESTS, new Object[0], new Class<?>[0], true, null, this.getMethodCallTimeout(), true);
+                for (Boolean response : responses) {
+                    if (Boolean.TRUE.equals(response)) {
+                        supporting += 1;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                ClusteringImplLogger.ROOT_LOGGER.debugf(e, "Failed to negotiate the wire format of partition %s", this.getGroupName());
+            }
+            supported = supporting >= others;
+        }
+        synchronized (this.wireFormatLock) {
+            // a view change in the meantime reset the format, and will negotiate it again
+            if (this.groupView == view) {
+                this.framedRequests = supported;
+            }
+        }
+        ClusteringImplLogger.ROOT_LOGGER.debugf("Partition %s sends %s requests in view %d", this.getGroupName(), supported ? "framed" : "wrapped", view.viewId);
+    }
+
     /**
      * Creates a response object from a byte buffer - optimized for response marshalling
      */
@@ -904,22 +1001,150 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     }
 
     /**
-     * Serializes a response object into a byte buffer, optimized for response marshalling. The object has to implement
+     * Serializes a response object into a buffer, optimized for response marshalling. The object has to implement
      * interface Serializable or Externalizable
      */
-    byte[] objectToByteBufferResponseInternal(Object obj) throws Exception {
+    Buffer objectToBufferResponseInternal(Object obj) throws Exception {
         if (obj == null) {
-            return new byte[] { NULL_VALUE };
+            return new Buffer(new byte[] { NULL_VALUE });
         }
 
+        MarshallingBuffer output = new MarshallingBuffer(this.responseSize);
         Marshaller marshaller = marshallerFactory.createMarshaller(this.marshallingConfig);
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
         marshaller.start(Marshalling.createByteOutput(output));
         // write a marker to stream to distinguish from null value stream
         marshaller.write(SERIALIZABLE_VALUE);
         marshaller.writeObject(obj);
         marshaller.close();
-        return output.toByteArray();
+        return output.toBuffer();
+    }
+
+    /**
+     * Analyze the MethodCall contained in <code>req</code> to find the registered service object to invoke against, and
+     * then execute it against *that* object and return result.
+     *
+     * {@link RpcHandler} overrides RpcDispatcher.Handle with this so that we can dispatch to many different objects.
+     *
+     * @param req The org.jgroups. representation of the method invocation
+     * @return The serializable return value from the invocation
+     */
+    Object handleRequest(Message req) {
+        Object body = null;
+        Object retval = null;
+        Object handler = null;
+        boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
+        String service = null;
+        byte[] request_bytes = null;
+
+        if (trace) {
+            ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s received msg", this.getGroupName());
+        }
+        if (req == null || req.getRawBuffer() == null) {
+            ClusteringImplLogger.ROOT_LOGGER.nullPartitionMessage(this.getGroupName());
+            return null;
+        }
+
+        // a framed request is read through a single unmarshaller, straight out of the message buffer
+        Unmarshaller unmarshaller = null;
+        try {
+            byte[] buffer = req.getRawBuffer();
+            int offset = req.getOffset();
+            int length = req.getLength();
+            if (length > 0 && buffer[offset] == FRAMED_REQUEST) {
+                unmarshaller = marshallerFactory.createUnmarshaller(this.marshallingConfig);
+                unmarshaller.start(Marshalling.createByteInput(new ByteArrayInputStream(buffer, offset + 1, length - 1)));
+                service = unmarshaller.readUTF();
+            } else {
+                Object wrapper = this.objectFromByteBufferInternal(buffer, offset, length);
+                if (wrapper == null || !(wrapper instanceof Object[])) {
+                    ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessageWrapper(this.getGroupName());
+                    return null;
+                }
+
+                // wrapper should be Object[]{service_name, byte[]}
+                Object[] temp = (Object[]) wrapper;
+                service = (String) temp[0];
+                request_bytes = (byte[]) temp[1];
+            }
+
+            // see if this node has registered to handle this service
+            handler = this.rpcHandlers.get(service);
+            if (handler == null) {
+                if (trace) {
+                    ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s no rpc handler registered under service %s", this.getGroupName(), service);
+                }
+                safeClose(unmarshaller);
+                return new NoHandlerForRPC();
+            }
+        } catch (Exception e) {
+            safeClose(unmarshaller);
+            ClusteringImplLogger.ROOT_LOGGER.partitionFailedDeserializing(e, this.getGroupName(), req);
+            return null;
+        }
+
+        try {
+            if (unmarshaller != null) {
+                body = unmarshaller.readObject();
+            } else {
+                body = this.objectFromByteBufferInternal(request_bytes, 0, request_bytes.length);
+            }
+        } catch (Exception e) {
+            ClusteringImplLogger.ROOT_LOGGER.partitionFailedExtractingMessageBody(e, this.getGroupName());
+            return null;
+        } finally {
+            safeClose(unmarshaller);
+        }
+
+        if (body == null || !(body instanceof MethodCall)) {
+            ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessage(this.getGroupName());
+            return null;
+        }
+
+        // get method call information
+        MethodCall method_call = (MethodCall) body;
+        String methodName = method_call.getName();
+
+        if (trace) {
+            ClusteringImplLogger.ROOT_LOGGER.tracef("full methodName: %s", methodName);
+        }
+
+        int idx = methodName.lastIndexOf('.');
+        String handlerName = methodName.substring(0, idx);
+        String newMethodName = methodName.substring(idx + 1);
+        if (trace) {
+            ClusteringImplLogger.ROOT_LOGGER.tracef("handlerName: %s methodName: %s", handlerName, newMethodName);
+            ClusteringImplLogger.ROOT_LOGGER.tracef("Handle: %s",  methodName);
+        }
+
+        // prepare method call
+        method_call.setName(newMethodName);
+
+        /*
+         * Invoke it and just return any exception with trace level logging of the exception. The exception semantics of a
+         * group rpc call are weak as the return value may be a normal return value or the exception thrown.
+         */
+        try {
+            retval = method_call.invoke(handler);
+            if (trace) {
+                ClusteringImplLogger.ROOT_LOGGER.tracef("rpc call return value: %s", retval);
+            }
+        } catch (Throwable t) {
+            if (trace) {
+                ClusteringImplLogger.ROOT_LOGGER.tracef(t, "Partition %s rpc call threw exception", this.getGroupName());
+            }
+            retval = t;
+        }
+
+        return retval;
+    }
+
+    private static void safeClose(Unmarshaller unmarshaller) {
+        if (unmarshaller != null) {
+            try {
+                unmarshaller.close();
+            } catch (IOException ignored) {
+            }
+        }
     }
 
     private <T> List<T> processResponseList(RspList<T> rspList, String serviceName, String methodName, Object[] args, boolean trace) {
@@ -945,7 +1170,11 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         GroupView newGroupView = new GroupView(newView, oldMembers, this.nodeFactory);
         this.logHistory(MESSAGES.viewCreated(newGroupView.allMembers, newGroupView.viewId, oldMembers));
 
-        this.groupView = newGroupView;
+        synchronized (this.wireFormatLock) {
+            this.groupView = newGroupView;
+            // new members may only understand the former format
+            this.framedRequests = false;
+        }
 
         if (oldMembers.viewId == -1) {
             // Initial viewAccepted
@@ -1121,20 +1350,23 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
         @Override
         public Buffer objectToBuffer(Object obj) throws Exception {
-            // wrap MethodCall in Object[service_name, byte[]] so that service name is available during demarshalling
-            if (obj instanceof MethodCall) {
-                String name = ((MethodCall) obj).getName();
-                int idx = name.lastIndexOf('.');
-                String serviceName = name.substring(0, idx);
-                return new Buffer(CoreGroupCommunicationService.this.objectToByteBufferInternal(new Object[] { serviceName, CoreGroupCommunicationService.this.objectToByteBufferInternal(obj) }));
-            }
-
-            return new Buffer(CoreGroupCommunicationService.this.objectToByteBufferInternal(obj));
+            return CoreGroupCommunicationService.this.objectToBufferRequestInternal(obj, CoreGroupCommunicationService.this.framedRequests);
         }
 
         @Override
         public Object objectFromBuffer(byte[] buf, int offset, int length) throws Exception {
-            return CoreGroupCommunicationService.this.objectFromByteBufferInternal(buf, offset, length);
+            if (buf == null || length == 0 || buf[offset] != FRAMED_REQUEST) {
+                return CoreGroupCommunicationService.this.objectFromByteBufferInternal(buf, offset, length);
+            }
+            Unmarshaller unmarshaller = marshallerFactory.createUnmarshaller(CoreGroupCommunicationService.this.marshallingConfig);
+            unmarshaller.start(Marshalling.createByteInput(new ByteArrayInputStream(buf, offset + 1, length - 1)));
+            try {
+                // skip the service name
+                unmarshaller.readUTF();
+                return unmarshaller.readObject();
+            } finally {
+                unmarshaller.close();
+            }
         }
     }
 
@@ -1145,7 +1377,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
         @Override
         public Buffer objectToBuffer(Object obj) throws Exception {
-            return new Buffer(CoreGroupCommunicationService.this.objectToByteBufferResponseInternal(obj));
+            return CoreGroupCommunicationService.this.objectToBufferResponseInternal(obj);
         }
 
         @Override
@@ -1170,105 +1402,9 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             start();
         }
 
-        /**
-         * Analyze the MethodCall contained in <code>req</code> to find the registered service object to invoke against, and
-         * then execute it against *that* object and return result.
-         *
-         * This overrides RpcDispatcher.Handle so that we can dispatch to many different objects.
-         *
-         * @param req The org.jgroups. representation of the method invocation
-         * @return The serializable return value from the invocation
-         */
         @Override
         public Object handle(Message req) {
-            Object body = null;
-            Object retval = null;
-            Object handler = null;
-            boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
-            String service = null;
-            byte[] request_bytes = null;
-
-            if (trace) {
-                ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s received msg", CoreGroupCommunicationService.this.getGroupName());
-            }
-            if (req == null || req.getRawBuffer() == null) {
-                ClusteringImplLogger.ROOT_LOGGER.nullPartitionMessage(CoreGroupCommunicationService.this.getGroupName());
-                return null;
-            }
-
-            try {
-                Object wrapper = CoreGroupCommunicationService.this.objectFromByteBufferInternal(req.getRawBuffer(), req.getOffset(), req.getLength());
-                if (wrapper == null || !(wrapper instanceof Object[])) {
-                    ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessageWrapper(CoreGroupCommunicationService.this.getGroupName());
-                    return null;
-                }
-
-                // wrapper should be Object[]{service_name, byte[]}
-                Object[] temp = (Object[]) wrapper;
-                service = (String) temp[0];
-                request_bytes = (byte[]) temp[1];
-
-                // see if this node has registered to handle this service
-                handler = CoreGroupCommunicationService.this.rpcHandlers.get(service);
-                if (handler == null) {
-                    if (trace) {
-                        ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s no rpc handler registered under service %s", CoreGroupCommunicationService.this.getGroupName(), service);
-                    }
-                    return new NoHandlerForRPC();
-                }
-            } catch (Exception e) {
-                ClusteringImplLogger.ROOT_LOGGER.partitionFailedDeserializing(e, CoreGroupCommunicationService.this.getGroupName(), req);
-                return null;
-            }
-
-            try {
-                body = CoreGroupCommunicationService.this.objectFromByteBufferInternal(request_bytes, 0, request_bytes.length);
-            } catch (Exception e) {
-                ClusteringImplLogger.ROOT_LOGGER.partitionFailedExtractingMessageBody(e, CoreGroupCommunicationService.this.getGroupName());
-                return null;
-            }
-
-            if (body == null || !(body instanceof MethodCall)) {
-                ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessage(CoreGroupCommunicationService.this.getGroupName());
-                return null;
-            }
-
-            // get method call information
-            MethodCall method_call = (MethodCall) body;
-            String methodName = method_call.getName();
-
-            if (trace) {
-                ClusteringImplLogger.ROOT_LOGGER.tracef("full methodName: %s", methodName);
-            }
-
-            int idx = methodName.lastIndexOf('.');
-            String handlerName = methodName.substring(0, idx);
-            String newMethodName = methodName.substring(idx + 1);
-            if (trace) {
-                ClusteringImplLogger.ROOT_LOGGER.tracef("handlerName: %s methodName: %s", handlerName, newMethodName);
-                ClusteringImplLogger.ROOT_LOGGER.tracef("Handle: %s",  methodName);
-            }
-
-            // prepare method call
-            method_call.setName(newMethodName);
-
-            /*
-             * Invoke it and just return any exception with trace level logging of the exception. The exception semantics of a
-             * group rpc call are weak as the return value may be a normal return value or the exception thrown.
-             */
-            try {
-                retval = method_call.invoke(handler);
-                if (trace) {
-                    ClusteringImplLogger.ROOT_LOGGER.tracef("rpc call return value: %s", retval);
-                }
-            } catch (Throwable t) {
-                if (trace) {
-                    ClusteringImplLogger.ROOT_LOGGER.tracef(t, "Partition %s rpc call threw exception", CoreGroupCommunicationService.this.getGroupName());
-                }
-                retval = t;
-            }
-
-            return retval;
+            return CoreGroupCommunicationService.this.handleRequest(req);
         }
     }
 
@@ -1278,10 +1414,12 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     class ViewChangeEventProcessor implements AsynchEventHandler.AsynchEventProcessor {
         @Override
         public void processEvent(Object event) {
-            GroupView vce = (GroupView) event;
-            CoreGroupCommunicationService.this.notifyListeners(CoreGroupCommunicationService.this.asyncMembershipListeners,
-                    vce.viewId, vce.allMembers, vce.deadMembers, vce.newMembers, vce.originatingGroups);
-
+            if (event instanceof GroupView) {
+                GroupView vce = (GroupView) event;
+                CoreGroupCommunicationService.this.notifyListeners(CoreGroupCommunicationService.this.asyncMembershipListeners,
+                        vce.viewId, vce.allMembers, vce.deadMembers, vce.newMembers, vce.originatingGroups);
+            }
+            CoreGroupCommunicationService.this.negotiateWireFormat();
         }
     }
 
@@ -1367,6 +1505,15 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         static final long serialVersionUID = -1263095408483622838L;
     }
 
+    /**
+     * Registered under {@link #WIRE_FORMAT_SERVICE}, to tell other members that this one understands framed requests.
+     */
+    public static class WireFormat {
+        public Boolean supportsFramedRequests() {
+            return Boolean.TRUE;
+        }
+    }
+
     /**
      * Handles MembershipListener callbacks from JGroups Channel
      */
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.impl;
+
+import java.io.ByteArrayOutputStream;
+
+import org.jgroups.util.Buffer;
+
+/**
+ * Output stream that an RPC payload is marshalled into, and whose array is then handed to JGroups as is.
+ * <p/>
+ * A message keeps referring to its array for as long as it may need to be retransmitted, and JGroups does not tell when
+ * that is over, so the arrays cannot be pooled. Instead, every buffer starts out with the size of the recent payloads of
+ * its {@link SizeEstimate}, so that it rarely has to grow, and {@link #toBuffer()} does not copy.
+ */
+final class MarshallingBuffer extends ByteArrayOutputStream {
+
+    private final SizeEstimate estimate;
+
+    MarshallingBuffer(SizeEstimate estimate) {
+        super(estimate.getSize());
+        this.estimate = estimate;
+    }
+
+    /**
+     * Returns a buffer over the marshalled payload, without copying it.
+     */
+    Buffer toBuffer() {
+        this.estimate.update(this.count);
+        return new Buffer(this.buf, 0, this.count);
+    }
+
+    /**
+     * Tracks the size of the payloads marshalled by one kind of marshaller. It follows a larger payload at once, and a
+     * smaller one slowly, so that the odd small payload does not make the next large one grow its buffer.
+     */
+    static final class SizeEstimate {
+        static final int MIN_SIZE = 64;
+
+        // updates may race, which at worst loses one sample
+        private volatile int size;
+
+        SizeEstimate(int size) {
+            this.size = Math.max(size, MIN_SIZE);
+        }
+
+        int getSize() {
+            return this.size;
+        }
+
+        void update(int size) {
+            int current = this.size;
+            this.size = Math.max((size >= current) ? size : current - ((current - size) >> 3), MIN_SIZE);
+        }
+    }
+}
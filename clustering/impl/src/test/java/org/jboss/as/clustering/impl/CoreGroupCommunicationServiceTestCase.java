@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.impl;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import org.jboss.as.clustering.impl.CoreGroupCommunicationService.NoHandlerForRPC;
+import org.jgroups.Message;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.util.Buffer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoreGroupCommunicationServiceTestCase {
+    private static final String SERVICE = "test";
+
+    static volatile CoreGroupCommunicationService current;
+
+    private CoreGroupCommunicationService service;
+
+    @Before
+    public void init() {
+        this.service = new CoreGroupCommunicationService((short) 0, null, null);
+        this.service.marshallingConfig.setClassTable(CoreGroupClassTable.INSTANCE);
+        this.service.registerRPCHandler(SERVICE, new Echo());
+        this.service.rpcHandlers.put(CoreGroupCommunicationService.WIRE_FORMAT_SERVICE, new CoreGroupCommunicationService.WireFormat());
+        current = this.service;
+    }
+
+    @After
+    public void destroy() {
+        current = null;
+    }
+
+    @Test
+    public void framedRequest() throws Exception {
+        Buffer buffer = this.service.objectToBufferRequestInternal(call(SERVICE, "echo", "hello"), true);
+        Assert.assertEquals(CoreGroupCommunicationService.FRAMED_REQUEST, buffer.getBuf()[buffer.getOffset()]);
+        Assert.assertEquals("hello", this.service.handleRequest(message(buffer)));
+    }
+
+    @Test
+    public void legacyRequest() throws Exception {
+        Buffer buffer = this.service.objectToBufferRequestInternal(call(SERVICE, "echo", "hello"), false);
+        Assert.assertFalse(CoreGroupCommunicationService.FRAMED_REQUEST == buffer.getBuf()[buffer.getOffset()]);
+
+        // the format that former versions send and expect
+        Object[] wrapper = (Object[]) this.service.objectFromByteBufferInternal(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+        Assert.assertEquals(SERVICE, wrapper[0]);
+        byte[] bytes = (byte[]) wrapper[1];
+        MethodCall call = (MethodCall) this.service.objectFromByteBufferInternal(bytes, 0, bytes.length);
+        Assert.assertEquals(SERVICE + ".echo", call.getName());
+
+        Assert.assertEquals("hello", this.service.handleRequest(message(buffer)));
+    }
+
+    @Test
+    public void unknownService() throws Exception {
+        MethodCall call = call("unknown", "echo", "hello");
+        Assert.assertTrue(this.service.handleRequest(message(this.service.objectToBufferRequestInternal(call, true))) instanceof NoHandlerForRPC);
+        call = call("unknown", "echo", "hello");
+        Assert.assertTrue(this.service.handleRequest(message(this.service.objectToBufferRequestInternal(call, false))) instanceof NoHandlerForRPC);
+    }
+
+    @Test
+    public void requestMarshaller() throws Exception {
+        CoreGroupCommunicationService.RequestMarshallerImpl marshaller = this.service.new RequestMarshallerImpl();
+
+        // until negotiated, requests go out in the format that former versions understand
+        Assert.assertFalse(this.service.isFramedRequests());
+        Buffer buffer = marshaller.objectToBuffer(call(SERVICE, "echo", "hello"));
+        Assert.assertTrue(this.service.objectFromByteBufferInternal(buffer.getBuf(), buffer.getOffset(), buffer.getLength()) instanceof Object[]);
+
+        // alone in the view, there is nobody to disagree
+        this.service.negotiateWireFormat();
+        Assert.assertTrue(this.service.isFramedRequests());
+        buffer = marshaller.objectToBuffer(call(SERVICE, "echo", "hello"));
+        Assert.assertEquals(CoreGroupCommunicationService.FRAMED_REQUEST, buffer.getBuf()[buffer.getOffset()]);
+
+        // both formats are read back
+        MethodCall call = (MethodCall) marshaller.objectFromBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+        Assert.assertEquals(SERVICE + ".echo", call.getName());
+        Assert.assertArrayEquals(new Object[] { "hello" }, call.getArgs());
+    }
+
+    @Test
+    public void wireFormat() throws Exception {
+        // a new member asks in the format that every version understands
+        MethodCall call = call(CoreGroupCommunicationService.WIRE_FORMAT_SERVICE, CoreGroupCommunicationService.SUPPORTS_FRAMED_REQUESTS);
+        Assert.assertEquals(Boolean.TRUE, this.service.handleRequest(message(this.service.objectToBufferRequestInternal(call, false))));
+    }
+
+    @Test
+    public void response() throws Exception {
+        CoreGroupCommunicationService.ResponseMarshallerImpl marshaller = this.service.new ResponseMarshallerImpl();
+        Buffer buffer = marshaller.objectToBuffer("hello");
+        Assert.assertEquals("hello", marshaller.objectFromBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength()));
+        buffer = marshaller.objectToBuffer(null);
+        Assert.assertNull(marshaller.objectFromBuffer(buffer.getBuf(), buffer.getOffset(), buffer.getLength()));
+    }
+
+    @Test
+    public void reentrantMarshalling() throws Exception {
+        Nested nested = new Nested("outer", "inner");
+        Buffer outer = this.service.objectToBufferRequestInternal(call(SERVICE, "echo", nested), true);
+        Buffer inner = nested.buffer;
+        Assert.assertNotNull(inner);
+        Assert.assertNotSame(outer.getBuf(), inner.getBuf());
+
+        Assert.assertEquals("inner", this.service.handleRequest(message(inner)));
+        Nested result = (Nested) this.service.handleRequest(message(outer));
+        Assert.assertEquals("outer", result.value);
+    }
+
+    @Test
+    public void noCopy() throws Exception {
+        MarshallingBuffer.SizeEstimate estimate = new MarshallingBuffer.SizeEstimate(128);
+        MarshallingBuffer output = new MarshallingBuffer(estimate);
+        output.write(new byte[100]);
+        Buffer buffer = output.toBuffer();
+        Assert.assertEquals(128, buffer.getBuf().length);
+        Assert.assertEquals(0, buffer.getOffset());
+        Assert.assertEquals(100, buffer.getLength());
+    }
+
+    @Test
+    public void sizeEstimate() {
+        MarshallingBuffer.SizeEstimate estimate = new MarshallingBuffer.SizeEstimate(0);
+        Assert.assertEquals(MarshallingBuffer.SizeEstimate.MIN_SIZE, estimate.getSize());
+
+        // grows at once
+        estimate.update(1000);
+        Assert.assertEquals(1000, estimate.getSize());
+
+        // shrinks slowly
+        estimate.update(200);
+        Assert.assertEquals(900, estimate.getSize());
+        for (int i = 0; i < 100; ++i) {
+            estimate.update(200);
+        }
+        Assert.assertTrue(estimate.getSize() < 300);
+        Assert.assertTrue(estimate.getSize() >= 200);
+
+        for (int i = 0; i < 100; ++i) {
+            estimate.update(0);
+        }
+        Assert.assertEquals(MarshallingBuffer.SizeEstimate.MIN_SIZE, estimate.getSize());
+    }
+
+    static MethodCall call(String service, String method, Object... args) {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; ++i) {
+            types[i] = Object.class;
+        }
+        return new MethodCall(service + "." + method, args, types);
+    }
+
+    private static Message message(Buffer buffer) {
+        return new Message(null, null, buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+    }
+
+    public static class Echo {
+        public Object echo(Object value) {
+            return value;
+        }
+    }
+
+    /**
+     * Marshals another request while it is being marshalled itself.
+     */
+    static class Nested implements Serializable {
+        private static final long serialVersionUID = -2907423917298624035L;
+
+        final String value;
+        private final transient String nestedValue;
+        transient volatile Buffer buffer;
+
+        Nested(String value, String nestedValue) {
+            this.value = value;
+            this.nestedValue = nestedValue;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            if (this.nestedValue != null) {
+                try {
+                    this.buffer = current.objectToBufferRequestInternal(call(SERVICE, "echo", this.nestedValue), true);
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+            out.defaultWriteObject();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.Message;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.util.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the wrapped and the framed request format, for marshalling a request and for dispatching it on the receiving
+ * side. Not run by the build; after <code>mvn test-compile</code> run it with:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jboss.as.clustering.impl.RpcMarshallingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RpcMarshallingBenchmark {
+    private static final String SERVICE = "benchmark";
+
+    @Param({ "16", "1024", "65536" })
+    public int payloadSize;
+
+    private CoreGroupCommunicationService service;
+    private MethodCall call;
+    private Buffer wrapped;
+    private Buffer framed;
+
+    @Setup
+    public void setup() throws Exception {
+        this.service = new CoreGroupCommunicationService((short) 0, null, null);
+        this.service.marshallingConfig.setClassTable(CoreGroupClassTable.INSTANCE);
+        this.service.registerRPCHandler(SERVICE, new CoreGroupCommunicationServiceTestCase.Echo());
+        this.call = CoreGroupCommunicationServiceTestCase.call(SERVICE, "echo", new byte[this.payloadSize]);
+        this.wrapped = this.service.objectToBufferRequestInternal(this.call, false);
+        this.framed = this.service.objectToBufferRequestInternal(this.call, true);
+    }
+
+    @Benchmark
+    public Buffer marshalWrapped() throws Exception {
+        return this.service.objectToBufferRequestInternal(this.call, false);
+    }
+
+    @Benchmark
+    public Buffer marshalFramed() throws Exception {
+        return this.service.objectToBufferRequestInternal(this.call, true);
+    }
+
+    @Benchmark
+    public Object dispatchWrapped() {
+        return this.service.handleRequest(new Message(null, null, this.wrapped.getBuf(), this.wrapped.getOffset(), this.wrapped.getLength()));
+    }
+
+    @Benchmark
+    public Object dispatchFramed() {
+        return this.service.handleRequest(new Message(null, null, this.framed.getBuf(), this.framed.getOffset(), this.framed.getLength()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RpcMarshallingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
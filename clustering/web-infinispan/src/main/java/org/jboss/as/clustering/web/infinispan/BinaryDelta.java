@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Computes and applies binary deltas between two versions of a byte array.
+ * <p/>
+ * The base is indexed in blocks of {@value #BLOCK_SIZE} bytes. The target is then scanned with a rolling hash; every
+ * region found in the base is encoded as a copy instruction and everything else is included literally. A delta is a
+ * sequence of variable length encoded integers: the length of the target, followed by instructions which are either a
+ * copy (<code>offset &lt;&lt; 1</code>, length) or a literal (<code>length &lt;&lt; 1 | 1</code>, bytes).
+ */
+final class BinaryDelta {
+    static final int BLOCK_SIZE = 16;
+
+    private static final int PRIME = 31;
+    // PRIME^(BLOCK_SIZE - 1), to remove the leading byte from the rolling hash
+    private static final int LEADING_FACTOR;
+    static {
+        int factor = 1;
+        for (int i = 1; i < BLOCK_SIZE; ++i) {
+            factor *= PRIME;
+        }
+        LEADING_FACTOR = factor;
+    }
+
+    private BinaryDelta() {
+    }
+
+    /**
+     * Computes the delta which turns the base into the target.
+     * @param base the previous version
+     * @param target the current version
+     * @return a delta to be applied to the base using {@link #patch(byte[], byte[])}
+     */
+    static byte[] diff(byte[] base, byte[] target) {
+        ByteArrayOutputStream delta = new ByteArrayOutputStream(Math.min(target.length, 1024) + 8);
+        writeInt(delta, target.length);
+
+        int blocks = base.length / BLOCK_SIZE;
+        int mask = tableSize(blocks) - 1;
+        // offset + 1 of the first base block with a given hash; 0 means none
+        int[] table = new int[mask + 1];
+        for (int block = 0; block < blocks; ++block) {
+            int offset = block * BLOCK_SIZE;
+            int index = spread(hash(base, offset)) & mask;
+            while ((table[index] != 0) && !equal(base, table[index] - 1, base, offset, BLOCK_SIZE)) {
+                index = (index + 1) & mask;
+            }
+            if (table[index] == 0) {
+                table[index] = offset + 1;
+            }
+        }
+
+        int literal = 0;
+        int position = 0;
+        int hash = (blocks > 0 && target.length >= BLOCK_SIZE) ? hash(target, 0) : 0;
+        while (blocks > 0 && position + BLOCK_SIZE <= target.length) {
+            int match = find(table, mask, hash, base, target, position);
+            if (match >= 0) {
+                int start = position;
+                int baseStart = match;
+                // grow the match backwards into the pending literal
+                while ((start > literal) && (baseStart > 0) && (target[start - 1] == base[baseStart - 1])) {
+                    --start;
+                    --baseStart;
+                }
+                int end = position + BLOCK_SIZE;
+                int baseEnd = match + BLOCK_SIZE;
+                while ((end < target.length) && (baseEnd < base.length) && (target[end] == base[baseEnd])) {
+                    ++end;
+                    ++baseEnd;
+                }
+                writeLiteral(delta, target, literal, start);
+                writeInt(delta, baseStart << 1);
+                writeInt(delta, end - start);
+                literal = end;
+                position = end;
+                if (position + BLOCK_SIZE <= target.length) {
+                    hash = hash(target, position);
+                }
+            } else {
+                if (position + BLOCK_SIZE < target.length) {
+                    hash = (hash - target[position] * LEADING_FACTOR) * PRIME + target[position + BLOCK_SIZE];
+                }
+                ++position;
+            }
+        }
+        writeLiteral(delta, target, literal, target.length);
+        return delta.toByteArray();
+    }
+
+    /**
+     * Applies a delta computed by {@link #diff(byte[], byte[])}.
+     * @param base the version the delta was computed against
+     * @param delta the delta
+     * @return the target version
+     */
+    static byte[] patch(byte[] base, byte[] delta) {
+        int[] position = new int[1];
+        byte[] target = new byte[readInt(delta, position)];
+        int length = 0;
+        while (position[0] < delta.length) {
+            int instruction = readInt(delta, position);
+            if ((instruction & 1) != 0) {
+                int count = instruction >>> 1;
+                System.arraycopy(delta, position[0], target, length, count);
+                position[0] += count;
+                length += count;
+            } else {
+                int count = readInt(delta, position);
+                System.arraycopy(base, instruction >>> 1, target, length, count);
+                length += count;
+            }
+        }
+        if (length != target.length) {
+            throw new IllegalArgumentException();
+        }
+        return target;
+    }
+
+    private static int find(int[] table, int mask, int hash, byte[] base, byte[] target, int position) {
+        int index = spread(hash) & mask;
+        while (table[index] != 0) {
+            int offset = table[index] - 1;
+            if (equal(base, offset, target, position, BLOCK_SIZE)) {
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static void writeLiteral(ByteArrayOutputStream delta, byte[] target, int start, int end) {
+        if (end > start) {
+            writeInt(delta, ((end - start) << 1) | 1);
+            delta.write(target, start, end - start);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readInt(byte[] input, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = input[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int hash(byte[] bytes, int offset) {
+        int hash = 0;
+        for (int i = offset; i < offset + BLOCK_SIZE; ++i) {
+            hash = hash * PRIME + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        return hash ^ (hash >>> 7) ^ (hash >>> 4);
+    }
+
+    private static int tableSize(int blocks) {
+        int size = 16;
+        while (size < blocks * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static boolean equal(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        for (int i = 0; i < length; ++i) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -30,6 +30,7 @@ import org.jboss.metadata.web.jboss.ReplicationGranularity;
 
 /**
  * Handles session attribute load/store operations for {@link ReplicationGranularity#SESSION} distributed session managers.
+ * Sessions stored by a {@link DeltaSessionAttributeStorage} on another node are read as well.
  *
  * @author Paul Ferraro
  */
@@ -50,6 +51,10 @@ public class CoarseSessionAttributeStorage implements SessionAttributeStorage<Ou
         Map<String, Object> attributes = sessionData.getSessionAttributes();
         if (attributes != null) {
             SessionMapEntry.ATTRIBUTES.put(map, this.marshaller.marshal(attributes));
+            // left behind by a node replicating deltas
+            if (SessionMapEntry.ATTRIBUTES_DELTA.get(map) != null) {
+                SessionMapEntry.ATTRIBUTES_DELTA.remove(map);
+            }
         }
     }
 
@@ -61,6 +66,6 @@ public class CoarseSessionAttributeStorage implements SessionAttributeStorage<Ou
     @SuppressWarnings("unchecked")
     @Override
     public Map<String, Object> load(Map<Object, Object> map) throws IOException, ClassNotFoundException {
-        return (Map<String, Object>) this.marshaller.unmarshal(SessionMapEntry.ATTRIBUTES.get(map));
+        return (Map<String, Object>) this.marshaller.unmarshal(DeltaSessionAttributeStorage.getMarshalledAttributes(map));
     }
 }
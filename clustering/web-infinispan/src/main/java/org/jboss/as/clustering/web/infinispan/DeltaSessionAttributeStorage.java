@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.LocalDistributableSessionManager;
+import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
+import org.jboss.as.clustering.web.SessionAttributeMarshaller;
+import org.jboss.metadata.web.jboss.ReplicationGranularity;
+
+/**
+ * Handles session attribute load/store operations for {@link ReplicationGranularity#SESSION} distributed session managers,
+ * replicating only the binary difference between the marshalled attributes and the last full snapshot of them.
+ * <p/>
+ * The snapshot is kept in the {@link SessionMapEntry#ATTRIBUTES} entry and the delta in the
+ * {@link SessionMapEntry#ATTRIBUTES_DELTA} entry, so that an update of the session only replicates the latter. Since every
+ * delta is relative to the snapshot, a new snapshot is taken instead once the delta has grown to half the size of the
+ * marshalled attributes.
+ */
+public class DeltaSessionAttributeStorage implements SessionAttributeStorage<OutgoingSessionGranularitySessionData> {
+    private final SessionAttributeMarshaller marshaller;
+    private final LocalDistributableSessionManager manager;
+
+    public DeltaSessionAttributeStorage(SessionAttributeMarshaller marshaller, LocalDistributableSessionManager manager) {
+        this.marshaller = marshaller;
+        this.manager = manager;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#store(java.util.Map, org.jboss.as.clustering.web.OutgoingDistributableSessionData)
+     */
+    @Override
+    public void store(Map<Object, Object> map, OutgoingSessionGranularitySessionData sessionData) throws IOException {
+        Map<String, Object> attributes = sessionData.getSessionAttributes();
+        if (attributes == null) return;
+
+        Object marshalled = this.marshaller.marshal(attributes);
+        if (!(marshalled instanceof SimpleMarshalledValue)) {
+            SessionMapEntry.ATTRIBUTES.put(map, marshalled);
+            SessionMapEntry.ATTRIBUTES_DELTA.remove(map);
+            return;
+        }
+        byte[] bytes = ((SimpleMarshalledValue<?>) marshalled).getBytes();
+
+        Object snapshot = SessionMapEntry.ATTRIBUTES.get(map);
+        if (snapshot instanceof byte[]) {
+            byte[] delta = BinaryDelta.diff((byte[]) snapshot, bytes);
+            if (delta.length * 2 < bytes.length) {
+                byte[] previous = SessionMapEntry.ATTRIBUTES_DELTA.get(map);
+                if (Arrays.equals(delta, previous)) {
+                    // nothing changed since the last replication
+                    this.manager.sessionAttributesReplicated(sessionData.getRealId(), 0, true);
+                } else {
+                    SessionMapEntry.ATTRIBUTES_DELTA.put(map, delta);
+                    this.manager.sessionAttributesReplicated(sessionData.getRealId(), delta.length, true);
+                }
+                return;
+            }
+        }
+
+        SessionMapEntry.ATTRIBUTES.put(map, bytes);
+        SessionMapEntry.ATTRIBUTES_DELTA.remove(map);
+        this.manager.sessionAttributesReplicated(sessionData.getRealId(), bytes.length, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#load(java.util.Map)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, Object> load(Map<Object, Object> map) throws IOException, ClassNotFoundException {
+        return (Map<String, Object>) this.marshaller.unmarshal(getMarshalledAttributes(map));
+    }
+
+    /**
+     * Reads the marshalled attributes of a session stored by either this or {@link CoarseSessionAttributeStorage}, so that
+     * nodes which disagree on whether delta replication is enabled can still read each other's sessions. The format is told
+     * apart by the snapshot entry: this storage keeps the serialized form as a byte array, the other one the marshalled value.
+     *
+     * @param map an atomic map
+     * @return the marshalled attributes
+     */
+    static Object getMarshalledAttributes(Map<Object, Object> map) {
+        Object value = SessionMapEntry.ATTRIBUTES.get(map);
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            byte[] delta = SessionMapEntry.ATTRIBUTES_DELTA.get(map);
+            if (delta != null) {
+                bytes = BinaryDelta.patch(bytes, delta);
+            }
+            return new SimpleMarshalledValue<Object>(bytes);
+        }
+        return value;
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.jboss.as.clustering.web.infinispan;
 
+import org.jboss.as.clustering.web.LocalDistributableSessionManager;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -37,7 +38,8 @@ public interface SessionAttributeStorageFactory {
      * @param <T> the type of session data appropriate for the specified granularity
      * @param granularity the replication granularity
      * @param marshaller a session attribute marshaller
+     * @param manager the session manager using the strategy
      * @return a strategy for storing session attributes.
      */
-    <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, SessionAttributeMarshaller marshaller);
+    <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, SessionAttributeMarshaller marshaller, LocalDistributableSessionManager manager);
 }
@@ -21,6 +21,7 @@
  */
 package org.jboss.as.clustering.web.infinispan;
 
+import org.jboss.as.clustering.web.LocalDistributableSessionManager;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -38,13 +39,16 @@ public class SessionAttributeStorageFactoryImpl implements SessionAttributeStora
     /**
      * {@inheritDoc}
      *
-     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorageFactory#createStorage(org.jboss.metadata.web.jboss.ReplicationGranularity, org.jboss.as.clustering.web.SessionAttributeMarshaller)
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorageFactory#createStorage(org.jboss.metadata.web.jboss.ReplicationGranularity, org.jboss.as.clustering.web.SessionAttributeMarshaller, org.jboss.as.clustering.web.LocalDistributableSessionManager)
      */
     @SuppressWarnings("unchecked")
     @Override
-    public <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, SessionAttributeMarshaller marshaller) {
+    public <T extends OutgoingDistributableSessionData> SessionAttributeStorage<T> createStorage(ReplicationGranularity granularity, SessionAttributeMarshaller marshaller, LocalDistributableSessionManager manager) {
         switch ((granularity != null) ? granularity : ReplicationGranularity.SESSION) {
             case SESSION: {
+                if (manager.isDeltaReplicationEnabled()) {
+                    return (SessionAttributeStorage<T>) new DeltaSessionAttributeStorage(marshaller, manager);
+                }
                 return (SessionAttributeStorage<T>) new CoarseSessionAttributeStorage(marshaller);
             }
             case ATTRIBUTE: {
@@ -52,7 +56,7 @@ public class SessionAttributeStorageFactoryImpl implements SessionAttributeStora
             }
             case FIELD: {
                 ROOT_LOGGER.deprecatedGranularity(ReplicationGranularity.FIELD.name(), ReplicationGranularity.SESSION.name());
-                return this.createStorage(ReplicationGranularity.SESSION, marshaller);
+                return this.createStorage(ReplicationGranularity.SESSION, marshaller, manager);
             }
             default: {
                 throw MESSAGES.unknownReplicationGranularity(granularity);
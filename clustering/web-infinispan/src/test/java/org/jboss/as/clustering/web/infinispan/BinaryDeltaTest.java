@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryDeltaTest {
+    private final Random random = new Random(1);
+
+    @Test
+    public void identical() {
+        byte[] base = this.randomBytes(10000);
+        byte[] delta = BinaryDelta.diff(base, base);
+        Assert.assertTrue(delta.length < 16);
+        Assert.assertArrayEquals(base, BinaryDelta.patch(base, delta));
+    }
+
+    @Test
+    public void smallInputs() {
+        this.roundTrip(new byte[0], new byte[0]);
+        this.roundTrip(new byte[0], this.randomBytes(100));
+        this.roundTrip(this.randomBytes(100), new byte[0]);
+        this.roundTrip(this.randomBytes(5), this.randomBytes(7));
+    }
+
+    @Test
+    public void scatteredEdits() {
+        for (int i = 0; i < 100; ++i) {
+            byte[] base = this.randomBytes(1 + this.random.nextInt(20000));
+            byte[] target = this.edit(base, 1 + this.random.nextInt(10));
+            byte[] delta = this.roundTrip(base, target);
+            Assert.assertTrue(delta.length + " >= " + target.length, (target.length < 1000) || (delta.length * 4 < target.length));
+        }
+    }
+
+    @Test
+    public void unrelated() {
+        byte[] base = this.randomBytes(5000);
+        byte[] target = this.randomBytes(5000);
+        byte[] delta = this.roundTrip(base, target);
+        Assert.assertTrue(delta.length <= target.length + 8);
+    }
+
+    private byte[] roundTrip(byte[] base, byte[] target) {
+        byte[] delta = BinaryDelta.diff(base, target);
+        Assert.assertArrayEquals(target, BinaryDelta.patch(base, delta));
+        return delta;
+    }
+
+    private byte[] edit(byte[] base, int edits) {
+        byte[] result = base;
+        for (int i = 0; i < edits; ++i) {
+            int position = this.random.nextInt(result.length + 1);
+            int removed = Math.min(this.random.nextInt(20), result.length - position);
+            byte[] inserted = this.randomBytes(this.random.nextInt(20));
+            byte[] edited = new byte[result.length - removed + inserted.length];
+            System.arraycopy(result, 0, edited, 0, position);
+            System.arraycopy(inserted, 0, edited, position, inserted.length);
+            System.arraycopy(result, position + removed, edited, position + inserted.length, result.length - position - removed);
+            result = edited;
+        }
+        return Arrays.copyOf(result, result.length);
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        this.random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.LocalDistributableSessionManager;
+import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
+import org.jboss.as.clustering.web.SessionAttributeMarshaller;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeltaSessionAttributeStorageTest {
+    private LocalDistributableSessionManager manager = mock(LocalDistributableSessionManager.class);
+    private SessionAttributeStorage<OutgoingSessionGranularitySessionData> storage = new DeltaSessionAttributeStorage(new SerializingMarshaller(), this.manager);
+
+    @Test
+    public void storeFullThenDelta() throws Exception {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        List<String> cart = new ArrayList<String>();
+        for (int i = 0; i < 200; ++i) {
+            cart.add("item-" + i);
+        }
+        attributes.put("cart", cart);
+
+        this.storage.store(map, data(attributes));
+
+        byte[] snapshot = SessionMapEntry.ATTRIBUTES.get(map);
+        Assert.assertNotNull(snapshot);
+        Assert.assertNull(SessionMapEntry.ATTRIBUTES_DELTA.get(map));
+        verify(this.manager).sessionAttributesReplicated("id", snapshot.length, false);
+        Assert.assertEquals(attributes, this.storage.load(map));
+
+        cart.add("item-200");
+        cart.set(100, "changed");
+        this.storage.store(map, data(attributes));
+
+        byte[] delta = SessionMapEntry.ATTRIBUTES_DELTA.get(map);
+        Assert.assertNotNull(delta);
+        Assert.assertSame(snapshot, SessionMapEntry.ATTRIBUTES.get(map));
+        Assert.assertTrue(delta.length * 10 < snapshot.length);
+        verify(this.manager).sessionAttributesReplicated("id", delta.length, true);
+        Assert.assertEquals(attributes, this.storage.load(map));
+
+        // nothing changed
+        this.storage.store(map, data(attributes));
+        Assert.assertSame(delta, SessionMapEntry.ATTRIBUTES_DELTA.get(map));
+        verify(this.manager).sessionAttributesReplicated("id", 0, true);
+    }
+
+    @Test
+    public void storeFullWhenDeltaTooLarge() throws Exception {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put("a", "first");
+
+        this.storage.store(map, data(attributes));
+        byte[] snapshot = SessionMapEntry.ATTRIBUTES.get(map);
+
+        attributes.put("a", "something completely different");
+        attributes.put("b", Integer.valueOf(42));
+        this.storage.store(map, data(attributes));
+
+        Assert.assertNotSame(snapshot, SessionMapEntry.ATTRIBUTES.get(map));
+        Assert.assertNull(SessionMapEntry.ATTRIBUTES_DELTA.get(map));
+        Assert.assertEquals(attributes, this.storage.load(map));
+    }
+
+    @Test
+    public void mixedNodes() throws Exception {
+        SessionAttributeStorage<OutgoingSessionGranularitySessionData> coarse = new CoarseSessionAttributeStorage(new SerializingMarshaller());
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        List<String> cart = new ArrayList<String>();
+        for (int i = 0; i < 200; ++i) {
+            cart.add("item-" + i);
+        }
+        attributes.put("cart", cart);
+
+        // stored without delta replication
+        coarse.store(map, data(attributes));
+        Assert.assertTrue(SessionMapEntry.ATTRIBUTES.get(map) instanceof SimpleMarshalledValue);
+        Assert.assertEquals(attributes, this.storage.load(map));
+
+        // which this storage replaces with a snapshot of its own, and then a delta
+        this.storage.store(map, data(attributes));
+        Assert.assertTrue(SessionMapEntry.ATTRIBUTES.get(map) instanceof byte[]);
+        cart.set(100, "changed");
+        this.storage.store(map, data(attributes));
+        Assert.assertNotNull(SessionMapEntry.ATTRIBUTES_DELTA.get(map));
+        Assert.assertEquals(attributes, coarse.load(map));
+
+        // the delta does not outlive the next store without delta replication
+        cart.set(101, "changed");
+        coarse.store(map, data(attributes));
+        Assert.assertNull(SessionMapEntry.ATTRIBUTES_DELTA.get(map));
+        Assert.assertEquals(attributes, coarse.load(map));
+        Assert.assertEquals(attributes, this.storage.load(map));
+    }
+
+    @Test
+    public void storeNull() throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> map = mock(Map.class);
+
+        this.storage.store(map, data(null));
+
+        verifyZeroInteractions(map, this.manager);
+    }
+
+    private static OutgoingSessionGranularitySessionData data(Map<String, Object> attributes) {
+        OutgoingSessionGranularitySessionData data = mock(OutgoingSessionGranularitySessionData.class);
+        when(data.getRealId()).thenReturn("id");
+        when(data.getSessionAttributes()).thenReturn(attributes);
+        return data;
+    }
+
+    static class SerializingMarshaller implements SessionAttributeMarshaller {
+        @Override
+        public Object marshal(Object object) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream output = new ObjectOutputStream(bytes);
+            output.writeObject(object);
+            output.close();
+            return new SimpleMarshalledValue<Object>(bytes.toByteArray());
+        }
+
+        @Override
+        public Object unmarshal(Object object) throws IOException, ClassNotFoundException {
+            byte[] bytes = ((SimpleMarshalledValue<?>) object).getBytes();
+            return new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+        }
+    }
+}
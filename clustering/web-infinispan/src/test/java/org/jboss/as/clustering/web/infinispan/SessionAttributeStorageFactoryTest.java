@@ -24,6 +24,7 @@ package org.jboss.as.clustering.web.infinispan;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import org.jboss.as.clustering.web.LocalDistributableSessionManager;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.junit.Test;
@@ -38,6 +39,12 @@ public class SessionAttributeStorageFactoryTest {
         this.test(ReplicationGranularity.SESSION, CoarseSessionAttributeStorage.class);
     }
 
+    @Test
+    public void testSessionDelta() {
+        this.test(true, ReplicationGranularity.SESSION, DeltaSessionAttributeStorage.class);
+        this.test(true, ReplicationGranularity.ATTRIBUTE, FineSessionAttributeStorage.class);
+    }
+
     @Test
     public void testAttribute() {
         this.test(ReplicationGranularity.ATTRIBUTE, FineSessionAttributeStorage.class);
@@ -49,12 +56,18 @@ public class SessionAttributeStorageFactoryTest {
     }
 
     private void test(ReplicationGranularity granularity, Class<? extends SessionAttributeStorage<?>> expectedClass) {
+        this.test(false, granularity, expectedClass);
+    }
+
+    private void test(boolean deltaReplication, ReplicationGranularity granularity, Class<? extends SessionAttributeStorage<?>> expectedClass) {
         SessionAttributeMarshaller marshaller = mock(SessionAttributeMarshaller.class);
+        LocalDistributableSessionManager manager = mock(LocalDistributableSessionManager.class);
+        when(manager.isDeltaReplicationEnabled()).thenReturn(deltaReplication);
 
         SessionAttributeStorageFactory factory = new SessionAttributeStorageFactoryImpl();
 
         try {
-            SessionAttributeStorage<?> storage = factory.createStorage(granularity, marshaller);
+            SessionAttributeStorage<?> storage = factory.createStorage(granularity, marshaller, manager);
 
             assertNotNull(expectedClass);
             assertTrue(storage.getClass().getName(), expectedClass.isInstance(storage));
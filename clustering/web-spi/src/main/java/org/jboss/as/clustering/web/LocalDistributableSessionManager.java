@@ -41,6 +41,13 @@ public interface LocalDistributableSessionManager extends SessionIdFactory {
      */
     ClassResolver getApplicationClassResolver();
 
+    /**
+     * Gets whether only the difference to the previously replicated attributes is replicated for sessions of
+     * {@link org.jboss.metadata.web.jboss.ReplicationGranularity#SESSION} granularity.
+     * @return <code>true</code> if delta replication is enabled
+     */
+    boolean isDeltaReplicationEnabled();
+
     /**
      * Gets the web application metadata.
      * @return the metadata. will not return <code>null</code>
@@ -65,6 +72,14 @@ public interface LocalDistributableSessionManager extends SessionIdFactory {
      */
     void sessionActivated();
 
+    /**
+     * Notification that the attributes of a session have been written to the distributed cache.
+     * @param realId the session id excluding any jvmRoute
+     * @param bytes the number of attribute bytes written
+     * @param delta <code>true</code> if only the difference to the previously replicated attributes was written
+     */
+    void sessionAttributesReplicated(String realId, int bytes, boolean delta);
+
     /**
      * Callback from the distributed cache to notify us that a session has been modified remotely.
      * @param realId the session id, without any trailing jvmRoute
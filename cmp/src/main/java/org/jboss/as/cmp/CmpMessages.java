@@ -1232,8 +1232,11 @@ public interface CmpMessages {
     @Message(id = 18896, value = "findByPrimaryKey called with an illegal number (%d) of arguments!")
     IllegalArgumentException illegalNumberOfArgumentsForFindByPrimaryKey(int noOfArguments);
 
+    @Message(id = 18910, value = "Negative value for batch size " + "batch-size '%d'.")
+    RuntimeException negativeBatchSize(int batchSize);
+
     /*
-    * Note id's 18910 and higher are availble for use. 18900-18910 are used for id's that were duplicates for id's in
+    * Note id's 18911 and higher are availble for use. 18900-18910 are used for id's that were duplicates for id's in
     * the server module.
     */
 }
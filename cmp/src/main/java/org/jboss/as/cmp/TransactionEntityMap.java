@@ -36,6 +36,7 @@ import javax.transaction.TransactionManager;
 
 import org.jboss.as.cmp.component.CmpEntityBeanComponent;
 import org.jboss.as.cmp.context.CmpEntityBeanContext;
+import org.jboss.as.cmp.jdbc.JDBCStoreBatch;
 import org.jboss.logging.Logger;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
@@ -290,14 +291,22 @@ public class TransactionEntityMap implements Service<TransactionEntityMap> {
                     context.getTxAssociation().invokeEjbStore(currentThread, context);
                 }
 
-                for (CmpEntityBeanContext instance : instances) {
-                    // any one can mark the tx rollback at any time so check
-                    // before continuing to the next store
-                    if (TxUtils.isRollback(tx)) {
-                        return;
+                // updates of entities configured with a batch-size are collected
+                // and sent to the database when all instances have been stored
+                final JDBCStoreBatch batch = JDBCStoreBatch.begin();
+                try {
+                    for (CmpEntityBeanContext instance : instances) {
+                        // any one can mark the tx rollback at any time so check
+                        // before continuing to the next store
+                        if (TxUtils.isRollback(tx)) {
+                            return;
+                        }
+                        context = instance;
+                        context.getTxAssociation().synchronize(currentThread, tx, context);
                     }
-                    context = instance;
-                    context.getTxAssociation().synchronize(currentThread, tx, context);
+                    batch.flush();
+                } finally {
+                    batch.end();
                 }
             } catch (Exception causeByException) {
                 // EJB 1.1 section 12.3.2 and EJB 2 section 18.3.3
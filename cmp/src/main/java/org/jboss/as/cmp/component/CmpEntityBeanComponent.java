@@ -38,13 +38,19 @@ import javax.transaction.Transaction;
 import org.jboss.as.cmp.CmpMessages;
 import org.jboss.as.cmp.TransactionEntityMap;
 import org.jboss.as.cmp.context.CmpEntityBeanContext;
+import org.jboss.as.cmp.jdbc.JDBCCompiledQueryCache;
 import org.jboss.as.cmp.jdbc.JDBCEntityPersistenceStore;
+import org.jboss.as.cmp.jdbc.JDBCQueryManager;
+import org.jboss.as.cmp.jdbc.JDBCStoreManager;
 import org.jboss.as.cmp.jdbc.bridge.CMRMessage;
+import org.jboss.as.cmp.jdbc2.JDBCStoreManager2;
+import org.jboss.as.cmp.jdbc2.QueryFactory;
 import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.component.allowedmethods.AllowedMethodsInformation;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponentCreateService;
+import org.jboss.as.ejb3.component.entity.EntityPersistenceMetrics;
 import org.jboss.as.ejb3.component.entity.entitycache.ReadyEntityCache;
 import org.jboss.as.ejb3.component.entity.entitycache.TransactionLocalEntityCache;
 import org.jboss.as.naming.ManagedReference;
@@ -66,6 +72,28 @@ public class CmpEntityBeanComponent extends EntityBeanComponent {
 
     private final TransactionEntityMap transactionEntityMap;
 
+    private final EntityPersistenceMetrics persistenceMetrics = new EntityPersistenceMetrics() {
+        public long getCompiledQueryHits() {
+            final JDBCCompiledQueryCache compiledQueries = getCompiledQueryCache();
+            return compiledQueries != null ? compiledQueries.getHits() : 0L;
+        }
+
+        public long getCompiledQueryMisses() {
+            final JDBCCompiledQueryCache compiledQueries = getCompiledQueryCache();
+            return compiledQueries != null ? compiledQueries.getMisses() : 0L;
+        }
+
+        public long getStoreStatementCount() {
+            final JDBCEntityPersistenceStore store = getStoreManager();
+            return store instanceof JDBCStoreManager ? ((JDBCStoreManager) store).getStoreStatementCount() : 0L;
+        }
+
+        public long getStoredEntityCount() {
+            final JDBCEntityPersistenceStore store = getStoreManager();
+            return store instanceof JDBCStoreManager ? ((JDBCStoreManager) store).getStoredEntityCount() : 0L;
+        }
+    };
+
     public CmpEntityBeanComponent(final CmpEntityBeanComponentCreateService ejbComponentCreateService, final Value<JDBCEntityPersistenceStore> storeManager) {
         super(ejbComponentCreateService);
 
@@ -113,6 +141,27 @@ public class CmpEntityBeanComponent extends EntityBeanComponent {
         return storeManager.getValue();
     }
 
+    @Override
+    public EntityPersistenceMetrics getPersistenceMetrics() {
+        return persistenceMetrics;
+    }
+
+    /**
+     * Returns the cache of compiled dynamic queries, or <code>null</code> while the store manager is not started.
+     */
+    private JDBCCompiledQueryCache getCompiledQueryCache() {
+        final JDBCEntityPersistenceStore store = getStoreManager();
+        if (store instanceof JDBCStoreManager) {
+            final JDBCQueryManager queryManager = ((JDBCStoreManager) store).getQueryManager();
+            return queryManager != null ? queryManager.getCompiledQueryCache() : null;
+        }
+        if (store instanceof JDBCStoreManager2) {
+            final QueryFactory queryFactory = ((JDBCStoreManager2) store).getQueryFactory();
+            return queryFactory != null ? queryFactory.getCompiledQueryCache() : null;
+        }
+        return null;
+    }
+
 
     public Object invoke(final CMRMessage message, final Object key, final Object... params) throws Exception {
         final CmpEntityBeanComponentInstance instance = (CmpEntityBeanComponentInstance) getCache().get(key);
@@ -0,0 +1,253 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cmp.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jboss.as.cmp.ejbql.SelectFunction;
+import org.jboss.as.cmp.jdbc.bridge.JDBCAbstractEntityBridge;
+import org.jboss.as.cmp.jdbc.bridge.JDBCFieldBridge;
+import org.jboss.as.cmp.jdbc.metadata.JDBCQueryMetaData;
+
+/**
+ * Bounded LRU cache of compiled dynamic queries, so that a query built at runtime does not have to go through
+ * the parser on every execution.
+ * <p/>
+ * Entries are keyed by the query text, the return type, the parameter types and the query metadata and hold
+ * what the {@link QLCompiler} produced: the SQL, the selected entity, field or function and the parameter
+ * mappings. A cache belongs to the store manager of one entity, which clears it on undeploy. The hits and misses
+ * of the cache are exposed as metrics of the entity bean.
+ */
+public final class JDBCCompiledQueryCache {
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final Map<Key, CompiledQuery> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public JDBCCompiledQueryCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public JDBCCompiledQueryCache(final int maxSize) {
+        cache = new LinkedHashMap<Key, CompiledQuery>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Key, CompiledQuery> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled query or <code>null</code> if the query has not been compiled yet.
+     */
+    public CompiledQuery get(String ql, Class returnType, Class[] parameterTypes, JDBCQueryMetaData metadata) {
+        final CompiledQuery compiled;
+        synchronized (cache) {
+            compiled = cache.get(new Key(ql, returnType, parameterTypes, metadata));
+        }
+        if (compiled == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return compiled;
+    }
+
+    /**
+     * Caches the result of a compilation.
+     *
+     * @param compiler the compiler the query was compiled with
+     * @return the cached result
+     */
+    public CompiledQuery put(String ql, Class returnType, Class[] parameterTypes, JDBCQueryMetaData metadata, QLCompiler compiler) {
+        final CompiledQuery compiled = new CompiledQuery(compiler);
+        synchronized (cache) {
+            cache.put(new Key(ql, returnType, (Class[]) parameterTypes.clone(), metadata), compiled);
+        }
+        return compiled;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public String toString() {
+        return "compiled queries: " + size() + ", hits: " + hits.get() + ", misses: " + misses.get();
+    }
+
+    private static final class Key {
+        private final String ql;
+        private final Class returnType;
+        private final Class[] parameterTypes;
+        private final JDBCQueryMetaData metadata;
+        private final int hashCode;
+
+        Key(String ql, Class returnType, Class[] parameterTypes, JDBCQueryMetaData metadata) {
+            this.ql = ql;
+            this.returnType = returnType;
+            this.parameterTypes = parameterTypes;
+            this.metadata = metadata;
+            int result = ql.hashCode();
+            result = 31 * result + returnType.hashCode();
+            result = 31 * result + Arrays.hashCode(parameterTypes);
+            result = 31 * result + System.identityHashCode(metadata);
+            this.hashCode = result;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && metadata == key.metadata
+                    && returnType == key.returnType
+                    && ql.equals(key.ql)
+                    && Arrays.equals(parameterTypes, key.parameterTypes);
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The immutable outcome of a compilation.
+     */
+    public static final class CompiledQuery {
+        private final String sql;
+        private final int offsetValue;
+        private final int offsetParam;
+        private final int limitValue;
+        private final int limitParam;
+        private final boolean selectEntity;
+        private final JDBCAbstractEntityBridge selectEntityBridge;
+        private final boolean selectField;
+        private final JDBCFieldBridge selectFieldBridge;
+        private final SelectFunction selectFunction;
+        private final JDBCEntityPersistenceStore storeManager;
+        private final List inputParameters;
+        private final List leftJoinCMRList;
+        private final boolean selectDistinct;
+
+        CompiledQuery(QLCompiler compiler) {
+            sql = compiler.getSQL();
+            offsetValue = compiler.getOffsetValue();
+            offsetParam = compiler.getOffsetParam();
+            limitValue = compiler.getLimitValue();
+            limitParam = compiler.getLimitParam();
+            selectEntity = compiler.isSelectEntity();
+            selectEntityBridge = selectEntity ? compiler.getSelectEntity() : null;
+            selectField = !selectEntity && compiler.isSelectField();
+            selectFieldBridge = selectField ? compiler.getSelectField() : null;
+            selectFunction = !selectEntity && !selectField ? compiler.getSelectFunction() : null;
+            storeManager = compiler.getStoreManager();
+            inputParameters = copy(compiler.getInputParameters());
+            leftJoinCMRList = copy(compiler.getLeftJoinCMRList());
+            selectDistinct = compiler.isSelectDistinct();
+        }
+
+        private static List copy(List list) {
+            return list == null || list.isEmpty() ? Collections.EMPTY_LIST : Collections.unmodifiableList(new ArrayList(list));
+        }
+
+        public String getSQL() {
+            return sql;
+        }
+
+        public int getOffsetValue() {
+            return offsetValue;
+        }
+
+        public int getOffsetParam() {
+            return offsetParam;
+        }
+
+        public int getLimitValue() {
+            return limitValue;
+        }
+
+        public int getLimitParam() {
+            return limitParam;
+        }
+
+        public boolean isSelectEntity() {
+            return selectEntity;
+        }
+
+        public JDBCAbstractEntityBridge getSelectEntity() {
+            return selectEntityBridge;
+        }
+
+        public boolean isSelectField() {
+            return selectField;
+        }
+
+        public JDBCFieldBridge getSelectField() {
+            return selectFieldBridge;
+        }
+
+        public SelectFunction getSelectFunction() {
+            return selectFunction;
+        }
+
+        public JDBCEntityPersistenceStore getStoreManager() {
+            return storeManager;
+        }
+
+        public List getInputParameters() {
+            return inputParameters;
+        }
+
+        public List getLeftJoinCMRList() {
+            return leftJoinCMRList;
+        }
+
+        public boolean isSelectDistinct() {
+            return selectDistinct;
+        }
+    }
+}
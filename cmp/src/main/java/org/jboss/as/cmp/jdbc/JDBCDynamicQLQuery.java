@@ -46,11 +46,13 @@ import org.jboss.as.cmp.jdbc.metadata.JDBCReadAheadMetaData;
  * @version $Revision: 81030 $
  */
 public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
+    private final JDBCStoreManager manager;
     private final Catalog catalog;
     private final JDBCDynamicQLQueryMetaData metadata;
 
     public JDBCDynamicQLQuery(JDBCStoreManager manager, JDBCQueryMetaData q) {
         super(manager, q);
+        this.manager = manager;
         catalog = manager.getCatalog();
         metadata = (JDBCDynamicQLQueryMetaData) q;
     }
@@ -61,13 +63,6 @@ public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
             getLog().debug("DYNAMIC-QL: " + dynamicQL);
         }
 
-        QLCompiler compiler = null;
-        try {
-            compiler = JDBCQueryManager.getInstance(metadata.getQLCompilerClass(), catalog);
-        } catch (Throwable e) {
-            throw CmpMessages.MESSAGES.failedToGetQueryCompiler(metadata.getQLCompilerClass(), e);
-        }
-
         // get the parameters
         Object[] parameters = (Object[]) args[1];
         // parameter types
@@ -85,15 +80,29 @@ public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
             }
         }
 
-        // compile the dynamic-ql
-        try {
-            compiler.compileJBossQL(
-                    dynamicQL,
-                    finderMethod.getReturnType(),
-                    parameterTypes,
-                    metadata);
-        } catch (Throwable t) {
-            throw CmpMessages.MESSAGES.errorCompilingEjbQl(t);
+        final JDBCCompiledQueryCache compiledQueries = manager.getQueryManager().getCompiledQueryCache();
+        JDBCCompiledQueryCache.CompiledQuery compiler = compiledQueries.get(dynamicQL, finderMethod.getReturnType(), parameterTypes, metadata);
+        if (compiler == null) {
+            QLCompiler qlCompiler;
+            try {
+                qlCompiler = JDBCQueryManager.getInstance(metadata.getQLCompilerClass(), catalog);
+            } catch (Throwable e) {
+                throw CmpMessages.MESSAGES.failedToGetQueryCompiler(metadata.getQLCompilerClass(), e);
+            }
+
+            // compile the dynamic-ql
+            try {
+                qlCompiler.compileJBossQL(
+                        dynamicQL,
+                        finderMethod.getReturnType(),
+                        parameterTypes,
+                        metadata);
+            } catch (Throwable t) {
+                throw CmpMessages.MESSAGES.errorCompilingEjbQl(t);
+            }
+            compiler = compiledQueries.put(dynamicQL, finderMethod.getReturnType(), parameterTypes, metadata, qlCompiler);
+        } else if (getLog().isTraceEnabled()) {
+            getLog().trace("Using compiled DYNAMIC-QL, " + compiledQueries);
         }
 
         int offset = toInt(parameters, compiler.getOffsetParam(), compiler.getOffsetValue());
@@ -39,9 +39,11 @@ import org.jboss.logging.Logger;
  * @version $Revision: 81030 $
  */
 public final class JDBCInsertRelationsCommand {
+    private final int batchSize;
     private final Logger log;
 
     public JDBCInsertRelationsCommand(JDBCStoreManager manager) {
+        this.batchSize = manager.getMetaData().getBatchSize();
         this.log = Logger.getLogger(
                 this.getClass().getName() +
                         "." +
@@ -71,6 +73,8 @@ public final class JDBCInsertRelationsCommand {
             // get a prepared statement
             ps = con.prepareStatement(sql);
 
+            boolean batched = batchSize > 1 && relationData.addedRelations.size() > 1;
+            int pending = 0;
             Iterator pairs = relationData.addedRelations.iterator();
             while (pairs.hasNext()) {
                 RelationPair pair = (RelationPair) pairs.next();
@@ -78,7 +82,18 @@ public final class JDBCInsertRelationsCommand {
                 // set the parameters
                 setParameters(ps, relationData, pair);
 
-                int rowsAffected = ps.executeUpdate();
+                if (batched) {
+                    ps.addBatch();
+                    if (++pending == batchSize) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                } else {
+                    ps.executeUpdate();
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
             }
         } catch (Exception e) {
             throw CmpMessages.MESSAGES.couldNotInsertRelations(cmrField.getQualifiedTableName(), e);
@@ -59,6 +59,7 @@ public final class JDBCQueryManager {
 
     private final Map knownQueries = new HashMap();
     private final JDBCStoreManager manager;
+    private final JDBCCompiledQueryCache compiledQueries = new JDBCCompiledQueryCache();
 
     public JDBCQueryManager(JDBCStoreManager manager) {
         this.manager = manager;
@@ -237,8 +238,16 @@ public final class JDBCQueryManager {
         }
     }
 
+    /**
+     * Returns the cache of the dynamic queries compiled for the entity.
+     */
+    public JDBCCompiledQueryCache getCompiledQueryCache() {
+        return compiledQueries;
+    }
+
     public void clear() {
         this.knownQueries.clear();
+        this.compiledQueries.clear();
     }
 
     private void addAutomaticFinders(
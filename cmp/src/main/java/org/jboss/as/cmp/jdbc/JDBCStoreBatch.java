@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cmp.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.jboss.as.cmp.CmpMessages;
+import org.jboss.as.cmp.context.CmpEntityBeanContext;
+import org.jboss.as.cmp.jdbc.bridge.JDBCCMPFieldBridge;
+
+/**
+ * Collects the updates issued while a transaction is synchronized and sends them to the database as JDBC batches.
+ * <p/>
+ * Updates are grouped by data source and SQL text, so only entities of the same table with the same set of dirty
+ * columns share a batch. A group is executed as soon as it holds the configured number of rows and
+ * whatever is left is executed by {@link #flush()}. The batch is bound to the synchronizing thread between
+ * {@link #begin()} and {@link #end()}; updates issued outside of it are executed immediately.
+ */
+public final class JDBCStoreBatch {
+    private static final ThreadLocal<JDBCStoreBatch> CURRENT = new ThreadLocal<JDBCStoreBatch>();
+
+    private final JDBCStoreBatch previous;
+    private final Map<GroupKey, Group> groups = new LinkedHashMap<GroupKey, Group>();
+
+    private JDBCStoreBatch(JDBCStoreBatch previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Starts a new batch for the current thread.
+     *
+     * @return the started batch, which must be ended with {@link #end()}
+     */
+    public static JDBCStoreBatch begin() {
+        final JDBCStoreBatch batch = new JDBCStoreBatch(CURRENT.get());
+        CURRENT.set(batch);
+        return batch;
+    }
+
+    /**
+     * @return the batch started by the current thread or null if there is none
+     */
+    static JDBCStoreBatch current() {
+        return CURRENT.get();
+    }
+
+    Group getGroup(DataSource dataSource, String sql, int batchSize, Listener listener) throws SQLException {
+        final GroupKey key = new GroupKey(dataSource, sql);
+        Group group = groups.get(key);
+        if (group == null) {
+            final Connection con = dataSource.getConnection();
+            final PreparedStatement ps;
+            try {
+                ps = con.prepareStatement(sql);
+            } catch (SQLException e) {
+                JDBCUtil.safeClose(con);
+                throw e;
+            }
+            group = new Group(batchSize, listener, con, ps);
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    /**
+     * Executes all pending updates.
+     */
+    public void flush() {
+        for (Group group : groups.values()) {
+            group.execute();
+        }
+    }
+
+    /**
+     * Releases the statements and connections of this batch and detaches it from the current thread.
+     * Updates that were not flushed are discarded.
+     */
+    public void end() {
+        for (Group group : groups.values()) {
+            group.pending.clear();
+            JDBCUtil.safeClose(group.statement);
+            JDBCUtil.safeClose(group.connection);
+        }
+        groups.clear();
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Told about every batch that was executed.
+     */
+    interface Listener {
+        void executed(int rows);
+    }
+
+    static final class Group {
+        private final int batchSize;
+        private final Listener listener;
+        private final List<PendingUpdate> pending = new ArrayList<PendingUpdate>();
+        private final Connection connection;
+        private final PreparedStatement statement;
+
+        private Group(int batchSize, Listener listener, Connection connection, PreparedStatement statement) {
+            this.batchSize = batchSize;
+            this.listener = listener;
+            this.connection = connection;
+            this.statement = statement;
+        }
+
+        PreparedStatement getStatement() {
+            return statement;
+        }
+
+        /**
+         * Adds the parameters bound to the statement to the batch.
+         *
+         * @param ctx         the instance being stored
+         * @param dirtyFields the fields to mark clean once the update has been executed
+         */
+        void add(CmpEntityBeanContext ctx, List<JDBCCMPFieldBridge> dirtyFields) throws SQLException {
+            statement.addBatch();
+            pending.add(new PendingUpdate(ctx, dirtyFields));
+            if (pending.size() >= batchSize) {
+                execute();
+            }
+        }
+
+        void execute() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            final int[] rowsAffected;
+            try {
+                rowsAffected = statement.executeBatch();
+            } catch (SQLException e) {
+                pending.clear();
+                throw CmpMessages.MESSAGES.storeFailed(e);
+            }
+            listener.executed(pending.size());
+
+            try {
+                // the rows are looked up by primary key only, so a row without a count was updated
+                for (int i = 0; i < pending.size(); ++i) {
+                    int rows = i < rowsAffected.length ? rowsAffected[i] : 0;
+                    if (rows != 1 && rows != Statement.SUCCESS_NO_INFO) {
+                        throw CmpMessages.MESSAGES.updateFailedTooManyRowsAffected(rows, pending.get(i).ctx.getPrimaryKeyUnchecked());
+                    }
+                }
+
+                // Mark the updated fields as clean.
+                for (PendingUpdate update : pending) {
+                    for (JDBCCMPFieldBridge field : update.dirtyFields) {
+                        field.setClean(update.ctx);
+                    }
+                }
+            } finally {
+                pending.clear();
+            }
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final CmpEntityBeanContext ctx;
+        private final List<JDBCCMPFieldBridge> dirtyFields;
+
+        private PendingUpdate(CmpEntityBeanContext ctx, List<JDBCCMPFieldBridge> dirtyFields) {
+            this.ctx = ctx;
+            this.dirtyFields = dirtyFields;
+        }
+    }
+
+    private static final class GroupKey {
+        private final DataSource dataSource;
+        private final String sql;
+
+        private GroupKey(DataSource dataSource, String sql) {
+            this.dataSource = dataSource;
+            this.sql = sql;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            final GroupKey other = (GroupKey) o;
+            return dataSource == other.dataSource && sql.equals(other.sql);
+        }
+
+        public int hashCode() {
+            return 31 * System.identityHashCode(dataSource) + sql.hashCode();
+        }
+    }
+}
@@ -23,6 +23,9 @@ package org.jboss.as.cmp.jdbc;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.ejb.EJBException;
 import org.jboss.as.cmp.CmpMessages;
 import org.jboss.as.cmp.context.CmpEntityBeanContext;
@@ -35,6 +38,11 @@ import org.jboss.logging.Logger;
  * JDBCStoreEntityCommand updates the row with the new state.
  * In the event that no field is dirty the command just returns.
  * Note: read-only fields are never considered dirty.
+ * <p/>
+ * When the entity has a batch-size greater than one and a {@link JDBCStoreBatch} is active,
+ * the update is added to that batch instead of being executed right away. Updates with optimistically locked
+ * fields are never batched: drivers may not report the affected rows of a batch, and a row that was changed
+ * concurrently must not go unnoticed.
  *
  * @author <a href="mailto:dain@daingroup.com">Dain Sundstrom</a>
  * @author <a href="mailto:rickard.oberg@telkel.com">Rickard Oberg</a>
@@ -48,11 +56,21 @@ import org.jboss.logging.Logger;
 public final class JDBCStoreEntityCommand {
     private final JDBCEntityBridge entity;
     private final JDBCFieldBridge[] primaryKeyFields;
+    private final int batchSize;
     private final Logger log;
 
+    private final AtomicLong statementCount = new AtomicLong();
+    private final AtomicLong storedEntityCount = new AtomicLong();
+    private final JDBCStoreBatch.Listener batchListener = new JDBCStoreBatch.Listener() {
+        public void executed(int rows) {
+            statementExecuted(rows);
+        }
+    };
+
     public JDBCStoreEntityCommand(JDBCStoreManager manager) {
         entity = (JDBCEntityBridge) manager.getEntityBridge();
         primaryKeyFields = entity.getPrimaryKeyFields();
+        batchSize = manager.getMetaData().getBatchSize();
 
         // Create the Log
         log = Logger.getLogger(
@@ -98,6 +116,12 @@ public final class JDBCStoreEntityCommand {
             }
         }
 
+        JDBCStoreBatch batch = batchSize > 1 && !hasLockedFields ? JDBCStoreBatch.current() : null;
+        if (batch != null) {
+            addToBatch(batch, ctx, sql.toString(), dirtyIterator, hasLockedFields, lockedIterator);
+            return;
+        }
+
         Connection con = null;
         PreparedStatement ps = null;
         int rowsAffected = 0;
@@ -111,25 +135,7 @@ public final class JDBCStoreEntityCommand {
             con = entity.getDataSource().getConnection();
             ps = con.prepareStatement(sql.toString());
 
-            // SET: set the dirty fields parameters
-            int index = 1;
-            dirtyIterator.reset();
-            while (dirtyIterator.hasNext()) {
-                index = dirtyIterator.next().setInstanceParameters(ps, index, ctx);
-            }
-
-            // WHERE: set primary key fields
-            index = entity.setPrimaryKeyParameters(ps, index, ctx.getPrimaryKeyUnchecked());
-
-            // WHERE: set optimistically locked field values
-            if (hasLockedFields) {
-                lockedIterator.reset();
-                while (lockedIterator.hasNext()) {
-                    JDBCCMPFieldBridge field = lockedIterator.next();
-                    Object value = field.getLockedValue(ctx);
-                    index = field.setArgumentParameters(ps, index, value);
-                }
-            }
+            setParameters(ps, ctx, dirtyIterator, hasLockedFields, lockedIterator);
 
             // execute statement
             rowsAffected = ps.executeUpdate();
@@ -141,6 +147,7 @@ public final class JDBCStoreEntityCommand {
             JDBCUtil.safeClose(ps);
             JDBCUtil.safeClose(con);
         }
+        statementExecuted(1);
 
         // check results
         if (rowsAffected != 1) {
@@ -153,4 +160,77 @@ public final class JDBCStoreEntityCommand {
             dirtyIterator.next().setClean(ctx);
         }
     }
+
+    /**
+     * @return the number of update statements, single or batched, sent to the database
+     */
+    public long getStatementCount() {
+        return statementCount.get();
+    }
+
+    /**
+     * @return the number of entities stored by those statements
+     */
+    public long getStoredEntityCount() {
+        return storedEntityCount.get();
+    }
+
+    private void statementExecuted(int entities) {
+        statementCount.incrementAndGet();
+        storedEntityCount.addAndGet(entities);
+    }
+
+    private void addToBatch(JDBCStoreBatch batch,
+                            CmpEntityBeanContext ctx,
+                            String sql,
+                            JDBCEntityBridge.FieldIterator dirtyIterator,
+                            boolean hasLockedFields,
+                            JDBCEntityBridge.FieldIterator lockedIterator) {
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Adding to batch SQL: " + sql);
+            }
+
+            JDBCStoreBatch.Group group = batch.getGroup(entity.getDataSource(), sql, batchSize, batchListener);
+            setParameters(group.getStatement(), ctx, dirtyIterator, hasLockedFields, lockedIterator);
+
+            // the fields are marked clean once the batch has been executed
+            List<JDBCCMPFieldBridge> dirtyFields = new ArrayList<JDBCCMPFieldBridge>();
+            dirtyIterator.reset();
+            while (dirtyIterator.hasNext()) {
+                dirtyFields.add(dirtyIterator.next());
+            }
+            group.add(ctx, dirtyFields);
+        } catch (EJBException e) {
+            throw e;
+        } catch (Exception e) {
+            throw CmpMessages.MESSAGES.storeFailed(e);
+        }
+    }
+
+    private void setParameters(PreparedStatement ps,
+                               CmpEntityBeanContext ctx,
+                               JDBCEntityBridge.FieldIterator dirtyIterator,
+                               boolean hasLockedFields,
+                               JDBCEntityBridge.FieldIterator lockedIterator) {
+        // SET: set the dirty fields parameters
+        int index = 1;
+        dirtyIterator.reset();
+        while (dirtyIterator.hasNext()) {
+            index = dirtyIterator.next().setInstanceParameters(ps, index, ctx);
+        }
+
+        // WHERE: set primary key fields
+        index = entity.setPrimaryKeyParameters(ps, index, ctx.getPrimaryKeyUnchecked());
+
+        // WHERE: set optimistically locked field values
+        if (hasLockedFields) {
+            lockedIterator.reset();
+            while (lockedIterator.hasNext()) {
+                JDBCCMPFieldBridge field = lockedIterator.next();
+                Object value = field.getLockedValue(ctx);
+                index = field.setArgumentParameters(ps, index, value);
+            }
+        }
+    }
 }
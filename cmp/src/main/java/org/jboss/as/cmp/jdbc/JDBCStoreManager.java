@@ -470,6 +470,20 @@ public final class JDBCStoreManager implements JDBCEntityPersistenceStore {
         synchronizeRelationData();
     }
 
+    /**
+     * Returns the number of update statements, single or batched, issued to store dirty entities.
+     */
+    public long getStoreStatementCount() {
+        return storeEntityCommand != null ? storeEntityCommand.getStatementCount() : 0L;
+    }
+
+    /**
+     * Returns the number of dirty entities written by the store statements.
+     */
+    public long getStoredEntityCount() {
+        return storeEntityCommand != null ? storeEntityCommand.getStoredEntityCount() : 0L;
+    }
+
     private void synchronizeRelationData() {
         final JDBCCMRFieldBridge[] cmrFields = (JDBCCMRFieldBridge[]) entityBridge.getCMRFields();
         for (int i = 0; i < cmrFields.length; ++i) {
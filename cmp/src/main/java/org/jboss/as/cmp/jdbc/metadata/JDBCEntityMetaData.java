@@ -224,6 +224,12 @@ public final class JDBCEntityMetaData {
      */
     private final int fetchSize;
 
+    /**
+     * The number of dirty entities to write in one JDBC batch when
+     * the transaction is synchronized.
+     */
+    private final int batchSize;
+
     /**
      * entity command meta data
      */
@@ -255,6 +261,7 @@ public final class JDBCEntityMetaData {
         this.jdbcApplication = jdbcApplication;
         listCacheMax = 1000;
         fetchSize = 0;
+        batchSize = 0;
         entityName = null;
         entityClass = null;
         primaryKeyClass = null;
@@ -302,6 +309,7 @@ public final class JDBCEntityMetaData {
         entityName = entity.getEjbName();
         listCacheMax = 1000;
         fetchSize = 0;
+        batchSize = 0;
 
         final ClassLoader classLoader = jdbcApplication.getClassLoader();
         try {
@@ -441,6 +449,7 @@ public final class JDBCEntityMetaData {
         primaryKeyConstraint = defaultValues.primaryKeyConstraint;
         listCacheMax = defaultValues.listCacheMax;
         fetchSize = defaultValues.fetchSize;
+        batchSize = defaultValues.batchSize;
         entityCommand = defaultValues.entityCommand;
         qlCompiler = defaultValues.qlCompiler;
         throwRuntimeExceptions = defaultValues.throwRuntimeExceptions;
@@ -593,6 +602,17 @@ public final class JDBCEntityMetaData {
             fetchSize = defaultValues.getFetchSize();
         }
 
+        // batch-size
+        Integer batchSizeInt = parsed.getBatchSize();
+        if (batchSizeInt != null) {
+            batchSize = batchSizeInt;
+            if (batchSize < 0) {
+                throw MESSAGES.negativeBatchSize(batchSize);
+            }
+        } else {
+            batchSize = defaultValues.getBatchSize();
+        }
+
         if (parsed.getQlCompiler() == null) {
             qlCompiler = defaultValues.qlCompiler;
         } else {
@@ -1019,6 +1039,14 @@ public final class JDBCEntityMetaData {
         return fetchSize;
     }
 
+    /**
+     * The number of dirty entities that are written to the database in
+     * a single JDBC batch. A value of 0 or 1 disables batching.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     /**
      * Gets the queries defined on this entity
      *
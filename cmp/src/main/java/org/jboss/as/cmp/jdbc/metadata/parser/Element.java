@@ -43,6 +43,7 @@ enum Element {
     AUTO_INCREMENT("auto-increment"),
     AUTO_INCREMENT_TEMPLATE("auto-increment-template"),
     BATCH_CASCADE_DELETE("batch-cascade-delete"),
+    BATCH_SIZE("batch-size"),
     CALL_EJB_STORE_ON_CLEAN("call-ejb-store-on-clean"),
     CHECK_DIRTY_AFTER_GET("check-dirty-after-get"),
     CLASS("class"),
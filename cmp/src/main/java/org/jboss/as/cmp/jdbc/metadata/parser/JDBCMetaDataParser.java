@@ -820,6 +820,10 @@ public class JDBCMetaDataParser extends MetaDataElementParser {
                     metaData.fetchSize = Integer.parseInt(getElementText(reader));
                     break;
                 }
+                case BATCH_SIZE: {
+                    metaData.batchSize = Integer.parseInt(getElementText(reader));
+                    break;
+                }
                 case TABLE_NAME: {
                     metaData.tableName = getElementText(reader);
                     break;
@@ -53,6 +53,7 @@ public class ParsedEntity {
     Boolean cleanReadAheadOnLoad;
     Integer listCacheMax;
     Integer fetchSize;
+    Integer batchSize;
     JDBCEntityCommandMetaData entityCommand;
     ParsedOptimisticLocking optimisticLocking;
     ParsedAudit audit;
@@ -141,6 +142,10 @@ public class ParsedEntity {
         return fetchSize;
     }
 
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
     public JDBCEntityCommandMetaData getEntityCommand() {
         return entityCommand;
     }
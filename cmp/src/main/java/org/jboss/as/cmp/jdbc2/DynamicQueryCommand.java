@@ -27,6 +27,7 @@ import java.util.Set;
 import javax.ejb.FinderException;
 import org.jboss.as.cmp.CmpMessages;
 import org.jboss.as.cmp.jdbc.EJBQLToSQL92Compiler;
+import org.jboss.as.cmp.jdbc.JDBCCompiledQueryCache;
 import org.jboss.as.cmp.jdbc.JDBCQueryCommand;
 import org.jboss.as.cmp.jdbc.QLCompiler;
 import org.jboss.as.cmp.jdbc.QueryParameter;
@@ -45,12 +46,14 @@ public class DynamicQueryCommand implements QueryCommand {
     private JDBCEntityBridge2 entity;
     private JDBCDynamicQLQueryMetaData metadata;
     private AbstractQueryCommand.CollectionFactory collectionFactory;
+    private final JDBCCompiledQueryCache compiledQueries;
 
-    public DynamicQueryCommand(JDBCEntityBridge2 entity, JDBCDynamicQLQueryMetaData metadata) {
+    public DynamicQueryCommand(JDBCEntityBridge2 entity, JDBCDynamicQLQueryMetaData metadata, JDBCCompiledQueryCache compiledQueries) {
         log =
                 Logger.getLogger(getClass().getName() + "." + entity.getEntityName() + "#" + metadata.getMethod().getName());
         this.entity = entity;
         this.metadata = metadata;
+        this.compiledQueries = compiledQueries;
 
         Class returnType = metadata.getMethod().getReturnType();
         if (Collection.class.isAssignableFrom(returnType)) {
@@ -72,17 +75,7 @@ public class DynamicQueryCommand implements QueryCommand {
             log.trace("executing dynamic-ql: " + args[0]);
         }
 
-        JDBCStoreManager2 manager = (JDBCStoreManager2) entity.getManager();
-        QLCompiler compiler = new EJBQLToSQL92Compiler(manager.getCatalog());
-        try {
-            compiler.compileJBossQL((String) args[0],
-                    metadata.getMethod().getReturnType(),
-                    getParamTypes(args),
-                    metadata
-            );
-        } catch (Throwable t) {
-            throw CmpMessages.MESSAGES.errorCompilingJbossQlStatement(args[0], t);
-        }
+        JDBCCompiledQueryCache.CompiledQuery compiler = compile(args);
 
         String sql = compiler.getSQL();
 
@@ -114,17 +107,7 @@ public class DynamicQueryCommand implements QueryCommand {
             log.trace("executing dynamic-ql: " + args[0]);
         }
 
-        JDBCStoreManager2 manager = (JDBCStoreManager2) entity.getManager();
-        QLCompiler compiler = new EJBQLToSQL92Compiler(manager.getCatalog());
-        try {
-            compiler.compileJBossQL((String) args[0],
-                    metadata.getMethod().getReturnType(),
-                    getParamTypes(args),
-                    metadata
-            );
-        } catch (Throwable t) {
-            throw CmpMessages.MESSAGES.errorCompilingJbossQlStatement(args[0], t);
-        }
+        JDBCCompiledQueryCache.CompiledQuery compiler = compile(args);
 
         String sql = compiler.getSQL();
 
@@ -143,6 +126,29 @@ public class DynamicQueryCommand implements QueryCommand {
                 resultReader, (Object[]) args[1], factory, log);
     }
 
+    private JDBCCompiledQueryCache.CompiledQuery compile(Object[] args) throws FinderException {
+        final String ql = (String) args[0];
+        final Class returnType = metadata.getMethod().getReturnType();
+        final Class[] parameterTypes = getParamTypes(args);
+        JDBCCompiledQueryCache.CompiledQuery compiled = compiledQueries.get(ql, returnType, parameterTypes, metadata);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        JDBCStoreManager2 manager = (JDBCStoreManager2) entity.getManager();
+        QLCompiler compiler = new EJBQLToSQL92Compiler(manager.getCatalog());
+        try {
+            compiler.compileJBossQL(ql,
+                    returnType,
+                    parameterTypes,
+                    metadata
+            );
+        } catch (Throwable t) {
+            throw CmpMessages.MESSAGES.errorCompilingJbossQlStatement(args[0], t);
+        }
+        return compiledQueries.put(ql, returnType, parameterTypes, metadata, compiler);
+    }
+
     private static Class[] getParamTypes(Object[] args)
             throws FinderException {
         Class[] parameterTypes;
@@ -179,6 +179,7 @@ public class JDBCStoreManager2 implements JDBCEntityPersistenceStore {
                             CmpLogger.ROOT_LOGGER.failedToStopEntityBridge(e);
 
                         }
+                        manager.queryFactory.getCompiledQueryCache().clear();
                         ++stoppedInIteration;
                     }
                 }
@@ -23,6 +23,7 @@ package org.jboss.as.cmp.jdbc2;
 
 
 import org.jboss.as.cmp.CmpMessages;
+import org.jboss.as.cmp.jdbc.JDBCCompiledQueryCache;
 import org.jboss.as.cmp.jdbc2.bridge.JDBCEntityBridge2;
 import org.jboss.as.cmp.jdbc.metadata.JDBCQueryMetaData;
 import org.jboss.as.cmp.jdbc.metadata.JDBCJBossQLQueryMetaData;
@@ -43,6 +44,7 @@ import java.util.Iterator;
 public class QueryFactory {
     private final Map queriesByMethod = new HashMap();
     private final JDBCEntityBridge2 entity;
+    private final JDBCCompiledQueryCache compiledQueries = new JDBCCompiledQueryCache();
 
     public QueryFactory(JDBCEntityBridge2 entity) {
         this.entity = entity;
@@ -56,6 +58,13 @@ public class QueryFactory {
         return queryCommand;
     }
 
+    /**
+     * Returns the cache of the dynamic queries compiled for the entity.
+     */
+    public JDBCCompiledQueryCache getCompiledQueryCache() {
+        return compiledQueries;
+    }
+
     public void init() {
         Method findByPkMethod;
         Class home = entity.getHomeClass();
@@ -100,7 +109,7 @@ public class QueryFactory {
                     QueryCommand queryCommand = new DeclaredSQLQueryCommand(entity, (JDBCDeclaredQueryMetaData) q);
                     queriesByMethod.put(q.getMethod(), queryCommand);
                 } else if (q instanceof JDBCDynamicQLQueryMetaData) {
-                    QueryCommand queryCommand = new DynamicQueryCommand(entity, (JDBCDynamicQLQueryMetaData) q);
+                    QueryCommand queryCommand = new DynamicQueryCommand(entity, (JDBCDynamicQLQueryMetaData) q, compiledQueries);
                     queriesByMethod.put(q.getMethod(), queryCommand);
                 } else {
                     throw CmpMessages.MESSAGES.unsupportedQueryMetadata(q.getMethod().getName(), q);
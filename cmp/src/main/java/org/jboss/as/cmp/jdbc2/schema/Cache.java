@@ -54,9 +54,11 @@ public interface Cache {
 
     void unlock(Object key);
 
-    Object[] getFields(Object pk);
-
-    Object[] getRelations(Object pk);
+    /**
+     * Returns copies of the fields and the relations of a row, {fields, relations}, both as of the same update. The
+     * relations are null if none were cached. Returns null if the row is not cached or is locked for update.
+     */
+    Object[][] getRow(Object pk);
 
     void put(Transaction tx, Object pk, Object[] fields, Object[] relations);
 
@@ -83,11 +85,7 @@ public interface Cache {
         public void unlock(Object key) {
         }
 
-        public Object[] getFields(Object pk) {
-            return null;
-        }
-
-        public Object[] getRelations(Object pk) {
+        public Object[][] getRow(Object pk) {
             return null;
         }
 
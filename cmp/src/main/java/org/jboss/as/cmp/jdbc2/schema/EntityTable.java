@@ -652,24 +652,16 @@ public class EntityTable implements Table {
             Row row = (Row) rowByPk.get(pk);
 
             if (row == null) {
-                Object[] fields;
-                Object[] relations = null;
-                try {
-                    cache.lock(pk);
-
-                    fields = cache.getFields(pk);
-                    if (fields != null && relationsTotal > 0) {
-                        relations = cache.getRelations(pk);
+                Object[][] cached = cache.getRow(pk);
+                if (cached != null) {
+                    Object[] relations = null;
+                    if (relationsTotal > 0) {
+                        relations = cached[1];
                         if (relations == null) {
                             relations = new Object[relationsTotal];
                         }
                     }
-                } finally {
-                    cache.unlock(pk);
-                }
-
-                if (fields != null) {
-                    row = createCleanRow(pk, fields, relations);
+                    row = createCleanRow(pk, cached[0], relations);
                 }
             }
 
@@ -770,12 +762,7 @@ public class EntityTable implements Table {
         public boolean hasRow(Object id) {
             boolean has = rowByPk.containsKey(id);
             if (!has) {
-                try {
-                    cache.lock(id);
-                    has = cache.contains(tx, id);
-                } finally {
-                    cache.unlock(id);
-                }
+                has = cache.contains(tx, id);
             }
             return has;
         }
@@ -155,14 +155,9 @@ public class PartitionedTableCache implements Cache {
         partitions[partitionIndex].unlock(key);
     }
 
-    public Object[] getFields(Object pk) {
+    public Object[][] getRow(Object pk) {
         final int i = getPartitionIndex(pk);
-        return partitions[i].getFields(pk);
-    }
-
-    public Object[] getRelations(Object pk) {
-        final int i = getPartitionIndex(pk);
-        return partitions[i].getRelations(pk);
+        return partitions[i].getRow(pk);
     }
 
     public void put(Transaction tx, Object pk, Object[] fields, Object[] relations) {
@@ -22,34 +22,72 @@
 package org.jboss.as.cmp.jdbc2.schema;
 
 import javax.transaction.Transaction;
-import java.util.Map;
-import java.util.HashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.jboss.as.cmp.CmpMessages;
 
 
 /**
- * Simple LRU cache. Items are evicted when maxCapacity is exceeded.
+ * LRU cache. Items are evicted when maxCapacity is exceeded.
+ * <p/>
+ * Rows are kept in a concurrent map and guarded by a fixed number of lock stripes, so that transactions working
+ * on different rows of the same table do not wait for each other. A committed row is never modified in place,
+ * updates swap in a new copy of its fields and relations together, so {@link #getRow(Object)} and
+ * {@link #contains(Transaction, Object)} need no lock. Instead of
+ * a linked list the recency of a row is tracked by a timestamp, and once the cache grows beyond
+ * maxCapacity the least recently used rows are evicted in a batch.
  *
  * @author <a href="mailto:alex@jboss.org">Alexey Loubyansky</a>
  * @version <tt>$Revision: 89152 $</tt>
  * @jmx:mbean extends="org.jboss.system.ServiceMBean"
  */
 public class TableCache implements Cache {
-    private Cache.Listener listener = Cache.Listener.NOOP;
-    private final Map rowsById;
-    private CachedRow head;
-    private CachedRow tail;
-    private int maxCapacity;
-    private final int minCapacity;
+    private static final int DEFAULT_STRIPES = 16;
+
+    private static final Comparator<Access> LEAST_RECENTLY_USED = new Comparator<Access>() {
+        public int compare(Access o1, Access o2) {
+            return o1.time < o2.time ? -1 : (o1.time == o2.time ? 0 : 1);
+        }
+    };
 
-    private boolean locked;
+    private volatile Cache.Listener listener = Cache.Listener.NOOP;
+    private final ConcurrentMap<Object, CachedRow> rowsById;
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+    /**
+     * Held by the thread evicting rows, other threads exceeding the capacity meanwhile leave it to that thread.
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private volatile int maxCapacity;
+    private final int minCapacity;
 
     private final int partitionIndex;
 
     public TableCache(int partitionIndex, int initialCapacity, int maxCapacity) {
+        this(partitionIndex, initialCapacity, maxCapacity, DEFAULT_STRIPES);
+    }
+
+    public TableCache(int partitionIndex, int initialCapacity, int maxCapacity, int concurrencyLevel) {
         this.maxCapacity = maxCapacity;
         this.minCapacity = initialCapacity;
-        rowsById = new HashMap(initialCapacity);
+        int count = 1;
+        while (count < concurrencyLevel) {
+            count <<= 1;
+        }
+        rowsById = new ConcurrentHashMap<Object, CachedRow>(initialCapacity, 0.75f, count);
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = new ReentrantLock();
+        }
+        stripeMask = count - 1;
         this.partitionIndex = partitionIndex;
     }
 
@@ -64,12 +102,7 @@ public class TableCache implements Cache {
      * @jmx.managed-operation
      */
     public int size() {
-        lock();
-        try {
-            return rowsById.size();
-        } finally {
-            unlock();
-        }
+        return rowsById.size();
     }
 
     /**
@@ -93,136 +126,92 @@ public class TableCache implements Cache {
         return minCapacity;
     }
 
-    public synchronized void lock() {
-        boolean intr = false;
-        try {
-            if (locked) {
-                long start = System.currentTimeMillis();
-                while (locked) {
-                    try {
-                        wait();
-                    } catch (InterruptedException e) {
-                        intr = true;
-                    }
-                }
-
-                listener.contention(partitionIndex, System.currentTimeMillis() - start);
-            }
-            locked = true;
-        } finally {
-            if (intr) Thread.currentThread().interrupt();
+    /**
+     * Locks the whole table.
+     */
+    public void lock() {
+        for (int i = 0; i < stripes.length; ++i) {
+            lock(stripes[i]);
         }
     }
 
+    /**
+     * Locks the rows which share their lock stripe with the row of the given key.
+     */
     public void lock(Object key) {
-        lock();
+        lock(stripes[stripeIndex(key)]);
     }
 
-    public synchronized void unlock() {
-        if (!locked) {
-            throw CmpMessages.MESSAGES.instanceIsLocked();
+    public void unlock() {
+        for (int i = stripes.length - 1; i >= 0; --i) {
+            unlock(stripes[i]);
         }
-        locked = false;
-        notify();
     }
 
     public void unlock(Object key) {
-        unlock();
+        unlock(stripes[stripeIndex(key)]);
     }
 
-    public Object[] getFields(Object pk) {
-        Object[] fields;
-        CachedRow row = (CachedRow) rowsById.get(pk);
+    public Object[][] getRow(Object pk) {
+        CachedRow row = rowsById.get(pk);
         if (row != null && row.locker == null) {
-            promoteRow(row);
-            fields = new Object[row.fields.length];
-            System.arraycopy(row.fields, 0, fields, 0, fields.length);
+            row.lastAccessed = System.nanoTime();
+            final RowState state = row.state;
             listener.hit(partitionIndex);
-        } else {
-            fields = null;
-            listener.miss(partitionIndex);
+            return new Object[][]{state.fields.clone(), state.relations == null ? null : state.relations.clone()};
         }
-        return fields;
-    }
-
-    public Object[] getRelations(Object pk) {
-        Object[] relations;
-        CachedRow row = (CachedRow) rowsById.get(pk);
-        if (row != null && row.relations != null && row.locker == null) {
-            promoteRow(row);
-            relations = new Object[row.relations.length];
-            System.arraycopy(row.relations, 0, relations, 0, relations.length);
-        } else {
-            relations = null;
-        }
-        return relations;
+        listener.miss(partitionIndex);
+        return null;
     }
 
     public void put(Transaction tx, Object pk, Object[] fields, Object[] relations) {
-        CachedRow row = (CachedRow) rowsById.get(pk);
+        CachedRow row = rowsById.get(pk);
         if (row == null) { // the row is not cached
             Object[] fieldsCopy = new Object[fields.length];
             System.arraycopy(fields, 0, fieldsCopy, 0, fields.length);
-            row = new CachedRow(pk, fieldsCopy);
 
+            Object[] relationsCopy = null;
             if (relations != null) {
-                Object[] relationsCopy = new Object[relations.length];
+                relationsCopy = new Object[relations.length];
                 System.arraycopy(relations, 0, relationsCopy, 0, relations.length);
-                row.relations = relationsCopy;
             }
 
+            row = new CachedRow(pk, new RowState(fieldsCopy, relationsCopy));
             rowsById.put(pk, row);
-
-            if (head == null) {
-                head = row;
-                tail = row;
-            } else {
-                head.prev = row;
-                row.next = head;
-                head = row;
-            }
         } else if (row.locker == null || row.locker.equals(tx)) { // the row is cached
-            promoteRow(row);
-            System.arraycopy(fields, 0, row.fields, 0, fields.length);
+            // replace rather than overwrite, so that lock-free readers see either the old or the new state
+            final RowState state = row.state;
+            Object[] fieldsCopy = state.fields.clone();
+            System.arraycopy(fields, 0, fieldsCopy, 0, fields.length);
 
+            Object[] relationsCopy = state.relations;
             if (relations != null) {
-                if (row.relations == null) {
-                    row.relations = new Object[relations.length];
-                }
-                System.arraycopy(relations, 0, row.relations, 0, relations.length);
+                relationsCopy = relationsCopy == null ? new Object[relations.length] : relationsCopy.clone();
+                System.arraycopy(relations, 0, relationsCopy, 0, relations.length);
             }
 
+            row.state = new RowState(fieldsCopy, relationsCopy);
+
+            row.lastAccessed = System.nanoTime();
             row.lastUpdated = System.currentTimeMillis();
             row.locker = null;
         }
 
-        CachedRow victim = tail;
-        while (rowsById.size() > maxCapacity && victim != null) {
-            CachedRow nextVictim = victim.prev;
-            if (victim.locker == null) {
-                dereference(victim);
-                rowsById.remove(victim.pk);
-                listener.eviction(partitionIndex, row.pk, rowsById.size());
-            }
-            victim = nextVictim;
+        if (rowsById.size() > maxCapacity) {
+            evict();
         }
     }
 
     public void ageOut(long lastUpdated) {
-        CachedRow victim = tail;
-        while (victim != null && victim.lastUpdated < lastUpdated) {
-            CachedRow nextVictim = victim.prev;
-            if (victim.locker == null) {
-                dereference(victim);
-                rowsById.remove(victim.pk);
-                listener.eviction(partitionIndex, victim.pk, rowsById.size());
+        for (CachedRow victim : rowsById.values()) {
+            if (victim.lastUpdated < lastUpdated) {
+                tryEvict(victim);
             }
-            victim = nextVictim;
         }
     }
 
     public void remove(Transaction tx, Object pk) {
-        CachedRow row = (CachedRow) rowsById.remove(pk);
+        CachedRow row = rowsById.remove(pk);
         if (row == null || row.locker != null && !tx.equals(row.locker)) {
             if(row == null) {
                 throw CmpMessages.MESSAGES.removeRejected(pk, tx);
@@ -231,17 +220,20 @@ public class TableCache implements Cache {
             }
         }
 
-        dereference(row);
         row.locker = null;
     }
 
     public boolean contains(Transaction tx, Object pk) {
-        CachedRow row = (CachedRow) rowsById.get(pk);
-        return row != null && (row.locker == null || tx.equals(row.locker));
+        CachedRow row = rowsById.get(pk);
+        if (row == null) {
+            return false;
+        }
+        final Transaction locker = row.locker;
+        return locker == null || tx.equals(locker);
     }
 
     public void lockForUpdate(Transaction tx, Object pk) throws Exception {
-        CachedRow row = (CachedRow) rowsById.get(pk);
+        CachedRow row = rowsById.get(pk);
         if (row != null) {
             if (row.locker != null && !tx.equals(row.locker)) {
                 throw CmpMessages.MESSAGES.lockAcquisitionRejected(tx, row.locker, pk);
@@ -252,7 +244,7 @@ public class TableCache implements Cache {
     }
 
     public void releaseLock(Transaction tx, Object pk) throws Exception {
-        CachedRow row = (CachedRow) rowsById.get(pk);
+        CachedRow row = rowsById.get(pk);
         if (row != null) {
             if (!tx.equals(row.locker)) {
                 throw CmpMessages.MESSAGES.lockReleaseRejected(tx, row.locker, pk);
@@ -264,37 +256,30 @@ public class TableCache implements Cache {
 
     public void flush() {
         this.rowsById.clear();
-        this.head = null;
-        this.tail = null;
     }
 
     public String toString() {
         StringBuffer buf = new StringBuffer();
         buf.append('[');
 
-        try {
-            lock();
-
-            CachedRow cursor = head;
-            while (cursor != null) {
-                buf.append('(')
-                        .append(cursor.pk)
-                        .append('|');
-
-                for (int i = 0; i < cursor.fields.length; ++i) {
-                    if (i > 0) {
-                        buf.append(',');
-                    }
-
-                    buf.append(cursor.fields[i]);
+        final Access[] rows = snapshot(false);
+        // most recently used first
+        for (int r = rows.length - 1; r >= 0; --r) {
+            final CachedRow cursor = rows[r].row;
+            final Object[] fields = cursor.state.fields;
+            buf.append('(')
+                    .append(cursor.pk)
+                    .append('|');
+
+            for (int i = 0; i < fields.length; ++i) {
+                if (i > 0) {
+                    buf.append(',');
                 }
 
-                buf.append(')');
-
-                cursor = cursor.next;
+                buf.append(fields[i]);
             }
-        } finally {
-            unlock();
+
+            buf.append(')');
         }
 
         buf.append(']');
@@ -303,77 +288,126 @@ public class TableCache implements Cache {
 
     // Private
 
-    private void dereference(CachedRow row) {
-        CachedRow next = row.next;
-        CachedRow prev = row.prev;
+    private int stripeIndex(Object key) {
+        // spread the hash so that keys differing only in their upper bits do not share a stripe
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return h & stripeMask;
+    }
 
-        if (row == head) {
-            head = next;
+    private void lock(ReentrantLock stripe) {
+        if (stripe.tryLock()) {
+            return;
         }
+        final long start = System.nanoTime();
+        stripe.lock();
+        listener.contention(partitionIndex, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
 
-        if (row == tail) {
-            tail = prev;
+    private void unlock(ReentrantLock stripe) {
+        if (!stripe.isHeldByCurrentThread()) {
+            throw CmpMessages.MESSAGES.instanceIsLocked();
         }
+        stripe.unlock();
+    }
 
-        if (next != null) {
-            next.prev = prev;
+    /**
+     * Evicts the least recently used rows until the cache is a little below its capacity, which spreads the cost of
+     * sorting the rows over many puts.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
         }
+        try {
+            final int capacity = maxCapacity;
+            int excess = rowsById.size() - capacity;
+            if (excess <= 0) {
+                return;
+            }
+            excess += capacity >>> 4;
 
-        if (prev != null) {
-            prev.next = next;
+            final Access[] rows = snapshot(true);
+            for (int i = 0; i < rows.length && excess > 0; ++i) {
+                if (tryEvict(rows[i].row)) {
+                    --excess;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
         }
-
-        row.next = null;
-        row.prev = null;
     }
 
-    private void promoteRow(CachedRow row) {
-        if (head == null) { // this is the first row in the cache
-            head = row;
-            tail = row;
-        } else if (row == head) { // this is the head
-        } else if (row == tail) { // this is the tail
-            tail = row.prev;
-            tail.next = null;
-
-            row.prev = null;
-            row.next = head;
-
-            head.prev = row;
-            head = row;
-        } else { // somewhere in the middle
-            CachedRow next = row.next;
-            CachedRow prev = row.prev;
-
-            if (prev != null) {
-                prev.next = next;
+    /**
+     * Returns the rows ordered from the least to the most recently used. The access times are captured first, as
+     * they keep changing while the rows get sorted.
+     */
+    private Access[] snapshot(boolean unlockedOnly) {
+        final List<Access> rows = new ArrayList<Access>(rowsById.size());
+        for (CachedRow row : rowsById.values()) {
+            if (!unlockedOnly || row.locker == null) {
+                rows.add(new Access(row));
             }
+        }
+        final Access[] sorted = rows.toArray(new Access[rows.size()]);
+        Arrays.sort(sorted, LEAST_RECENTLY_USED);
+        return sorted;
+    }
 
-            if (next != null) {
-                next.prev = prev;
+    /**
+     * Evicts the row unless it is locked for update or someone else is working on its stripe.
+     */
+    private boolean tryEvict(CachedRow victim) {
+        final ReentrantLock stripe = stripes[stripeIndex(victim.pk)];
+        if (!stripe.tryLock()) {
+            return false;
+        }
+        try {
+            if (victim.locker == null && rowsById.remove(victim.pk, victim)) {
+                listener.eviction(partitionIndex, victim.pk, rowsById.size());
+                return true;
             }
+            return false;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private static final class Access {
+        final CachedRow row;
+        final long time;
 
-            head.prev = row;
-            row.next = head;
-            row.prev = null;
-            head = row;
+        Access(CachedRow row) {
+            this.row = row;
+            this.time = row.lastAccessed;
         }
     }
 
-    private class CachedRow {
+    private static class CachedRow {
         public final Object pk;
-        public final Object[] fields;
-        public Object[] relations;
-        private Transaction locker;
-
-        private CachedRow next;
-        private CachedRow prev;
+        public volatile RowState state;
+        private volatile Transaction locker;
 
-        public long lastUpdated = System.currentTimeMillis();
+        public volatile long lastUpdated = System.currentTimeMillis();
+        private volatile long lastAccessed = System.nanoTime();
 
-        public CachedRow(Object pk, Object[] fields) {
+        public CachedRow(Object pk, RowState state) {
             this.pk = pk;
+            this.state = state;
+        }
+    }
+
+    /**
+     * The fields and relations of a row as of one update. Never modified once published.
+     */
+    private static final class RowState {
+        final Object[] fields;
+        final Object[] relations;
+
+        RowState(Object[] fields, Object[] relations) {
             this.fields = fields;
+            this.relations = relations;
         }
     }
 }
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cmp.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.jboss.as.cmp.jdbc.metadata.JDBCQueryMetaData;
+import org.junit.Test;
+
+public class JDBCCompiledQueryCacheTestCase {
+    private static final String QL = "SELECT OBJECT(o) FROM Order o WHERE o.id = ?1";
+    private static final Class[] PARAMETERS = {Integer.class};
+
+    private final JDBCQueryMetaData metadata = mock(JDBCQueryMetaData.class);
+
+    @Test
+    public void testKey() {
+        JDBCCompiledQueryCache cache = new JDBCCompiledQueryCache();
+        Class[] parameterTypes = {Integer.class};
+        JDBCCompiledQueryCache.CompiledQuery compiled = cache.put(QL, Collection.class, parameterTypes, metadata, compiler("sql"));
+        // the cache keeps its own copy of the parameter types
+        parameterTypes[0] = String.class;
+
+        assertSame(compiled, cache.get(QL, Collection.class, new Class[]{Integer.class}, metadata));
+        assertSame(compiled, cache.get(new String(QL), Collection.class, PARAMETERS, metadata));
+
+        assertNull(cache.get(QL + " ", Collection.class, PARAMETERS, metadata));
+        assertNull(cache.get(QL, List.class, PARAMETERS, metadata));
+        assertNull(cache.get(QL, Collection.class, new Class[]{String.class}, metadata));
+        assertNull(cache.get(QL, Collection.class, new Class[0], metadata));
+        // the same query declared by another finder
+        assertNull(cache.get(QL, Collection.class, PARAMETERS, mock(JDBCQueryMetaData.class)));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(5, cache.getMisses());
+    }
+
+    @Test
+    public void testCompiledQuery() {
+        JDBCCompiledQueryCache cache = new JDBCCompiledQueryCache();
+        List inputParameters = new ArrayList();
+        inputParameters.add("parameter");
+        QLCompiler compiler = compiler("sql");
+        when(compiler.getInputParameters()).thenReturn(inputParameters);
+        when(compiler.getOffsetParam()).thenReturn(1);
+        when(compiler.getLimitValue()).thenReturn(10);
+        when(compiler.isSelectDistinct()).thenReturn(true);
+
+        JDBCCompiledQueryCache.CompiledQuery compiled = cache.put(QL, Collection.class, PARAMETERS, metadata, compiler);
+        // the compiler may be reused once the outcome is cached
+        inputParameters.clear();
+
+        assertEquals("sql", compiled.getSQL());
+        assertEquals(1, compiled.getOffsetParam());
+        assertEquals(10, compiled.getLimitValue());
+        assertTrue(compiled.isSelectDistinct());
+        assertTrue(compiled.isSelectEntity());
+        assertFalse(compiled.isSelectField());
+        assertNull(compiled.getSelectFunction());
+        assertEquals(1, compiled.getInputParameters().size());
+        assertTrue(compiled.getLeftJoinCMRList().isEmpty());
+        try {
+            compiled.getInputParameters().clear();
+            fail("the parameters of a compiled query are immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        JDBCCompiledQueryCache cache = new JDBCCompiledQueryCache(2);
+        cache.put("a", Collection.class, PARAMETERS, metadata, compiler("a"));
+        cache.put("b", Collection.class, PARAMETERS, metadata, compiler("b"));
+        assertNotNull(cache.get("a", Collection.class, PARAMETERS, metadata));
+
+        cache.put("c", Collection.class, PARAMETERS, metadata, compiler("c"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b", Collection.class, PARAMETERS, metadata));
+        assertEquals("a", cache.get("a", Collection.class, PARAMETERS, metadata).getSQL());
+        assertEquals("c", cache.get("c", Collection.class, PARAMETERS, metadata).getSQL());
+    }
+
+    @Test
+    public void testClearOnUndeploy() {
+        JDBCQueryManager queryManager = new JDBCQueryManager(null);
+        JDBCCompiledQueryCache cache = queryManager.getCompiledQueryCache();
+        cache.put(QL, Collection.class, PARAMETERS, metadata, compiler("sql"));
+        assertEquals(1, cache.size());
+
+        // called by JDBCStoreManager.destroy()
+        queryManager.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(QL, Collection.class, PARAMETERS, metadata));
+    }
+
+    private static QLCompiler compiler(String sql) {
+        QLCompiler compiler = mock(QLCompiler.class);
+        when(compiler.getSQL()).thenReturn(sql);
+        when(compiler.isSelectEntity()).thenReturn(true);
+        return compiler;
+    }
+}
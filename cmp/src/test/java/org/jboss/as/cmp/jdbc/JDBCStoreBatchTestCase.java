@@ -0,0 +1,245 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cmp.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import javax.ejb.EJBException;
+import javax.sql.DataSource;
+
+import org.jboss.as.cmp.context.CmpEntityBeanContext;
+import org.jboss.as.cmp.jdbc.bridge.JDBCCMPFieldBridge;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JDBCStoreBatchTestCase {
+    private static final String UPDATE_NAME = "UPDATE ORDERS SET NAME=? WHERE ID=?";
+    private static final String UPDATE_TOTAL = "UPDATE ORDERS SET TOTAL=? WHERE ID=?";
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final JDBCCMPFieldBridge field = mock(JDBCCMPFieldBridge.class);
+    private final CountingListener listener = new CountingListener();
+
+    @Before
+    public void init() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(UPDATE_NAME)).thenReturn(statement);
+        when(connection.prepareStatement(UPDATE_TOTAL)).thenReturn(mock(PreparedStatement.class));
+    }
+
+    @After
+    public void cleanup() {
+        while (JDBCStoreBatch.current() != null) {
+            JDBCStoreBatch.current().end();
+        }
+    }
+
+    @Test
+    public void testGroups() throws SQLException {
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        assertSame(batch, JDBCStoreBatch.current());
+
+        JDBCStoreBatch.Group group = batch.getGroup(dataSource, UPDATE_NAME, 10, listener);
+        assertSame(statement, group.getStatement());
+        assertSame(group, batch.getGroup(dataSource, UPDATE_NAME, 10, listener));
+        assertNotSame(group, batch.getGroup(dataSource, UPDATE_TOTAL, 10, listener));
+        verify(dataSource, times(2)).getConnection();
+
+        batch.end();
+        assertNull(JDBCStoreBatch.current());
+        verify(statement).close();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void testExecuteFullBatch() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1});
+        CmpEntityBeanContext first = mock(CmpEntityBeanContext.class);
+        CmpEntityBeanContext second = mock(CmpEntityBeanContext.class);
+
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        JDBCStoreBatch.Group group = batch.getGroup(dataSource, UPDATE_NAME, 2, listener);
+        group.add(first, dirtyFields());
+        verify(statement, never()).executeBatch();
+        verify(field, never()).setClean(first);
+
+        group.add(second, dirtyFields());
+        verify(statement, times(2)).addBatch();
+        verify(statement).executeBatch();
+        verify(field).setClean(first);
+        verify(field).setClean(second);
+        assertEquals(1, listener.batches);
+        assertEquals(2, listener.rows);
+
+        // nothing is left for the flush
+        batch.flush();
+        verify(statement).executeBatch();
+        assertEquals(1, listener.batches);
+    }
+
+    @Test
+    public void testFlush() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[]{1});
+        CmpEntityBeanContext ctx = mock(CmpEntityBeanContext.class);
+
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        batch.getGroup(dataSource, UPDATE_NAME, 10, listener).add(ctx, dirtyFields());
+        verify(statement, never()).executeBatch();
+
+        batch.flush();
+        verify(statement).executeBatch();
+        verify(field).setClean(ctx);
+        assertEquals(1, listener.batches);
+        assertEquals(1, listener.rows);
+
+        batch.flush();
+        verify(statement).executeBatch();
+        assertEquals(1, listener.batches);
+    }
+
+    @Test
+    public void testEndDiscardsPendingUpdates() throws SQLException {
+        JDBCStoreBatch outer = JDBCStoreBatch.begin();
+        JDBCStoreBatch inner = JDBCStoreBatch.begin();
+        assertSame(inner, JDBCStoreBatch.current());
+        inner.getGroup(dataSource, UPDATE_NAME, 10, listener).add(mock(CmpEntityBeanContext.class), dirtyFields());
+
+        inner.end();
+        assertSame(outer, JDBCStoreBatch.current());
+        verify(statement, never()).executeBatch();
+        verify(statement).close();
+        verify(connection).close();
+        assertEquals(0, listener.batches);
+
+        outer.end();
+        assertNull(JDBCStoreBatch.current());
+    }
+
+    @Test
+    public void testRowNotUpdated() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[]{1, 0});
+        CmpEntityBeanContext first = mock(CmpEntityBeanContext.class);
+        CmpEntityBeanContext second = mock(CmpEntityBeanContext.class);
+
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        JDBCStoreBatch.Group group = batch.getGroup(dataSource, UPDATE_NAME, 10, listener);
+        group.add(first, dirtyFields());
+        group.add(second, dirtyFields());
+        try {
+            batch.flush();
+            fail("the update of a missing row must fail");
+        } catch (EJBException expected) {
+        }
+        verify(field, never()).setClean(first);
+        verify(field, never()).setClean(second);
+
+        // the failed updates are not executed again
+        batch.flush();
+        verify(statement).executeBatch();
+    }
+
+    @Test
+    public void testMissingRowCounts() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[]{1});
+        CmpEntityBeanContext first = mock(CmpEntityBeanContext.class);
+        CmpEntityBeanContext second = mock(CmpEntityBeanContext.class);
+
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        JDBCStoreBatch.Group group = batch.getGroup(dataSource, UPDATE_NAME, 10, listener);
+        group.add(first, dirtyFields());
+        group.add(second, dirtyFields());
+        try {
+            batch.flush();
+            fail("a row without a count must fail");
+        } catch (EJBException expected) {
+        }
+        verify(field, never()).setClean(first);
+    }
+
+    @Test
+    public void testSuccessNoInfo() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        CmpEntityBeanContext first = mock(CmpEntityBeanContext.class);
+        CmpEntityBeanContext second = mock(CmpEntityBeanContext.class);
+
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        JDBCStoreBatch.Group group = batch.getGroup(dataSource, UPDATE_NAME, 10, listener);
+        group.add(first, dirtyFields());
+        group.add(second, dirtyFields());
+        batch.flush();
+
+        verify(field).setClean(first);
+        verify(field).setClean(second);
+        assertEquals(2, listener.rows);
+    }
+
+    @Test
+    public void testBatchFailure() throws SQLException {
+        when(statement.executeBatch()).thenThrow(new SQLException("deadlock"));
+        CmpEntityBeanContext ctx = mock(CmpEntityBeanContext.class);
+
+        JDBCStoreBatch batch = JDBCStoreBatch.begin();
+        batch.getGroup(dataSource, UPDATE_NAME, 10, listener).add(ctx, dirtyFields());
+        try {
+            batch.flush();
+            fail("the failure of the batch must be reported");
+        } catch (EJBException expected) {
+        }
+        verify(field, never()).setClean(ctx);
+        assertEquals(0, listener.batches);
+
+        batch.flush();
+        verify(statement).executeBatch();
+    }
+
+    private List<JDBCCMPFieldBridge> dirtyFields() {
+        return Collections.singletonList(field);
+    }
+
+    private static final class CountingListener implements JDBCStoreBatch.Listener {
+        private int batches;
+        private int rows;
+
+        public void executed(int rows) {
+            ++batches;
+            this.rows += rows;
+        }
+    }
+}
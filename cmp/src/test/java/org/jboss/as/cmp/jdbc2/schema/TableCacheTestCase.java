@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cmp.jdbc2.schema;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.Transaction;
+
+import org.junit.Test;
+
+public class TableCacheTestCase {
+    // with two stripes, 0 and 2 share a stripe and 1 has the other one
+    private static final Integer KEY = 0;
+    private static final Integer SAME_STRIPE = 2;
+    private static final Integer OTHER_STRIPE = 1;
+
+    private final Transaction tx = mock(Transaction.class);
+    private final Transaction otherTx = mock(Transaction.class);
+
+    @Test
+    public void testGetRow() {
+        TableCache cache = new TableCache(0, 10, 10);
+        Object[] fields = {"a", "b"};
+        Object[] relations = {"r"};
+        cache.put(tx, KEY, fields, relations);
+
+        Object[][] row = cache.getRow(KEY);
+        assertArrayEquals(fields, row[0]);
+        assertArrayEquals(relations, row[1]);
+
+        // copies are handed out and taken in
+        row[0][0] = "changed";
+        fields[1] = "changed";
+        assertArrayEquals(new Object[]{"a", "b"}, cache.getRow(KEY)[0]);
+
+        // an update replaces the fields and the relations together
+        cache.put(tx, KEY, new Object[]{"c", "d"}, new Object[]{"s"});
+        row = cache.getRow(KEY);
+        assertArrayEquals(new Object[]{"c", "d"}, row[0]);
+        assertArrayEquals(new Object[]{"s"}, row[1]);
+
+        // relations are kept if the update carries none
+        cache.put(tx, KEY, new Object[]{"e", "f"}, null);
+        assertArrayEquals(new Object[]{"s"}, cache.getRow(KEY)[1]);
+
+        cache.put(tx, OTHER_STRIPE, new Object[]{"g"}, null);
+        assertNull(cache.getRow(OTHER_STRIPE)[1]);
+        assertNull(cache.getRow(SAME_STRIPE));
+    }
+
+    @Test
+    public void testLockForUpdate() throws Exception {
+        TableCache cache = new TableCache(0, 10, 10);
+        cache.put(tx, KEY, new Object[]{"a"}, null);
+        cache.lockForUpdate(tx, KEY);
+
+        assertNull(cache.getRow(KEY));
+        assertTrue(cache.contains(tx, KEY));
+        assertFalse(cache.contains(otherTx, KEY));
+        try {
+            cache.lockForUpdate(otherTx, KEY);
+            fail("locked by another transaction");
+        } catch (Exception expected) {
+        }
+
+        // the other transaction's update is ignored, the locker's is taken and releases the row
+        cache.put(otherTx, KEY, new Object[]{"b"}, null);
+        assertNull(cache.getRow(KEY));
+        cache.put(tx, KEY, new Object[]{"c"}, null);
+        assertArrayEquals(new Object[]{"c"}, cache.getRow(KEY)[0]);
+    }
+
+    @Test
+    public void testStripes() throws Exception {
+        final TableCache cache = new TableCache(0, 10, 10, 2);
+        final Listener listener = new Listener();
+        cache.registerListener(listener);
+
+        cache.lock(KEY);
+        // a row of another stripe can be locked meanwhile
+        assertTrue(lockInThread(cache, OTHER_STRIPE).await(5, TimeUnit.SECONDS));
+        assertTrue(listener.contentions.isEmpty());
+
+        // a row of the same stripe has to wait
+        CountDownLatch locked = lockInThread(cache, SAME_STRIPE);
+        assertFalse(locked.await(100, TimeUnit.MILLISECONDS));
+        cache.unlock(KEY);
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        assertEquals(1, listener.contentions.size());
+
+        // the whole table waits for every stripe
+        cache.lock();
+        locked = lockInThread(cache, OTHER_STRIPE);
+        assertFalse(locked.await(100, TimeUnit.MILLISECONDS));
+        cache.unlock();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        try {
+            cache.unlock(KEY);
+            fail("stripe is not locked");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testEvictionSkipsLockedRows() throws Exception {
+        TableCache cache = new TableCache(0, 4, 4);
+        Listener listener = new Listener();
+        cache.registerListener(listener);
+
+        for (int i = 0; i < 4; ++i) {
+            put(cache, i);
+        }
+        cache.lockForUpdate(tx, 0);
+        // 1 becomes the most recently used row
+        assertNotNull(cache.getRow(1));
+        Thread.sleep(1);
+
+        put(cache, 4);
+        assertEquals(4, cache.size());
+        // 0 is the least recently used, but locked
+        assertEquals(2, listener.evictions.get(0));
+
+        for (int i = 5; i < 20; ++i) {
+            put(cache, i);
+        }
+        assertTrue(cache.size() <= 4);
+        assertTrue(cache.contains(tx, 0));
+        assertFalse(listener.evictions.contains(0));
+        assertTrue(listener.evictions.contains(1));
+        assertTrue(cache.contains(tx, 19));
+    }
+
+    @Test
+    public void testAgeOut() throws Exception {
+        TableCache cache = new TableCache(0, 10, 10);
+        put(cache, 0);
+        put(cache, 1);
+        cache.lockForUpdate(tx, 1);
+        Thread.sleep(2);
+        long lastUpdated = System.currentTimeMillis();
+        Thread.sleep(2);
+        put(cache, 2);
+
+        cache.ageOut(lastUpdated);
+
+        assertFalse(cache.contains(tx, 0));
+        // locked rows are not aged out
+        assertTrue(cache.contains(tx, 1));
+        assertTrue(cache.contains(tx, 2));
+        assertEquals(2, cache.size());
+    }
+
+    private void put(TableCache cache, Integer pk) throws InterruptedException {
+        cache.put(tx, pk, new Object[]{pk}, null);
+        // keeps the access times of the rows apart
+        Thread.sleep(1);
+    }
+
+    private static CountDownLatch lockInThread(final TableCache cache, final Object key) {
+        final CountDownLatch locked = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            public void run() {
+                cache.lock(key);
+                try {
+                    locked.countDown();
+                } finally {
+                    cache.unlock(key);
+                }
+            }
+        }).start();
+        return locked;
+    }
+
+    private static class Listener implements Cache.Listener {
+        final List<Long> contentions = new CopyOnWriteArrayList<Long>();
+        final List<Object> evictions = new CopyOnWriteArrayList<Object>();
+
+        public void contention(int partitionIndex, long time) {
+            contentions.add(time);
+        }
+
+        public void eviction(int partitionIndex, Object pk, int size) {
+            evictions.add(pk);
+        }
+
+        public void hit(int partitionIndex) {
+        }
+
+        public void miss(int partitionIndex) {
+        }
+    }
+}
@@ -453,4 +453,8 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 13404, value = "Transforming resource %s for host controller '%s' to subsystem '%s' model version '%s' -- attributes %s are not understood in that model version and this resource will need to be ignored on that host.")
     void newAttributesSubsystemModelResourceTransformerFoundDefinedAttributes(PathAddress pathAddress, String legacyHostName, String subsystem, ModelVersion modelVersion, Set<String> attributeNames);
 
+    @LogMessage(level = WARN)
+    @Message(id = 13405, value = "Model change listener %s failed")
+    void modelChangeListenerFailed(@Cause Throwable cause, Object listener);
+
 }
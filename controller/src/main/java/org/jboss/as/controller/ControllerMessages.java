@@ -2605,4 +2605,15 @@ public interface ControllerMessages {
 
     @Message(id = 14893, value="Node contains an unresolved expression %s -- a resolved model is required")
     OperationFailedException illegalUnresolvedModel(String expression);
+
+    /**
+     * Creates an exception indicating the last deferred write of the configuration failed.
+     *
+     * @param cause    the cause of the error.
+     * @param fileName the name of the configuration file.
+     *
+     * @return a {@link ConfigurationPersistenceException} for the error.
+     */
+    @Message(id = 14894, value = "Deferred write of the configuration to %s failed")
+    ConfigurationPersistenceException deferredWriteFailed(@Cause Throwable cause, String fileName);
 }
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Set;
+
+import org.jboss.as.controller.registry.Resource;
+
+/**
+ * Listener which is told about every change of the model once it has been published.
+ */
+public interface ModelChangeListener {
+
+    /**
+     * Called after an operation changed the model. Resources may have been added, removed or changed anywhere below
+     * the given addresses, everything else is unchanged. Calls are never concurrent and are made in the order in
+     * which the changes were published.
+     *
+     * @param model the published model, which is shared and must not be modified
+     * @param addresses the addresses of the resources which were changed, an address may no longer exist
+     */
+    void modelChanged(Resource model, Set<PathAddress> addresses);
+
+    /**
+     * Implemented by {@link ModelController}s which notify listeners of changes to their model.
+     */
+    interface Registry {
+
+        /**
+         * Adds a listener. It is called right away with the current model and the root address, so that it starts
+         * from the whole model.
+         *
+         * @param listener the listener
+         *
+         * @throws SecurityException if the caller does not have {@link ModelController#ACCESS_PERMISSION}
+         */
+        void addModelChangeListener(ModelChangeListener listener);
+
+        /**
+         * Removes a listener.
+         *
+         * @param listener the listener
+         */
+        void removeModelChangeListener(ModelChangeListener listener);
+    }
+}
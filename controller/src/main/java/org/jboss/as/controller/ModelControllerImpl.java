@@ -37,9 +37,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROL
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -71,7 +73,7 @@ import org.jboss.threads.AsyncFutureTask;
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-class ModelControllerImpl implements ModelController {
+class ModelControllerImpl implements ModelController, ModelChangeListener.Registry {
 
     private final ServiceRegistry serviceRegistry;
     private final ServiceTarget serviceTarget;
@@ -87,6 +89,7 @@ class ModelControllerImpl implements ModelController {
     private final ControlledProcessState processState;
     private final ExecutorService executorService;
     private final ExpressionResolver expressionResolver;
+    private final List<ModelChangeListener> modelChangeListeners = new CopyOnWriteArrayList<ModelChangeListener>();
 
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister,
@@ -300,6 +303,16 @@ class ModelControllerImpl implements ModelController {
         return model;
     }
 
+    /**
+     * Gets the currently published model. The returned resource is shared with all concurrent readers and must
+     * not be modified.
+     *
+     * @return the published model
+     */
+    Resource getPublishedModel() {
+        return model.getDelegate();
+    }
+
     ManagementResourceRegistration getRootRegistration() {
         return rootRegistration;
     }
@@ -421,6 +434,7 @@ class ModelControllerImpl implements ModelController {
             public void commit() {
                 model.set(resource);
                 delegate.commit();
+                notifyModelChangeListeners(resource, affectedAddresses);
             }
 
             @Override
@@ -430,6 +444,44 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
+    @Override
+    public void addModelChangeListener(final ModelChangeListener listener) {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(ModelController.ACCESS_PERMISSION);
+        }
+        // the listener must not see a change before the model it starts from
+        synchronized (modelChangeListeners) {
+            modelChangeListeners.add(listener);
+            notifyModelChangeListener(listener, model.getDelegate(), Collections.singleton(PathAddress.EMPTY_ADDRESS));
+        }
+    }
+
+    @Override
+    public void removeModelChangeListener(final ModelChangeListener listener) {
+        modelChangeListeners.remove(listener);
+    }
+
+    private void notifyModelChangeListeners(final Resource resource, final Set<PathAddress> affectedAddresses) {
+        if (modelChangeListeners.isEmpty()) {
+            return;
+        }
+        final Set<PathAddress> addresses = Collections.unmodifiableSet(affectedAddresses);
+        synchronized (modelChangeListeners) {
+            for (ModelChangeListener listener : modelChangeListeners) {
+                notifyModelChangeListener(listener, resource, addresses);
+            }
+        }
+    }
+
+    private static void notifyModelChangeListener(final ModelChangeListener listener, final Resource resource, final Set<PathAddress> addresses) {
+        try {
+            listener.modelChanged(resource, addresses);
+        } catch (RuntimeException e) {
+            MGMT_OP_LOGGER.modelChangeListenerFailed(e, listener);
+        }
+    }
+
     void acquireLock(final boolean interruptibly) throws InterruptedException {
         if (interruptibly) {
             //noinspection LockAcquiredButNotSafelyReleased
@@ -513,7 +565,8 @@ class ModelControllerImpl implements ModelController {
 
     /**
      * The root resource, maintains a read-only reference to the current model. All write operations have to performed
-     * after acquiring the write lock on a clone of the underlying model.
+     * after acquiring the write lock on a copy of the underlying model. The copy shares all resources which are not
+     * modified with the published model, so the published model must never be modified in place.
      */
     private final class RootResource implements Resource {
 
@@ -35,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,7 @@ import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.PlaceholderResource;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.registry.ResourceCopySupport;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.AbstractServiceListener;
@@ -103,6 +105,13 @@ final class OperationContextImpl extends AbstractOperationContext {
 
     private volatile Resource originalModel;
 
+    /**
+     * The resources of the working copy of the model which are private to this context. The value is {@code true} if
+     * the whole subtree below the resource is private as well. All other resources are shared with the published
+     * model. {@code null} while booting, where the whole model is copied up front.
+     */
+    private final Map<Resource, Boolean> copiedResources;
+
     /** Tracks whether any steps have gotten write access to the runtime */
     private volatile boolean affectsRuntime;
     /** The step that acquired the write lock */
@@ -123,6 +132,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         this.messageHandler = messageHandler;
         this.attachments = attachments;
         this.affectsModel = booting ? new ConcurrentHashMap<PathAddress, Object>(16 * 16) : new HashMap<PathAddress, Object>(1);
+        this.copiedResources = booting ? null : new IdentityHashMap<Resource, Boolean>();
         this.contextFlags = contextFlags;
         this.serviceTarget = new ContextServiceTarget(modelController);
     }
@@ -418,8 +428,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         authorizeModelUpdate();
         if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(address, NULL);
         Resource model = this.model;
@@ -439,12 +448,13 @@ final class OperationContextImpl extends AbstractOperationContext {
                     }
                     final Resource newModel = Resource.Factory.create();
                     model.registerChild(element, newModel);
+                    markCopied(newModel);
                     model = newModel;
                 } else {
-                    model = requireChild(model, element, address);
+                    model = requireChildForUpdate(model, element, address);
                 }
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         if(model == null) {
@@ -522,8 +532,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         authorizeModelUpdate();
         if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(address, NULL);
         Resource resource = this.model;
@@ -531,8 +540,10 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (element.isMultiTarget()) {
                 throw MESSAGES.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            resource = requireChildForUpdate(resource, element, address);
         }
+        // the caller may modify anything below the resource
+        copySubtreeForUpdate(resource, address);
         return resource;
     }
 
@@ -562,8 +573,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         authorizeModelUpdate();
         if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.model;
@@ -584,10 +594,12 @@ final class OperationContextImpl extends AbstractOperationContext {
                         throw MESSAGES.noChildType(key);
                     }
                     model.registerChild(element, toAdd);
+                    markCopied(toAdd);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                final Resource child = model.getChild(element);
+                model = child == null ? null : requireChildForUpdate(model, element, absoluteAddress);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -614,8 +626,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         authorizeModelUpdate();
         if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(address, NULL);
         Resource model = this.model;
@@ -628,7 +639,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (! i.hasNext()) {
                 model = model.removeChild(element);
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         return model;
@@ -699,6 +710,72 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Takes the write lock and creates the working copy of the model. Outside of boot only the root resource is
+     * copied, the resources below it are copied as they are navigated to for an update.
+     */
+    private void copyModel() {
+        takeWriteLock();
+        if (copiedResources == null) {
+            model = model.clone();
+        } else {
+            final Resource published = modelController.getPublishedModel();
+            model = ResourceCopySupport.copy(published);
+            copiedResources.put(model, !ResourceCopySupport.isShallowCopy(published));
+        }
+    }
+
+    /**
+     * Gets a child of a resource of the working copy of the model for an update. If the child is still shared with
+     * the published model it is replaced by a copy first.
+     *
+     * @param parent a resource of the working copy of the model
+     * @param childPath the path of the child
+     * @param fullAddress the full address, used for error reporting
+     * @return the child, private to this context
+     */
+    private Resource requireChildForUpdate(final Resource parent, final PathElement childPath, final PathAddress fullAddress) {
+        final Resource child = requireChild(parent, childPath, fullAddress);
+        if (copiedResources == null || copiedResources.containsKey(child)) {
+            return child;
+        }
+        if (Boolean.TRUE.equals(copiedResources.get(parent))) {
+            // the whole subtree is private already
+            copiedResources.put(child, Boolean.TRUE);
+            return child;
+        }
+        final Resource copy = ResourceCopySupport.copy(child);
+        copiedResources.put(copy, !ResourceCopySupport.isShallowCopy(child));
+        ResourceCopySupport.replaceChild(parent, childPath, copy);
+        return copy;
+    }
+
+    /**
+     * Makes sure no resource below the given resource is shared with the published model anymore.
+     */
+    private void copySubtreeForUpdate(final Resource resource, final PathAddress address) {
+        if (copiedResources == null || Boolean.TRUE.equals(copiedResources.get(resource))) {
+            return;
+        }
+        for (final String childType : resource.getChildTypes()) {
+            for (final String childName : resource.getChildrenNames(childType)) {
+                final PathElement childPath = PathElement.pathElement(childType, childName);
+                final PathAddress childAddress = address.append(childPath);
+                copySubtreeForUpdate(requireChildForUpdate(resource, childPath, childAddress), childAddress);
+            }
+        }
+        copiedResources.put(resource, Boolean.TRUE);
+    }
+
+    /**
+     * Records a resource which was added to the working copy of the model by this context.
+     */
+    private void markCopied(final Resource resource) {
+        if (copiedResources != null) {
+            copiedResources.put(resource, Boolean.TRUE);
+        }
+    }
+
     private static Resource requireChild(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
         if (resource.hasChild(childPath)) {
             return resource.requireChild(childPath);
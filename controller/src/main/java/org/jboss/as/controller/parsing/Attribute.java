@@ -46,6 +46,7 @@ public enum Attribute {
     BASE_DN("base-dn"),
     BOOT_TIME("boot-time"),
     CODE("code"),
+    CONFIGURATION_WRITE_INTERVAL("configuration-write-interval"),
     CONNECTION("connection"),
     CONNECTOR("connector"),
     CONSOLE_ENABLED("console-enabled"),
@@ -34,6 +34,7 @@ import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLMapper;
 
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAMESPACES;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 /**
@@ -47,6 +48,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     private final XMLElementWriter<ModelMarshallingContext> rootDeparser;
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemDeploymentWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+    private volatile SubsystemFragmentCache fragmentCache;
 
     /**
      * Construct a new instance.
@@ -57,11 +59,22 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
         this.rootDeparser = rootDeparser;
     }
 
+    /**
+     * Makes {@link #marshallAsXml(ModelNode, OutputStream)} reuse the output of the last run for every subsystem
+     * whose model did not change since.
+     */
+    protected void enableSubsystemFragmentCache() {
+        if (fragmentCache == null) {
+            fragmentCache = new SubsystemFragmentCache();
+        }
+    }
+
     @Override
     public void registerSubsystemWriter(String name, XMLElementWriter<SubsystemMarshallingContext> deparser) {
         synchronized (subsystemWriters) {
             subsystemWriters.put(name, deparser);
         }
+        clearFragmentCache();
     }
 
     @Override
@@ -69,6 +82,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
         synchronized (subsystemWriters) {
             subsystemWriters.remove(name);
         }
+        clearFragmentCache();
     }
 
     @Override
@@ -89,6 +103,10 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     @Override
     public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
         final XMLMapper mapper = XMLMapper.Factory.create();
+        final SubsystemFragmentCache fragmentCache = this.fragmentCache;
+        if (fragmentCache != null) {
+            fragmentCache.checkNamespaces(model.has(NAMESPACES) ? model.get(NAMESPACES) : new ModelNode());
+        }
         try {
             XMLStreamWriter streamWriter = null;
             try {
@@ -102,9 +120,14 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
                     @Override
                     public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(String extensionName) {
+                        final XMLElementWriter<SubsystemMarshallingContext> writer;
                         synchronized (subsystemWriters) {
-                            return subsystemWriters.get(extensionName);
+                            writer = subsystemWriters.get(extensionName);
+                        }
+                        if (writer == null || fragmentCache == null) {
+                            return writer;
                         }
+                        return fragmentCache.wrap(extensionName, writer);
                     }
 
                     @Override
@@ -142,6 +165,13 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     public void deleteSnapshot(String name) {
     }
 
+    private void clearFragmentCache() {
+        final SubsystemFragmentCache fragmentCache = this.fragmentCache;
+        if (fragmentCache != null) {
+            fragmentCache.clear();
+        }
+    }
+
     private static void safeClose(final XMLStreamWriter streamWriter) {
         if (streamWriter != null) try {
             streamWriter.close();
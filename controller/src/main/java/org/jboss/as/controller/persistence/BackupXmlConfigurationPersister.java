@@ -77,6 +77,11 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        return super.store(model, affectedAddresses);
+    }
+
+    @Override
+    protected PersistenceResource createPersistenceResource(final ModelNode model) throws ConfigurationPersistenceException {
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
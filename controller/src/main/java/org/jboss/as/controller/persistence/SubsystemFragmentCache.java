@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * Remembers how each subsystem was last marshalled, so that a subsystem whose model did not change since the
+ * previous write does not have to go through its {@link XMLElementWriter} again.
+ * <p/>
+ * Rather than the bytes, the calls the subsystem writer made on the {@link XMLExtendedStreamWriter} are recorded
+ * and replayed, which keeps the indentation and namespace handling of the enclosing document intact.
+ */
+final class SubsystemFragmentCache {
+
+    private final Map<String, Fragment> fragments = new HashMap<String, Fragment>();
+    private ModelNode namespaces;
+
+    /**
+     * Drops all fragments if the namespaces declared on the root element changed, as those decide which prefix
+     * a subsystem element gets.
+     *
+     * @param namespaces the namespaces of the model about to be marshalled
+     */
+    synchronized void checkNamespaces(final ModelNode namespaces) {
+        if (this.namespaces == null || !this.namespaces.equals(namespaces)) {
+            fragments.clear();
+            this.namespaces = namespaces.clone();
+        }
+    }
+
+    synchronized void clear() {
+        fragments.clear();
+    }
+
+    XMLElementWriter<SubsystemMarshallingContext> wrap(final String subsystemName, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        return new XMLElementWriter<SubsystemMarshallingContext>() {
+            @Override
+            public void writeContent(final XMLExtendedStreamWriter streamWriter, final SubsystemMarshallingContext context) throws XMLStreamException {
+                final ModelNode model = context.getModelNode();
+                final String defaultNamespace = streamWriter.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+                final Fragment cached = get(subsystemName);
+                if (cached != null && cached.matches(writer, model, defaultNamespace)) {
+                    cached.replay(streamWriter);
+                    return;
+                }
+                final Recorder recorder = new Recorder(streamWriter);
+                final XMLExtendedStreamWriter recording = (XMLExtendedStreamWriter) Proxy.newProxyInstance(
+                        XMLExtendedStreamWriter.class.getClassLoader(), new Class<?>[] {XMLExtendedStreamWriter.class}, recorder);
+                writer.writeContent(recording, new SubsystemMarshallingContext(model, recording));
+                put(subsystemName, new Fragment(writer, model.clone(), defaultNamespace, recorder.calls));
+            }
+        };
+    }
+
+    private synchronized Fragment get(final String subsystemName) {
+        return fragments.get(subsystemName);
+    }
+
+    private synchronized void put(final String subsystemName, final Fragment fragment) {
+        fragments.put(subsystemName, fragment);
+    }
+
+    private static final class Fragment {
+        private final XMLElementWriter<SubsystemMarshallingContext> writer;
+        private final ModelNode model;
+        private final String defaultNamespace;
+        private final List<Call> calls;
+
+        Fragment(final XMLElementWriter<SubsystemMarshallingContext> writer, final ModelNode model, final String defaultNamespace, final List<Call> calls) {
+            this.writer = writer;
+            this.model = model;
+            this.defaultNamespace = defaultNamespace;
+            this.calls = calls;
+        }
+
+        boolean matches(final XMLElementWriter<SubsystemMarshallingContext> writer, final ModelNode model, final String defaultNamespace) {
+            return this.writer == writer
+                    && (this.defaultNamespace == null ? defaultNamespace == null : this.defaultNamespace.equals(defaultNamespace))
+                    && this.model.equals(model);
+        }
+
+        void replay(final XMLExtendedStreamWriter streamWriter) throws XMLStreamException {
+            for (Call call : calls) {
+                call.invoke(streamWriter);
+            }
+        }
+    }
+
+    /**
+     * Forwards everything to the real writer and records the calls which produce output or change its state.
+     */
+    private static final class Recorder implements InvocationHandler {
+        private final XMLExtendedStreamWriter delegate;
+        private final List<Call> calls = new ArrayList<Call>();
+
+        Recorder(final XMLExtendedStreamWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            final String name = method.getName();
+            if (method.getReturnType() == void.class && !"flush".equals(name) && !"close".equals(name)) {
+                calls.add(new Call(method, copy(args)));
+            }
+            return result;
+        }
+
+        private static Object[] copy(final Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            final Object[] copy = args.clone();
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i] instanceof char[]) {
+                    copy[i] = ((char[]) copy[i]).clone();
+                } else if (copy[i] instanceof String[]) {
+                    copy[i] = ((String[]) copy[i]).clone();
+                }
+            }
+            return copy;
+        }
+    }
+
+    private static final class Call {
+        private final Method method;
+        private final Object[] args;
+
+        Call(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        void invoke(final XMLExtendedStreamWriter streamWriter) throws XMLStreamException {
+            try {
+                method.invoke(streamWriter, args);
+            } catch (IllegalAccessException e) {
+                throw new XMLStreamException(e);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof XMLStreamException) {
+                    throw (XMLStreamException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new XMLStreamException(cause);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.persistence;
 
+import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
@@ -36,6 +37,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
@@ -58,6 +62,16 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
+    private volatile long writeInterval;
+    /** Guards the state of the deferred writes */
+    private final Object pendingLock = new Object();
+    /** Serializes the deferred writes, so that an older model can never overwrite a newer one */
+    private final Object writeLock = new Object();
+    private ModelNode pendingModel;
+    private ConfigurationPersistenceException writeFailure;
+    private boolean writeScheduled;
+    private boolean shutdown;
+    private ScheduledThreadPoolExecutor writeExecutor;
 
     /**
      * Construct a new instance.
@@ -75,6 +89,26 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         additionalParsers = new HashMap<QName, XMLElementReader<List<ModelNode>>>();
     }
 
+    /**
+     * Sets the minimum number of milliseconds between two writes of the configuration file. If greater than zero,
+     * committed changes are written by a background thread once the interval has elapsed, so any number of changes
+     * in between cost a single write. Zero, the default, writes every change as part of the operation that made it.
+     * <p>
+     * If a deferred write fails, the next call to {@link #store(ModelNode, Set)} throws the failure.
+     *
+     * @param writeInterval the interval in milliseconds
+     */
+    public void setWriteInterval(final long writeInterval) {
+        if (writeInterval > 0) {
+            enableSubsystemFragmentCache();
+        }
+        this.writeInterval = writeInterval;
+        if (writeInterval <= 0) {
+            // a deferred write must not overwrite the changes written synchronously from now on
+            writePending();
+        }
+    }
+
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
         synchronized (additionalParsers) {
             additionalParsers.put(anotherRoot, parser);
@@ -84,9 +118,128 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+        final ConfigurationPersistenceException failure;
+        synchronized (pendingLock) {
+            failure = writeFailure;
+            writeFailure = null;
+        }
+        if (failure != null) {
+            throw MESSAGES.deferredWriteFailed(failure, fileName.getName());
+        }
+        if (writeInterval > 0) {
+            return new DeferredPersistenceResource(model);
+        }
+        return createPersistenceResource(model);
+    }
+
+    /**
+     * Creates the resource which marshals the given model and writes it out upon commit.
+     *
+     * @param model the model to store
+     * @return the persistence resource
+     * @throws ConfigurationPersistenceException if the model cannot be marshalled
+     */
+    protected PersistenceResource createPersistenceResource(final ModelNode model) throws ConfigurationPersistenceException {
         return new FilePersistenceResource(model, fileName, this);
     }
 
+    /**
+     * Writes the last committed change if that has been deferred and stops the background writer. Changes
+     * committed afterwards are written immediately.
+     */
+    public void shutdown() {
+        final ScheduledThreadPoolExecutor executor;
+        synchronized (pendingLock) {
+            shutdown = true;
+            executor = writeExecutor;
+            writeExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        writePending();
+    }
+
+    private void schedulePendingWrite(final ModelNode model) {
+        synchronized (pendingLock) {
+            pendingModel = model;
+            if (!shutdown) {
+                if (!writeScheduled) {
+                    if (writeExecutor == null) {
+                        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                            @Override
+                            public Thread newThread(final Runnable r) {
+                                final Thread thread = new Thread(r, "Configuration Persister " + fileName.getName());
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                        });
+                        // shutdown() writes whatever is pending itself
+                        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                        writeExecutor = executor;
+                    }
+                    writeExecutor.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            writePending();
+                        }
+                    }, writeInterval, TimeUnit.MILLISECONDS);
+                    writeScheduled = true;
+                }
+                return;
+            }
+        }
+        writePending();
+    }
+
+    private void writePending() {
+        synchronized (writeLock) {
+            final ModelNode model;
+            synchronized (pendingLock) {
+                model = pendingModel;
+                pendingModel = null;
+                writeScheduled = false;
+            }
+            if (model == null) {
+                return;
+            }
+            try {
+                createPersistenceResource(model).commit();
+            } catch (ConfigurationPersistenceException e) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+                synchronized (pendingLock) {
+                    writeFailure = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Only remembers the committed model, which gets marshalled and written later on by the background writer.
+     */
+    private class DeferredPersistenceResource implements PersistenceResource {
+
+        private volatile ModelNode model;
+
+        DeferredPersistenceResource(final ModelNode model) {
+            this.model = model;
+        }
+
+        @Override
+        public void commit() {
+            final ModelNode model = this.model;
+            if (model == null) {
+                throw MESSAGES.rollbackAlreadyInvoked();
+            }
+            schedulePendingWrite(model);
+        }
+
+        @Override
+        public void rollback() {
+            model = null;
+        }
+    }
+
     /**
      * Unused and deprecated.
      *
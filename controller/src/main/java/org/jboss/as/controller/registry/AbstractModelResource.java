@@ -144,6 +144,22 @@ public abstract class AbstractModelResource implements Resource {
         return provider.remove(address.getValue());
     }
 
+    /**
+     * Replaces a registered child, keeping its position among its siblings.
+     *
+     * @param address the address of the child
+     * @param resource the new child
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        final ResourceProvider provider = getProvider(address.getKey());
+        if(provider instanceof DefaultResourceProvider) {
+            ((DefaultResourceProvider) provider).replace(address.getValue(), resource);
+        } else {
+            removeChild(address);
+            registerChild(address, resource);
+        }
+    }
+
     @Override
     public boolean isProxy() {
         return false;
@@ -234,6 +250,13 @@ public abstract class AbstractModelResource implements Resource {
                 return children.remove(name);
             }
         }
+
+        void replace(String name, Resource resource) {
+            synchronized (children) {
+                // re-putting an existing key keeps the iteration order
+                children.put(name, resource);
+            }
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.registry;
 
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
 import java.util.ConcurrentModificationException;
@@ -60,20 +61,45 @@ class BasicResource extends AbstractModelResource implements Resource {
     @Override
     public Resource clone() {
         final Resource clone = new BasicResource();
+        copyModel(clone);
+        for(final String childType : getChildTypes()) {
+            for(final ResourceEntry child : getChildren(childType)) {
+                clone.registerChild(child.getPathElement(), child.clone());
+            }
+        }
+        return clone;
+    }
+
+    private void copyModel(final Resource target) {
         for (;;) {
             try {
-                clone.writeModel(model);
+                target.writeModel(model);
                 break;
             } catch (ConcurrentModificationException ignore) {
                 // TODO horrible hack :(
             }
         }
+    }
+
+    /**
+     * Creates a copy of this resource which shares the child resources with this resource. Only the copy itself
+     * may be modified, a child has to be copied in turn before it can be modified.
+     *
+     * @return the copy
+     */
+    Resource shallowCopy() {
+        final Resource copy = new BasicResource();
+        copyModel(copy);
         for(final String childType : getChildTypes()) {
-            for(final ResourceEntry child : getChildren(childType)) {
-                clone.registerChild(child.getPathElement(), child.clone());
+            final ResourceProvider provider = getProvider(childType);
+            for(final String name : provider.children()) {
+                final Resource child = provider.get(name);
+                if(child != null) {
+                    copy.registerChild(PathElement.pathElement(childType, name), child);
+                }
             }
         }
-        return clone;
+        return copy;
     }
 
 }
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * Support for copying the resource tree path by path. A write only copies the resources on the path to the
+ * resource it modifies, all other resources are shared with the model the copy was taken from.
+ *
+ * <p>This is an internal API of the model controller.</p>
+ */
+public final class ResourceCopySupport {
+
+    private ResourceCopySupport() {
+    }
+
+    /**
+     * Gets whether {@link #copy(Resource)} creates a copy which shares the children with the original resource.
+     *
+     * @param resource the resource
+     * @return {@code true} if the children are shared, {@code false} if the resource is cloned
+     */
+    public static boolean isShallowCopy(final Resource resource) {
+        return resource.getClass() == BasicResource.class;
+    }
+
+    /**
+     * Copies a resource. A standard resource is copied without its children, which are shared with the original
+     * resource. Any other resource is {@link Resource#clone() cloned}.
+     *
+     * @param resource the resource
+     * @return the copy
+     */
+    public static Resource copy(final Resource resource) {
+        if (isShallowCopy(resource)) {
+            return ((BasicResource) resource).shallowCopy();
+        }
+        return resource.clone();
+    }
+
+    /**
+     * Replaces a child of a resource, keeping its position among its siblings.
+     *
+     * @param parent the parent resource
+     * @param address the address of the child
+     * @param child the new child
+     */
+    public static void replaceChild(final Resource parent, final PathElement address, final Resource child) {
+        if (parent instanceof AbstractModelResource) {
+            ((AbstractModelResource) parent).replaceChild(address, child);
+        } else {
+            parent.removeChild(address);
+            parent.registerChild(address, child);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of read operations executed by the {@link ModelControllerImpl}, alone and while another
+ * thread keeps executing write operations that make the {@link OperationContextImpl} copy the updated path of the
+ * model and publish it. The model has <code>children</code> resources with one child each; the writer updates the first
+ * of them, the three readers read the last. Not run by the build; after <code>mvn test-compile</code> run it with:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jboss.as.controller.CopyOnWriteReadBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CopyOnWriteReadBenchmark {
+
+    @Param({ "10", "1000" })
+    public int children;
+
+    private ServiceContainer container;
+    private ModelControllerImpl controller;
+    private ModelNode read;
+    private ModelNode write;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        this.container = ServiceContainer.Factory.create("benchmark");
+        final ModelControllerService svc = new ModelControllerService();
+        this.container.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        this.controller = (ModelControllerImpl) svc.getValue();
+        final ModelNode setup = operation("setup", PathAddress.EMPTY_ADDRESS);
+        setup.get("children").set(this.children);
+        this.controller.execute(setup, null, null, null);
+        this.read = operation("read", address(this.children - 1));
+        this.write = operation("write", address(0));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.container.shutdown();
+        this.container.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @Threads(3)
+    public ModelNode readOnly() {
+        return this.controller.execute(this.read, null, null, null);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public ModelNode read() {
+        return this.controller.execute(this.read, null, null, null);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public ModelNode write() {
+        return this.controller.execute(this.write, null, null, null);
+    }
+
+    private static PathAddress address(final int child) {
+        return PathAddress.pathAddress(PathElement.pathElement("child", String.valueOf(child)), PathElement.pathElement("grandchild", "one"));
+    }
+
+    private static ModelNode operation(final String name, final PathAddress address) {
+        final ModelNode op = new ModelNode();
+        op.get(OP).set(name);
+        op.get(OP_ADDR).set(address.toModelNode());
+        return op;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CopyOnWriteReadBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static class ModelControllerService extends TestModelControllerService {
+
+        @Override
+        protected void initModel(final Resource rootResource, final ManagementResourceRegistration rootRegistration) {
+            rootRegistration.registerOperationHandler("setup", new SetupHandler(), DESC_PROVIDER, false);
+            rootRegistration.registerOperationHandler("read", new ReadHandler(), DESC_PROVIDER, true);
+            rootRegistration.registerOperationHandler("write", new WriteHandler(), DESC_PROVIDER, true);
+            final ManagementResourceRegistration child = rootRegistration.registerSubModel(
+                    new SimpleResourceDefinition(PathElement.pathElement("child"), new NonResolvingResourceDescriptionResolver()));
+            child.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("grandchild"), new NonResolvingResourceDescriptionResolver()));
+        }
+    }
+
+    private static class SetupHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            final int children = operation.require("children").asInt();
+            for (int i = 0; i < children; i++) {
+                final PathElement child = PathElement.pathElement("child", String.valueOf(i));
+                context.createResource(PathAddress.pathAddress(child)).getModel().get("attr").set(i);
+                context.createResource(PathAddress.pathAddress(child, PathElement.pathElement("grandchild", "one"))).getModel().get("attr").set(i);
+            }
+            context.stepCompleted();
+        }
+    }
+
+    private static class ReadHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            context.getResult().set(context.readResource(PathAddress.EMPTY_ADDRESS).getModel().get("attr"));
+            context.stepCompleted();
+        }
+    }
+
+    private static class WriteHandler implements OperationStepHandler {
+        private int value;
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            // only ever executed by the writer thread, with the controller lock held
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(++value);
+            context.stepCompleted();
+        }
+    }
+}
@@ -54,7 +54,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -685,6 +689,45 @@ public class ModelControllerImplUnitTestCase {
         assertEquals(FAILED, result.get(OUTCOME).asString());
     }
 
+    @Test
+    public void testModelChangeListener() throws Exception {
+        final List<Resource> models = new ArrayList<Resource>();
+        final List<Set<PathAddress>> changes = new ArrayList<Set<PathAddress>>();
+        final ModelChangeListener listener = new ModelChangeListener() {
+            @Override
+            public void modelChanged(Resource model, Set<PathAddress> addresses) {
+                models.add(model);
+                changes.add(addresses);
+            }
+        };
+        final ModelChangeListener.Registry registry = (ModelChangeListener.Registry) controller;
+
+        // the listener starts from the whole model
+        registry.addModelChangeListener(listener);
+        assertEquals(1, changes.size());
+        assertEquals(Collections.singleton(PathAddress.EMPTY_ADDRESS), changes.get(0));
+        assertTrue(models.get(0).hasChild(CHILD_ONE.getLastElement()));
+
+        // rolled back changes are not published
+        controller.execute(getOperation("good", "attr1", 5), null, RollbackTransactionControl.INSTANCE, null);
+        assertEquals(1, changes.size());
+        // and reads do not change anything
+        assertEquals(SUCCESS, controller.execute(getOperation("read-attribute", CHILD_ONE, "attribute1", 1), null, null, null).get(OUTCOME).asString());
+        assertEquals(1, changes.size());
+
+        ModelNode result = controller.execute(getOperation("remove-bad-service", CHILD_ONE, "attribute1", 6), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(2, changes.size());
+        assertEquals(Collections.singleton(CHILD_ONE), changes.get(1));
+        assertFalse(models.get(1).hasChild(CHILD_ONE.getLastElement()));
+        assertTrue(models.get(1).hasChild(CHILD_TWO.getLastElement()));
+
+        registry.removeModelChangeListener(listener);
+        result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(2, changes.size());
+    }
+
     public static ModelNode getOperation(String opName, String attr, int val) {
         return getOperation(opName, attr, val, null, false);
     }
@@ -0,0 +1,247 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link OperationContextImpl} only copies the resources a write operation updates, and never modifies
+ * the model published by the {@link ModelControllerImpl}.
+ */
+public class OperationContextCopyOnWriteUnitTestCase {
+
+    private static final PathElement CHILD_ONE = PathElement.pathElement("child", "one");
+    private static final PathElement CHILD_TWO = PathElement.pathElement("child", "two");
+    private static final PathElement GRANDCHILD = PathElement.pathElement("grandchild", "one");
+
+    private ServiceContainer container;
+    private ModelControllerImpl controller;
+
+    @Before
+    public void setupController() throws InterruptedException {
+        container = ServiceContainer.Factory.create("test");
+        final ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = (ModelControllerImpl) svc.getValue();
+        assertSuccess(controller.execute(operation("setup", PathAddress.EMPTY_ADDRESS), null, null, null));
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testWriteLeavesPublishedModelUnchanged() {
+        final Resource published = controller.getPublishedModel();
+        final ModelNode before = Resource.Tools.readModel(published);
+
+        assertSuccess(controller.execute(write(PathAddress.pathAddress(CHILD_ONE, GRANDCHILD), 5), null, null, null));
+
+        assertEquals(before, Resource.Tools.readModel(published));
+        final Resource updated = controller.getPublishedModel();
+        assertNotSame(published, updated);
+        assertEquals(5, updated.navigate(PathAddress.pathAddress(CHILD_ONE, GRANDCHILD)).getModel().get("attr").asInt());
+    }
+
+    @Test
+    public void testWriteSharesSiblings() {
+        final Resource published = controller.getPublishedModel();
+
+        assertSuccess(controller.execute(write(PathAddress.pathAddress(CHILD_ONE, GRANDCHILD), 5), null, null, null));
+
+        final Resource updated = controller.getPublishedModel();
+        // only the resources on the path to the updated resource are copied
+        assertNotSame(published.getChild(CHILD_ONE), updated.getChild(CHILD_ONE));
+        assertNotSame(published.navigate(PathAddress.pathAddress(CHILD_ONE, GRANDCHILD)),
+                updated.navigate(PathAddress.pathAddress(CHILD_ONE, GRANDCHILD)));
+        assertSame(published.getChild(CHILD_TWO), updated.getChild(CHILD_TWO));
+        assertSame(published.navigate(PathAddress.pathAddress(CHILD_TWO, GRANDCHILD)),
+                updated.navigate(PathAddress.pathAddress(CHILD_TWO, GRANDCHILD)));
+    }
+
+    @Test
+    public void testUpdateOfParentCopiesSubtree() {
+        final Resource published = controller.getPublishedModel();
+        final ModelNode before = Resource.Tools.readModel(published);
+
+        // modifies a grandchild through the resource returned for the root
+        assertSuccess(controller.execute(operation("write-through-root", PathAddress.EMPTY_ADDRESS), null, null, null));
+
+        assertEquals(before, Resource.Tools.readModel(published));
+        assertEquals(7, controller.getPublishedModel().navigate(PathAddress.pathAddress(CHILD_TWO, GRANDCHILD)).getModel().get("attr").asInt());
+    }
+
+    @Test
+    public void testResourceCopiedOncePerOperation() {
+        final ModelNode result = controller.execute(operation("update-twice", PathAddress.pathAddress(CHILD_ONE)), null, null, null);
+        assertSuccess(result);
+        assertTrue(result.get(RESULT).asBoolean());
+    }
+
+    @Test
+    public void testCreatedResourceIsNotCopied() {
+        final PathAddress address = PathAddress.pathAddress(CHILD_ONE, PathElement.pathElement("grandchild", "new"));
+        final ModelNode result = controller.execute(operation("create-and-update", address), null, null, null);
+        assertSuccess(result);
+        assertTrue(result.get(RESULT).asBoolean());
+        assertEquals(3, controller.getPublishedModel().navigate(address).getModel().get("attr").asInt());
+    }
+
+    @Test
+    public void testFailedWriteKeepsPublishedModel() {
+        final Resource published = controller.getPublishedModel();
+        final ModelNode before = Resource.Tools.readModel(published);
+
+        final ModelNode result = controller.execute(operation("write-and-fail", PathAddress.pathAddress(CHILD_ONE, GRANDCHILD)), null, null, null);
+        assertEquals(FAILED, result.get(OUTCOME).asString());
+
+        assertSame(published, controller.getPublishedModel());
+        assertEquals(before, Resource.Tools.readModel(published));
+    }
+
+    private static void assertSuccess(final ModelNode result) {
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+    }
+
+    private static ModelNode operation(final String name, final PathAddress address) {
+        final ModelNode op = new ModelNode();
+        op.get(OP).set(name);
+        op.get(OP_ADDR).set(address.toModelNode());
+        return op;
+    }
+
+    private static ModelNode write(final PathAddress address, final int value) {
+        final ModelNode op = operation("write", address);
+        op.get("value").set(value);
+        return op;
+    }
+
+    private static class ModelControllerService extends TestModelControllerService {
+
+        @Override
+        protected void initModel(final Resource rootResource, final ManagementResourceRegistration rootRegistration) {
+            rootRegistration.registerOperationHandler("setup", new SetupHandler(), DESC_PROVIDER, false);
+            rootRegistration.registerOperationHandler("write-through-root", new WriteThroughRootHandler(), DESC_PROVIDER, false);
+            rootRegistration.registerOperationHandler("write", new WriteHandler(), DESC_PROVIDER, true);
+            rootRegistration.registerOperationHandler("update-twice", new UpdateTwiceHandler(), DESC_PROVIDER, true);
+            rootRegistration.registerOperationHandler("create-and-update", new CreateAndUpdateHandler(), DESC_PROVIDER, true);
+            rootRegistration.registerOperationHandler("write-and-fail", new WriteAndFailHandler(), DESC_PROVIDER, true);
+            final ManagementResourceRegistration child = rootRegistration.registerSubModel(
+                    new SimpleResourceDefinition(PathElement.pathElement("child"), new NonResolvingResourceDescriptionResolver()));
+            child.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("grandchild"), new NonResolvingResourceDescriptionResolver()));
+        }
+    }
+
+    private static class SetupHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(0);
+            for (PathElement child : new PathElement[] {CHILD_ONE, CHILD_TWO}) {
+                context.createResource(PathAddress.pathAddress(child)).getModel().get("attr").set(1);
+                context.createResource(PathAddress.pathAddress(child, GRANDCHILD)).getModel().get("attr").set(2);
+            }
+            context.stepCompleted();
+        }
+    }
+
+    private static class WriteHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(operation.require("value"));
+            context.stepCompleted();
+        }
+    }
+
+    private static class WriteThroughRootHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            final Resource root = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
+            root.navigate(PathAddress.pathAddress(CHILD_TWO, GRANDCHILD)).getModel().get("attr").set(7);
+            context.stepCompleted();
+        }
+    }
+
+    private static class UpdateTwiceHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            final Resource first = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) {
+                    context.getResult().set(first == context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS));
+                    context.stepCompleted();
+                }
+            }, OperationContext.Stage.MODEL);
+            context.stepCompleted();
+        }
+    }
+
+    private static class CreateAndUpdateHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) {
+            final Resource created = context.createResource(PathAddress.EMPTY_ADDRESS);
+            final Resource updated = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
+            updated.getModel().get("attr").set(3);
+            context.getResult().set(created == updated);
+            context.stepCompleted();
+        }
+    }
+
+    private static class WriteAndFailHandler implements OperationStepHandler {
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr").set(9);
+            throw new OperationFailedException(new ModelNode("failed on purpose"));
+        }
+    }
+}
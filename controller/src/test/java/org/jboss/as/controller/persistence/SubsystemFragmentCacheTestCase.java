@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import junit.framework.Assert;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link SubsystemFragmentCache}.
+ */
+public class SubsystemFragmentCacheTestCase {
+
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    private final XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = new XMLElementWriter<SubsystemMarshallingContext>() {
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
+            invocations.incrementAndGet();
+            context.startSubsystemElement("urn:test:1.0", false);
+            writer.writeAttribute("value", context.getModelNode().get("value").asString());
+            writer.writeStartElement("child");
+            writer.writeCharacters(context.getModelNode().get("text").asString());
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    };
+
+    @Test
+    public void testUnchangedSubsystemIsReplayed() throws Exception {
+        final SubsystemFragmentCache cache = new SubsystemFragmentCache();
+        final ModelNode model = createModel();
+
+        final String first = marshal(cache, model);
+        Assert.assertEquals(marshal(null, model), first);
+        Assert.assertEquals(4, invocations.get());
+
+        // nothing changed, both subsystems come from the cache
+        Assert.assertEquals(first, marshal(cache, model.clone()));
+        Assert.assertEquals(4, invocations.get());
+
+        // only the changed subsystem goes through its writer again
+        model.get("b", "text").set("changed");
+        final String second = marshal(cache, model);
+        Assert.assertEquals(5, invocations.get());
+        Assert.assertEquals(marshal(null, model), second);
+    }
+
+    @Test
+    public void testClearDropsFragments() throws Exception {
+        final SubsystemFragmentCache cache = new SubsystemFragmentCache();
+        final ModelNode model = createModel();
+        marshal(cache, model);
+        cache.clear();
+        marshal(cache, model);
+        Assert.assertEquals(4, invocations.get());
+    }
+
+    private String marshal(final SubsystemFragmentCache cache, final ModelNode model) throws Exception {
+        if (cache != null) {
+            cache.checkNamespaces(new ModelNode());
+        }
+        final XMLElementWriter<ModelNode> rootWriter = new XMLElementWriter<ModelNode>() {
+            @Override
+            public void writeContent(XMLExtendedStreamWriter writer, ModelNode value) throws XMLStreamException {
+                writer.writeStartDocument();
+                writer.writeStartElement("server");
+                for (String name : value.keys()) {
+                    final XMLElementWriter<SubsystemMarshallingContext> subsystem = cache == null ? subsystemWriter : cache.wrap(name, subsystemWriter);
+                    subsystem.writeContent(writer, new SubsystemMarshallingContext(value.get(name), writer));
+                }
+                writer.writeEndElement();
+                writer.writeEndDocument();
+            }
+        };
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final XMLStreamWriter streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+        XMLMapper.Factory.create().deparseDocument(rootWriter, model, streamWriter);
+        streamWriter.close();
+        return output.toString("UTF-8");
+    }
+
+    private static ModelNode createModel() {
+        final ModelNode model = new ModelNode();
+        model.get("a", "value").set("one");
+        model.get("a", "text").set("first");
+        model.get("b", "value").set("two");
+        model.get("b", "text").set("second");
+        return model;
+    }
+}
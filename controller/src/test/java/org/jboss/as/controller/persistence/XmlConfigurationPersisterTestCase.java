@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Assert;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the deferred writes of {@link XmlConfigurationPersister}.
+ */
+public class XmlConfigurationPersisterTestCase {
+
+    private static final long NEVER = Long.MAX_VALUE / 2;
+
+    private File configFile;
+
+    @Before
+    public void createFile() throws Exception {
+        File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        configFile = new File(tgt, "xml-persister-test.xml");
+        configFile.delete();
+    }
+
+    @After
+    public void deleteFile() {
+        configFile.delete();
+    }
+
+    @Test
+    public void testSynchronousWrite() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        store(persister, "One");
+        assertFileContents("One");
+        Assert.assertEquals(1, persister.marshalled);
+    }
+
+    @Test
+    public void testDeferredWrite() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(NEVER);
+        store(persister, "One");
+        store(persister, "Two");
+        Assert.assertFalse(configFile.exists());
+        Assert.assertEquals(0, persister.marshalled);
+
+        // going back to synchronous writes writes the last pending change first
+        persister.setWriteInterval(0);
+        assertFileContents("Two");
+        Assert.assertEquals(1, persister.marshalled);
+
+        store(persister, "Three");
+        assertFileContents("Three");
+    }
+
+    @Test
+    public void testDeferredWriteAfterInterval() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(10);
+        store(persister, "One");
+        long timeout = System.currentTimeMillis() + 10000;
+        while (!configFile.exists() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertFileContents("One");
+        persister.shutdown();
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(NEVER);
+        store(persister, "One");
+        persister.store(new ModelNode("Two"), Collections.<PathAddress>emptySet()).rollback();
+        persister.shutdown();
+        assertFileContents("One");
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(NEVER);
+        store(persister, "One");
+        Assert.assertFalse(configFile.exists());
+        persister.shutdown();
+        assertFileContents("One");
+
+        // changes committed after the shutdown are written straight away
+        store(persister, "Two");
+        assertFileContents("Two");
+    }
+
+    @Test
+    public void testFailedDeferredWrite() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(NEVER);
+        store(persister, "One");
+        persister.shutdown();
+        assertFileContents("One");
+
+        persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(NEVER);
+        store(persister, "fail");
+        persister.setWriteInterval(0);
+        assertFileContents("One");
+
+        // the next change is rejected with the failure
+        try {
+            persister.store(new ModelNode("Two"), Collections.<PathAddress>emptySet());
+            Assert.fail("The failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        assertFileContents("One");
+
+        // and the one after that writes the configuration again
+        store(persister, "Three");
+        assertFileContents("Three");
+    }
+
+    @Test
+    public void testFailedWriteOnShutdown() throws Exception {
+        TestXmlConfigurationPersister persister = new TestXmlConfigurationPersister(configFile);
+        persister.setWriteInterval(NEVER);
+        store(persister, "fail");
+        persister.shutdown();
+        Assert.assertFalse(configFile.exists());
+        try {
+            persister.store(new ModelNode("One"), Collections.<PathAddress>emptySet());
+            Assert.fail("The failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+    }
+
+    private void store(XmlConfigurationPersister persister, String s) throws Exception {
+        persister.store(new ModelNode(s), Collections.<PathAddress>emptySet()).commit();
+    }
+
+    private void assertFileContents(String expectedContents) throws Exception {
+        Assert.assertTrue(configFile + " does not exist", configFile.exists());
+        BufferedReader in = new BufferedReader(new FileReader(configFile));
+        try {
+            Assert.assertEquals(expectedContents, in.readLine());
+        } finally {
+            in.close();
+        }
+    }
+
+    private static class TestXmlConfigurationPersister extends XmlConfigurationPersister {
+
+        private volatile int marshalled;
+
+        TestXmlConfigurationPersister(File fileName) {
+            super(fileName, new QName("urn:test", "test"), null, null);
+        }
+
+        @Override
+        public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
+            if (model.asString().equals("fail")) {
+                throw new ConfigurationPersistenceException("Cannot marshal " + model);
+            }
+            marshalled++;
+            try {
+                output.write(model.asString().getBytes());
+            } catch (Exception e) {
+                throw new ConfigurationPersistenceException(e);
+            }
+        }
+    }
+}
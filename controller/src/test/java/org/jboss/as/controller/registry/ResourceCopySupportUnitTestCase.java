@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ResourceCopySupport}.
+ */
+public class ResourceCopySupportUnitTestCase {
+
+    private static final int SUBSYSTEMS = 40;
+    private static final int CHILDREN = 50;
+
+    @Test
+    public void testCopySharesChildren() {
+        final Resource root = createModel();
+        final PathElement subsystem = PathElement.pathElement("subsystem", "s1");
+        final Resource copy = ResourceCopySupport.copy(root);
+
+        assertNotSame(root, copy);
+        assertEquals(root.getModel(), copy.getModel());
+        assertSame(root.getChild(subsystem), copy.getChild(subsystem));
+
+        copy.getModel().get("attr").set("changed");
+        assertEquals("root", root.getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testReplaceChildKeepsOrder() {
+        final Resource root = createModel();
+        final PathElement subsystem = PathElement.pathElement("subsystem", "s1");
+        final Resource copy = ResourceCopySupport.copy(root);
+        final Resource child = ResourceCopySupport.copy(copy.getChild(subsystem));
+        child.getModel().get("attr").set("changed");
+        ResourceCopySupport.replaceChild(copy, subsystem, child);
+
+        assertEquals(new ArrayList<String>(root.getChildrenNames("subsystem")), new ArrayList<String>(copy.getChildrenNames("subsystem")));
+        assertSame(child, copy.getChild(subsystem));
+        assertEquals("s1", root.getChild(subsystem).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testPathCopyingLeavesPublishedModelUntouched() {
+        final Resource root = createModel();
+        final ModelNode before = Resource.Tools.readModel(root);
+        final Resource copy = updatePath(root, 7, 11, "changed");
+
+        assertEquals(before, Resource.Tools.readModel(root));
+        assertEquals("changed", copy.navigate(address(7, 11)).getModel().get("attr").asString());
+        // everything off the path is still shared
+        assertSame(root.getChild(PathElement.pathElement("subsystem", "s8")), copy.getChild(PathElement.pathElement("subsystem", "s8")));
+    }
+
+    private static Resource updatePath(final Resource published, final int subsystem, final int child, final String value) {
+        final Resource root = ResourceCopySupport.copy(published);
+        final PathElement subsystemPath = PathElement.pathElement("subsystem", "s" + subsystem);
+        final Resource subsystemCopy = ResourceCopySupport.copy(root.getChild(subsystemPath));
+        ResourceCopySupport.replaceChild(root, subsystemPath, subsystemCopy);
+        final PathElement childPath = PathElement.pathElement("child", "c" + child);
+        final Resource childCopy = ResourceCopySupport.copy(subsystemCopy.getChild(childPath));
+        ResourceCopySupport.replaceChild(subsystemCopy, childPath, childCopy);
+        childCopy.getModel().get("attr").set(value);
+        return root;
+    }
+
+    private static PathAddress address(final int subsystem, final int child) {
+        return PathAddress.pathAddress(PathElement.pathElement("subsystem", "s" + subsystem),
+                PathElement.pathElement("child", "c" + child));
+    }
+
+    private static Resource createModel() {
+        final Resource root = Resource.Factory.create();
+        root.getModel().get("attr").set("root");
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            final Resource subsystem = Resource.Factory.create();
+            subsystem.getModel().get("attr").set("s" + i);
+            for (int j = 0; j < CHILDREN; j++) {
+                final Resource child = Resource.Factory.create();
+                child.getModel().get("attr").set("c" + j);
+                subsystem.registerChild(PathElement.pathElement("child", "c" + j), child);
+            }
+            root.registerChild(PathElement.pathElement("subsystem", "s" + i), subsystem);
+        }
+        return root;
+    }
+}
@@ -142,6 +142,41 @@ public class StandaloneRootResourceTestCase extends AbstractCoreModelTest {
         ModelTestUtils.compareXml(originalXml, persistedXml);
     }
 
+    @Test
+    public void testConfigurationWriteInterval() throws Exception {
+        KernelServices kernelServices = createEmptyRoot();
+
+        ModelNode read = Util.createOperation(READ_ATTRIBUTE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        read.get(NAME).set(ModelDescriptionConstants.CONFIGURATION_WRITE_INTERVAL);
+        Assert.assertEquals(0L, kernelServices.executeForResult(read).asLong());
+
+        ModelNode write = Util.createOperation(WRITE_ATTRIBUTE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        write.get(NAME).set(ModelDescriptionConstants.CONFIGURATION_WRITE_INTERVAL);
+        write.get(VALUE).set(5000L);
+        ModelTestUtils.checkOutcome(kernelServices.executeOperation(write));
+        Assert.assertEquals(5000L, kernelServices.executeForResult(read).asLong());
+
+        write.get(VALUE).set(-1L);
+        kernelServices.executeForFailure(write);
+        Assert.assertEquals(5000L, kernelServices.executeForResult(read).asLong());
+    }
+
+    @Test
+    public void testConfigurationWriteIntervalSetInXml() throws Exception {
+        String originalXml = "<server xmlns=\"" + Namespace.CURRENT.getUriString() + "\" configuration-write-interval=\"1000\"/>";
+        KernelServices kernelServices = createKernelServicesBuilder()
+                .setXml(originalXml)
+                .build();
+        Assert.assertTrue(kernelServices.isSuccessfulBoot());
+
+        ModelNode read = Util.createOperation(READ_ATTRIBUTE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        read.get(NAME).set(ModelDescriptionConstants.CONFIGURATION_WRITE_INTERVAL);
+        Assert.assertEquals(1000L, kernelServices.executeForResult(read).asLong());
+
+        String persistedXml = kernelServices.getPersistedSubsystemXml();
+        ModelTestUtils.compareXml(originalXml, persistedXml);
+    }
+
     @Test
     public void testNamespaces() throws Exception {
         KernelServices kernelServices = createEmptyRoot();
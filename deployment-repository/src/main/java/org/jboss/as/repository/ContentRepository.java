@@ -22,20 +22,25 @@
 
 package org.jboss.as.repository;
 
-import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -69,6 +74,18 @@ public interface ContentRepository {
      */
     byte[] addContent(InputStream stream) throws IOException;
 
+    /**
+     * Add the given content to the repository, where the hash of the content is already known, for example
+     * because it was supplied by the client. If content with the given hash is already present the stream is
+     * not read at all. Otherwise the content is verified against the expected hash while it is being stored.
+     *
+     * @param stream stream from which the content can be read. Cannot be <code>null</code>
+     * @param expectedHash the expected hash of the content. Cannot be <code>null</code>
+     * @return the hash of the content. Will not be <code>null</code>
+     * @throws IOException if there is a problem reading the stream or the content does not match the expected hash
+     */
+    byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException;
+
     /**
      * Adds a reference to the content hash.
      *
@@ -128,12 +145,16 @@ public interface ContentRepository {
          * Default implementation of {@link ContentRepository}.
          * @author John Bailey
          */
-        private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
+        private static class ContentRepositoryImpl implements ContentRepository, ContentRepositoryMetrics, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            private static final int BUFFER_SIZE = 1024 * 1024;
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
             private final Map<String, Set<Object>> deploymentHashReferences = new HashMap<String, Set<Object>>();
+            // throughput metrics
+            private final AtomicLong addedContentCount = new AtomicLong();
+            private final AtomicLong addedBytes = new AtomicLong();
+            private final AtomicLong addTime = new AtomicLong();
 
             protected ContentRepositoryImpl(final File repoRoot) {
                 if (repoRoot == null)
@@ -150,9 +171,13 @@ public interface ContentRepository {
                     throw DeploymentRepositoryMessages.MESSAGES.cannotCreateDirectory(repoRoot.getAbsolutePath());
                 }
                 this.repoRoot = repoRoot;
+                // fail early if SHA-1 is not available
+                createMessageDigest();
+            }
 
+            private static MessageDigest createMessageDigest() {
                 try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
+                    return MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
                     throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
                 }
@@ -160,29 +185,12 @@ public interface ContentRepository {
 
             @Override
             public byte[] addContent(InputStream stream) throws IOException {
-                byte[] sha1Bytes;
-                File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-                FileOutputStream fos = new FileOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
-                        }
-                        fos.flush();
-                        fos.getFD().sync();
-                        fos.close();
-                        fos = null;
-                    }
-                    finally {
-                        safeClose(fos);
-                    }
-                    sha1Bytes = messageDigest.digest();
-                }
+                final long start = System.nanoTime();
+                // each upload gets its own digest so concurrent uploads do not serialize on each other
+                final MessageDigest messageDigest = createMessageDigest();
+                final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+                final long size = writeContent(stream, tmp, messageDigest);
+                final byte[] sha1Bytes = messageDigest.digest();
                 final File realFile = getDeploymentContentFile(sha1Bytes, true);
                 if(hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -195,10 +203,118 @@ public interface ContentRepository {
                     moveTempToPermanent(tmp, realFile);
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.getAbsolutePath());
                 }
-
+                recordAdd(size, start);
                 return sha1Bytes;
             }
 
+            @Override
+            public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+                if (expectedHash == null)
+                    throw DeploymentRepositoryMessages.MESSAGES.nullVar("expectedHash");
+                if (hasContent(expectedHash)) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", getDeploymentContentFile(expectedHash).getAbsolutePath());
+                    return expectedHash;
+                }
+                final long start = System.nanoTime();
+                final MessageDigest messageDigest = createMessageDigest();
+                // the target directory is known up front, so the temp file is written next to the permanent
+                // file and renaming it never falls back to copying the content again. The hash directory is
+                // left in place on failure, as a concurrent upload of the same content may be using it
+                final File realFile = getDeploymentContentFile(expectedHash, true);
+                final File tmp = File.createTempFile(CONTENT, "tmp", realFile.getParentFile());
+                final long size;
+                try {
+                    size = writeContent(stream, tmp, messageDigest);
+                    final byte[] sha1Bytes = messageDigest.digest();
+                    if (!Arrays.equals(expectedHash, sha1Bytes)) {
+                        throw DeploymentRepositoryMessages.MESSAGES.unexpectedContentHash(HashUtil.bytesToHexString(sha1Bytes), HashUtil.bytesToHexString(expectedHash));
+                    }
+                    if (hasContent(expectedHash)) {
+                        // a concurrent upload of the same content won
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
+                    } else {
+                        moveTempToPermanent(tmp, realFile);
+                        DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.getAbsolutePath());
+                    }
+                } finally {
+                    if (tmp.exists() && !tmp.delete()) {
+                        DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteTempFile(tmp.getName());
+                        tmp.deleteOnExit();
+                    }
+                }
+                recordAdd(size, start);
+                return expectedHash;
+            }
+
+            /**
+             * Copies the stream to the given file, updating the digest as it goes. The file is synced to disk
+             * before it is closed.
+             *
+             * @return the number of bytes written
+             */
+            private long writeContent(final InputStream stream, final File file, final MessageDigest messageDigest) throws IOException {
+                long size = 0;
+                FileOutputStream fos = new FileOutputStream(file);
+                try {
+                    final FileChannel channel = fos.getChannel();
+                    final ReadableByteChannel in = Channels.newChannel(stream);
+                    // a direct buffer lets the channel write without copying into a temporary native buffer
+                    final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                    int read;
+                    while ((read = in.read(buffer)) > -1) {
+                        buffer.flip();
+                        final int limit = buffer.limit();
+                        messageDigest.update(buffer);
+                        buffer.position(0).limit(limit);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        buffer.clear();
+                        size += read;
+                    }
+                    channel.force(false);
+                    fos.close();
+                    fos = null;
+                } finally {
+                    safeClose(fos);
+                }
+                return size;
+            }
+
+            private void recordAdd(final long size, final long start) {
+                final long time = System.nanoTime() - start;
+                final long count = addedContentCount.incrementAndGet();
+                final long totalBytes = addedBytes.addAndGet(size);
+                final long totalTime = addTime.addAndGet(time);
+                if (DeploymentRepositoryLogger.ROOT_LOGGER.isDebugEnabled()) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Added %d bytes of content in %d ms (%d KB/s); %d additions, %d bytes, %d KB/s in total",
+                            size, TimeUnit.NANOSECONDS.toMillis(time), throughput(size, time),
+                            count, totalBytes, throughput(totalBytes, totalTime));
+                }
+            }
+
+            /**
+             * @return the throughput in KB/s
+             */
+            private static long throughput(final long bytes, final long nanos) {
+                return nanos == 0 ? 0 : (bytes * 1000000000L / nanos) >> 10;
+            }
+
+            @Override
+            public long getAddedContentCount() {
+                return addedContentCount.get();
+            }
+
+            @Override
+            public long getAddedBytes() {
+                return addedBytes.get();
+            }
+
+            @Override
+            public long getAddTime() {
+                return TimeUnit.NANOSECONDS.toMillis(addTime.get());
+            }
+
             @Override
             public void addContentReference(byte[] hash, Object reference) {
                 String hashString = HashUtil.bytesToHexString(hash);
@@ -312,13 +428,14 @@ public interface ContentRepository {
                 try {
                     fos = new FileOutputStream(dest);
                     fis = new FileInputStream(src);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = fis.read(bytes)) > -1) {
-                        fos.write(bytes, 0, read);
+                    final FileChannel in = fis.getChannel();
+                    final FileChannel out = fos.getChannel();
+                    final long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += out.transferFrom(in, position, size - position);
                     }
-                    fos.flush();
-                    fos.getFD().sync();
+                    out.force(false);
                     fos.close();
                     fos = null;
                 } finally {
@@ -378,7 +495,8 @@ public interface ContentRepository {
 
             @Override
             public void stop(StopContext context) {
-                DeploymentRepositoryLogger.ROOT_LOGGER.debugf("%s stopped", ContentRepository.class.getSimpleName());
+                DeploymentRepositoryLogger.ROOT_LOGGER.debugf("%s stopped; %d additions, %d bytes, %d ms", ContentRepository.class.getSimpleName(),
+                        getAddedContentCount(), getAddedBytes(), getAddTime());
             }
 
             @Override
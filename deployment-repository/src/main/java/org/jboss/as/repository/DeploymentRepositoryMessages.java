@@ -22,6 +22,8 @@
 
 package org.jboss.as.repository;
 
+import java.io.IOException;
+
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageBundle;
@@ -90,4 +92,15 @@ interface DeploymentRepositoryMessages {
      */
     @Message(id = 14924, value = "%s is null")
     IllegalArgumentException nullVar(String name);
+
+    /**
+     * Creates an exception indicating the hash of the content that was read does not match the expected hash.
+     *
+     * @param actual   the hash of the content.
+     * @param expected the expected hash.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14925, value = "Content hash %s does not match the expected hash %s")
+    IOException unexpectedContentHash(String actual, String expected);
 }
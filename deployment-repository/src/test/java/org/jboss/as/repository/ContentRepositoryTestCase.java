@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2010, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContentRepositoryTestCase {
+
+    private File root;
+    private ContentRepository repository;
+
+    @Before
+    public void createRepository() throws IOException {
+        root = File.createTempFile("content-repository", "test");
+        assertTrue(root.delete());
+        repository = ContentRepository.Factory.create(root);
+    }
+
+    @After
+    public void deleteRepository() {
+        delete(root);
+    }
+
+    @Test
+    public void testAddContent() throws Exception {
+        // larger than the copy buffer, so the content is written in several chunks
+        final byte[] content = randomContent(3 * 1024 * 1024 + 17);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(content));
+
+        assertArrayEquals(sha1(content), hash);
+        assertTrue(repository.hasContent(hash));
+        assertArrayEquals(content, read(contentFile(hash)));
+        assertNoTempFiles(root);
+
+        // the same content again is not stored twice
+        assertArrayEquals(hash, repository.addContent(new ByteArrayInputStream(content)));
+        assertNoTempFiles(root);
+
+        final ContentRepositoryMetrics metrics = (ContentRepositoryMetrics) repository;
+        assertEquals(2, metrics.getAddedContentCount());
+        assertEquals(2L * content.length, metrics.getAddedBytes());
+    }
+
+    @Test
+    public void testAddContentWithKnownHash() throws Exception {
+        final byte[] content = randomContent(100000);
+        final byte[] hash = sha1(content);
+
+        assertArrayEquals(hash, repository.addContent(new ByteArrayInputStream(content), hash));
+        assertTrue(repository.hasContent(hash));
+        assertArrayEquals(content, read(contentFile(hash)));
+        assertNoTempFiles(root);
+
+        // content that is already present is not read again
+        final InputStream unreadable = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("the content should not be read");
+            }
+        };
+        assertArrayEquals(hash, repository.addContent(unreadable, hash));
+        assertEquals(1, ((ContentRepositoryMetrics) repository).getAddedContentCount());
+    }
+
+    @Test
+    public void testUnexpectedHash() throws Exception {
+        final byte[] content = randomContent(1000);
+        final byte[] hash = sha1(randomContent(10));
+        try {
+            repository.addContent(new ByteArrayInputStream(content), hash);
+            fail("content that does not match the hash must be rejected");
+        } catch (IOException expected) {
+        }
+        assertFalse(repository.hasContent(hash));
+        assertFalse(repository.hasContent(sha1(content)));
+        assertNoTempFiles(root);
+        assertEquals(0, ((ContentRepositoryMetrics) repository).getAddedContentCount());
+    }
+
+    private File contentFile(final byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        return new File(new File(new File(root, sha1.substring(0, 2)), sha1.substring(2)), "content");
+    }
+
+    private static void assertNoTempFiles(final File dir) {
+        for (File file : dir.listFiles()) {
+            if (file.isDirectory()) {
+                assertNoTempFiles(file);
+            } else {
+                assertEquals("content", file.getName());
+            }
+        }
+    }
+
+    private static byte[] randomContent(final int size) {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] sha1(final byte[] content) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(content);
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] content = new byte[(int) file.length()];
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < content.length) {
+                offset += in.read(content, offset, content.length - offset);
+            }
+        } finally {
+            in.close();
+        }
+        return content;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -41,6 +41,9 @@ enum Attribute {
     AUTO_DEPLOY_EXPLODED(CommonAttributes.AUTO_DEPLOY_EXPLODED),
     AUTO_DEPLOY_XML(CommonAttributes.AUTO_DEPLOY_XML),
     DEPLOYMENT_TIMEOUT(CommonAttributes.DEPLOYMENT_TIMEOUT),
+    CHANGE_DETECTION(CommonAttributes.CHANGE_DETECTION),
+    CHANGE_DETECTION_DEBOUNCE(CommonAttributes.CHANGE_DETECTION_DEBOUNCE),
+    FULL_SCAN_INTERVAL(CommonAttributes.FULL_SCAN_INTERVAL),
     ;
 
     private final String name;
@@ -30,8 +30,14 @@ interface CommonAttributes {
     String AUTO_DEPLOY_ZIPPED = "auto-deploy-zipped";
     String AUTO_DEPLOY_EXPLODED = "auto-deploy-exploded";
     String AUTO_DEPLOY_XML = "auto-deploy-xml";
+    String CHANGE_COUNT = "change-count";
+    String CHANGE_DETECTION = "change-detection";
+    String CHANGE_DETECTION_DEBOUNCE = "change-detection-debounce";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String FULL_SCAN_COUNT = "full-scan-count";
+    String FULL_SCAN_INTERVAL = "full-scan-interval";
+    String LAST_SCAN_DURATION = "last-scan-duration";
     String NAME = "name";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
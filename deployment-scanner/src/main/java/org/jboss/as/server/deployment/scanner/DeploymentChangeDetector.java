@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether a periodic deployment scan needs to do the full scan of the deployment directory.
+ * <p/>
+ * Only the directories the full scan looks at are listed and only the modification time and length of their entries
+ * are compared, so no marker files are probed, no archives are checked for completeness and the content of exploded
+ * deployments is not walked unless it can trigger an auto-deployment. A change is only acted upon once the directory
+ * has been quiet for the debounce period, so content still being copied in does not cause a full scan per tick.
+ * <p/>
+ * A full scan is still done every {@code fullScanInterval} ms as a safety net for changes the fingerprint cannot see,
+ * e.g. an archive overwritten within the file system's timestamp granularity without a change in length.
+ * <p/>
+ * Not thread safe; the {@link FileSystemDeploymentService} only uses it with its scan lock held.
+ */
+final class DeploymentChangeDetector {
+
+    enum Decision {
+        /** Nothing changed since the last full scan */
+        SKIP,
+        /** Something changed, check again once the debounce period is over */
+        DEBOUNCE,
+        /** Do a full scan */
+        SCAN
+    }
+
+    private final File deploymentDir;
+    private final FileFilter filter;
+    private final Pattern archivePattern;
+    private final long debounce;
+    private final long fullScanInterval;
+
+    /** The fingerprint of the deployment directory when the last full scan started */
+    private Map<File, Stamp> scanned;
+    /** The deployments known to the server when the last full scan started */
+    private Map<String, Boolean> deployments;
+    /** The changed fingerprint waiting for the debounce period to be over */
+    private Map<File, Stamp> pending;
+    private long lastFullScan;
+    private boolean scanIncomplete;
+    private long changeCount;
+
+    DeploymentChangeDetector(final File deploymentDir, final FileFilter filter, final Pattern archivePattern, final long debounce,
+                             final long fullScanInterval) {
+        this.deploymentDir = deploymentDir;
+        this.filter = filter;
+        this.archivePattern = archivePattern;
+        this.debounce = debounce;
+        this.fullScanInterval = fullScanInterval;
+    }
+
+    long getDebounce() {
+        return debounce;
+    }
+
+    /**
+     * Gets the number of changes to the deployment directory and the deployments of the server seen so far.
+     */
+    long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Compares the current state of the deployment directory with the one of the last full scan.
+     *
+     * @param deployments the deployments currently known to the server
+     * @param exploded whether changes within exploded deployments can trigger a deployment
+     * @param now the current time
+     * @return what the scanner should do
+     */
+    Decision check(final Map<String, Boolean> deployments, final boolean exploded, final long now) {
+        final Map<File, Stamp> current = fingerprint(exploded);
+        if (scanned == null || scanIncomplete || now - lastFullScan >= fullScanInterval) {
+            scanStarted(current, deployments, now);
+            return Decision.SCAN;
+        }
+        final Map<File, Stamp> previous = pending != null ? pending : scanned;
+        int changes = countChanges(previous, current);
+        if (pending == null && !deployments.equals(this.deployments)) {
+            changes++;
+        }
+        changeCount += changes;
+        if (pending == null && changes == 0) {
+            return Decision.SKIP;
+        }
+        if (debounce > 0 && changes > 0) {
+            // not quiet yet
+            pending = current;
+            return Decision.DEBOUNCE;
+        }
+        scanStarted(current, deployments, now);
+        return Decision.SCAN;
+    }
+
+    /**
+     * Records that the full scan got through without leaving anything to retry.
+     */
+    void scanCompleted() {
+        scanIncomplete = false;
+    }
+
+    private void scanStarted(final Map<File, Stamp> fingerprint, final Map<String, Boolean> deployments, final long now) {
+        this.scanned = fingerprint;
+        this.deployments = deployments;
+        this.pending = null;
+        this.lastFullScan = now;
+        this.scanIncomplete = true;
+    }
+
+    private Map<File, Stamp> fingerprint(final boolean exploded) {
+        final Map<File, Stamp> fingerprint = new HashMap<File, Stamp>();
+        fingerprint.put(deploymentDir, new Stamp(deploymentDir));
+        addDirectory(deploymentDir, exploded, fingerprint);
+        return fingerprint;
+    }
+
+    private void addDirectory(final File directory, final boolean exploded, final Map<File, Stamp> fingerprint) {
+        final File[] children = directory.listFiles(filter);
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            fingerprint.put(child, new Stamp(child));
+            if (child.isDirectory()) {
+                final String name = child.getName();
+                if (archivePattern.matcher(name).matches()) {
+                    if (exploded) {
+                        addContent(child, fingerprint);
+                    }
+                } else if (!FileSystemDeploymentService.WEB_INF.equalsIgnoreCase(name)
+                        && !FileSystemDeploymentService.META_INF.equalsIgnoreCase(name)) {
+                    addDirectory(child, exploded, fingerprint);
+                }
+            }
+        }
+    }
+
+    private void addContent(final File directory, final Map<File, Stamp> fingerprint) {
+        final File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            fingerprint.put(child, new Stamp(child));
+            if (child.isDirectory()) {
+                addContent(child, fingerprint);
+            }
+        }
+    }
+
+    private static int countChanges(final Map<File, Stamp> previous, final Map<File, Stamp> current) {
+        int changes = 0;
+        for (Map.Entry<File, Stamp> entry : current.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                changes++;
+            }
+        }
+        for (File file : previous.keySet()) {
+            if (!current.containsKey(file)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    private static final class Stamp {
+        private final long lastModified;
+        private final long length;
+
+        private Stamp(final File file) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof Stamp)) {
+                return false;
+            }
+            final Stamp stamp = (Stamp) object;
+            return lastModified == stamp.lastModified && length == stamp.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ (lastModified >>> 32)) * 31 + (int) (length ^ (length >>> 32));
+        }
+    }
+}
@@ -58,7 +58,10 @@ import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_EXPLODED;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_XML;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_ZIPPED;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.CHANGE_DETECTION;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.CHANGE_DETECTION_DEBOUNCE;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.DEPLOYMENT_TIMEOUT;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.FULL_SCAN_INTERVAL;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RELATIVE_TO;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_ENABLED;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_INTERVAL;
@@ -103,6 +106,9 @@ class DeploymentScannerAdd implements OperationStepHandler {
             final Boolean autoDeployXml = AUTO_DEPLOY_XML.resolveModelAttribute(context, operation).asBoolean();
             final Long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, operation).asLong();
             final Integer scanInterval = SCAN_INTERVAL.resolveModelAttribute(context, operation).asInt();
+            final Boolean changeDetection = CHANGE_DETECTION.resolveModelAttribute(context, operation).asBoolean();
+            final Long changeDetectionDebounce = CHANGE_DETECTION_DEBOUNCE.resolveModelAttribute(context, operation).asLong();
+            final Long fullScanInterval = FULL_SCAN_INTERVAL.resolveModelAttribute(context, operation).asLong();
 
             final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("DeploymentScanner-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
             final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(2, threadFactory);
@@ -125,6 +131,9 @@ class DeploymentScannerAdd implements OperationStepHandler {
                 if (scanInterval != null) {
                     bootTimeScanner.setScanInterval(scanInterval);
                 }
+                bootTimeScanner.setChangeDetectionDebounce(changeDetectionDebounce);
+                bootTimeScanner.setFullScanInterval(fullScanInterval);
+                bootTimeScanner.setChangeDetection(changeDetection);
             } else {
                 bootTimeScanner = null;
             }
@@ -232,9 +241,13 @@ class DeploymentScannerAdd implements OperationStepHandler {
         final Boolean autoDeployExp = AUTO_DEPLOY_EXPLODED.resolveModelAttribute(context, operation).asBoolean();
         final Boolean autoDeployXml = AUTO_DEPLOY_XML.resolveModelAttribute(context, operation).asBoolean();
         final Long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, operation).asLong();
+        final Boolean changeDetection = CHANGE_DETECTION.resolveModelAttribute(context, operation).asBoolean();
+        final Long changeDetectionDebounce = CHANGE_DETECTION_DEBOUNCE.resolveModelAttribute(context, operation).asLong();
+        final Long fullScanInterval = FULL_SCAN_INTERVAL.resolveModelAttribute(context, operation).asLong();
         final ServiceTarget serviceTarget = context.getServiceTarget();
         DeploymentScannerService.addService(serviceTarget, name, relativeTo, path, interval, TimeUnit.MILLISECONDS,
-                autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, newControllers, bootTimeScanner, executorService, verificationHandler);
+                autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, changeDetection, changeDetectionDebounce,
+                fullScanInterval, newControllers, bootTimeScanner, executorService, verificationHandler);
 
     }
 
@@ -26,6 +26,7 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManager;
@@ -102,7 +103,39 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
                     .setAllowExpression(true)
                     .setDefaultValue(new ModelNode().set(600))
                     .build();
-    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT};
+    protected static final SimpleAttributeDefinition CHANGE_DETECTION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.CHANGE_DETECTION, ModelType.BOOLEAN, true)
+                    .setXmlName(Attribute.CHANGE_DETECTION.getLocalName())
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode().set(false))
+                    .build();
+    protected static final SimpleAttributeDefinition CHANGE_DETECTION_DEBOUNCE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.CHANGE_DETECTION_DEBOUNCE, ModelType.LONG, true)
+                    .setXmlName(Attribute.CHANGE_DETECTION_DEBOUNCE.getLocalName())
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode().set(FileSystemDeploymentService.DEFAULT_CHANGE_DETECTION_DEBOUNCE))
+                    .build();
+    protected static final SimpleAttributeDefinition FULL_SCAN_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.FULL_SCAN_INTERVAL, ModelType.LONG, true)
+                    .setXmlName(Attribute.FULL_SCAN_INTERVAL.getLocalName())
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode().set(FileSystemDeploymentService.DEFAULT_FULL_SCAN_INTERVAL))
+                    .build();
+    protected static final SimpleAttributeDefinition LAST_SCAN_DURATION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LAST_SCAN_DURATION, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    protected static final SimpleAttributeDefinition FULL_SCAN_COUNT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.FULL_SCAN_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    protected static final SimpleAttributeDefinition CHANGE_COUNT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.CHANGE_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT,CHANGE_DETECTION,CHANGE_DETECTION_DEBOUNCE,FULL_SCAN_INTERVAL};
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
@@ -115,5 +148,11 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(AUTO_DEPLOY_EXPLODED, null, WriteAutoDeployExplodedAttributeHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(AUTO_DEPLOY_XML, null, WriteAutoDeployXMLAttributeHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEPLOYMENT_TIMEOUT, null, WriteDeploymentTimeoutAttributeHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(CHANGE_DETECTION, null, WriteChangeDetectionAttributeHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(CHANGE_DETECTION_DEBOUNCE, null, WriteChangeDetectionDebounceAttributeHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(FULL_SCAN_INTERVAL, null, WriteFullScanIntervalAttributeHandler.INSTANCE);
+        resourceRegistration.registerMetric(LAST_SCAN_DURATION, DeploymentScannerMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(FULL_SCAN_COUNT, DeploymentScannerMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(CHANGE_COUNT, DeploymentScannerMetricsHandler.INSTANCE);
     }
 }
@@ -24,6 +24,7 @@ package org.jboss.as.server.deployment.scanner;
 
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
+import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SubsystemRegistration;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
@@ -32,7 +33,12 @@ import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler
 import org.jboss.as.controller.services.path.ResolvePathHandler;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
+import org.jboss.as.controller.transform.ResourceTransformer;
+import org.jboss.as.controller.transform.TransformersSubRegistration;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerLogger.ROOT_LOGGER;
 
 /**
@@ -46,7 +52,7 @@ public class DeploymentScannerExtension implements Extension {
     private static final String RESOURCE_NAME = DeploymentScannerExtension.class.getPackage().getName() + ".LocalDescriptions";
 
     private static final int MANAGEMENT_API_MAJOR_VERSION = 1;
-    private static final int MANAGEMENT_API_MINOR_VERSION = 0;
+    private static final int MANAGEMENT_API_MINOR_VERSION = 1;
     private static final int MANAGEMENT_API_MICRO_VERSION = 0;
 
     static ResourceDescriptionResolver getResourceDescriptionResolver(final String keyPrefix) {
@@ -62,7 +68,7 @@ public class DeploymentScannerExtension implements Extension {
 
         final SubsystemRegistration subsystem = context.registerSubsystem(CommonAttributes.DEPLOYMENT_SCANNER, MANAGEMENT_API_MAJOR_VERSION,
                 MANAGEMENT_API_MINOR_VERSION, MANAGEMENT_API_MICRO_VERSION);
-        subsystem.registerXMLElementWriter(DeploymentScannerParser_1_1.INSTANCE);
+        subsystem.registerXMLElementWriter(DeploymentScannerParser_1_2.INSTANCE);
 
         final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(new DeploymentScannerSubsystemDefinition());
         registration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
@@ -74,6 +80,21 @@ public class DeploymentScannerExtension implements Extension {
                     .build();
             scanner.registerOperationHandler(resolvePathHandler.getOperationDefinition(), resolvePathHandler);
         }
+
+        if (context.isRegisterTransformers()) {
+            registerTransformers_1_0_0(subsystem);
+        }
+    }
+
+    private static void registerTransformers_1_0_0(final SubsystemRegistration subsystem) {
+        // the change detection attributes are unknown to 1.0.0 slaves
+        final DiscardUndefinedAttributesTransformer discardTransformer = new DiscardUndefinedAttributesTransformer(
+                DeploymentScannerDefinition.CHANGE_DETECTION, DeploymentScannerDefinition.CHANGE_DETECTION_DEBOUNCE,
+                DeploymentScannerDefinition.FULL_SCAN_INTERVAL);
+        final TransformersSubRegistration transformers100 = subsystem.registerModelTransformers(ModelVersion.create(1, 0, 0), ResourceTransformer.DEFAULT);
+        final TransformersSubRegistration scanner = transformers100.registerSubResource(SCANNERS_PATH, discardTransformer, discardTransformer);
+        scanner.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION, discardTransformer.getWriteAttributeTransformer());
+        scanner.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, discardTransformer.getUndefineAttributeTransformer());
     }
 
     /**
@@ -83,7 +104,7 @@ public class DeploymentScannerExtension implements Extension {
     public void initializeParsers(ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.DEPLOYMENT_SCANNER_1_0.getUriString(), DeploymentScannerParser_1_0.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.DEPLOYMENT_SCANNER_1_1.getUriString(), DeploymentScannerParser_1_1.INSTANCE);
-
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.DEPLOYMENT_SCANNER_1_2.getUriString(), DeploymentScannerParser_1_2.INSTANCE);
     }
 
 }
@@ -59,6 +59,9 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private boolean autoDeployExploded;
     private boolean autoDeployXml;
     private Long deploymentTimeout;
+    private boolean changeDetection;
+    private Long changeDetectionDebounce;
+    private Long fullScanInterval;
     private final String relativeTo;
     private final String path;
 
@@ -86,16 +89,21 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanInterval      the scan interval
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
+     * @param changeDetection   change detection enabled
+     * @param changeDetectionDebounce the change detection debounce period
+     * @param fullScanInterval  the full scan interval
      * @param bootTimeService   the deployment scanner used in the boot time scan
      * @return
      */
     public static ServiceController<DeploymentScanner> addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
                                                                   final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip,
                                                                   final Boolean autoDeployExploded, final Boolean autoDeployXml, final Boolean scanEnabled, final Long deploymentTimeout,
+                                                                  final Boolean changeDetection, final Long changeDetectionDebounce, final Long fullScanInterval,
                                                                   final List<ServiceController<?>> newControllers, final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService,
                                                                   final ServiceListener<Object>... listeners) {
         final DeploymentScannerService service = new DeploymentScannerService(relativeTo, path, scanInterval, unit, autoDeployZip,
-                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, bootTimeService);
+                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, changeDetection, changeDetectionDebounce,
+                fullScanInterval, bootTimeService);
         final ServiceName serviceName = getServiceName(name);
 
         ServiceBuilder<DeploymentScanner> builder = serviceTarget.addService(serviceName, service)
@@ -113,6 +121,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
 
     DeploymentScannerService(final String relativeTo, final String path, final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
                              final Boolean autoDeployExploded, final Boolean autoDeployXml, final Boolean enabled, final Long deploymentTimeout,
+                             final Boolean changeDetection, final Long changeDetectionDebounce, final Long fullScanInterval,
                              final FileSystemDeploymentService bootTimeService) {
         this.relativeTo = relativeTo;
         this.path = path;
@@ -123,6 +132,9 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.autoDeployXml = autoDeployXml == null ? true : autoDeployXml.booleanValue();
         this.enabled = enabled == null ? true : enabled.booleanValue();
         this.deploymentTimeout = deploymentTimeout;
+        this.changeDetection = changeDetection == null ? false : changeDetection.booleanValue();
+        this.changeDetectionDebounce = changeDetectionDebounce;
+        this.fullScanInterval = fullScanInterval;
         this.scanner = bootTimeService;
     }
 
@@ -161,6 +173,13 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 if (deploymentTimeout != null) {
                     scanner.setDeploymentTimeout(deploymentTimeout);
                 }
+                if (changeDetectionDebounce != null) {
+                    scanner.setChangeDetectionDebounce(changeDetectionDebounce);
+                }
+                if (fullScanInterval != null) {
+                    scanner.setFullScanInterval(fullScanInterval);
+                }
+                scanner.setChangeDetection(changeDetection);
                 this.scanner = scanner;
             } else {
                 // The boot-time scanner should use our DeploymentOperations.Factory
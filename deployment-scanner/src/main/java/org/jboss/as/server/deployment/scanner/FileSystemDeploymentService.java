@@ -107,12 +107,22 @@ class FileSystemDeploymentService implements DeploymentScanner {
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Default period in ms the deployment directory has to be quiet before a detected change is scanned
+     */
+    static final long DEFAULT_CHANGE_DETECTION_DEBOUNCE = 500;
+    /**
+     * Default interval in ms at which a full scan is done even if no change was detected
+     */
+    static final long DEFAULT_FULL_SCAN_INTERVAL = 60000;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
     private volatile boolean firstScan = true;
     private ScheduledFuture<?> scanTask;
     private ScheduledFuture<?> rescanIncompleteTask;
+    private ScheduledFuture<?> debounceTask;
     private final Lock scanLock = new ReentrantLock();
 
     private final Map<String, DeploymentMarker> deployed = new HashMap<String, DeploymentMarker>();
@@ -135,6 +145,13 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
+    private boolean changeDetection;
+    private long changeDetectionDebounce = DEFAULT_CHANGE_DETECTION_DEBOUNCE;
+    private long fullScanInterval = DEFAULT_FULL_SCAN_INTERVAL;
+    private volatile DeploymentChangeDetector changeDetector;
+    private volatile long lastScanDuration;
+    private volatile long fullScanCount;
+
     private final String relativeTo;
     private final String relativePath;
 
@@ -245,6 +262,24 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    @Override
+    public synchronized void setChangeDetection(boolean changeDetection) {
+        this.changeDetection = changeDetection;
+        resetChangeDetector();
+    }
+
+    @Override
+    public synchronized void setChangeDetectionDebounce(long debounce) {
+        this.changeDetectionDebounce = debounce;
+        resetChangeDetector();
+    }
+
+    @Override
+    public synchronized void setFullScanInterval(long fullScanInterval) {
+        this.fullScanInterval = fullScanInterval;
+        resetChangeDetector();
+    }
+
     @Override
     public void bootTimeScan(final OperationContext context, final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) {
 
@@ -296,6 +331,39 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.maxNoProgress = max;
     }
 
+    /**
+     * Replaces the {@link DeploymentChangeDetector} after a change of its configuration. The new detector has no
+     * fingerprint yet, so the next periodic scan is a full one.
+     */
+    private void resetChangeDetector() {
+        this.changeDetector = changeDetection
+                ? new DeploymentChangeDetector(deploymentDir, filter, ARCHIVE_PATTERN, changeDetectionDebounce, fullScanInterval)
+                : null;
+    }
+
+    /**
+     * Gets the time in ms the last full scan of the deployment directory took.
+     */
+    long getLastScanDuration() {
+        return lastScanDuration;
+    }
+
+    /**
+     * Gets the number of full scans of the deployment directory done so far.
+     */
+    long getFullScanCount() {
+        return fullScanCount;
+    }
+
+    /**
+     * Gets the number of changes to the deployment directory and to the deployments of the server that were detected
+     * between full scans, or <code>0</code> if change detection is not enabled.
+     */
+    long getChangeCount() {
+        final DeploymentChangeDetector changeDetector = this.changeDetector;
+        return changeDetector != null ? changeDetector.getChangeCount() : 0;
+    }
+
     private void establishDeployedContentList(File dir, final DeploymentOperations deploymentOperations) {
         final Set<String> deploymentNames = deploymentOperations.getDeploymentsStatus().keySet();
         final File[] children = dir.listFiles();
@@ -351,11 +419,30 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
 
         boolean scheduleRescan = false;
+        boolean scheduleDebounce = false;
+        final DeploymentChangeDetector changeDetector = oneOffScan ? null : this.changeDetector;
         try {
             if (scanEnabled || oneOffScan) { // confirm the scan is still wanted
+                final Map<String, Boolean> registeredDeployments = deploymentOperations.getDeploymentsStatus();
+                if (changeDetector != null) {
+                    switch (changeDetector.check(registeredDeployments, autoDeployExploded, System.currentTimeMillis())) {
+                        case SKIP:
+                            ROOT_LOGGER.tracef("No deployment content changes in directory %s", deploymentDir.getAbsolutePath());
+                            return;
+                        case DEBOUNCE:
+                            ROOT_LOGGER.tracef("Waiting for deployment content changes in directory %s to settle", deploymentDir.getAbsolutePath());
+                            // in finally block, schedule a non-repeating task to check again once the changes have settled
+                            scheduleDebounce = true;
+                            return;
+                        default:
+                            break;
+                    }
+                }
                 ROOT_LOGGER.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
 
-                ScanContext scanContext = new ScanContext(deploymentOperations);
+                final long scanStart = System.currentTimeMillis();
+                fullScanCount++;
+                ScanContext scanContext = new ScanContext(registeredDeployments, scanStart);
                 scanDirectory(deploymentDir, relativePath, scanContext);
 
                 // WARN about markers with no associated content. Do this first in case any auto-deploy issue
@@ -472,6 +559,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 }
                 ROOT_LOGGER.tracef("Scan complete");
                 firstScan = false;
+                lastScanDuration = System.currentTimeMillis() - scanStart;
+                if (changeDetector != null) {
+                    changeDetector.scanCompleted();
+                }
             }
         } finally {
 
@@ -484,6 +575,13 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     }
                 }
             }
+            if (scheduleDebounce) {
+                synchronized (this) {
+                    if (scanEnabled) {
+                        debounceTask = scheduledExecutor.schedule(scanRunnable, changeDetector.getDebounce(), TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
         }
     }
 
@@ -864,6 +962,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
             rescanIncompleteTask.cancel(false);
             rescanIncompleteTask = null;
         }
+        if (debounceTask != null) {
+            debounceTask.cancel(false);
+            debounceTask = null;
+        }
         if (scanTask != null) {
             scanTask.cancel(false);
             scanTask = null;
@@ -1227,10 +1329,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
         /**
          * Timestamp when the scan started
          */
-        private final long scanStartTime = System.currentTimeMillis();
+        private final long scanStartTime;
 
-        private ScanContext(final DeploymentOperations deploymentOperations) {
-            registeredDeployments = deploymentOperations.getDeploymentsStatus();
+        private ScanContext(final Map<String, Boolean> registeredDeployments, final long scanStartTime) {
+            this.registeredDeployments = registeredDeployments;
+            this.scanStartTime = scanStartTime;
         }
     }
 
@@ -32,13 +32,14 @@ public enum Namespace {
 UNKNOWN(null),
 
     DEPLOYMENT_SCANNER_1_0("urn:jboss:domain:deployment-scanner:1.0"),
-    DEPLOYMENT_SCANNER_1_1("urn:jboss:domain:deployment-scanner:1.1")
+    DEPLOYMENT_SCANNER_1_1("urn:jboss:domain:deployment-scanner:1.1"),
+    DEPLOYMENT_SCANNER_1_2("urn:jboss:domain:deployment-scanner:1.2")
     ;
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = DEPLOYMENT_SCANNER_1_1;
+    public static final Namespace CURRENT = DEPLOYMENT_SCANNER_1_2;
 
     private final String name;
 
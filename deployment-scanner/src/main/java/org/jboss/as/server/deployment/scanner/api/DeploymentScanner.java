@@ -138,6 +138,28 @@ public interface DeploymentScanner {
      */
     void setDeploymentTimeout(long timeout);
 
+    /**
+     * Sets whether periodic scans skip the full scan of the deployment directory if neither its content nor the
+     * deployments of the server changed since the last full scan.
+     *
+     * @param changeDetection true if change detection is enabled
+     */
+    void setChangeDetection(boolean changeDetection);
+
+    /**
+     * Set the time the deployment directory has to be quiet before a detected change is scanned.
+     *
+     * @param debounce the debounce period in ms
+     */
+    void setChangeDetectionDebounce(long debounce);
+
+    /**
+     * Set the interval at which a full scan is done even if no change was detected.
+     *
+     * @param fullScanInterval the full scan interval in ms
+     */
+    void setFullScanInterval(long fullScanInterval);
+
     /**
      * Unused legacy method only retained to avoid breaking any custom implementations of this interface.
      *
@@ -1492,6 +1492,110 @@ public class FileSystemDeploymentServiceUnitTestCase {
 
     }
 
+    @Test
+    public void testChangeDetectionSkipsUnchangedDirectory() throws Exception {
+        File war = createFile("foo.war");
+        createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setChangeDetectionDebounce(0);
+        ts.testee.setFullScanInterval(Long.MAX_VALUE);
+        ts.testee.setChangeDetection(true);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(war.exists());
+        assertTrue(deployed.exists());
+        assertEquals(1, ts.testee.getFullScanCount());
+
+        // the markers written by the first scan are a change
+        ts.testee.scan();
+        assertEquals(2, ts.testee.getFullScanCount());
+
+        ts.testee.scan();
+        ts.testee.scan();
+        assertEquals(2, ts.testee.getFullScanCount());
+
+        File bar = createFile("bar.war");
+        createFile("bar.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File barDeployed = new File(tmpDir, "bar.war" + FileSystemDeploymentService.DEPLOYED);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(bar.exists());
+        assertTrue(barDeployed.exists());
+        assertEquals(3, ts.testee.getFullScanCount());
+        assertTrue(ts.testee.getChangeCount() > 0);
+    }
+
+    @Test
+    public void testChangeDetectionWaitsForQuietDirectory() throws Exception {
+        TesteeSet ts = createTestee();
+        ts.testee.setChangeDetectionDebounce(60000);
+        ts.testee.setFullScanInterval(Long.MAX_VALUE);
+        ts.testee.setChangeDetection(true);
+        ts.testee.scan();
+        assertEquals(1, ts.testee.getFullScanCount());
+
+        File war = createFile("foo.war");
+        createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        ts.testee.scan();
+        assertFalse(deployed.exists());
+        assertEquals(1, ts.testee.getFullScanCount());
+
+        // nothing changed since the last check
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(war.exists());
+        assertTrue(deployed.exists());
+        assertEquals(2, ts.testee.getFullScanCount());
+    }
+
+    @Test
+    public void testChangeDetectionNoticesExternalUndeploy() throws Exception {
+        File war = createFile("foo.war");
+        File deployed = createFile("foo.war" + FileSystemDeploymentService.DEPLOYED);
+        MockServerController sc = new MockServerController("foo.war");
+        TesteeSet ts = createTestee(sc);
+        ts.testee.setChangeDetectionDebounce(0);
+        ts.testee.setFullScanInterval(Long.MAX_VALUE);
+        ts.testee.setChangeDetection(true);
+        ts.testee.scan();
+        assertTrue(deployed.exists());
+        ts.testee.scan();
+        assertEquals(1, ts.testee.getFullScanCount());
+
+        // AS7-784 undeployed by another management client
+        sc.deployed.remove("foo.war");
+        ts.testee.scan();
+        assertEquals(2, ts.testee.getFullScanCount());
+        assertTrue(war.exists());
+        assertFalse(deployed.exists());
+        assertTrue(new File(tmpDir, "foo.war" + FileSystemDeploymentService.UNDEPLOYED).exists());
+    }
+
+    @Test
+    public void testChangeDetectionCanBeDisabled() throws Exception {
+        TesteeSet ts = createTestee();
+        ts.testee.setChangeDetectionDebounce(0);
+        ts.testee.setFullScanInterval(Long.MAX_VALUE);
+        ts.testee.setChangeDetection(true);
+        ts.testee.scan();
+        ts.testee.scan();
+        assertEquals(1, ts.testee.getFullScanCount());
+
+        ts.testee.setChangeDetection(false);
+        ts.testee.scan();
+        ts.testee.scan();
+        assertEquals(3, ts.testee.getFullScanCount());
+        assertEquals(0, ts.testee.getChangeCount());
+
+        // the new detector has no fingerprint yet
+        ts.testee.setChangeDetection(true);
+        ts.testee.scan();
+        ts.testee.scan();
+        assertEquals(4, ts.testee.getFullScanCount());
+    }
+
     private TesteeSet createTestee(String... existingContent) throws OperationFailedException {
         return createTestee(new MockServerController(existingContent));
     }
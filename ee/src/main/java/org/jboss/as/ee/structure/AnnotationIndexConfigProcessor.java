@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.structure;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * {@link DeploymentUnitProcessor} that tells the annotation indexer how many threads it may use for a top level
+ * deployment and how large the annotation index cache may grow, as configured by the
+ * <code>annotation-index-parallelism</code> and <code>annotation-index-cache-max-size</code> attributes of the EE
+ * subsystem.
+ */
+public class AnnotationIndexConfigProcessor implements DeploymentUnitProcessor {
+
+    private volatile Integer parallelism;
+    private volatile Long cacheMaxSize;
+
+    @Override
+    public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        if (deploymentUnit.getParent() != null) {
+            return;
+        }
+        final Integer parallelism = this.parallelism;
+        if (parallelism != null) {
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_PARALLELISM, parallelism);
+        }
+        final Long cacheMaxSize = this.cacheMaxSize;
+        if (cacheMaxSize != null) {
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_CACHE_MAX_SIZE, cacheMaxSize);
+        }
+    }
+
+    @Override
+    public void undeploy(DeploymentUnit context) {
+        context.removeAttachment(Attachments.ANNOTATION_INDEX_PARALLELISM);
+        context.removeAttachment(Attachments.ANNOTATION_INDEX_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * @param parallelism the resolved attribute value, undefined to use the default of the annotation indexer
+     */
+    public void setParallelism(final ModelNode parallelism) {
+        this.parallelism = parallelism.isDefined() ? parallelism.asInt() : null;
+    }
+
+    /**
+     * @param cacheMaxSize the resolved attribute value, undefined to use the default of the annotation index cache
+     */
+    public void setCacheMaxSize(final ModelNode cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize.isDefined() ? cacheMaxSize.asLong() : null;
+    }
+}
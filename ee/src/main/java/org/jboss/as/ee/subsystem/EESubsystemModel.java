@@ -30,4 +30,6 @@ public interface EESubsystemModel {
     String EAR_SUBDEPLOYMENTS_ISOLATED = "ear-subdeployments-isolated";
     String SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT = "spec-descriptor-property-replacement";
     String JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT = "jboss-descriptor-property-replacement";
+    String ANNOTATION_INDEX_PARALLELISM = "annotation-index-parallelism";
+    String ANNOTATION_INDEX_CACHE_MAX_SIZE = "annotation-index-cache-max-size";
 }
@@ -24,6 +24,7 @@ package org.jboss.as.ee.subsystem;
 
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
+import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SubsystemRegistration;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -33,8 +34,13 @@ import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
+import org.jboss.as.controller.transform.TransformersSubRegistration;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIBE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 /**
  * JBossAS domain extension used to initialize the ee subsystem handlers and associated classes.
@@ -48,7 +54,7 @@ public class EeExtension implements Extension {
     private static final String RESOURCE_NAME = EeExtension.class.getPackage().getName() + ".LocalDescriptions";
 
     private static final int MANAGEMENT_API_MAJOR_VERSION = 1;
-    private static final int MANAGEMENT_API_MINOR_VERSION = 0;
+    private static final int MANAGEMENT_API_MINOR_VERSION = 1;
     private static final int MANAGEMENT_API_MICRO_VERSION = 0;
 
     protected static final PathElement PATH_SUBSYSTEM = PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
@@ -71,7 +77,22 @@ public class EeExtension implements Extension {
         // Mandatory describe operation
         rootResource.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
 
-        subsystem.registerXMLElementWriter(EESubsystemParser11.INSTANCE);
+        subsystem.registerXMLElementWriter(EESubsystemParser12.INSTANCE);
+
+        if (context.isRegisterTransformers()) {
+            registerTransformers_1_0_0(subsystem);
+        }
+    }
+
+    private static void registerTransformers_1_0_0(final SubsystemRegistration subsystem) {
+        // annotation-index-parallelism and annotation-index-cache-max-size are unknown to 1.0.0 slaves
+        final DiscardUndefinedAttributesTransformer discardTransformer =
+                new DiscardUndefinedAttributesTransformer(EeSubsystemRootResource.ANNOTATION_INDEX_PARALLELISM,
+                        EeSubsystemRootResource.ANNOTATION_INDEX_CACHE_MAX_SIZE);
+        final TransformersSubRegistration transformers100 = subsystem.registerModelTransformers(ModelVersion.create(1, 0, 0), discardTransformer);
+        transformers100.registerOperationTransformer(ADD, discardTransformer);
+        transformers100.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION, discardTransformer.getWriteAttributeTransformer());
+        transformers100.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, discardTransformer.getUndefineAttributeTransformer());
     }
 
     /**
@@ -81,5 +102,6 @@ public class EeExtension implements Extension {
     public void initializeParsers(ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.EE_1_0.getUriString(), EESubsystemParser10.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.EE_1_1.getUriString(), EESubsystemParser11.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.EE_1_2.getUriString(), EESubsystemParser12.INSTANCE);
     }
 }
@@ -36,11 +36,15 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ee.component.deployers.DefaultEarSubDeploymentsIsolationProcessor;
+import org.jboss.as.ee.structure.AnnotationIndexConfigProcessor;
 import org.jboss.as.ee.structure.Attachments;
 import org.jboss.as.ee.structure.DescriptorPropertyReplacementProcessor;
 import org.jboss.as.ee.structure.GlobalModuleDependencyProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -72,8 +76,22 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
                     .setDefaultValue(new ModelNode(true))
                     .build();
 
+    public static final SimpleAttributeDefinition ANNOTATION_INDEX_PARALLELISM =
+            new SimpleAttributeDefinitionBuilder(EESubsystemModel.ANNOTATION_INDEX_PARALLELISM, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .build();
+
+    public static final SimpleAttributeDefinition ANNOTATION_INDEX_CACHE_MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(EESubsystemModel.ANNOTATION_INDEX_CACHE_MAX_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(AnnotationIndexCache.DEFAULT_MAX_SIZE))
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .build();
+
     static final AttributeDefinition[] ATTRIBUTES = { GlobalModulesDefinition.INSTANCE, EAR_SUBDEPLOYMENTS_ISOLATED,
-            SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT, JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT};
+            SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT, JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT, ANNOTATION_INDEX_PARALLELISM,
+            ANNOTATION_INDEX_CACHE_MAX_SIZE};
 
     public static final EeSubsystemRootResource INSTANCE = new EeSubsystemRootResource();
 
@@ -82,6 +100,7 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
     private final GlobalModuleDependencyProcessor moduleDependencyProcessor = new GlobalModuleDependencyProcessor();
     private final DescriptorPropertyReplacementProcessor specDescriptorPropertyReplacementProcessor = new DescriptorPropertyReplacementProcessor(Attachments.SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT);
     private final DescriptorPropertyReplacementProcessor jbossDescriptorPropertyReplacementProcessor = new DescriptorPropertyReplacementProcessor(Attachments.JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT);
+    private final AnnotationIndexConfigProcessor annotationIndexConfigProcessor = new AnnotationIndexConfigProcessor();
 
     private EeSubsystemRootResource() {
         super(EeExtension.PATH_SUBSYSTEM,
@@ -94,7 +113,8 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
         final ResourceDescriptionResolver rootResolver = getResourceDescriptionResolver();
 
         // Ops to add and remove the root resource
-        final EeSubsystemAdd subsystemAdd = new EeSubsystemAdd(isolationProcessor, moduleDependencyProcessor, specDescriptorPropertyReplacementProcessor, jbossDescriptorPropertyReplacementProcessor);
+        final EeSubsystemAdd subsystemAdd = new EeSubsystemAdd(isolationProcessor, moduleDependencyProcessor, specDescriptorPropertyReplacementProcessor, jbossDescriptorPropertyReplacementProcessor,
+                annotationIndexConfigProcessor);
         final DescriptionProvider subsystemAddDescription = new DefaultResourceAddDescriptionProvider(rootResourceRegistration, rootResolver);
         rootResourceRegistration.registerOperationHandler(ADD, subsystemAdd, subsystemAddDescription, EnumSet.of(OperationEntry.Flag.RESTART_ALL_SERVICES));
         final DescriptionProvider subsystemRemoveDescription = new DefaultResourceRemoveDescriptionProvider(rootResolver);
@@ -105,7 +125,7 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration rootResourceRegistration) {
         EeWriteAttributeHandler writeHandler = new EeWriteAttributeHandler(isolationProcessor, moduleDependencyProcessor,
-                specDescriptorPropertyReplacementProcessor, jbossDescriptorPropertyReplacementProcessor);
+                specDescriptorPropertyReplacementProcessor, jbossDescriptorPropertyReplacementProcessor, annotationIndexConfigProcessor);
         writeHandler.registerAttributes(rootResourceRegistration);
     }
 }
@@ -28,6 +28,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ee.component.deployers.DefaultEarSubDeploymentsIsolationProcessor;
+import org.jboss.as.ee.structure.AnnotationIndexConfigProcessor;
 import org.jboss.as.ee.structure.DescriptorPropertyReplacementProcessor;
 import org.jboss.as.ee.structure.GlobalModuleDependencyProcessor;
 import org.jboss.dmr.ModelNode;
@@ -43,16 +44,19 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
     private final GlobalModuleDependencyProcessor moduleDependencyProcessor;
     private final DescriptorPropertyReplacementProcessor specDescriptorPropertyReplacementProcessor;
     private final DescriptorPropertyReplacementProcessor jbossDescriptorPropertyReplacementProcessor;
+    private final AnnotationIndexConfigProcessor annotationIndexConfigProcessor;
 
     public EeWriteAttributeHandler(final DefaultEarSubDeploymentsIsolationProcessor isolationProcessor,
                                    final GlobalModuleDependencyProcessor moduleDependencyProcessor,
                                    final DescriptorPropertyReplacementProcessor specDescriptorPropertyReplacementProcessor,
-                                   final DescriptorPropertyReplacementProcessor jbossDescriptorPropertyReplacementProcessor) {
+                                   final DescriptorPropertyReplacementProcessor jbossDescriptorPropertyReplacementProcessor,
+                                   final AnnotationIndexConfigProcessor annotationIndexConfigProcessor) {
         super(EeSubsystemRootResource.ATTRIBUTES);
         this.isolationProcessor = isolationProcessor;
         this.moduleDependencyProcessor = moduleDependencyProcessor;
         this.specDescriptorPropertyReplacementProcessor = specDescriptorPropertyReplacementProcessor;
         this.jbossDescriptorPropertyReplacementProcessor = jbossDescriptorPropertyReplacementProcessor;
+        this.annotationIndexConfigProcessor = annotationIndexConfigProcessor;
     }
 
     public void registerAttributes(final ManagementResourceRegistration registry) {
@@ -88,6 +92,10 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
         } else if (EeSubsystemRootResource.JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT.getName().equals(attributeName)) {
             boolean enabled = newValue.asBoolean();
             jbossDescriptorPropertyReplacementProcessor.setDescriptorPropertyReplacement(enabled);
+        } else if (EeSubsystemRootResource.ANNOTATION_INDEX_PARALLELISM.getName().equals(attributeName)) {
+            annotationIndexConfigProcessor.setParallelism(newValue);
+        } else if (EeSubsystemRootResource.ANNOTATION_INDEX_CACHE_MAX_SIZE.getName().equals(attributeName)) {
+            annotationIndexConfigProcessor.setCacheMaxSize(newValue);
         }
     }
 }
@@ -36,6 +36,8 @@ enum Element {
     EAR_SUBDEPLOYMENTS_ISOLATED(EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.getXmlName()),
     SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT(EeSubsystemRootResource.SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT.getXmlName()),
     JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT(EeSubsystemRootResource.JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT.getXmlName()),
+    ANNOTATION_INDEX_PARALLELISM(EeSubsystemRootResource.ANNOTATION_INDEX_PARALLELISM.getXmlName()),
+    ANNOTATION_INDEX_CACHE_MAX_SIZE(EeSubsystemRootResource.ANNOTATION_INDEX_CACHE_MAX_SIZE.getXmlName()),
     UNKNOWN(null);
 
     private final String name;
@@ -21,9 +21,22 @@
 */
 package org.jboss.as.ee.subsystem;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+
 import java.io.IOException;
 
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.transform.OperationTransformer.TransformedOperation;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.as.subsystem.test.KernelServicesBuilder;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
 
 /**
  *
@@ -37,12 +50,63 @@ public class EeSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return "<subsystem xmlns=\"urn:jboss:domain:ee:1.1\" > " +
+        return "<subsystem xmlns=\"urn:jboss:domain:ee:1.2\" > " +
                 "<global-modules><module name=\"org.jboss.logging\" slot=\"main\"/><module name=\"org.apache.log4j\"/></global-modules>" +
                 "<ear-subdeployments-isolated>${test-exp:true}</ear-subdeployments-isolated>" +
                 "<spec-descriptor-property-replacement>${test-exp:true}</spec-descriptor-property-replacement>" +
                 "<jboss-descriptor-property-replacement>${test-exp:true}</jboss-descriptor-property-replacement>" +
+                "<annotation-index-parallelism>${test-exp:4}</annotation-index-parallelism>" +
+                "<annotation-index-cache-max-size>${test-exp:1048576}</annotation-index-cache-max-size>" +
                 "</subsystem>";
     }
 
+    @Test
+    public void testTransformersAS712() throws Exception {
+        testTransformers_1_0_0("7.1.2.Final");
+    }
+
+    @Test
+    public void testTransformersAS713() throws Exception {
+        testTransformers_1_0_0("7.1.3.Final");
+    }
+
+    private void testTransformers_1_0_0(final String asVersion) throws Exception {
+        final String subsystemXml = "<subsystem xmlns=\"urn:jboss:domain:ee:1.2\" > " +
+                "<ear-subdeployments-isolated>true</ear-subdeployments-isolated>" +
+                "</subsystem>";
+        final ModelVersion modelVersion = ModelVersion.create(1, 0, 0);
+        final KernelServicesBuilder builder = createKernelServicesBuilder(AdditionalInitialization.MANAGEMENT)
+                .setSubsystemXml(subsystemXml);
+        builder.createLegacyKernelServicesBuilder(null, modelVersion)
+                .addMavenResourceURL("org.jboss.as:jboss-as-ee:" + asVersion);
+
+        final KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        final KernelServices legacyServices = mainServices.getLegacyServices(modelVersion);
+        Assert.assertNotNull(legacyServices);
+        Assert.assertTrue(legacyServices.isSuccessfulBoot());
+
+        // the undefined annotation-index-parallelism is discarded
+        checkSubsystemModelTransformation(mainServices, modelVersion);
+
+        final PathAddress address = PathAddress.pathAddress(EeExtension.PATH_SUBSYSTEM);
+        final ModelNode write = Util.getWriteAttributeOperation(address, EESubsystemModel.ANNOTATION_INDEX_PARALLELISM, 4);
+        mainServices.executeForResult(write);
+        final TransformedOperation transformedWrite = mainServices.transformOperation(modelVersion, write);
+        final ModelNode result = mainServices.executeOperation(modelVersion, transformedWrite);
+        Assert.assertEquals(FAILED, result.get(OUTCOME).asString());
+
+        final ModelNode undefine = Util.getUndefineAttributeOperation(address, EESubsystemModel.ANNOTATION_INDEX_PARALLELISM);
+        mainServices.executeForResult(undefine);
+        Assert.assertNull(mainServices.transformOperation(modelVersion, undefine).getTransformedOperation());
+
+        final ModelNode writeMaxSize = Util.getWriteAttributeOperation(address, EESubsystemModel.ANNOTATION_INDEX_CACHE_MAX_SIZE, new ModelNode(0L));
+        mainServices.executeForResult(writeMaxSize);
+        final TransformedOperation transformedWriteMaxSize = mainServices.transformOperation(modelVersion, writeMaxSize);
+        Assert.assertEquals(FAILED, mainServices.executeOperation(modelVersion, transformedWriteMaxSize).get(OUTCOME).asString());
+
+        final ModelNode undefineMaxSize = Util.getUndefineAttributeOperation(address, EESubsystemModel.ANNOTATION_INDEX_CACHE_MAX_SIZE);
+        mainServices.executeForResult(undefineMaxSize);
+        Assert.assertNull(mainServices.transformOperation(modelVersion, undefineMaxSize).getTransformedOperation());
+    }
 }
@@ -569,6 +569,26 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 14261, value = "Failed to reinstate timer '%s' (id=%s) from its persistent state")
     void timerReinstatementFailed(String timedObjectId, String timerId, @Cause Throwable cause);
 
+    @LogMessage(level = WARN)
+    @Message(id = 14262, value = "Discarding corrupt record at offset %d of timer journal segment %s")
+    void corruptTimerJournalRecord(long offset, File segment);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14263, value = "Could not delete compacted timer journal segment %s")
+    void failToDeleteTimerJournalSegment(File segment);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14264, value = "Could not compact the timer journal in %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14265, value = "Could not claim the expiration of timer %s, it will be tried again")
+    void failToClaimTimeout(String timerId, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14266, value = "Failed to compact passivation segment %s")
+    void failToCompactPassivationSegment(File segment, @Cause Throwable cause);
+
     // Don't add message ids greater that 14299!!! If you need more first check what EjbMessages is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
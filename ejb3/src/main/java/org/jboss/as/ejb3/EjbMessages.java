@@ -2407,6 +2407,18 @@ public interface EjbMessages {
     @Message(id = 14581, value = "EJB 3.1 FR 13.3.3: BMT bean %s should complete transaction before returning.")
     String transactionNotComplete(String componentName);
 
+    @Message(id = 14582, value = "Timer journal in %s has been closed")
+    IllegalStateException timerJournalClosed(File directory);
+
+    @Message(id = 14583, value = "Attribute '%s' must be defined when the timer data store mode is '%s'")
+    String timerDataStoreAttributeRequired(String attribute, String mode);
+
+    @Message(id = 14584, value = "Could not claim the expiration of timer %s")
+    IllegalStateException timerClaimFailed(String timerId, @Cause Throwable cause);
+
+    @Message(id = 14585, value = "A %s named '%s' already exists, bean instance pool names must be unique")
+    String duplicateBeanInstancePoolName(String poolType, String poolName);
+
     // STOP!!! Don't add message ids greater that 14599!!! If you need more first check what EjbLogger is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
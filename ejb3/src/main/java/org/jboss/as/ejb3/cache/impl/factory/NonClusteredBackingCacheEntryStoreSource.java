@@ -35,7 +35,9 @@ import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreSource;
 import org.jboss.as.ejb3.cache.spi.SerializationGroup;
 import org.jboss.as.ejb3.cache.spi.SerializationGroupMember;
 import org.jboss.as.ejb3.cache.spi.impl.AbstractBackingCacheEntryStoreSource;
+import org.jboss.as.ejb3.cache.spi.PersistentObjectStore;
 import org.jboss.as.ejb3.cache.spi.impl.FilePersistentObjectStore;
+import org.jboss.as.ejb3.cache.spi.impl.MappedSegmentPersistentObjectStore;
 import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.ServerEnvironmentService;
@@ -45,7 +47,7 @@ import org.jboss.msc.value.InjectedValue;
 
 /**
  * {@link BackingCacheEntryStoreSource} for a non-clustered cache. Uses a {@link FilePersistentObjectStore} store for
- * persistence.
+ * persistence, or a {@link MappedSegmentPersistentObjectStore} if a segment size is set.
  *
  * @author Brian Stansberry
  * @author Paul Ferraro
@@ -70,11 +72,12 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
     private String groupDirectoryName = DEFAULT_GROUP_DIRECTORY_NAME;
     private String relativeToRef = DEFAULT_RELATIVE_TO;
     private int subdirectoryCount = DEFAULT_SUBDIRECTORY_COUNT;
+    private int segmentSize = 0;
     private volatile PathManager.Callback.Handle callbackHandle;
 
     @Override
     public <E extends SerializationGroup<K, V, G>> BackingCacheEntryStore<G, Cacheable<G>, E> createGroupIntegratedObjectStore(IdentifierFactory<G> identifierFactory, PassivationManager<G, E> passivationManager, StatefulTimeoutInfo timeout) {
-        FilePersistentObjectStore<G, E> objectStore = new FilePersistentObjectStore<G, E>(passivationManager, this.getStoragePath(null, this.groupDirectoryName), subdirectoryCount);
+        PersistentObjectStore<G, E> objectStore = this.createObjectStore(passivationManager, this.getStoragePath(null, this.groupDirectoryName));
 
         SimpleBackingCacheEntryStore<G, Cacheable<G>, E> store = new SimpleBackingCacheEntryStore<G, Cacheable<G>, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this);
 
@@ -83,7 +86,7 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
 
     @Override
     public <E extends SerializationGroupMember<K, V, G>> BackingCacheEntryStore<K, V, E> createIntegratedObjectStore(String beanName, IdentifierFactory<K> identifierFactory, PassivationManager<K, E> passivationManager, StatefulTimeoutInfo timeout) {
-        FilePersistentObjectStore<K, E> objectStore = new FilePersistentObjectStore<K, E>(passivationManager, this.getStoragePath(beanName, this.sessionDirectoryName), subdirectoryCount);
+        PersistentObjectStore<K, E> objectStore = this.createObjectStore(passivationManager, this.getStoragePath(beanName, this.sessionDirectoryName));
 
         SimpleBackingCacheEntryStore<K, V, E> store = new SimpleBackingCacheEntryStore<K, V, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this);
 
@@ -96,6 +99,13 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
         builder.addDependency(ServerEnvironmentService.SERVICE_NAME, ServerEnvironment.class, this.environment);
     }
 
+    private <I extends Serializable, E extends Cacheable<I>> PersistentObjectStore<I, E> createObjectStore(PassivationManager<I, E> passivationManager, String path) {
+        if (segmentSize > 0) {
+            return new MappedSegmentPersistentObjectStore<I, E>(passivationManager, path, segmentSize);
+        }
+        return new FilePersistentObjectStore<I, E>(passivationManager, path, subdirectoryCount);
+    }
+
     private String getStoragePath(String beanName, String subDirectory) {
         File path = new File(pathManager.getValue().resolveRelativePathEntry(subDirectory, relativeToRef));
         return path.getAbsolutePath();
@@ -150,6 +160,22 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
         this.subdirectoryCount = subdirectoryCount;
     }
 
+    /**
+     * Gets the size of the memory mapped segments passivated objects are appended to. Default is <code>0</code>, which
+     * stores each object in a file of its own.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the size of the memory mapped segments passivated objects are appended to, or <code>0</code> to store each
+     * object in a file of its own.
+     */
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
     public String getRelativeTo() {
         return this.relativeToRef;
     }
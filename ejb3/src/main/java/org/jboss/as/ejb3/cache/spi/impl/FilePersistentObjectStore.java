@@ -62,7 +62,7 @@ public class FilePersistentObjectStore<K extends Serializable, V extends Cacheab
     private final File baseDirectory;
     private File[] storageDirectories;
 
-    private static class DeleteFileAction implements PrivilegedAction<Boolean> {
+    static class DeleteFileAction implements PrivilegedAction<Boolean> {
         File file;
 
         DeleteFileAction(File file) {
@@ -135,7 +135,7 @@ public class FilePersistentObjectStore<K extends Serializable, V extends Cacheab
         }
     }
 
-    private static class MkdirsFileAction implements PrivilegedAction<Boolean> {
+    static class MkdirsFileAction implements PrivilegedAction<Boolean> {
         File file;
 
         MkdirsFileAction(File file) {
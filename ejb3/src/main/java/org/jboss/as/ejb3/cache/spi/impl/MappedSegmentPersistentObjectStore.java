@@ -0,0 +1,443 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.EjbLogger;
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.as.ejb3.cache.spi.PersistentObjectStore;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleDataInput;
+import org.jboss.marshalling.SimpleDataOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Stores objects by appending them to memory mapped segment files.
+ * <p/>
+ * Where {@link FilePersistentObjectStore} creates and deletes a file per passivated object, this store appends the
+ * serialized object to the active segment and keeps its offset in an in-memory index. Activation frees the slot of
+ * the object. A sealed segment without live slots is recycled, and a sealed segment which is mostly free is compacted
+ * in the background by moving its live slots to the active segment.
+ * <p/>
+ * As with {@link FilePersistentObjectStore} the stored objects do not survive a restart, the directory is cleared on
+ * start and removed on stop.
+ */
+public class MappedSegmentPersistentObjectStore<K extends Serializable, V extends Cacheable<K>> implements PersistentObjectStore<K, V> {
+    private static final Logger log = Logger.getLogger(MappedSegmentPersistentObjectStore.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    /**
+     * The smallest segment size that can be configured. A smaller segment holds so few beans that the store degrades
+     * to a segment file per passivated bean.
+     */
+    public static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    /**
+     * The number of empty segments kept around for reuse.
+     */
+    private static final int RETAINED_SEGMENTS = 2;
+
+    private final MarshallerFactory marshallerFactory = Marshalling.getMarshallerFactory("river", MarshallerFactory.class.getClassLoader());
+    private final PassivationManager<K, V> passivationManager;
+    private final File directory;
+    private final int segmentSize;
+    private final ConcurrentMap<K, Slot> index = new ConcurrentHashMap<K, Slot>();
+    private final Queue<Segment> recycled = new ConcurrentLinkedQueue<Segment>();
+    private final AtomicInteger segmentCount = new AtomicInteger();
+    private final Object appendLock = new Object();
+    // guarded by appendLock
+    private Segment active;
+    private long nextSegmentId;
+    private volatile ExecutorService compactor;
+
+    public MappedSegmentPersistentObjectStore(PassivationManager<K, V> passivationManager, String directoryName) {
+        this(passivationManager, directoryName, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedSegmentPersistentObjectStore(PassivationManager<K, V> passivationManager, String directoryName, int segmentSize) {
+        this.passivationManager = passivationManager;
+        this.directory = new File(directoryName);
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public void start() {
+        if (!directory.exists()) {
+            if (!FilePersistentObjectStore.MkdirsFileAction.mkdirs(directory) && !directory.exists()) {
+                throw EjbMessages.MESSAGES.passivationDirectoryCreationFailed(directory.getPath());
+            }
+        }
+        if (!directory.isDirectory()) {
+            throw EjbMessages.MESSAGES.passivationPathNotADirectory(directory.getPath());
+        }
+        deleteSegmentFiles();
+        final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        compactor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread thread = threadFactory.newThread(r);
+                thread.setName("passivation-compactor " + directory.getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        final ExecutorService compactor = this.compactor;
+        if (compactor != null) {
+            compactor.shutdownNow();
+            this.compactor = null;
+        }
+        synchronized (appendLock) {
+            active = null;
+            index.clear();
+            recycled.clear();
+            segmentCount.set(0);
+        }
+        deleteSegmentFiles();
+        FilePersistentObjectStore.DeleteFileAction.delete(directory);
+    }
+
+    @Override
+    public void store(V obj) {
+        final K id = obj.getId();
+        log.tracef("Storing state of %s in %s", id, directory);
+        try {
+            final Slot slot = write(marshal(obj));
+            final Slot previous = index.put(id, slot);
+            if (previous != null) {
+                release(previous);
+            }
+        } catch (IOException e) {
+            throw EjbMessages.MESSAGES.passivationFailed(e, id);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V load(K key) {
+        final Slot slot = index.remove(key);
+        if (slot == null) {
+            return null;
+        }
+        log.tracef("Loading state of %s from %s", key, slot.segment.file);
+        try {
+            final byte[] bytes;
+            try {
+                bytes = read(slot);
+            } finally {
+                release(slot);
+            }
+            final SimpleDataInput input = new SimpleDataInput(Marshalling.createByteInput(new ByteArrayInputStream(bytes)));
+            final int version = input.readInt();
+            final MarshallingConfiguration config = this.passivationManager.getMarshallingConfiguration(version);
+            final Unmarshaller unmarshaller = this.marshallerFactory.createUnmarshaller(config);
+            unmarshaller.start(input);
+            try {
+                final V value = (V) unmarshaller.readObject();
+                unmarshaller.finish();
+                return value;
+            } finally {
+                unmarshaller.close();
+            }
+        } catch (Exception e) {
+            throw EjbMessages.MESSAGES.activationFailed(e, key);
+        }
+    }
+
+    /**
+     * The number of segment files currently in use or retained for reuse.
+     */
+    int getSegmentCount() {
+        return segmentCount.get();
+    }
+
+    private byte[] marshal(V obj) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        final SimpleDataOutput output = new SimpleDataOutput(Marshalling.createByteOutput(bytes));
+        final int version = this.passivationManager.getCurrentMarshallingVersion();
+        output.writeInt(version);
+        final MarshallingConfiguration config = this.passivationManager.getMarshallingConfiguration(version);
+        final Marshaller marshaller = this.marshallerFactory.createMarshaller(config);
+        marshaller.start(output);
+        try {
+            marshaller.writeObject(obj);
+            marshaller.finish();
+        } finally {
+            marshaller.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reserves a slot in the active segment and copies the bytes into it. Only the reservation happens under the
+     * append lock, concurrent writers copy into their own slots in parallel.
+     */
+    private Slot write(byte[] bytes) throws IOException {
+        final Slot slot;
+        synchronized (appendLock) {
+            Segment segment = active;
+            if (segment == null || segment.capacity - segment.position < bytes.length) {
+                if (segment != null) {
+                    seal(segment);
+                }
+                segment = bytes.length > segmentSize ? createSegment(bytes.length) : nextSegment();
+                active = segment;
+            }
+            slot = new Slot(segment, segment.generation, segment.position, bytes.length);
+            segment.position += bytes.length;
+            segment.liveBytes.addAndGet(bytes.length);
+        }
+        final ByteBuffer buffer = slot.segment.buffer.duplicate();
+        buffer.position(slot.offset);
+        buffer.put(bytes);
+        return slot;
+    }
+
+    private byte[] read(Slot slot) {
+        final byte[] bytes = new byte[slot.length];
+        final ByteBuffer buffer = slot.segment.buffer.duplicate();
+        buffer.position(slot.offset);
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Frees a slot which is no longer referenced by the index. Each slot is released exactly once, by whoever removed
+     * it from the index.
+     */
+    private void release(Slot slot) {
+        final Segment segment = slot.segment;
+        if (segment.liveBytes.addAndGet(-slot.length) == 0) {
+            recycleIfEmpty(segment);
+        } else {
+            compactIfSparse(segment);
+        }
+    }
+
+    // called under appendLock
+    private void seal(Segment segment) {
+        segment.sealed = true;
+        if (!recycleIfEmpty(segment)) {
+            compactIfSparse(segment);
+        }
+    }
+
+    private boolean recycleIfEmpty(Segment segment) {
+        // the sealing thread and the thread releasing the last slot may both get here, only one of them wins
+        if (!segment.sealed || segment.liveBytes.get() != 0 || !segment.released.compareAndSet(false, true)) {
+            return false;
+        }
+        if (segment.capacity == segmentSize && recycled.size() < RETAINED_SEGMENTS) {
+            recycled.offer(segment);
+        } else {
+            segmentCount.decrementAndGet();
+            FilePersistentObjectStore.DeleteFileAction.delete(segment.file);
+        }
+        return true;
+    }
+
+    private void compactIfSparse(final Segment segment) {
+        final ExecutorService compactor = this.compactor;
+        if (compactor == null || !segment.sealed || segment.liveBytes.get() * 2 > segment.position) {
+            return;
+        }
+        if (segment.compacting.compareAndSet(false, true)) {
+            final int generation = segment.generation;
+            try {
+                compactor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        compact(segment, generation);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the store is stopping
+                segment.compacting.set(false);
+            }
+        }
+    }
+
+    /**
+     * Moves the live slots of a sealed segment to the active segment. Once the last one is gone the segment gets
+     * recycled. A slot which is activated or passivated again in the meantime is left alone, the copy is freed again.
+     */
+    private void compact(Segment segment, int generation) {
+        log.tracef("Compacting passivation segment %s", segment.file);
+        try {
+            for (Map.Entry<K, Slot> entry : index.entrySet()) {
+                if (segment.generation != generation || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                final Slot slot = entry.getValue();
+                if (slot.segment != segment || slot.generation != generation) {
+                    continue;
+                }
+                final Slot moved = write(read(slot));
+                if (index.replace(entry.getKey(), slot, moved)) {
+                    release(slot);
+                } else {
+                    release(moved);
+                }
+            }
+        } catch (IOException e) {
+            EjbLogger.EJB3_LOGGER.failToCompactPassivationSegment(segment.file, e);
+        } finally {
+            segment.compacting.set(false);
+        }
+    }
+
+    // called under appendLock
+    private Segment nextSegment() throws IOException {
+        final Segment segment = recycled.poll();
+        if (segment == null) {
+            return createSegment(segmentSize);
+        }
+        segment.generation++;
+        segment.position = 0;
+        segment.sealed = false;
+        segment.released.set(false);
+        return segment;
+    }
+
+    // called under appendLock
+    private Segment createSegment(int capacity) throws IOException {
+        final File file = new File(directory, String.format("%s%016x%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        final Segment segment = new Segment(file, MapFileAction.map(file, capacity), capacity);
+        segmentCount.incrementAndGet();
+        return segment;
+    }
+
+    private void deleteSegmentFiles() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(SEGMENT_PREFIX) && file.getName().endsWith(SEGMENT_SUFFIX)) {
+                    FilePersistentObjectStore.DeleteFileAction.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * A segment file mapped into memory. The file itself is closed right after mapping, the mapping stays valid until
+     * the buffer is collected.
+     */
+    private static final class Segment {
+        final File file;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        final AtomicInteger liveBytes = new AtomicInteger();
+        final AtomicBoolean released = new AtomicBoolean();
+        final AtomicBoolean compacting = new AtomicBoolean();
+        // guarded by appendLock, published to other threads by sealed
+        int position;
+        // only incremented under appendLock
+        volatile int generation;
+        volatile boolean sealed;
+
+        Segment(File file, MappedByteBuffer buffer, int capacity) {
+            this.file = file;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * The location of a stored object. The generation tells a slot apart from one at the same place in an earlier use
+     * of a recycled segment.
+     */
+    private static final class Slot {
+        final Segment segment;
+        final int generation;
+        final int offset;
+        final int length;
+
+        Slot(Segment segment, int generation, int offset, int length) {
+            this.segment = segment;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class MapFileAction implements PrivilegedExceptionAction<MappedByteBuffer> {
+        final File file;
+        final int capacity;
+
+        MapFileAction(File file, int capacity) {
+            this.file = file;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public MappedByteBuffer run() throws IOException {
+            final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } finally {
+                raf.close();
+            }
+        }
+
+        static MappedByteBuffer map(File file, int capacity) throws IOException {
+            try {
+                return AccessController.doPrivileged(new MapFileAction(file, capacity));
+            } catch (PrivilegedActionException e) {
+                throw (IOException) e.getException();
+            }
+        }
+    }
+}
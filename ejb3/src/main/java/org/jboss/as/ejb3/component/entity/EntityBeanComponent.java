@@ -246,6 +246,14 @@ public class EntityBeanComponent extends EJBComponent implements PooledComponent
         return pool;
     }
 
+    /**
+     * Returns the statistics of the persistence manager of the entity, or <code>null</code> if the bean manages its
+     * own persistence.
+     */
+    public EntityPersistenceMetrics getPersistenceMetrics() {
+        return null;
+    }
+
     @Override
     public String getPoolName() {
         return poolName;
@@ -39,12 +39,9 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Keep track of the number of read locks held by this thread
-     */
-    private final ThreadLocal<Integer> readLockCount = new ThreadLocal<Integer>();
-
-    /**
-     * We delegate all locking semantics to this {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+     * We delegate all locking semantics to this {@link java.util.concurrent.locks.ReentrantReadWriteLock}.
+     * It also keeps track of the number of read locks held by each thread, so that the loopback check
+     * does not need any bookkeeping of its own.
      */
     private final ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
 
@@ -61,9 +58,7 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
     private final Lock writeLock = new WriteLock();
 
     /**
-     * A read lock which increments/decrements the count of
-     * read locks held by the thread and delegates the locking
-     * calls to the {@link #delegate}
+     * A read lock which delegates the locking calls to the {@link #delegate}
      *
      * @author Jaikiran Pai
      * @version $Revision: $
@@ -73,22 +68,18 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
 
         /**
          * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then increment the read lock count held by the thread
          */
         @Override
         public void lock() {
             delegate.readLock().lock();
-            incReadLockCount();
         }
 
         /**
          * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then increment the read lock count held by the thread
          */
         @Override
         public void lockInterruptibly() throws InterruptedException {
             delegate.readLock().lockInterruptibly();
-            incReadLockCount();
         }
 
         /**
@@ -103,38 +94,26 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
 
         /**
          * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then on successful acquisition of lock, increment the read lock count held by the thread
          */
         @Override
         public boolean tryLock() {
-            if (delegate.readLock().tryLock()) {
-                incReadLockCount();
-                return true;
-            }
-            return false;
+            return delegate.readLock().tryLock();
         }
 
         /**
          * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then on successful acquisition of lock, increment the read lock count held by the thread
          */
         @Override
         public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
-            if (delegate.readLock().tryLock(time, unit)) {
-                incReadLockCount();
-                return true;
-            }
-            return false;
+            return delegate.readLock().tryLock(time, unit);
         }
 
         /**
          * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then decrement the read lock count held by the thread
          */
         @Override
         public void unlock() {
             delegate.readLock().unlock();
-            decReadLockCount();
         }
 
     }
@@ -224,40 +203,11 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
      * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
      */
     private void checkLoopback() {
-        Integer current = readLockCount.get();
-        if (current != null) {
-            assert current.intValue() > 0 : "readLockCount is set, but to 0";
+        if (delegate.getReadHoldCount() > 0) {
             throw MESSAGES.failToUpgradeToWriteLock();
         }
     }
 
-    /**
-     * Decrements the read lock count held by the thread
-     */
-    private void decReadLockCount() {
-        Integer current = readLockCount.get();
-        int next;
-        assert current != null : "can't decrease, readLockCount is not set";
-        next = current.intValue() - 1;
-        if (next == 0)
-            readLockCount.remove();
-        else
-            readLockCount.set(new Integer(next));
-    }
-
-    /**
-     * Increments the read lock count held by the thread
-     */
-    private void incReadLockCount() {
-        Integer current = readLockCount.get();
-        int next;
-        if (current == null)
-            next = 1;
-        else
-            next = current.intValue() + 1;
-        readLockCount.set(new Integer(next));
-    }
-
     /**
      * @see java.util.concurrent.locks.ReadWriteLock#readLock()
      */
@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size which keeps its idle instances in a number of lock-free stripes.
+ * <p/>
+ * Each thread is mapped to a home stripe, which is where it returns instances to and where it
+ * looks for an instance first. If the home stripe is empty the other stripes are scanned and an
+ * idle instance is stolen from them before a new instance gets created. Permits are handed out by
+ * a non-fair semaphore, so an uncontended acquire is a single CAS and never enters the wait queue.
+ * <p/>
+ * The pool gives the same guarantees as {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}: no
+ * more than <code>maxSize</code> instances are in use at the same time and no more than
+ * <code>maxSize</code> idle instances are retained.
+ */
+public class StripedMaxPool<T> extends AbstractPool<T> {
+
+    /**
+     * Non-fair semaphore limiting the number of instances which are in use at a given time.
+     */
+    private final Semaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for a permit.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The idle instances. The length is always a power of two.
+     */
+    private final Stripe<T>[] stripes;
+    private final int stripeMask;
+    /**
+     * The number of idle instances over all stripes.
+     */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrencyLevel) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize, false);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // never use more stripes than there can be instances
+        final int count = stripeCount(Math.min(Math.max(concurrencyLevel, 1), Math.max(maxSize, 1)));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe<T>();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    private static int stripeCount(int concurrencyLevel) {
+        int count = 1;
+        while (count < concurrencyLevel) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return semaphore.availablePermits();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw MESSAGES.methodNotImplemented();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        // barging acquire first, only park if there really is no permit left
+        if (!semaphore.tryAcquire()) {
+            try {
+                boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+                if (!acquired)
+                    throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+            } catch (InterruptedException e) {
+                throw MESSAGES.acquireSemaphoreInterrupted();
+            }
+        }
+
+        final T pooledInstance = poll();
+        if (pooledInstance != null) {
+            return pooledInstance;
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", pooled.get(), maxSize, this);
+        }
+
+        if (reservePooledSlot()) {
+            stripes[homeStripe()].push(obj);
+        } else {
+            destroy(obj);
+        }
+        semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+        // nothing to do
+    }
+
+    public void stop() {
+        for (Stripe<T> stripe : stripes) {
+            T obj;
+            while ((obj = stripe.pop()) != null) {
+                pooled.decrementAndGet();
+                destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * Takes an idle instance from the home stripe of the calling thread, stealing from the other
+     * stripes if the home stripe is empty.
+     *
+     * @return an idle instance or <code>null</code> if there is none
+     */
+    private T poll() {
+        if (pooled.get() == 0) {
+            return null;
+        }
+        final int home = homeStripe();
+        for (int i = 0; i < stripes.length; i++) {
+            final T obj = stripes[(home + i) & stripeMask].pop();
+            if (obj != null) {
+                pooled.decrementAndGet();
+                return obj;
+            }
+        }
+        return null;
+    }
+
+    private boolean reservePooledSlot() {
+        for (;;) {
+            final int current = pooled.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (pooled.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        // spread the thread id so that sequentially numbered threads do not collide
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return h & stripeMask;
+    }
+
+    /**
+     * A Treiber stack holding idle instances. Returning the most recently used instance first keeps
+     * it warm in the cache of the core that released it.
+     */
+    private static final class Stripe<T> {
+        private final AtomicReference<Node<T>> head = new AtomicReference<Node<T>>();
+
+        void push(T value) {
+            final Node<T> node = new Node<T>(value);
+            for (;;) {
+                final Node<T> current = head.get();
+                node.next = current;
+                if (head.compareAndSet(current, node)) {
+                    return;
+                }
+            }
+        }
+
+        T pop() {
+            for (;;) {
+                final Node<T> current = head.get();
+                if (current == null) {
+                    return null;
+                }
+                if (head.compareAndSet(current, current.next)) {
+                    return current.value;
+                }
+            }
+        }
+    }
+
+    private static final class Node<T> {
+        final T value;
+        Node<T> next;
+
+        Node(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -61,6 +61,7 @@ import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.threads.Namespace;
 import org.jboss.as.threads.ThreadsParser;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 
@@ -414,19 +415,23 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         requireNoAttributes(reader);
 
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
-            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
-                case STRICT_MAX_POOL: {
-                    this.parseStrictMaxPool(reader, operations);
-                    break;
-                }
-                default: {
-                    throw unexpectedElement(reader);
-                }
+            this.readBeanInstancePool(reader, EJB3SubsystemXMLElement.forName(reader.getLocalName()), operations);
+        }
+    }
+
+    protected void readBeanInstancePool(final XMLExtendedStreamReader reader, final EJB3SubsystemXMLElement element, final List<ModelNode> operations) throws XMLStreamException {
+        switch (element) {
+            case STRICT_MAX_POOL: {
+                this.parseMaxPool(reader, operations, STRICT_MAX_BEAN_INSTANCE_POOL);
+                break;
+            }
+            default: {
+                throw unexpectedElement(reader);
             }
         }
     }
 
-    private void parseStrictMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations, final String poolType) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         String poolName = null;
         final ModelNode operation = Util.createAddOperation();
@@ -458,7 +463,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
         // create and add the operation
         // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
-        final PathAddress address = this.getEJB3SubsystemAddress().append(STRICT_MAX_BEAN_INSTANCE_POOL, poolName);
+        final PathAddress address = this.getEJB3SubsystemAddress().append(poolType, poolName);
         operation.get(OP_ADDR).set(address.toModelNode());
         operations.add(operation);
     }
@@ -577,7 +582,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
                     break;
                 }
                 default: {
-                    throw unexpectedAttribute(reader, i);
+                    readFilePassivationStoreAttribute(reader, i, EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i)), operation);
                 }
             }
         }
@@ -661,7 +666,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
                     TimerServiceResourceDefinition.THREAD_POOL_NAME.parseAndSetParameter(value, timerServiceAdd, reader);
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    readTimerServiceAttribute(reader, i, attribute, timerServiceAdd);
             }
         }
         if (!required.isEmpty()) {
@@ -690,13 +695,15 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
                                 dataStorePathRelativeTo = TimerServiceResourceDefinition.RELATIVE_TO.parse(value, reader).asString();
                                 break;
                             default:
-                                throw unexpectedAttribute(reader, i);
+                                readDataStoreAttribute(reader, i, attribute, timerServiceAdd);
                         }
                     }
-                    if (dataStorePath == null) {
+                    if (dataStorePath == null && isFileDataStore(timerServiceAdd)) {
                         throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.PATH));
                     }
-                    timerServiceAdd.get(PATH).set(dataStorePath);
+                    if (dataStorePath != null) {
+                        timerServiceAdd.get(PATH).set(dataStorePath);
+                    }
                     if (dataStorePathRelativeTo != null) {
                         timerServiceAdd.get(RELATIVE_TO).set(dataStorePathRelativeTo);
                     }
@@ -711,6 +718,33 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         operations.add(timerServiceAdd);
     }
 
+    /**
+     * Whether the timers are stored in files, which need the path of the data store. A mode given as an expression is
+     * only known at runtime, where the path is checked instead.
+     */
+    private static boolean isFileDataStore(final ModelNode timerServiceAdd) {
+        final ModelNode mode = timerServiceAdd.get(TimerServiceResourceDefinition.DATA_STORE_MODE.getName());
+        if (!mode.isDefined()) {
+            return true;
+        }
+        if (mode.getType() == ModelType.EXPRESSION) {
+            return false;
+        }
+        return TimerDataStoreMode.forName(mode.asString()) != TimerDataStoreMode.DATABASE;
+    }
+
+    protected void readFilePassivationStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode storeAdd) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
+    protected void readTimerServiceAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode timerServiceAdd) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
+    protected void readDataStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode timerServiceAdd) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseThreadPools(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
         requireNoAttributes(reader);
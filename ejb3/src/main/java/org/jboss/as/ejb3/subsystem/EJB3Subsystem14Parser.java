@@ -58,6 +58,74 @@ public class EJB3Subsystem14Parser extends EJB3Subsystem13Parser {
         }
     }
 
+    @Override
+    protected void readBeanInstancePool(final XMLExtendedStreamReader reader, final EJB3SubsystemXMLElement element, final List<ModelNode> operations) throws XMLStreamException {
+        switch (element) {
+            case STRIPED_MAX_POOL: {
+                this.parseMaxPool(reader, operations, EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL);
+                break;
+            }
+            default: {
+                super.readBeanInstancePool(reader, element, operations);
+            }
+        }
+    }
+
+    @Override
+    protected void readFilePassivationStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode storeAdd) throws XMLStreamException {
+        switch (attribute) {
+            case SEGMENT_SIZE: {
+                FilePassivationStoreResourceDefinition.SEGMENT_SIZE.parseAndSetParameter(reader.getAttributeValue(index), storeAdd, reader);
+                break;
+            }
+            default: {
+                super.readFilePassivationStoreAttribute(reader, index, attribute, storeAdd);
+            }
+        }
+    }
+
+    @Override
+    protected void readTimerServiceAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode timerServiceAdd) throws XMLStreamException {
+        switch (attribute) {
+            case SCHEDULER: {
+                TimerServiceResourceDefinition.SCHEDULER.parseAndSetParameter(reader.getAttributeValue(index), timerServiceAdd, reader);
+                break;
+            }
+            case SCHEDULER_TICK_DURATION: {
+                TimerServiceResourceDefinition.SCHEDULER_TICK_DURATION.parseAndSetParameter(reader.getAttributeValue(index), timerServiceAdd, reader);
+                break;
+            }
+            default: {
+                super.readTimerServiceAttribute(reader, index, attribute, timerServiceAdd);
+            }
+        }
+    }
+
+    @Override
+    protected void readDataStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final ModelNode timerServiceAdd) throws XMLStreamException {
+        switch (attribute) {
+            case MODE: {
+                TimerServiceResourceDefinition.DATA_STORE_MODE.parseAndSetParameter(reader.getAttributeValue(index), timerServiceAdd, reader);
+                break;
+            }
+            case DATASOURCE_JNDI_NAME: {
+                TimerServiceResourceDefinition.DATASOURCE_JNDI_NAME.parseAndSetParameter(reader.getAttributeValue(index), timerServiceAdd, reader);
+                break;
+            }
+            case DATABASE_TABLE_NAME: {
+                TimerServiceResourceDefinition.DATABASE_TABLE_NAME.parseAndSetParameter(reader.getAttributeValue(index), timerServiceAdd, reader);
+                break;
+            }
+            case DATABASE_PAGE_SIZE: {
+                TimerServiceResourceDefinition.DATABASE_PAGE_SIZE.parseAndSetParameter(reader.getAttributeValue(index), timerServiceAdd, reader);
+                break;
+            }
+            default: {
+                super.readDataStoreAttribute(reader, index, attribute, timerServiceAdd);
+            }
+        }
+    }
+
     @Override
     protected EJB3SubsystemNamespace getExpectedNamespace() {
         return EJB3SubsystemNamespace.EJB3_1_4;
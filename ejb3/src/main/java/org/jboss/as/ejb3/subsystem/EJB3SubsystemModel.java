@@ -58,12 +58,19 @@ public interface EJB3SubsystemModel {
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED_MAX_BEAN_INSTANCE_POOL = "striped-max-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
 
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String DATA_STORE_MODE = "data-store-mode";
+    String DATASOURCE_JNDI_NAME = "datasource-jndi-name";
+    String DATABASE_TABLE_NAME = "database-table-name";
+    String DATABASE_PAGE_SIZE = "database-page-size";
+    String SCHEDULER = "scheduler";
+    String SCHEDULER_TICK_DURATION = "scheduler-tick-duration";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
@@ -88,6 +95,7 @@ public interface EJB3SubsystemModel {
     String GROUPS_PATH = "groups-path";
     String SESSIONS_PATH = "sessions-path";
     String SUBDIRECTORY_COUNT = "subdirectory-count";
+    String SEGMENT_SIZE = "segment-size";
 
     String CLUSTER_PASSIVATION_STORE = "cluster-passivation-store";
     String BEAN_CACHE = "bean-cache";
@@ -194,6 +194,9 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // subsystem=ejb3/strict-max-bean-instance-pool=*
         subsystemRegistration.registerSubModel(StrictMaxPoolResourceDefinition.INSTANCE);
 
+        // subsystem=ejb3/striped-max-bean-instance-pool=*
+        subsystemRegistration.registerSubModel(StripedMaxPoolResourceDefinition.INSTANCE);
+
         subsystemRegistration.registerSubModel(CacheFactoryResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(FilePassivationStoreResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(ClusterPassivationStoreResourceDefinition.INSTANCE);
@@ -229,6 +232,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         UnboundedQueueThreadPoolResourceDefinition.registerTransformers1_0(transformers110, EJB3SubsystemModel.THREAD_POOL);
 
         StrictMaxPoolResourceDefinition.registerTransformers_1_1_0(transformers110);
+        StripedMaxPoolResourceDefinition.registerTransformers_1_1_0(transformers110);
         FilePassivationStoreResourceDefinition.registerTransformers_1_1_0(transformers110);
         ClusterPassivationStoreResourceDefinition.registerTransformers_1_1_0(transformers110);
         TimerServiceResourceDefinition.registerTransformers_1_1_0(transformers110);
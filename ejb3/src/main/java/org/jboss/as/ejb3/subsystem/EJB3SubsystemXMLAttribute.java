@@ -41,6 +41,9 @@ public enum EJB3SubsystemXMLAttribute {
     CONNECTOR_REF("connector-ref"),
     CORE_THREADS("core-threads"),
 
+    DATABASE_PAGE_SIZE("database-page-size"),
+    DATABASE_TABLE_NAME("database-table-name"),
+    DATASOURCE_JNDI_NAME("datasource-jndi-name"),
     DEFAULT_ACCESS_TIMEOUT("default-access-timeout"),
 
     ENABLED("enabled"),
@@ -58,6 +61,7 @@ public enum EJB3SubsystemXMLAttribute {
     MAX_POOL_SIZE("max-pool-size"),
     MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
+    MODE("mode"),
 
     NAME("name"),
 
@@ -70,7 +74,10 @@ public enum EJB3SubsystemXMLAttribute {
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
 
+    SCHEDULER("scheduler"),
+    SCHEDULER_TICK_DURATION("scheduler-tick-duration"),
     SESSIONS_PATH("sessions-path"),
+    SEGMENT_SIZE("segment-size"),
     SUBDIRECTORY_COUNT("subdirectory-count"),
 
     THREAD_POOL_NAME("thread-pool-name"),
@@ -26,6 +26,7 @@ import java.util.List;
 
 import javax.xml.stream.XMLStreamException;
 
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.as.remoting.Attribute;
 import org.jboss.as.threads.ThreadsParser;
@@ -126,7 +127,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeEndElement();
         }
         // write the pools element
-        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)) {
+        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL) || model.hasDefined(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL)) {
             // <pools>
             writer.writeStartElement(EJB3SubsystemXMLElement.POOLS.getLocalName());
             // <bean-instance-pools>
@@ -362,6 +363,17 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeEndElement();
             }
         }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL)) {
+            final List<Property> stripedMaxPools = beanInstancePoolModelNode.get(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL).asPropertyList();
+            for (Property property : stripedMaxPools) {
+                // <striped-max-pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.STRIPED_MAX_POOL.getLocalName());
+                // same attributes as the strict-max-pool
+                this.writeStrictMaxPoolConfig(writer, property);
+                // </striped-max-pool>
+                writer.writeEndElement();
+            }
+        }
     }
 
     private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final Property strictMaxPoolModel) throws XMLStreamException {
@@ -423,6 +435,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 FilePassivationStoreResourceDefinition.GROUPS_PATH.marshallAsAttribute(store, writer);
                 FilePassivationStoreResourceDefinition.SESSIONS_PATH.marshallAsAttribute(store, writer);
                 FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.marshallAsAttribute(store, writer);
+                FilePassivationStoreResourceDefinition.SEGMENT_SIZE.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
@@ -430,12 +443,18 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
 
     private void writeTimerService(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
         TimerServiceResourceDefinition.THREAD_POOL_NAME.marshallAsAttribute(timerServiceModel, writer);
+        TimerServiceResourceDefinition.SCHEDULER.marshallAsAttribute(timerServiceModel, writer);
+        TimerServiceResourceDefinition.SCHEDULER_TICK_DURATION.marshallAsAttribute(timerServiceModel, writer);
         // <data-store>
-        if (TimerServiceResourceDefinition.PATH.isMarshallable(timerServiceModel)
-                || TimerServiceResourceDefinition.RELATIVE_TO.isMarshallable(timerServiceModel)) {
+        boolean dataStoreDefined = false;
+        for (SimpleAttributeDefinition attribute : TimerServiceResourceDefinition.DATA_STORE_ATTRIBUTES) {
+            dataStoreDefined |= attribute.isMarshallable(timerServiceModel);
+        }
+        if (dataStoreDefined) {
             writer.writeEmptyElement(EJB3SubsystemXMLElement.DATA_STORE.getLocalName());
-            TimerServiceResourceDefinition.PATH.marshallAsAttribute(timerServiceModel, writer);
-            TimerServiceResourceDefinition.RELATIVE_TO.marshallAsAttribute(timerServiceModel, writer);
+            for (SimpleAttributeDefinition attribute : TimerServiceResourceDefinition.DATA_STORE_ATTRIBUTES) {
+                attribute.marshallAsAttribute(timerServiceModel, writer);
+            }
         }
     }
 
@@ -22,19 +22,25 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
 import org.jboss.as.controller.transform.RejectExpressionValuesTransformer;
 import org.jboss.as.controller.transform.ResourceTransformer;
 import org.jboss.as.controller.transform.TransformersSubRegistration;
+import org.jboss.as.controller.transform.chained.ChainedOperationTransformer;
+import org.jboss.as.controller.transform.chained.ChainedResourceTransformer;
 import org.jboss.as.ejb3.cache.impl.factory.NonClusteredBackingCacheEntryStoreSource;
+import org.jboss.as.ejb3.cache.spi.impl.MappedSegmentPersistentObjectStore;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -73,8 +79,16 @@ public class FilePassivationStoreResourceDefinition extends PassivationStoreReso
                     .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
                     .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .build();
+    public static final SimpleAttributeDefinition SEGMENT_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SEGMENT_SIZE, ModelType.INT, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.SEGMENT_SIZE.getLocalName())
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(MappedSegmentPersistentObjectStore.MIN_SEGMENT_SIZE, Integer.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
 
-    private static final AttributeDefinition[] ATTRIBUTES = {IDLE_TIMEOUT, IDLE_TIMEOUT_UNIT, MAX_SIZE, RELATIVE_TO, GROUPS_PATH, SESSIONS_PATH, SUBDIRECTORY_COUNT};
+    private static final AttributeDefinition[] ATTRIBUTES = {IDLE_TIMEOUT, IDLE_TIMEOUT_UNIT, MAX_SIZE, RELATIVE_TO, GROUPS_PATH, SESSIONS_PATH, SUBDIRECTORY_COUNT, SEGMENT_SIZE};
 
     private static final FilePassivationStoreAdd ADD = new FilePassivationStoreAdd(ATTRIBUTES);
     private static final FilePassivationStoreRemove REMOVE = new FilePassivationStoreRemove(ADD);
@@ -87,6 +101,13 @@ public class FilePassivationStoreResourceDefinition extends PassivationStoreReso
     }
 
     static void registerTransformers_1_1_0(TransformersSubRegistration parent) {
-        PassivationStoreResourceDefinition.registerTransformers_1_1_0(INSTANCE.getPathElement(), parent);
+        RejectExpressionValuesTransformer rejectTransformer = new RejectExpressionValuesTransformer(IDLE_TIMEOUT_UNIT);
+        DiscardUndefinedAttributesTransformer discardTransformer = new DiscardUndefinedAttributesTransformer(SEGMENT_SIZE);
+        ChainedResourceTransformer ctr = new ChainedResourceTransformer(rejectTransformer.getChainedTransformer(), discardTransformer);
+        final TransformersSubRegistration transformers110 = parent.registerSubResource(INSTANCE.getPathElement(), ctr);
+        transformers110.registerOperationTransformer(ModelDescriptionConstants.ADD, new ChainedOperationTransformer(rejectTransformer, discardTransformer));
+        transformers110.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION,
+                new ChainedOperationTransformer(rejectTransformer.getWriteAttributeTransformer(), discardTransformer.getWriteAttributeTransformer()));
+        transformers110.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, discardTransformer);
     }
 }
@@ -56,6 +56,9 @@ public class FilePassivationStoreWriteHandler extends PassivationStoreWriteHandl
         } else if (FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.getName().equals(attributeName)) {
             int count = FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.resolveModelAttribute(context, model).asInt();
             config.setSubdirectoryCount(count);
+        } else if (FilePassivationStoreResourceDefinition.SEGMENT_SIZE.getName().equals(attributeName)) {
+            ModelNode size = FilePassivationStoreResourceDefinition.SEGMENT_SIZE.resolveModelAttribute(context, model);
+            config.setSegmentSize(size.isDefined() ? size.asInt() : 0);
         }
     }
 }
@@ -27,8 +27,10 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.pool.PoolConfigService;
 import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
@@ -40,6 +42,8 @@ import org.jboss.msc.service.ServiceName;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
 /**
  * Adds a strict-max-pool to the EJB3 subsystem's bean-instance-pools. The {#performRuntime runtime action}
  * will create and install a {@link PoolConfigService}
@@ -50,6 +54,23 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
 
     public static final StrictMaxPoolAdd INSTANCE = new StrictMaxPoolAdd();
 
+    /**
+     * Strict and striped pools install their {@link PoolConfigService} under the same base name and beans refer to a
+     * pool by its name only, so a pool may not be added if a pool of the other type has the same name.
+     */
+    @Override
+    protected void populateModel(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS));
+        final PathElement pool = address.getLastElement();
+        final String otherType = EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL.equals(pool.getKey())
+                ? EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL : EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+        final Resource subsystem = context.readResourceFromRoot(address.subAddress(0, address.size() - 1), false);
+        if (subsystem.hasChild(PathElement.pathElement(otherType, pool.getValue()))) {
+            throw new OperationFailedException(new ModelNode().set(MESSAGES.duplicateBeanInstancePoolName(otherType, pool.getValue())));
+        }
+        super.populateModel(context, operation, resource);
+    }
+
     /**
      * Populate the <code>strictMaxPoolModel</code> from the <code>operation</code>
      *
@@ -81,7 +102,7 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         final long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, strictMaxPoolModel).asLong();
         final String unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, strictMaxPoolModel).asString();
         // create the pool config
-        final PoolConfig strictMaxPoolConfig = new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
+        final PoolConfig strictMaxPoolConfig = createPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
         // create and install the service
         final PoolConfigService poolConfigService = new PoolConfigService(strictMaxPoolConfig);
         final ServiceName serviceName = PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
@@ -92,4 +113,8 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         return svcBuilder.install();
     }
 
+    protected PoolConfig createPoolConfig(final String poolName, final int maxPoolSize, final long timeout, final TimeUnit timeoutUnit) {
+        return new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, timeoutUnit);
+    }
+
 }
@@ -32,13 +32,19 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceName;
 
 /**
- * Handles removing a strict-max-bean-instance-pool resource
+ * Handles removing a strict-max-bean-instance-pool or striped-max-bean-instance-pool resource
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
 public class StrictMaxPoolRemove extends AbstractRemoveStepHandler {
 
-    public static final StrictMaxPoolRemove INSTANCE = new StrictMaxPoolRemove();
+    public static final StrictMaxPoolRemove INSTANCE = new StrictMaxPoolRemove(StrictMaxPoolAdd.INSTANCE);
+
+    private final StrictMaxPoolAdd addHandler;
+
+    StrictMaxPoolRemove(final StrictMaxPoolAdd addHandler) {
+        this.addHandler = addHandler;
+    }
 
     @Override
     protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
@@ -52,7 +58,7 @@ public class StrictMaxPoolRemove extends AbstractRemoveStepHandler {
     @Override
     protected void recoverServices(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
         if (context.isResourceServiceRestartAllowed()) {
-            StrictMaxPoolAdd.INSTANCE.installRuntimeService(context, operation, model, null);
+            addHandler.installRuntimeService(context, operation, model, null);
         } else {
             context.revertReloadRequired();
         }
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ways in which the timer service can store persistent timers.
+ */
+public enum TimerDataStoreMode {
+
+    /**
+     * One file per timer, which is rewritten on every change of the timer.
+     */
+    FILE("file"),
+    /**
+     * A segmented append-only journal shared by all timers.
+     */
+    JOURNAL("journal"),
+    /**
+     * A table in a datasource, which can be shared by the nodes of a cluster.
+     */
+    DATABASE("database"),
+    ;
+
+    private final String name;
+
+    TimerDataStoreMode(final String name) {
+        this.name = name;
+    }
+
+    private static final Map<String, TimerDataStoreMode> MAP;
+
+    static {
+        final Map<String, TimerDataStoreMode> map = new HashMap<String, TimerDataStoreMode>();
+        for (TimerDataStoreMode mode : values()) {
+            map.put(mode.name, mode);
+        }
+        MAP = map;
+    }
+
+    public static TimerDataStoreMode forName(final String name) {
+        final TimerDataStoreMode mode = MAP.get(name);
+        return mode == null ? FILE : mode;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ways in which the timer service can schedule timeouts.
+ */
+public enum TimerSchedulerType {
+
+    /**
+     * A single {@link java.util.Timer} which keeps the timeouts in a priority queue.
+     */
+    TIMER("timer"),
+    /**
+     * A hierarchical timing wheel, which schedules and cancels timeouts in constant time.
+     */
+    TIMING_WHEEL("timing-wheel"),
+    ;
+
+    private final String name;
+
+    TimerSchedulerType(final String name) {
+        this.name = name;
+    }
+
+    private static final Map<String, TimerSchedulerType> MAP;
+
+    static {
+        final Map<String, TimerSchedulerType> map = new HashMap<String, TimerSchedulerType>();
+        for (TimerSchedulerType type : values()) {
+            map.put(type.name, type);
+        }
+        MAP = map;
+    }
+
+    public static TimerSchedulerType forName(final String name) {
+        final TimerSchedulerType type = MAP.get(name);
+        return type == null ? TIMER : type;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
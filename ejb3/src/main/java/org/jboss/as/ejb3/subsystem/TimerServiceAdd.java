@@ -23,7 +23,7 @@
 package org.jboss.as.ejb3.subsystem;
 
 import java.util.List;
-import java.util.Timer;
+import java.util.concurrent.TimeUnit;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
@@ -39,7 +39,15 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
 import org.jboss.as.ejb3.timerservice.persistence.filestore.FileTimerPersistence;
+import org.jboss.as.ejb3.timerservice.persistence.filestore.JournalTimerPersistence;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.UtilTimerScheduler;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.Services;
@@ -56,6 +64,7 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 
 import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 /**
  * Adds the timer service
  *
@@ -89,6 +98,23 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         final String path = pathNode.isDefined() ? pathNode.asString() : null;
         final ModelNode relativeToNode = TimerServiceResourceDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
+        final TimerDataStoreMode dataStoreMode = TimerDataStoreMode.forName(TimerServiceResourceDefinition.DATA_STORE_MODE.resolveModelAttribute(context, model).asString());
+        final ModelNode dataSourceNode = TimerServiceResourceDefinition.DATASOURCE_JNDI_NAME.resolveModelAttribute(context, model);
+        if (dataStoreMode == TimerDataStoreMode.DATABASE && !dataSourceNode.isDefined()) {
+            throw new OperationFailedException(new ModelNode().set(MESSAGES.timerDataStoreAttributeRequired(
+                    TimerServiceResourceDefinition.DATASOURCE_JNDI_NAME.getName(), dataStoreMode.toString())));
+        }
+        // without a data store the timer service is disabled, unless a mode which stores timers in files was chosen
+        if (dataStoreMode != TimerDataStoreMode.DATABASE && path == null && model.hasDefined(TimerServiceResourceDefinition.DATA_STORE_MODE.getName())) {
+            throw new OperationFailedException(new ModelNode().set(MESSAGES.timerDataStoreAttributeRequired(
+                    TimerServiceResourceDefinition.PATH.getName(), dataStoreMode.toString())));
+        }
+        final boolean timersEnabled = path != null || dataStoreMode == TimerDataStoreMode.DATABASE;
+        final String tableName = TimerServiceResourceDefinition.DATABASE_TABLE_NAME.resolveModelAttribute(context, model).asString();
+        final int pageSize = TimerServiceResourceDefinition.DATABASE_PAGE_SIZE.resolveModelAttribute(context, model).asInt();
+
+        final TimerSchedulerType schedulerType = TimerSchedulerType.forName(TimerServiceResourceDefinition.SCHEDULER.resolveModelAttribute(context, model).asString());
+        final long tickDuration = TimerServiceResourceDefinition.SCHEDULER_TICK_DURATION.resolveModelAttribute(context, model).asLong();
 
         final String threadPoolName = TimerServiceResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
         final ServiceName threadPoolServiceName = EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(threadPoolName);
@@ -98,7 +124,7 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
                 ROOT_LOGGER.debug("Configuring timers");
 
                 //install the ejb timer service data store path service
-                if (path != null) {
+                if (timersEnabled) {
                     //we only add the timer service DUP's when the timer service in enabled in XML
                     processorTarget.addDeploymentProcessor(EJB3Extension.SUBSYSTEM_NAME, Phase.PARSE, Phase.PARSE_TIMEOUT_ANNOTATION, new TimerServiceAnnotationProcessor());
                     processorTarget.addDeploymentProcessor(EJB3Extension.SUBSYSTEM_NAME, Phase.PARSE, Phase.PARSE_AROUNDTIMEOUT_ANNOTATION, new AroundTimeoutAnnotationParsingProcessor());
@@ -108,36 +134,62 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             }
         }, OperationContext.Stage.RUNTIME);
 
-        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
-                .install());
-        final FileTimerPersistence fileTimerPersistence = new FileTimerPersistence(true, path, relativeTo);
-        newControllers.add(context.getServiceTarget().addService(FileTimerPersistence.SERVICE_NAME, fileTimerPersistence)
-                .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, fileTimerPersistence.getModuleLoader())
-                .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, fileTimerPersistence.getPathManager())
-                .addDependency(TransactionManagerService.SERVICE_NAME, TransactionManager.class, fileTimerPersistence.getTransactionManager())
-                .addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, fileTimerPersistence.getTransactionSynchronizationRegistry())
+        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService(schedulerType, tickDuration))
                 .install());
+        if (dataStoreMode == TimerDataStoreMode.DATABASE) {
+            final DatabaseTimerPersistence databaseTimerPersistence = new DatabaseTimerPersistence(tableName, pageSize);
+            newControllers.add(context.getServiceTarget().addService(TimerPersistence.SERVICE_NAME, databaseTimerPersistence)
+                    .addDependency(ContextNames.bindInfoFor(dataSourceNode.asString()).getBinderServiceName(), ManagedReferenceFactory.class, databaseTimerPersistence.getDataSource())
+                    .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, databaseTimerPersistence.getModuleLoader())
+                    .addDependency(TransactionManagerService.SERVICE_NAME, TransactionManager.class, databaseTimerPersistence.getTransactionManager())
+                    .addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, databaseTimerPersistence.getTransactionSynchronizationRegistry())
+                    .install());
+        } else {
+            final FileTimerPersistence fileTimerPersistence = dataStoreMode == TimerDataStoreMode.JOURNAL
+                    ? new JournalTimerPersistence(true, path, relativeTo)
+                    : new FileTimerPersistence(true, path, relativeTo);
+            newControllers.add(context.getServiceTarget().addService(TimerPersistence.SERVICE_NAME, fileTimerPersistence)
+                    .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, fileTimerPersistence.getModuleLoader())
+                    .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, fileTimerPersistence.getPathManager())
+                    .addDependency(TransactionManagerService.SERVICE_NAME, TransactionManager.class, fileTimerPersistence.getTransactionManager())
+                    .addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, fileTimerPersistence.getTransactionSynchronizationRegistry())
+                    .install());
+        }
 
     }
 
-    private static final class TimerValueService implements Service<Timer> {
+    private static final class TimerValueService implements Service<TimeoutScheduler> {
+
+        private final TimerSchedulerType type;
+        private final long tickDuration;
+        private TimeoutScheduler scheduler;
 
-        private Timer timer;
+        TimerValueService(final TimerSchedulerType type, final long tickDuration) {
+            this.type = type;
+            this.tickDuration = tickDuration;
+        }
 
         @Override
         public synchronized void start(final StartContext context) throws StartException {
-            timer = new Timer();
+            if (type == TimerSchedulerType.TIMING_WHEEL) {
+                final TimingWheelScheduler wheel = new TimingWheelScheduler(tickDuration, TimeUnit.MILLISECONDS);
+                wheel.start();
+                scheduler = wheel;
+            } else {
+                scheduler = new UtilTimerScheduler();
+            }
+            ROOT_LOGGER.debugf("Using %s to schedule EJB timeouts", scheduler.getClass().getSimpleName());
         }
 
         @Override
         public synchronized void stop(final StopContext context) {
-            timer.cancel();
-            timer = null;
+            scheduler.shutdown();
+            scheduler = null;
         }
 
         @Override
-        public synchronized Timer getValue() throws IllegalStateException, IllegalArgumentException {
-            return timer;
+        public synchronized TimeoutScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return scheduler;
         }
     }
 }
@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.subsystem;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 import java.util.Collections;
@@ -35,6 +36,10 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -42,9 +47,13 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.services.path.ResolvePathHandler;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
 import org.jboss.as.controller.transform.RejectExpressionValuesTransformer;
-import org.jboss.as.controller.transform.ResourceTransformer;
 import org.jboss.as.controller.transform.TransformersSubRegistration;
+import org.jboss.as.controller.transform.chained.ChainedOperationTransformer;
+import org.jboss.as.controller.transform.chained.ChainedResourceTransformer;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
@@ -67,18 +76,79 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition DATA_STORE_MODE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATA_STORE_MODE, ModelType.STRING, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.MODE.getLocalName())
+                    .setAllowExpression(true)
+                    .setValidator(new EnumValidator<TimerDataStoreMode>(TimerDataStoreMode.class, true, true))
+                    .setDefaultValue(new ModelNode(TimerDataStoreMode.FILE.toString()))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition DATASOURCE_JNDI_NAME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATASOURCE_JNDI_NAME, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new StringLengthValidator(1, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition DATABASE_TABLE_NAME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATABASE_TABLE_NAME, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new StringLengthValidator(1, Integer.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode(DatabaseTimerPersistence.DEFAULT_TABLE_NAME))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition DATABASE_PAGE_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATABASE_PAGE_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode(DatabaseTimerPersistence.DEFAULT_PAGE_SIZE))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition SCHEDULER =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new EnumValidator<TimerSchedulerType>(TimerSchedulerType.class, true, true))
+                    .setDefaultValue(new ModelNode(TimerSchedulerType.TIMER.toString()))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition SCHEDULER_TICK_DURATION =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER_TICK_DURATION, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode(10L))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
     public static final SimpleAttributeDefinition THREAD_POOL_NAME =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.THREAD_POOL_NAME, ModelType.STRING, false)
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
 
+    /**
+     * The attributes of the {@code <data-store>} element.
+     */
+    public static final SimpleAttributeDefinition[] DATA_STORE_ATTRIBUTES = {PATH, RELATIVE_TO, DATA_STORE_MODE, DATASOURCE_JNDI_NAME,
+            DATABASE_TABLE_NAME, DATABASE_PAGE_SIZE};
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(PATH.getName(), PATH);
         map.put(RELATIVE_TO.getName(), RELATIVE_TO);
+        map.put(DATA_STORE_MODE.getName(), DATA_STORE_MODE);
+        map.put(DATASOURCE_JNDI_NAME.getName(), DATASOURCE_JNDI_NAME);
+        map.put(DATABASE_TABLE_NAME.getName(), DATABASE_TABLE_NAME);
+        map.put(DATABASE_PAGE_SIZE.getName(), DATABASE_PAGE_SIZE);
+        map.put(SCHEDULER.getName(), SCHEDULER);
+        map.put(SCHEDULER_TICK_DURATION.getName(), SCHEDULER_TICK_DURATION);
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
@@ -115,10 +185,14 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
 
     static void registerTransformers_1_1_0(TransformersSubRegistration parent) {
 
-        RejectExpressionValuesTransformer transformer = new RejectExpressionValuesTransformer(PATH);
-        final TransformersSubRegistration transformers110 = parent.registerSubResource(EJB3SubsystemModel.TIMER_SERVICE_PATH,
-                (ResourceTransformer) transformer);
-        transformers110.registerOperationTransformer(ADD, transformer);
-        transformers110.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION, transformer.getWriteAttributeTransformer());
+        RejectExpressionValuesTransformer rejectTransformer = new RejectExpressionValuesTransformer(PATH);
+        DiscardUndefinedAttributesTransformer discardTransformer = new DiscardUndefinedAttributesTransformer(DATA_STORE_MODE, DATASOURCE_JNDI_NAME,
+                DATABASE_TABLE_NAME, DATABASE_PAGE_SIZE, SCHEDULER, SCHEDULER_TICK_DURATION);
+        ChainedResourceTransformer ctr = new ChainedResourceTransformer(rejectTransformer.getChainedTransformer(), discardTransformer);
+        final TransformersSubRegistration transformers110 = parent.registerSubResource(EJB3SubsystemModel.TIMER_SERVICE_PATH, ctr);
+        transformers110.registerOperationTransformer(ADD, new ChainedOperationTransformer(rejectTransformer, discardTransformer));
+        transformers110.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION,
+                new ChainedOperationTransformer(rejectTransformer.getWriteAttributeTransformer(), discardTransformer.getWriteAttributeTransformer()));
+        transformers110.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, discardTransformer);
     }
 }
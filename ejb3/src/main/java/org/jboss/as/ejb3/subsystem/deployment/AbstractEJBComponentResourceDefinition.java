@@ -25,6 +25,7 @@ package org.jboss.as.ejb3.subsystem.deployment;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import javax.ejb.TimerService;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -38,6 +39,7 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
@@ -45,6 +47,7 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -76,6 +79,17 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition TIMER_SCHEDULING_LAG = new SimpleAttributeDefinitionBuilder("timer-scheduling-lag", ModelType.LONG)
+            .setAllowNull(false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition TIMER_EXPIRATION_BACKLOG = new SimpleAttributeDefinitionBuilder("timer-expiration-backlog", ModelType.INT)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     public static final SimpleAttributeDefinition SECURITY_DOMAIN = new SimpleAttributeDefinitionBuilder("security-domain", ModelType.STRING, true)
             .setValidator(new StringLengthValidator(1, true))
             .build();
@@ -163,5 +177,21 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        if (componentType.hasTimer()) {
+            resourceRegistration.registerMetric(TIMER_SCHEDULING_LAG, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    final TimerService timerService = component.getTimerService();
+                    context.getResult().set(timerService instanceof TimerServiceImpl ? ((TimerServiceImpl) timerService).getSchedulingLag() : 0L);
+                }
+            });
+            resourceRegistration.registerMetric(TIMER_EXPIRATION_BACKLOG, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    final TimerService timerService = component.getTimerService();
+                    context.getResult().set(timerService instanceof TimerServiceImpl ? ((TimerServiceImpl) timerService).getExpiredTimeoutBacklog() : 0);
+                }
+            });
+        }
     }
 }
@@ -22,9 +22,18 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.EntityPersistenceMetrics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for a {@link EntityBeanComponent}.
@@ -35,6 +44,26 @@ public class EntityBeanResourceDefinition extends AbstractEJBComponentResourceDe
 
     public static final EntityBeanResourceDefinition INSTANCE = new EntityBeanResourceDefinition();
 
+    private static final AttributeDefinition COMPILED_QUERY_HITS = new SimpleAttributeDefinitionBuilder("compiled-query-hits", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition COMPILED_QUERY_MISSES = new SimpleAttributeDefinitionBuilder("compiled-query-misses", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition STORE_STATEMENT_COUNT = new SimpleAttributeDefinitionBuilder("store-statement-count", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition STORED_ENTITY_COUNT = new SimpleAttributeDefinitionBuilder("stored-entity-count", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private EntityBeanResourceDefinition() {
         super(EJBComponentType.ENTITY);
     }
@@ -43,5 +72,42 @@ public class EntityBeanResourceDefinition extends AbstractEJBComponentResourceDe
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
         // TODO expose anything for the cache?
+        resourceRegistration.registerMetric(COMPILED_QUERY_HITS, new AbstractPersistenceMetricsHandler() {
+            @Override
+            protected long getMetric(final EntityPersistenceMetrics metrics) {
+                return metrics.getCompiledQueryHits();
+            }
+        });
+        resourceRegistration.registerMetric(COMPILED_QUERY_MISSES, new AbstractPersistenceMetricsHandler() {
+            @Override
+            protected long getMetric(final EntityPersistenceMetrics metrics) {
+                return metrics.getCompiledQueryMisses();
+            }
+        });
+        resourceRegistration.registerMetric(STORE_STATEMENT_COUNT, new AbstractPersistenceMetricsHandler() {
+            @Override
+            protected long getMetric(final EntityPersistenceMetrics metrics) {
+                return metrics.getStoreStatementCount();
+            }
+        });
+        resourceRegistration.registerMetric(STORED_ENTITY_COUNT, new AbstractPersistenceMetricsHandler() {
+            @Override
+            protected long getMetric(final EntityPersistenceMetrics metrics) {
+                return metrics.getStoredEntityCount();
+            }
+        });
+    }
+
+    /**
+     * Reads a metric of the persistence manager, which is 0 for bean managed persistence.
+     */
+    private abstract static class AbstractPersistenceMetricsHandler extends AbstractRuntimeMetricsHandler {
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+            final EntityPersistenceMetrics metrics = ((EntityBeanComponent) component).getPersistenceMetrics();
+            context.getResult().set(metrics != null ? getMetric(metrics) : 0L);
+        }
+
+        protected abstract long getMetric(EntityPersistenceMetrics metrics);
     }
 }
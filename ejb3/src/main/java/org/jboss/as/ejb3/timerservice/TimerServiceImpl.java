@@ -35,7 +35,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -43,7 +42,12 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ejb.EJBException;
 import javax.ejb.ScheduleExpression;
@@ -71,6 +75,9 @@ import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
 import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.jboss.as.ejb3.timerservice.scheduler.ScheduledTimeout;
+import org.jboss.as.ejb3.timerservice.scheduler.ExecutorTimeoutTask;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.task.TimerTask;
@@ -103,6 +110,14 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     public static final ServiceName SERVICE_NAME = ServiceName.of("ejb3", "timerService");
 
+    /**
+     * The delay in milliseconds before an expiration which could not be claimed is tried again. It doubles with every
+     * further failure, up to {@link #MAX_CLAIM_RETRY_DELAY}.
+     */
+    static final long CLAIM_RETRY_DELAY = 1000;
+
+    static final long MAX_CLAIM_RETRY_DELAY = 60000;
+
     /**
      * The service name this timer service is registered under
      */
@@ -112,7 +127,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimeoutScheduler> timerInjectedValue = new InjectedValue<TimeoutScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -129,22 +144,37 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All non-persistent timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> persistentTimers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> persistentTimers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
      * All non-persistent timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> nonPersistentTimers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> nonPersistentTimers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
      * persistent timers that have been created in the current transaction
      */
-    private final Map<String, TimerImpl> persistentWaitingOnTxCompletionTimers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> persistentWaitingOnTxCompletionTimers = new ConcurrentHashMap<String, TimerImpl>();
+
+    /**
+     * Holds the {@link ScheduledTimeout} of each of the timer tasks that have been scheduled
+     */
+    private final ConcurrentMap<String, ScheduledTimeout> scheduledTimerFutures = new ConcurrentHashMap<String, ScheduledTimeout>();
+
+    /**
+     * The number of claims which failed in a row, by timer id
+     */
+    private final ConcurrentMap<String, Integer> claimFailures = new ConcurrentHashMap<String, Integer>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * The number of timeouts which have expired but have not started to execute yet
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final AtomicInteger expiredTimeoutBacklog = new AtomicInteger();
+
+    /**
+     * The delay in milliseconds between the scheduled and the actual expiration of the last timeout
+     */
+    private final AtomicLong schedulingLag = new AtomicLong();
 
     private TransactionManager transactionManager;
 
@@ -592,6 +622,53 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
+    /**
+     * Claims the current expiration of a persistent timer for this node.
+     *
+     * @param timer The timer that is about to run
+     * @param nextTimeout The expiration that follows, or null if there is none
+     * @return true if the expiration should run on this node, false if another node runs it
+     * @throws RuntimeException if the store could not tell whether the expiration may run on this node
+     */
+    public boolean claimTimeout(final TimerImpl timer, final Date nextTimeout) {
+        if (!timer.persistent || timerPersistence == null) {
+            return true;
+        }
+        final boolean claimed;
+        try {
+            claimed = timerPersistence.getValue().claimTimeout(timer.getPersistentState(), nextTimeout);
+        } catch (RuntimeException e) {
+            Integer failures;
+            do {
+                failures = claimFailures.putIfAbsent(timer.getId(), 1);
+            } while (failures != null && !claimFailures.replace(timer.getId(), failures, failures + 1));
+            throw e;
+        }
+        claimFailures.remove(timer.getId());
+        return claimed;
+    }
+
+    /**
+     * Schedules another attempt to run an expiration of a single action or calendar timer which could not be claimed.
+     * The attempt is delayed, the longer the more claims of the timer failed in a row, so that the timer does not keep
+     * trying while the store is unavailable.
+     *
+     * @param timer the timer
+     */
+    public void scheduleClaimRetry(final TimerImpl timer) {
+        final Integer failures = claimFailures.get(timer.getId());
+        scheduleTimeout(timer, false, getClaimRetryDelay(failures == null ? 1 : failures));
+    }
+
+    /**
+     * @param failures the number of claims which failed in a row
+     * @return the delay in milliseconds before the next attempt
+     */
+    static long getClaimRetryDelay(final int failures) {
+        // the shift is bounded, beyond it the delay is capped anyway
+        return Math.min(MAX_CLAIM_RETRY_DELAY, CLAIM_RETRY_DELAY << Math.min(failures - 1, 16));
+    }
+
     /**
      * Suspends any currently scheduled tasks for {@link javax.ejb.Timer}s
      * <p>
@@ -800,59 +877,83 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>
      */
     protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if(!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
-                //this timer has been cancelled by another thread. We just return
-                return;
-            }
+        scheduleTimeout(timer, newTimer, 0);
+    }
 
-            Date nextExpiration = timer.getNextExpiration();
-            if (nextExpiration == null) {
-                ROOT_LOGGER.nextExpirationIsNull(timer);
-                return;
-            }
-            // create the timer task
-            final Runnable timerTask = timer.getTimerTask();
-            // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
-            // if in past, then trigger immediately
-            if (delay < 0) {
-                delay = 0;
-            }
-            long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask);
-            if (intervalDuration > 0) {
-                ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
-                        + " milliseconds from now with repeated interval=" + intervalDuration);
-                // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-            } else {
-                ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
-                // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+    /**
+     * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>, but not earlier
+     * than the given delay from now
+     */
+    private void scheduleTimeout(TimerImpl timer, boolean newTimer, long minimumDelay) {
+        if(!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
+            //this timer has been cancelled by another thread. We just return
+            return;
+        }
 
-            }
+        Date nextExpiration = timer.getNextExpiration();
+        if (nextExpiration == null) {
+            ROOT_LOGGER.nextExpirationIsNull(timer);
+            return;
+        }
+        // create the timer task
+        final Runnable timerTask = timer.getTimerTask();
+        // find out how long is it away from now
+        long delay = nextExpiration.getTime() - System.currentTimeMillis();
+        // if in past, then trigger immediately
+        if (delay < minimumDelay) {
+            delay = minimumDelay;
+        }
+        long intervalDuration = timer.getInterval();
+        final Task task = new Task(timerTask);
+        if (intervalDuration > 0) {
+            ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
+                    + " milliseconds from now with repeated interval=" + intervalDuration);
+        } else {
+            ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
+        }
+        // schedule the task
+        final ScheduledTimeout timeout = this.timerInjectedValue.getValue().schedule(task, delay, intervalDuration);
+        // maintain it in timerservice for future use (like cancellation)
+        if (newTimer) {
+            this.scheduledTimerFutures.put(timer.getId(), timeout);
+        } else if (this.scheduledTimerFutures.replace(timer.getId(), timeout) == null) {
+            //this timer has been cancelled by another thread in the meantime
+            timeout.cancel();
         }
     }
 
     /**
-     * Cancels any scheduled {@link java.util.concurrent.Future} corresponding to the passed <code>timer</code>
+     * Cancels any scheduled {@link ScheduledTimeout} corresponding to the passed <code>timer</code>
      *
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        this.claimFailures.remove(timer.getId());
+        final ScheduledTimeout timeout = this.scheduledTimerFutures.remove(timer.getId());
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
 
+    /**
+     * Returns the delay between the scheduled and the actual expiration of the timeout which expired last.
+     *
+     * @return the delay in milliseconds
+     */
+    public long getSchedulingLag() {
+        return schedulingLag.get();
+    }
+
+    /**
+     * Returns the number of timeouts which have expired, but whose timeout method has not been invoked yet
+     * because no thread of the timer executor is available.
+     *
+     * @return the number of expired timeouts waiting to be executed
+     */
+    public int getExpiredTimeoutBacklog() {
+        return expiredTimeoutBacklog.get();
+    }
+
     private boolean isSingletonBeanInvocation() {
         return ejbComponentInjectedValue.getValue() instanceof SingletonComponent;
     }
@@ -1057,7 +1158,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
+    public InjectedValue<TimeoutScheduler> getTimerInjectedValue() {
         return timerInjectedValue;
     }
 
@@ -1156,7 +1257,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements ExecutorTimeoutTask {
 
         private final Runnable delegate;
 
@@ -1165,12 +1266,45 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
 
         @Override
-        public void run() {
+        public void expire(final long scheduledTime) {
             final ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
             if (executor != null) {
-                executor.submit(delegate);
+                expired(scheduledTime);
+                try {
+                    executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            Task.this.run();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    rejected();
+                    throw e;
+                }
             }
         }
+
+        @Override
+        public Executor getExecutor() {
+            return executorServiceInjectedValue.getOptionalValue();
+        }
+
+        @Override
+        public void expired(final long scheduledTime) {
+            schedulingLag.set(Math.max(0, System.currentTimeMillis() - scheduledTime));
+            expiredTimeoutBacklog.incrementAndGet();
+        }
+
+        @Override
+        public void run() {
+            expiredTimeoutBacklog.decrementAndGet();
+            delegate.run();
+        }
+
+        @Override
+        public void rejected() {
+            expiredTimeoutBacklog.decrementAndGet();
+        }
     }
 
 }
@@ -21,13 +21,18 @@
  */
 package org.jboss.as.ejb3.timerservice.persistence;
 
+import java.util.Date;
 import java.util.List;
 
+import org.jboss.msc.service.ServiceName;
+
 /**
  * @author Stuart Douglas
  */
 public interface TimerPersistence {
 
+    ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "timerService", "timerPersistence");
+
     /**
      * Called when a timer is being persisted
      *
@@ -42,6 +47,17 @@ public interface TimerPersistence {
      */
     void persistTimer(TimerEntity timerEntity);
 
+    /**
+     * Called before a timer runs its current expiration. A store which is shared by several nodes uses this to make
+     * sure that only one of them runs it.
+     *
+     * @param timerEntity The timer, holding the expiration that is about to run as its next date
+     * @param nextTimeout The expiration that follows, or null if there is none
+     * @return true if the expiration should run on this node, false if another node runs it
+     * @throws RuntimeException if the store could not tell whether the expiration may run on this node
+     */
+    boolean claimTimeout(TimerEntity timerEntity, Date nextTimeout);
+
     /**
      * Signals that a timer is being undeployed, and all cached data relating to this object should
      * be dropped to prevent a class loader leak
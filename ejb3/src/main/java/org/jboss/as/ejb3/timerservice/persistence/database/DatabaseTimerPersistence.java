@@ -0,0 +1,387 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Persistent timer store backed by a datasource, which allows the timers to be shared by the nodes of a cluster.
+ * <p/>
+ * All changes made to timers within a transaction are collected and written when the transaction completes, with one
+ * batched statement per kind of change. The datasource should take part in JTA transactions so that the writes commit
+ * or roll back together with the transaction that made them. Changes outside of a transaction are written right away.
+ * <p/>
+ * Timers are not cached, they are read in pages of <code>pageSize</code> timers whenever the timers of a timed object
+ * are requested. Every node schedules all timers, and before running an expiration a node claims it in the database;
+ * only the node whose claim succeeds runs it. A claim that keeps failing with an error is reported as an exception,
+ * so that the caller can try the expiration again rather than take it as claimed by another node.
+ */
+public class DatabaseTimerPersistence implements TimerPersistence, Service<DatabaseTimerPersistence> {
+
+    public static final String DEFAULT_TABLE_NAME = "JBOSS_EJB_TIMER";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final InjectedValue<ManagedReferenceFactory> dataSource = new InjectedValue<ManagedReferenceFactory>();
+    private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
+    private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
+    private final String tableName;
+    private final int pageSize;
+    /**
+     * The key of the pending changes of a transaction in the synchronization registry
+     */
+    private final Object batchKey = new Object();
+    private MarshallerFactory factory;
+    private MarshallingConfiguration configuration;
+    private volatile TimerTable table;
+
+    public DatabaseTimerPersistence() {
+        this(DEFAULT_TABLE_NAME, DEFAULT_PAGE_SIZE);
+    }
+
+    public DatabaseTimerPersistence(final String tableName, final int pageSize) {
+        this.tableName = tableName;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoader.getValue()));
+        this.configuration = configuration;
+        this.factory = new RiverMarshallerFactory();
+
+        final DataSource dataSource = (DataSource) this.dataSource.getValue().getReference().getInstance();
+        final TimerTable table = new TimerTable(dataSource, tableName);
+        try {
+            table.create();
+        } catch (SQLException e) {
+            throw new StartException(e);
+        }
+        this.table = table;
+    }
+
+    @Override
+    public synchronized void stop(final StopContext context) {
+        table = null;
+        factory = null;
+        configuration = null;
+    }
+
+    @Override
+    public DatabaseTimerPersistence getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    @Override
+    public void addTimer(final TimerEntity timerEntity) {
+        persistTimer(timerEntity, true);
+    }
+
+    @Override
+    public void persistTimer(final TimerEntity timerEntity) {
+        persistTimer(timerEntity, false);
+    }
+
+    private void persistTimer(final TimerEntity timerEntity, final boolean newTimer) {
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
+                    status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+            if (status == Status.STATUS_ACTIVE && !isBeforeCompletion()) {
+                final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getValue();
+                PersistTransactionSynchronization batch = (PersistTransactionSynchronization) registry.getResource(batchKey);
+                if (batch == null) {
+                    batch = new PersistTransactionSynchronization();
+                    registry.registerInterposedSynchronization(batch);
+                    registry.putResource(batchKey, batch);
+                }
+                if (batch.add(timerEntity, newTimer)) {
+                    return;
+                }
+            }
+            // either there is no transaction or it is already completing, in which case the connection
+            // still takes part in it
+            write(Collections.singletonList(new Change(timerEntity, newTimer)));
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean claimTimeout(final TimerEntity timerEntity, final Date nextTimeout) {
+        final Date expiration = timerEntity.getNextDate();
+        if (expiration == null) {
+            return true;
+        }
+        try {
+            return table.claim(timerEntity.getId(), expiration.getTime(), nextTimeout == null ? null : nextTimeout.getTime(),
+                    TimerState.IN_TIMEOUT.name());
+        } catch (SQLException e) {
+            throw MESSAGES.timerClaimFailed(timerEntity.getId(), e);
+        }
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        // nothing is cached
+    }
+
+    @Override
+    public TimerEntity loadTimer(final String id, final String timedObjectId) {
+        final TimerEntity pending = pendingEntityVersion(id);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            final byte[] data = table.load(id, timedObjectId);
+            return data == null ? null : unmarshal(data);
+        } catch (Exception e) {
+            ROOT_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId, final Object primaryKey) {
+        final List<TimerEntity> entities = new ArrayList<TimerEntity>();
+        final Integer primaryKeyHash = primaryKey == null ? null : primaryKey.hashCode();
+        try {
+            String last = null;
+            List<TimerTable.Row> page;
+            do {
+                page = table.loadPage(timedObjectId, primaryKeyHash, last, pageSize);
+                for (TimerTable.Row row : page) {
+                    last = row.id;
+                    final TimerEntity entity;
+                    try {
+                        entity = mostRecentEntityVersion(unmarshal(row.data));
+                    } catch (Exception e) {
+                        ROOT_LOGGER.timerReinstatementFailed(timedObjectId, row.id, e);
+                        continue;
+                    }
+                    if (primaryKey == null || primaryKey.equals(entity.getPrimaryKey())) {
+                        entities.add(entity);
+                    }
+                }
+            } while (page.size() == pageSize);
+        } catch (SQLException e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+        }
+        return entities;
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId) {
+        return loadActiveTimers(timedObjectId, null);
+    }
+
+    private boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        if (type != null) {
+            return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+        }
+        return false;
+    }
+
+    /**
+     * Returns either the loaded entity or the most recent version of the entity that has
+     * been persisted in this transaction.
+     */
+    private TimerEntity mostRecentEntityVersion(final TimerEntity timerEntity) {
+        final TimerEntity pending = pendingEntityVersion(timerEntity.getId());
+        return pending != null ? pending : timerEntity;
+    }
+
+    private TimerEntity pendingEntityVersion(final String id) {
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_UNKNOWN ||
+                    status == Status.STATUS_NO_TRANSACTION) {
+                return null;
+            }
+            final PersistTransactionSynchronization batch = (PersistTransactionSynchronization) transactionSynchronizationRegistry.getValue().getResource(batchKey);
+            return batch != null ? batch.get(id) : null;
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void write(final Collection<Change> changes) {
+        final List<TimerTable.Row> added = new ArrayList<TimerTable.Row>();
+        final List<TimerTable.Row> updated = new ArrayList<TimerTable.Row>();
+        final List<String> removed = new ArrayList<String>();
+        try {
+            for (Change change : changes) {
+                final TimerEntity entity = change.entity;
+                if (entity.getTimerState() == TimerState.CANCELED ||
+                        entity.getTimerState() == TimerState.EXPIRED) {
+                    removed.add(entity.getId());
+                } else {
+                    final Date nextDate = entity.getNextDate();
+                    final Object primaryKey = entity.getPrimaryKey();
+                    final TimerTable.Row row = new TimerTable.Row(entity.getId(), entity.getTimedObjectId(),
+                            primaryKey == null ? null : primaryKey.hashCode(), nextDate == null ? null : nextDate.getTime(), entity.getTimerState().name(), marshal(entity));
+                    if (change.newTimer) {
+                        added.add(row);
+                    } else {
+                        updated.add(row);
+                    }
+                }
+            }
+            table.write(added, updated, removed);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] marshal(final TimerEntity entity) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        marshaller.start(new OutputStreamByteOutput(bytes));
+        marshaller.writeObject(entity);
+        marshaller.finish();
+        return bytes.toByteArray();
+    }
+
+    private TimerEntity unmarshal(final byte[] data) throws IOException, ClassNotFoundException {
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(data)));
+        final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+        unmarshaller.finish();
+        return entity;
+    }
+
+    private static final class Change {
+
+        private final TimerEntity entity;
+        private final boolean newTimer;
+
+        Change(final TimerEntity entity, final boolean newTimer) {
+            this.entity = entity;
+            this.newTimer = newTimer;
+        }
+    }
+
+    /**
+     * Collects the changes of a transaction and writes them before it completes, so that the writes are part of it.
+     */
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        /**
+         * timer id : most recent change, in the order in which the timers were first changed
+         */
+        private final Map<String, Change> changes = new LinkedHashMap<String, Change>();
+        private boolean written;
+
+        /**
+         * @return <code>false</code> if the changes have already been written, the change then has to be written
+         *         on its own
+         */
+        synchronized boolean add(final TimerEntity entity, final boolean newTimer) {
+            if (written) {
+                return false;
+            }
+            final Change existing = changes.get(entity.getId());
+            changes.put(entity.getId(), new Change(entity, newTimer || (existing != null && existing.newTimer)));
+            return true;
+        }
+
+        synchronized TimerEntity get(final String id) {
+            final Change change = changes.get(id);
+            return change != null ? change.entity : null;
+        }
+
+        @Override
+        public synchronized void beforeCompletion() {
+            written = true;
+            if (!changes.isEmpty()) {
+                write(new ArrayList<Change>(changes.values()));
+            }
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+        }
+    }
+
+    public InjectedValue<ManagedReferenceFactory> getDataSource() {
+        return dataSource;
+    }
+
+    public InjectedValue<TransactionManager> getTransactionManager() {
+        return transactionManager;
+    }
+
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
+    public InjectedValue<ModuleLoader> getModuleLoader() {
+        return moduleLoader;
+    }
+}
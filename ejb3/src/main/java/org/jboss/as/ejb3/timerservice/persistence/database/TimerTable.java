@@ -0,0 +1,346 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+/**
+ * The table holding the persistent timers.
+ * <p/>
+ * Besides the marshalled timer, each row holds the id of the timed object, the hash code of the primary key of the
+ * entity the timer belongs to, if any, and the next expiration of the timer in plain columns. The next expiration doubles as the version of the row when a node claims an expiration: the update
+ * only succeeds if the row still holds the expiration the node scheduled, so exactly one node gets to run it.
+ */
+final class TimerTable {
+
+    private static final int[] BINARY_TYPES = {Types.BLOB, Types.LONGVARBINARY, Types.VARBINARY, Types.BINARY};
+
+    private final DataSource dataSource;
+    private final String tableName;
+
+    private final String insert;
+    private final String update;
+    private final String delete;
+    private final String claim;
+    private final String select;
+    private final String selectPage;
+    private final String selectPrimaryKeyPage;
+
+    TimerTable(final DataSource dataSource, final String tableName) {
+        this.dataSource = dataSource;
+        this.tableName = tableName;
+        insert = "INSERT INTO " + tableName + " (ID, TIMED_OBJECT_ID, PRIMARY_KEY_HASH, NEXT_DATE, TIMER_STATE, DATA) VALUES (?, ?, ?, ?, ?, ?)";
+        update = "UPDATE " + tableName + " SET NEXT_DATE = ?, TIMER_STATE = ?, DATA = ? WHERE ID = ?";
+        delete = "DELETE FROM " + tableName + " WHERE ID = ?";
+        claim = "UPDATE " + tableName + " SET NEXT_DATE = ?, TIMER_STATE = ? WHERE ID = ? AND NEXT_DATE = ?";
+        select = "SELECT ID, DATA FROM " + tableName + " WHERE ID = ? AND TIMED_OBJECT_ID = ?";
+        selectPage = "SELECT ID, DATA FROM " + tableName + " WHERE TIMED_OBJECT_ID = ? AND ID > ? ORDER BY ID";
+        selectPrimaryKeyPage = "SELECT ID, DATA FROM " + tableName + " WHERE TIMED_OBJECT_ID = ? AND PRIMARY_KEY_HASH = ? AND ID > ? ORDER BY ID";
+    }
+
+    /**
+     * Creates the table unless it already exists.
+     */
+    void create() throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            final DatabaseMetaData metaData = connection.getMetaData();
+            if (exists(metaData)) {
+                return;
+            }
+            final Statement statement = connection.createStatement();
+            try {
+                statement.executeUpdate("CREATE TABLE " + tableName + " ("
+                        + "ID VARCHAR(64) NOT NULL PRIMARY KEY, "
+                        + "TIMED_OBJECT_ID VARCHAR(255) NOT NULL, "
+                        + "PRIMARY_KEY_HASH INTEGER, "
+                        + "NEXT_DATE BIGINT, "
+                        + "TIMER_STATE VARCHAR(32) NOT NULL, "
+                        + "DATA " + binaryType(metaData) + " NOT NULL)");
+                statement.executeUpdate("CREATE INDEX " + tableName + "_TOI ON " + tableName + " (TIMED_OBJECT_ID, ID)");
+                statement.executeUpdate("CREATE INDEX " + tableName + "_PKH ON " + tableName + " (TIMED_OBJECT_ID, PRIMARY_KEY_HASH, ID)");
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Writes a set of changes, using one batched statement per kind of change. A timer which is written as a new
+     * timer but already has a row, as happens when an automatic timer is restored, is updated instead.
+     */
+    void write(final Collection<Row> added, final Collection<Row> updated, final Collection<String> removed) throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            final List<Row> updates = new ArrayList<Row>(added.size() + updated.size());
+            updates.addAll(added);
+            updates.addAll(updated);
+            final List<Row> inserts = new ArrayList<Row>();
+            if (!updates.isEmpty()) {
+                final PreparedStatement statement = connection.prepareStatement(update);
+                try {
+                    for (Row row : updates) {
+                        setUpdateParameters(statement, row);
+                        statement.addBatch();
+                    }
+                    final int[] counts = statement.executeBatch();
+                    for (int i = 0; i < added.size(); i++) {
+                        int count = counts[i];
+                        if (count == Statement.SUCCESS_NO_INFO) {
+                            // the driver does not tell whether the row exists, so ask again for this one
+                            setUpdateParameters(statement, updates.get(i));
+                            count = statement.executeUpdate();
+                        }
+                        if (count == 0) {
+                            inserts.add(updates.get(i));
+                        }
+                    }
+                } finally {
+                    statement.close();
+                }
+            }
+            if (!inserts.isEmpty()) {
+                final PreparedStatement statement = connection.prepareStatement(insert);
+                try {
+                    for (Row row : inserts) {
+                        statement.setString(1, row.id);
+                        statement.setString(2, row.timedObjectId);
+                        if (row.primaryKeyHash == null) {
+                            statement.setNull(3, Types.INTEGER);
+                        } else {
+                            statement.setInt(3, row.primaryKeyHash);
+                        }
+                        setNextDate(statement, 4, row.nextDate);
+                        statement.setString(5, row.state);
+                        statement.setBytes(6, row.data);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                } finally {
+                    statement.close();
+                }
+            }
+            if (!removed.isEmpty()) {
+                final PreparedStatement statement = connection.prepareStatement(delete);
+                try {
+                    for (String id : removed) {
+                        statement.setString(1, id);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                } finally {
+                    statement.close();
+                }
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Claims an expiration of a timer for this node. A claim that fails with an error is not retried here, the timer
+     * tries again later so that no thread waits on a store which is unavailable.
+     *
+     * @param id the timer id
+     * @param expiration the expiration to claim
+     * @param nextDate the expiration that follows it, or <code>null</code> if there is none
+     * @param state the state of the timer while it runs
+     * @return <code>true</code> if this node gets to run the expiration, <code>false</code> if another node has
+     *         claimed it
+     * @throws SQLException if the claim failed, in which case it is unknown whether the expiration has been claimed. If
+     *                      the row was updated nevertheless, it no longer holds the expiration and a later claim of it
+     *                      fails, so at worst the expiration is skipped rather than run twice
+     */
+    boolean claim(final String id, final long expiration, final Long nextDate, final String state) throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            final PreparedStatement statement = connection.prepareStatement(claim);
+            try {
+                setNextDate(statement, 1, nextDate);
+                statement.setString(2, state);
+                statement.setString(3, id);
+                statement.setLong(4, expiration);
+                return statement.executeUpdate() == 1;
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * @return the marshalled timer, or <code>null</code> if the timer does not exist
+     */
+    byte[] load(final String id, final String timedObjectId) throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        try {
+            final PreparedStatement statement = connection.prepareStatement(select);
+            try {
+                statement.setString(1, id);
+                statement.setString(2, timedObjectId);
+                final ResultSet resultSet = statement.executeQuery();
+                try {
+                    return resultSet.next() ? resultSet.getBytes(2) : null;
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Loads a page of the timers of a timed object, ordered by timer id.
+     *
+     * @param primaryKeyHash the hash code of the primary key the timers belong to, or <code>null</code> for all timers
+     *                       of the timed object. Distinct primary keys may share a hash code, so the caller still has to
+     *                       compare the primary keys of the loaded timers.
+     * @param afterId the last timer id of the previous page, or <code>null</code> for the first page
+     * @param pageSize the maximum number of timers to load
+     * @return the ids and marshalled timers of the page
+     */
+    List<Row> loadPage(final String timedObjectId, final Integer primaryKeyHash, final String afterId, final int pageSize) throws SQLException {
+        final List<Row> page = new ArrayList<Row>(pageSize);
+        final Connection connection = dataSource.getConnection();
+        try {
+            final PreparedStatement statement = connection.prepareStatement(primaryKeyHash == null ? selectPage : selectPrimaryKeyPage);
+            try {
+                statement.setMaxRows(pageSize);
+                statement.setFetchSize(pageSize);
+                int index = 1;
+                statement.setString(index++, timedObjectId);
+                if (primaryKeyHash != null) {
+                    statement.setInt(index++, primaryKeyHash);
+                }
+                statement.setString(index, afterId == null ? "" : afterId);
+                final ResultSet resultSet = statement.executeQuery();
+                try {
+                    while (resultSet.next() && page.size() < pageSize) {
+                        page.add(new Row(resultSet.getString(1), timedObjectId, primaryKeyHash, null, null, resultSet.getBytes(2)));
+                    }
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+        return page;
+    }
+
+    private boolean exists(final DatabaseMetaData metaData) throws SQLException {
+        for (String name : new String[] {tableName, tableName.toUpperCase(Locale.ENGLISH), tableName.toLowerCase(Locale.ENGLISH)}) {
+            final ResultSet tables = metaData.getTables(null, null, name, null);
+            try {
+                if (tables.next()) {
+                    return true;
+                }
+            } finally {
+                tables.close();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Picks the name the database uses for large binary data, preferring the type with the largest size.
+     */
+    private static String binaryType(final DatabaseMetaData metaData) throws SQLException {
+        String result = null;
+        int rank = BINARY_TYPES.length;
+        long precision = -1;
+        final ResultSet types = metaData.getTypeInfo();
+        try {
+            while (types.next()) {
+                final int type = types.getInt("DATA_TYPE");
+                for (int i = 0; i <= rank && i < BINARY_TYPES.length; i++) {
+                    if (BINARY_TYPES[i] == type) {
+                        final long size = types.getLong("PRECISION");
+                        if (i < rank || size > precision) {
+                            result = types.getString("TYPE_NAME");
+                            rank = i;
+                            precision = size;
+                        }
+                        break;
+                    }
+                }
+            }
+        } finally {
+            types.close();
+        }
+        return result == null ? "BLOB" : result;
+    }
+
+    private static void setUpdateParameters(final PreparedStatement statement, final Row row) throws SQLException {
+        setNextDate(statement, 1, row.nextDate);
+        statement.setString(2, row.state);
+        statement.setBytes(3, row.data);
+        statement.setString(4, row.id);
+    }
+
+    private static void setNextDate(final PreparedStatement statement, final int index, final Long nextDate) throws SQLException {
+        if (nextDate == null) {
+            statement.setNull(index, Types.BIGINT);
+        } else {
+            statement.setLong(index, nextDate);
+        }
+    }
+
+    static final class Row {
+
+        final String id;
+        final String timedObjectId;
+        final Integer primaryKeyHash;
+        final Long nextDate;
+        final String state;
+        final byte[] data;
+
+        Row(final String id, final String timedObjectId, final Integer primaryKeyHash, final Long nextDate, final String state, final byte[] data) {
+            this.id = id;
+            this.timedObjectId = timedObjectId;
+            this.primaryKeyHash = primaryKeyHash;
+            this.nextDate = nextDate;
+            this.state = state;
+            this.data = data;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,8 +60,8 @@ import org.jboss.marshalling.Unmarshaller;
 import org.jboss.marshalling.river.RiverMarshallerFactory;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.Service;
-import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 
@@ -73,8 +74,6 @@ import org.jboss.msc.value.InjectedValue;
  */
 public class FileTimerPersistence implements TimerPersistence, Service<FileTimerPersistence> {
 
-    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "timerService", "fileTimerPersistence");
-
     private final boolean createIfNotExists;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
@@ -102,7 +101,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
     @Override
-    public synchronized void start(final StartContext context) {
+    public synchronized void start(final StartContext context) throws StartException {
 
         final RiverMarshallerFactory factory = new RiverMarshallerFactory();
         final MarshallingConfiguration configuration = new MarshallingConfiguration();
@@ -174,12 +173,12 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 if (timerEntity.getTimerState() == TimerState.CANCELED ||
                         timerEntity.getTimerState() == TimerState.EXPIRED) {
                     map.remove(timerEntity.getId());
-                    writeFile(timerEntity);
+                    writeTimer(timerEntity);
                 } else if (newTimer || map.containsKey(timerEntity.getId())) {
                     //if it is not a new timer and is not in the map then it has
                     //been removed by another thread.
                     map.put(timerEntity.getId(), timerEntity);
-                    writeFile(timerEntity);
+                    writeTimer(timerEntity);
                 }
             } else {
 
@@ -199,6 +198,12 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
     }
 
+    @Override
+    public boolean claimTimeout(final TimerEntity timerEntity, final Date nextTimeout) {
+        // the store is local to this node
+        return true;
+    }
+
     private String timerTransactionKey(final TimerEntity timerEntity) {
         return "org.jboss.as.ejb3.timerTransactionKey." + timerEntity.getId();
     }
@@ -306,13 +311,44 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private Map<String, TimerEntity> getTimers(final String timedObjectId) {
         Map<String, TimerEntity> map = timers.get(timedObjectId);
         if (map == null) {
-            map = loadTimersFromFile(timedObjectId);
+            map = loadTimers(timedObjectId);
             timers.put(timedObjectId, map);
         }
         return map;
     }
 
-    private Map<String, TimerEntity> loadTimersFromFile(final String timedObjectId) {
+    /**
+     * Loads the persistent timers of a timed object. Called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The timers for the object
+     */
+    protected Map<String, TimerEntity> loadTimers(final String timedObjectId) {
+        return loadTimersFromFile(timedObjectId);
+    }
+
+    /**
+     * Writes the state of a timer to the persistent store, removing it if it has been cancelled or has expired. Called under lock
+     *
+     * @param entity The timer
+     */
+    protected void writeTimer(final TimerEntity entity) {
+        writeFile(entity);
+    }
+
+    protected File getBaseDir() {
+        return baseDir;
+    }
+
+    Marshaller createMarshaller() throws IOException {
+        return factory.createMarshaller(configuration);
+    }
+
+    Unmarshaller createUnmarshaller() throws IOException {
+        return factory.createUnmarshaller(configuration);
+    }
+
+    Map<String, TimerEntity> loadTimersFromFile(final String timedObjectId) {
         final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
         try {
             final File file = new File(getDirectory(timedObjectId));
@@ -323,7 +359,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 ROOT_LOGGER.failToRestoreTimers(file);
                 return timers;
             }
-            Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            Unmarshaller unmarshaller = createUnmarshaller();
             for (File timerFile : file.listFiles()) {
                 FileInputStream in = null;
                 try {
@@ -392,7 +428,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         FileOutputStream fileOutputStream = null;
         try {
             fileOutputStream = new FileOutputStream(file, false);
-            final Marshaller marshaller = factory.createMarshaller(configuration);
+            final Marshaller marshaller = createMarshaller();
             marshaller.start(new OutputStreamByteOutput(fileOutputStream));
             marshaller.writeObject(entity);
             marshaller.finish();
@@ -453,7 +489,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                             map.put(timer.getId(), timer);
                         }
                     }
-                    writeFile(timer);
+                    writeTimer(timer);
                 }
             } finally {
                 lock.unlock();
@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2010, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * File based persistent timer store which appends timer state changes to a {@link TimerJournal} instead of writing a
+ * file per timer.
+ * <p/>
+ * The journal is replayed when the service starts. The timers of a timed object are only unmarshalled once the timed
+ * object asks for them, as that is the first time its classes are known to be available. Timers which are still
+ * stored in the per timer files of {@link FileTimerPersistence} are moved into the journal at that point.
+ */
+public class JournalTimerPersistence extends FileTimerPersistence {
+
+    private volatile TimerJournal journal;
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        super(createIfNotExists, path, pathRelativeTo);
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+        super.start(context);
+        final TimerJournal journal = new TimerJournal(getBaseDir());
+        try {
+            journal.open();
+        } catch (IOException e) {
+            throw new StartException(e);
+        }
+        this.journal = journal;
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        journal.close();
+        journal = null;
+        super.stop(context);
+    }
+
+    @Override
+    protected Map<String, TimerEntity> loadTimers(final String timedObjectId) {
+        final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
+        try {
+            final Unmarshaller unmarshaller = createUnmarshaller();
+            for (Map.Entry<String, byte[]> entry : journal.getTimers(timedObjectId).entrySet()) {
+                try {
+                    unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(entry.getValue())));
+                    final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+                    timers.put(entity.getId(), entity);
+                    unmarshaller.finish();
+                } catch (Exception e) {
+                    ROOT_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), e);
+                }
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+        }
+        importTimerFiles(timedObjectId, timers);
+        return timers;
+    }
+
+    @Override
+    protected void writeTimer(final TimerEntity entity) {
+        try {
+            if (entity.getTimerState() == TimerState.CANCELED ||
+                    entity.getTimerState() == TimerState.EXPIRED) {
+                journal.remove(entity.getTimedObjectId(), entity.getId());
+                return;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final Marshaller marshaller = createMarshaller();
+            marshaller.start(new OutputStreamByteOutput(bytes));
+            marshaller.writeObject(entity);
+            marshaller.finish();
+            journal.put(entity.getTimedObjectId(), entity.getId(), bytes.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Moves the timers that were persisted by the per timer file store into the journal.
+     */
+    private void importTimerFiles(final String timedObjectId, final Map<String, TimerEntity> timers) {
+        final File directory = new File(getBaseDir(), timedObjectId.replace(File.separator, "-"));
+        if (!directory.isDirectory()) {
+            return;
+        }
+        for (TimerEntity entity : loadTimersFromFile(timedObjectId).values()) {
+            if (!timers.containsKey(entity.getId())) {
+                writeTimer(entity);
+                timers.put(entity.getId(), entity);
+            }
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
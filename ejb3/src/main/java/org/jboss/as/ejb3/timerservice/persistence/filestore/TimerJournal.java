@@ -0,0 +1,611 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * A segmented append-only log of timer state changes.
+ * <p/>
+ * Every change is appended as a record which is either the marshalled state of a timer or a removal marker. A single
+ * writer thread drains all changes that are waiting, appends them to the current segment and forces the segment to
+ * disk once for the whole batch (group commit). Callers block until the batch holding their change is durable.
+ * <p/>
+ * On disk a record is stored as its length, a CRC32 checksum and the record itself, so a record that was torn by a
+ * crash is detected and dropped on recovery. When the current segment grows beyond the segment size a new segment is
+ * started, and when most of the records in the journal are stale the live records are rewritten into a fresh segment
+ * and all older segments are deleted. An older segment that cannot be deleted is kept, and the compacted segment gets
+ * a removal marker for each timer of that segment which is not live anymore, so it is not resurrected on recovery.
+ * <p/>
+ * The journal only deals with bytes: the marshalled timer state is kept as is, so recovery does not need the classes
+ * of the deployments that own the timers.
+ */
+class TimerJournal {
+
+    static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    static final int DEFAULT_COMPACTION_THRESHOLD = 4096;
+
+    private static final String SEGMENT_PREFIX = "timers-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final int RECORD_HEADER_SIZE = 12;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private static final Write CLOSE = new Write(null, null, (byte) 0, null);
+
+    private final File directory;
+    private final int segmentSize;
+    private final int compactionThreshold;
+
+    /**
+     * The live records: timed object id : timer id : encoded record
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, byte[]>> records = new ConcurrentHashMap<String, ConcurrentMap<String, byte[]>>();
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<Write>();
+
+    // only accessed by the thread that owns the journal, which is the caller of open() and then the writer thread
+    private final List<File> segments = new ArrayList<File>();
+    private long sequence;
+    private FileChannel channel;
+    private int liveCount;
+    private int recordCount;
+    private volatile long forceCount;
+
+    private volatile boolean closed = true;
+    private Thread writer;
+
+    TimerJournal(final File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    TimerJournal(final File directory, final int segmentSize, final int compactionThreshold) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Replays the existing segments and starts the writer thread.
+     */
+    synchronized void open() throws IOException {
+        final long start = System.currentTimeMillis();
+        for (File segment : listSegments()) {
+            replay(segment);
+            segments.add(segment);
+            sequence = Math.max(sequence, sequenceOf(segment));
+        }
+        if (shouldCompact()) {
+            compact();
+        } else {
+            startSegment();
+        }
+        ROOT_LOGGER.debugf("Recovered %d timers from %d records of the timer journal in %s in %d ms", liveCount, recordCount,
+                directory, System.currentTimeMillis() - start);
+        closed = false;
+        writer = new Thread(new Writer(), "EJB timer journal writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writes all pending changes and stops the writer thread.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        synchronized (queue) {
+            closed = true;
+            // nothing is queued after this, so the writer stops once it has written everything before it
+            queue.add(CLOSE);
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        closeChannel();
+        records.clear();
+        segments.clear();
+    }
+
+    /**
+     * Durably records the marshalled state of a timer.
+     */
+    void put(final String timedObjectId, final String timerId, final byte[] state) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(state.length + 64);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        out.writeUTF(timedObjectId);
+        out.writeUTF(timerId);
+        out.write(state);
+        out.close();
+        append(new Write(timedObjectId, timerId, PUT, bytes.toByteArray()));
+    }
+
+    /**
+     * Durably records that a timer no longer exists.
+     */
+    void remove(final String timedObjectId, final String timerId) throws IOException {
+        final Map<String, byte[]> timers = records.get(timedObjectId);
+        if (timers == null || !timers.containsKey(timerId)) {
+            // nothing to remove, the timer was never written
+            return;
+        }
+        append(new Write(timedObjectId, timerId, REMOVE, removeRecord(timedObjectId, timerId)));
+    }
+
+    private static byte[] removeRecord(final String timedObjectId, final String timerId) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(REMOVE);
+        out.writeUTF(timedObjectId);
+        out.writeUTF(timerId);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the marshalled state of all live timers of a timed object.
+     *
+     * @return a map of timer id : marshalled state
+     */
+    Map<String, byte[]> getTimers(final String timedObjectId) throws IOException {
+        final Map<String, byte[]> timers = records.get(timedObjectId);
+        if (timers == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, byte[]> result = new HashMap<String, byte[]>();
+        for (Map.Entry<String, byte[]> entry : timers.entrySet()) {
+            result.put(entry.getKey(), stateOf(entry.getValue()));
+        }
+        return result;
+    }
+
+    int getLiveRecordCount() {
+        return liveCount;
+    }
+
+    /**
+     * @return the number of times the journal was forced to disk
+     */
+    long getForceCount() {
+        return forceCount;
+    }
+
+    /**
+     * Deletes a segment which is no longer needed.
+     *
+     * @return <code>true</code> if the segment was deleted
+     */
+    boolean deleteSegment(final File segment) {
+        return segment.delete();
+    }
+
+    private void append(final Write write) throws IOException {
+        synchronized (queue) {
+            if (closed) {
+                throw MESSAGES.timerJournalClosed(directory);
+            }
+            queue.add(write);
+        }
+        write.await();
+    }
+
+    private void writeBatch(final List<Write> batch) {
+        long position = -1;
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            for (Write write : batch) {
+                writeRecord(out, write.record);
+            }
+            out.close();
+            if (channel == null) {
+                startSegment();
+            }
+            position = channel.size();
+            writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+            force();
+            for (Write write : batch) {
+                apply(write.timedObjectId, write.timerId, write.type, write.record);
+            }
+        } catch (IOException e) {
+            for (Write write : batch) {
+                write.failure = e;
+            }
+            discardFailedBatch(position);
+        } finally {
+            for (Write write : batch) {
+                write.done.countDown();
+            }
+        }
+        try {
+            if (shouldCompact()) {
+                compact();
+            } else if (channel == null || channel.size() >= segmentSize) {
+                startSegment();
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.failToCompactTimerJournal(directory, e);
+        }
+    }
+
+    /**
+     * Cuts off whatever part of a failed batch made it into the segment, as a partial record would hide all records
+     * written after it on recovery. If that is not possible the next batch goes to a new segment.
+     */
+    private void discardFailedBatch(final long position) {
+        if (position >= 0) {
+            try {
+                channel.truncate(position);
+                return;
+            } catch (IOException ignored) {
+                // fall through and move on to a new segment
+            }
+        }
+        closeChannel();
+    }
+
+    private void apply(final String timedObjectId, final String timerId, final byte type, final byte[] record) {
+        recordCount++;
+        ConcurrentMap<String, byte[]> timers = records.get(timedObjectId);
+        if (type == PUT) {
+            if (timers == null) {
+                timers = new ConcurrentHashMap<String, byte[]>();
+                records.put(timedObjectId, timers);
+            }
+            if (timers.put(timerId, record) == null) {
+                liveCount++;
+            }
+        } else if (timers != null && timers.remove(timerId) != null) {
+            liveCount--;
+            if (timers.isEmpty()) {
+                records.remove(timedObjectId);
+            }
+        }
+    }
+
+    /**
+     * The journal is compacted once it holds at least <code>compactionThreshold</code> stale records and more than
+     * half of its records are stale.
+     */
+    private boolean shouldCompact() {
+        final int stale = recordCount - liveCount;
+        return stale >= compactionThreshold && stale > liveCount;
+    }
+
+    /**
+     * Rewrites the live records into a new segment, which becomes the current segment, and deletes all older segments.
+     */
+    private void compact() throws IOException {
+        final long start = System.currentTimeMillis();
+        final int before = recordCount;
+        final List<File> obsolete = new ArrayList<File>(segments);
+        startSegment();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (Map<String, byte[]> timers : records.values()) {
+            for (byte[] record : timers.values()) {
+                writeRecord(out, record);
+                if (bytes.size() >= 64 * 1024) {
+                    writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+                    bytes.reset();
+                }
+            }
+        }
+        out.close();
+        writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+        force();
+        // the new segment is durable, so everything before it can go
+        final List<File> retained = new ArrayList<File>();
+        for (File segment : obsolete) {
+            if (deleteSegment(segment)) {
+                segments.remove(segment);
+            } else {
+                ROOT_LOGGER.failToDeleteTimerJournalSegment(segment);
+                retained.add(segment);
+            }
+        }
+        final int tombstones = retained.isEmpty() ? 0 : writeTombstones(retained);
+        // the removal markers stay stale until the segments they refer to are gone, compacting again does not help
+        recordCount = liveCount;
+        ROOT_LOGGER.debugf("Compacted timer journal in %s from %d to %d records and %d removal markers in %d ms", directory, before,
+                recordCount, tombstones, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Appends a removal marker to the current segment for each timer which has a record in one of the given segments
+     * but is no longer live. The given segments are replayed before the current one on recovery.
+     *
+     * @return the number of removal markers written
+     */
+    private int writeTombstones(final List<File> retained) throws IOException {
+        final Map<String, Set<String>> removed = new HashMap<String, Set<String>>();
+        for (File segment : retained) {
+            readRecords(segment, new RecordHandler() {
+                @Override
+                public void handle(final byte type, final String timedObjectId, final String timerId, final byte[] record) {
+                    final Map<String, byte[]> timers = records.get(timedObjectId);
+                    if (type == PUT && (timers == null || !timers.containsKey(timerId))) {
+                        Set<String> timerIds = removed.get(timedObjectId);
+                        if (timerIds == null) {
+                            timerIds = new HashSet<String>();
+                            removed.put(timedObjectId, timerIds);
+                        }
+                        timerIds.add(timerId);
+                    }
+                }
+            });
+        }
+        int count = 0;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (Map.Entry<String, Set<String>> entry : removed.entrySet()) {
+            for (String timerId : entry.getValue()) {
+                writeRecord(out, removeRecord(entry.getKey(), timerId));
+                count++;
+            }
+        }
+        out.close();
+        if (count > 0) {
+            writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+            force();
+        }
+        return count;
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        forceCount++;
+    }
+
+    private void startSegment() throws IOException {
+        closeChannel();
+        final File segment = new File(directory, SEGMENT_PREFIX + String.format("%016x", ++sequence) + SEGMENT_SUFFIX);
+        channel = new FileOutputStream(segment, true).getChannel();
+        segments.add(segment);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                ROOT_LOGGER.failToCloseFile(e);
+            }
+            channel = null;
+        }
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeRecord(final DataOutputStream out, final byte[] record) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        out.writeInt(record.length);
+        out.writeLong(crc.getValue());
+        out.write(record);
+    }
+
+    /**
+     * Applies all intact records of a segment.
+     */
+    private void replay(final File segment) throws IOException {
+        readRecords(segment, new RecordHandler() {
+            @Override
+            public void handle(final byte type, final String timedObjectId, final String timerId, final byte[] record) {
+                apply(timedObjectId, timerId, type, record);
+            }
+        });
+    }
+
+    /**
+     * Passes all intact records of a segment to the handler. A torn or corrupt record ends the segment; if it is the
+     * tail of the segment it is cut off so that the next recovery does not report it again.
+     */
+    private static void readRecords(final File segment, final RecordHandler handler) throws IOException {
+        final long length = segment.length();
+        long offset = 0;
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)));
+        try {
+            while (offset < length) {
+                final int size;
+                final long checksum;
+                final byte[] record;
+                try {
+                    size = in.readInt();
+                    checksum = in.readLong();
+                    if (size <= 0 || size > length - offset - RECORD_HEADER_SIZE) {
+                        break;
+                    }
+                    record = new byte[size];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    break;
+                }
+                final CRC32 crc = new CRC32();
+                crc.update(record);
+                if (crc.getValue() != checksum) {
+                    break;
+                }
+                final DataInputStream data = new DataInputStream(new ByteArrayInputStream(record));
+                final byte type = data.readByte();
+                handler.handle(type, data.readUTF(), data.readUTF(), record);
+                offset += RECORD_HEADER_SIZE + size;
+            }
+        } finally {
+            in.close();
+        }
+        if (offset < length) {
+            ROOT_LOGGER.corruptTimerJournalRecord(offset, segment);
+            final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+            try {
+                file.setLength(offset);
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    private static byte[] stateOf(final byte[] record) throws IOException {
+        final DataInputStream data = new DataInputStream(new ByteArrayInputStream(record));
+        data.readByte();
+        data.readUTF();
+        data.readUTF();
+        final int offset = record.length - data.available();
+        return Arrays.copyOfRange(record, offset, record.length);
+    }
+
+    private List<File> listSegments() {
+        final List<File> result = new ArrayList<File>();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && file.getName().startsWith(SEGMENT_PREFIX) && file.getName().endsWith(SEGMENT_SUFFIX)) {
+                    result.add(file);
+                }
+            }
+        }
+        Collections.sort(result, new Comparator<File>() {
+            @Override
+            public int compare(final File o1, final File o2) {
+                final long s1 = sequenceOf(o1);
+                final long s2 = sequenceOf(o2);
+                return s1 < s2 ? -1 : (s1 == s2 ? 0 : 1);
+            }
+        });
+        return result;
+    }
+
+    private static long sequenceOf(final File segment) {
+        final String name = segment.getName();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()), 16);
+    }
+
+    private interface RecordHandler {
+        void handle(byte type, String timedObjectId, String timerId, byte[] record) throws IOException;
+    }
+
+    private final class Writer implements Runnable {
+
+        @Override
+        public void run() {
+            final List<Write> batch = new ArrayList<Write>();
+            boolean running = true;
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // only close() stops the writer
+                    continue;
+                }
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                if (batch.remove(CLOSE)) {
+                    running = false;
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private static final class Write {
+
+        private final String timedObjectId;
+        private final String timerId;
+        private final byte type;
+        private final byte[] record;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile IOException failure;
+
+        Write(final String timedObjectId, final String timerId, final byte type, final byte[] record) {
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.type = type;
+            this.record = record;
+        }
+
+        void await() throws IOException {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link TimeoutTask} whose work runs on an executor. The {@link TimingWheelScheduler} does not call
+ * {@link #expire(long)} for such tasks, it collects the tasks of a tick which share an executor and hands them to it in
+ * a batch instead of submitting each of them on its own.
+ */
+public interface ExecutorTimeoutTask extends TimeoutTask {
+
+    /**
+     * Gets the executor the work of the task runs on.
+     *
+     * @return the executor, or <code>null</code> if the work cannot run at the moment
+     */
+    Executor getExecutor();
+
+    /**
+     * Called by the scheduler when the task expires, before its work is handed to the executor.
+     *
+     * @param scheduledTime the time in milliseconds since the epoch at which the task was scheduled to expire
+     */
+    void expired(long scheduledTime);
+
+    /**
+     * Runs the work of the task. Called on a thread of the executor.
+     */
+    void run();
+
+    /**
+     * Called instead of {@link #run()} if the executor rejected the work.
+     */
+    void rejected();
+}
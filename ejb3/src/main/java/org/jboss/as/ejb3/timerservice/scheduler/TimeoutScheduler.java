@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+/**
+ * The backend which schedules the timeouts of the EJB timer service.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules a task.
+     *
+     * @param task   the task
+     * @param delay  the delay in milliseconds before the task expires for the first time
+     * @param period the period in milliseconds between successive expirations of the task at fixed rate, or
+     *               <code>0</code> if the task expires only once
+     * @return the scheduled timeout which can be used to cancel the task
+     */
+    ScheduledTimeout schedule(TimeoutTask task, long delay, long period);
+
+    /**
+     * Stops the scheduler. Scheduled tasks do not expire anymore.
+     */
+    void shutdown();
+}
@@ -0,0 +1,422 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link TimeoutScheduler} based on a hierarchical timing wheel.
+ * <p/>
+ * Time is divided into ticks of a fixed duration. The wheel consists of {@link #LEVELS} levels of
+ * {@link #WHEEL_SIZE} buckets each, where a bucket of level <code>n</code> spans <code>WHEEL_SIZE^n</code> ticks.
+ * A timeout is put into the bucket of the lowest level whose span covers its deadline, and whenever a level has
+ * completed a revolution the next bucket of the level above is cascaded down. Scheduling and cancelling are
+ * therefore constant time operations, independent of the number of scheduled timeouts.
+ * <p/>
+ * The wheel itself is only ever touched by its worker thread. New and cancelled timeouts are handed over through
+ * lock-free queues and picked up once per tick. The {@link TimeoutTask tasks} of the timeouts expiring in a tick are
+ * called one after the other by the worker thread. {@link ExecutorTimeoutTask}s which share an executor are handed to
+ * it in a batch: a few runnables are submitted which take the tasks of the batch one after the other until none are
+ * left, so a slow task only holds up its own runnable. One runnable is submitted per {@link #BATCH_SIZE} tasks, but
+ * never fewer than one per processor, so the timeouts of a tick still run concurrently. Timeouts expire with a
+ * granularity of one tick.
+ */
+public class TimingWheelScheduler implements TimeoutScheduler {
+
+    static final int LEVEL_BITS = 8;
+    static final int WHEEL_SIZE = 1 << LEVEL_BITS;
+    static final int LEVELS = 4;
+    private static final int MASK = WHEEL_SIZE - 1;
+    /**
+     * The maximum number of new timeouts picked up per tick, so that a burst of new timeouts does not delay the
+     * expiration of the ones already scheduled.
+     */
+    private static final int MAX_PENDING_PER_TICK = 10000;
+    /**
+     * The number of tasks of a batch per runnable submitted to their executor.
+     */
+    private static final int BATCH_SIZE = 16;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private static final int ST_INIT = 0;
+    private static final int ST_STARTED = 1;
+    private static final int ST_SHUTDOWN = 2;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final long tickDuration;
+    private final Bucket[][] wheel;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final AtomicInteger state = new AtomicInteger(ST_INIT);
+    private final Thread worker;
+
+    /**
+     * The time at which the worker started, in nanoseconds.
+     */
+    private volatile long startTime;
+    /**
+     * The last tick processed by the worker. Only accessed by the worker thread.
+     */
+    private long currentTick;
+
+    /**
+     * Creates a timing wheel.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit         the unit of the tick duration
+     */
+    public TimingWheelScheduler(final long tickDuration, final TimeUnit unit) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[level][i] = new Bucket();
+            }
+        }
+        this.worker = new Thread(new Worker(), "EJB timer wheel " + THREAD_COUNT.incrementAndGet());
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Starts the worker thread. Tasks can be scheduled before the wheel is started, they are picked up with the
+     * first tick.
+     */
+    public void start() {
+        if (state.compareAndSet(ST_INIT, ST_STARTED)) {
+            startTime = System.nanoTime();
+            worker.start();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (state.getAndSet(ST_SHUTDOWN) == ST_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public ScheduledTimeout schedule(final TimeoutTask task, final long delay, final long period) {
+        if (task == null) {
+            throw new IllegalArgumentException("task is null");
+        }
+        final long now = System.currentTimeMillis();
+        final Timeout timeout = new Timeout(task, now + Math.max(delay, 0), Math.max(period, 0));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Converts a wall clock time to the tick at which it will have passed.
+     */
+    private long deadlineTick(final long scheduledTime) {
+        final long delayNanos = TimeUnit.MILLISECONDS.toNanos(scheduledTime - System.currentTimeMillis());
+        final long deadline = System.nanoTime() + delayNanos - startTime;
+        if (deadline <= 0) {
+            return 0;
+        }
+        // round up, a timeout must never expire early
+        return (deadline + tickDuration - 1) / tickDuration;
+    }
+
+    /**
+     * Puts a timeout into the bucket which is processed next before its deadline.
+     *
+     * @return <code>false</code> if the deadline has passed already and the timeout has not been put into a bucket
+     */
+    private boolean place(final Timeout timeout) {
+        final long deadline = timeout.deadlineTick;
+        final long delta = deadline - currentTick;
+        if (delta <= 0) {
+            return false;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (LEVEL_BITS * (level + 1))) {
+            level++;
+        }
+        wheel[level][(int) ((deadline >>> (LEVEL_BITS * level)) & MASK)].add(timeout);
+        return true;
+    }
+
+    /**
+     * Processes the current tick and returns the timeouts which have expired with it.
+     */
+    private List<Timeout> tick() {
+        final List<Timeout> expired = new ArrayList<Timeout>();
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+        for (int i = 0; i < MAX_PENDING_PER_TICK && (timeout = pendingTimeouts.poll()) != null; i++) {
+            if (!timeout.isCancelled()) {
+                timeout.deadlineTick = deadlineTick(timeout.scheduledTime);
+                if (!place(timeout)) {
+                    expired.add(timeout);
+                }
+            }
+        }
+        // cascade the levels which have completed a revolution
+        for (int level = 1; level < LEVELS; level++) {
+            final int shift = LEVEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                break;
+            }
+            cascade(wheel[level][(int) ((currentTick >>> shift) & MASK)], expired);
+        }
+        cascade(wheel[0][(int) (currentTick & MASK)], expired);
+        return expired;
+    }
+
+    private void cascade(final Bucket bucket, final List<Timeout> expired) {
+        Timeout timeout = bucket.clear();
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            if (!timeout.isCancelled() && !place(timeout)) {
+                expired.add(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void expire(final List<Timeout> expired) {
+        Map<Executor, List<ExecutorTimeoutTask>> batches = null;
+        for (final Timeout timeout : expired) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            final long scheduledTime = timeout.scheduledTime;
+            if (timeout.period > 0) {
+                // fixed rate, the next expiration is relative to the scheduled time of this one
+                timeout.scheduledTime = scheduledTime + timeout.period;
+                timeout.deadlineTick = deadlineTick(timeout.scheduledTime);
+            } else {
+                timeout.state.set(Timeout.ST_EXPIRED);
+            }
+            try {
+                if (timeout.task instanceof ExecutorTimeoutTask) {
+                    final ExecutorTimeoutTask task = (ExecutorTimeoutTask) timeout.task;
+                    final Executor executor = task.getExecutor();
+                    if (executor != null) {
+                        task.expired(scheduledTime);
+                        if (batches == null) {
+                            batches = new IdentityHashMap<Executor, List<ExecutorTimeoutTask>>();
+                        }
+                        List<ExecutorTimeoutTask> batch = batches.get(executor);
+                        if (batch == null) {
+                            batch = new ArrayList<ExecutorTimeoutTask>();
+                            batches.put(executor, batch);
+                        }
+                        batch.add(task);
+                    }
+                } else {
+                    timeout.task.expire(scheduledTime);
+                }
+            } catch (Throwable t) {
+                ROOT_LOGGER.debugf(t, "Timeout task %s failed", timeout.task);
+            }
+        }
+        if (batches != null) {
+            for (final Map.Entry<Executor, List<ExecutorTimeoutTask>> entry : batches.entrySet()) {
+                dispatch(entry.getKey(), entry.getValue());
+            }
+        }
+        // re-insert the periodic timeouts once all timeouts of the tick have expired, a timeout which is due again
+        // already is dispatched with the next tick
+        for (final Timeout timeout : expired) {
+            if (timeout.period > 0 && !timeout.isCancelled()) {
+                if (timeout.deadlineTick <= currentTick) {
+                    timeout.deadlineTick = currentTick + 1;
+                }
+                place(timeout);
+            }
+        }
+    }
+
+    /**
+     * Hands the tasks of a tick which share an executor to it.
+     */
+    private static void dispatch(final Executor executor, final List<ExecutorTimeoutTask> tasks) {
+        final Batch batch = new Batch(tasks.toArray(new ExecutorTimeoutTask[tasks.size()]));
+        final int runnables = Math.min(tasks.size(), Math.max(PROCESSORS, (tasks.size() + BATCH_SIZE - 1) / BATCH_SIZE));
+        int submitted = 0;
+        for (int i = 0; i < runnables; i++) {
+            try {
+                executor.execute(batch);
+                submitted++;
+            } catch (RuntimeException e) {
+                ROOT_LOGGER.debugf(e, "Executor %s rejected expired timeouts", executor);
+                break;
+            }
+        }
+        if (submitted == 0) {
+            batch.reject();
+        }
+    }
+
+    /**
+     * The tasks of a tick which share an executor. Every runnable submitted for the batch takes the next task until
+     * all of them have run.
+     */
+    private static final class Batch implements Runnable {
+        private final ExecutorTimeoutTask[] tasks;
+        private final AtomicInteger next = new AtomicInteger();
+
+        Batch(final ExecutorTimeoutTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void run() {
+            int i;
+            while ((i = next.getAndIncrement()) < tasks.length) {
+                try {
+                    tasks[i].run();
+                } catch (Throwable t) {
+                    ROOT_LOGGER.debugf(t, "Timeout task %s failed", tasks[i]);
+                }
+            }
+        }
+
+        void reject() {
+            int i;
+            while ((i = next.getAndIncrement()) < tasks.length) {
+                tasks[i].rejected();
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (state.get() == ST_STARTED) {
+                final long deadline = startTime + (currentTick + 1) * tickDuration;
+                final long sleep = deadline - System.nanoTime();
+                if (sleep > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        // shutdown
+                        continue;
+                    }
+                }
+                currentTick++;
+                expire(tick());
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts, only accessed by the worker thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(final Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        Timeout clear() {
+            final Timeout first = head;
+            head = null;
+            for (Timeout timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+            }
+            return first;
+        }
+    }
+
+    private final class Timeout implements ScheduledTimeout {
+
+        static final int ST_ACTIVE = 0;
+        static final int ST_CANCELLED = 1;
+        static final int ST_EXPIRED = 2;
+
+        final TimeoutTask task;
+        final long period;
+        final AtomicInteger state = new AtomicInteger(ST_ACTIVE);
+
+        // only accessed by the worker thread once the timeout has been handed over
+        long scheduledTime;
+        long deadlineTick;
+        Bucket bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(final TimeoutTask task, final long scheduledTime, final long period) {
+            this.task = task;
+            this.scheduledTime = scheduledTime;
+            this.period = period;
+        }
+
+        boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(ST_ACTIVE, ST_CANCELLED)) {
+                cancelledTimeouts.add(this);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * A {@link TimeoutScheduler} which schedules every task on a single {@link java.util.Timer}.
+ */
+public class UtilTimerScheduler implements TimeoutScheduler {
+
+    private final Timer timer = new Timer();
+
+    @Override
+    public ScheduledTimeout schedule(final TimeoutTask task, final long delay, final long period) {
+        final Task timerTask = new Task(task);
+        if (period > 0) {
+            timer.scheduleAtFixedRate(timerTask, delay, period);
+        } else {
+            timer.schedule(timerTask, delay);
+        }
+        return timerTask;
+    }
+
+    @Override
+    public void shutdown() {
+        timer.cancel();
+    }
+
+    private static final class Task extends TimerTask implements ScheduledTimeout {
+
+        private final TimeoutTask delegate;
+
+        Task(final TimeoutTask delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.expire(scheduledExecutionTime());
+        }
+    }
+}
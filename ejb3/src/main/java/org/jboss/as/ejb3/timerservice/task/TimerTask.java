@@ -117,9 +117,28 @@ public class TimerTask<T extends TimerImpl> implements Runnable {
         if (this.timer.isActive() == false) {
             ROOT_LOGGER.debug("Timer is not active, skipping this scheduled execution at: " + now);
         }
+        Date nextTimeout = this.calculateNextTimeout();
+        // if the timer is shared with other nodes only one of them runs this expiration
+        final boolean claimed;
+        try {
+            claimed = this.timerService.claimTimeout(this.timer, nextTimeout);
+        } catch (RuntimeException e) {
+            // nobody is known to have claimed the expiration, so keep it due and try again once the store may be back
+            ROOT_LOGGER.failToClaimTimeout(this.timer.getId(), e);
+            if (this.timer.getInterval() == 0) {
+                this.timerService.scheduleClaimRetry(this.timer);
+            }
+            // an interval timer catches up on the expiration when its next period is due
+            return;
+        }
+        if (!claimed) {
+            ROOT_LOGGER.debug("Timer expiration has been claimed by another node, skipping this scheduled execution at: " + now);
+            this.timer.setNextTimeout(nextTimeout);
+            scheduleTimeoutIfRequired();
+            return;
+        }
         // set the current date as the "previous run" of the timer.
         this.timer.setPreviousRun(new Date());
-        Date nextTimeout = this.calculateNextTimeout();
         this.timer.setNextTimeout(nextTimeout);
         // change the state to mark it as in timeout method
         this.timer.setTimerState(TimerState.IN_TIMEOUT);
@@ -0,0 +1,260 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link MappedSegmentPersistentObjectStore}.
+ */
+public class MappedSegmentPersistentObjectStoreTestCase {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    private File directory;
+
+    @Before
+    public void before() throws Exception {
+        directory = File.createTempFile("passivation", "");
+        directory.delete();
+    }
+
+    @After
+    public void after() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        MappedSegmentPersistentObjectStore<Integer, MockBean> store = createStore();
+        store.start();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                store.store(new MockBean(i, 100 + i % 50));
+            }
+            // passivating again replaces the stored state
+            store.store(new MockBean(7, 3));
+            for (int i = 0; i < 1000; i++) {
+                MockBean bean = store.load(i);
+                assertNotNull(bean);
+                assertEquals(i, bean.getId().intValue());
+                assertArrayEquals(i == 7 ? state(7, 3) : state(i, 100 + i % 50), bean.state);
+                assertNull(store.load(i));
+            }
+        } finally {
+            store.stop();
+        }
+        assertTrue(!directory.exists());
+    }
+
+    @Test
+    public void testEmptySegmentsAreRecycled() {
+        MappedSegmentPersistentObjectStore<Integer, MockBean> store = createStore();
+        store.start();
+        try {
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < 2000; i++) {
+                    store.store(new MockBean(i, 200));
+                }
+                assertTrue(store.getSegmentCount() > 3);
+                for (int i = 0; i < 2000; i++) {
+                    assertNotNull(store.load(i));
+                }
+                // the active segment plus the retained empty ones
+                assertTrue(String.valueOf(store.getSegmentCount()), store.getSegmentCount() <= 3);
+            }
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testSparseSegmentsAreCompacted() throws Exception {
+        MappedSegmentPersistentObjectStore<Integer, MockBean> store = createStore();
+        store.start();
+        try {
+            for (int i = 0; i < 4000; i++) {
+                store.store(new MockBean(i, 200));
+            }
+            final int segments = store.getSegmentCount();
+            // activate three out of four, leaving every segment mostly free
+            for (int i = 0; i < 4000; i++) {
+                if (i % 4 != 0) {
+                    assertNotNull(store.load(i));
+                }
+            }
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (store.getSegmentCount() > segments / 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(store.getSegmentCount() + " of " + segments, store.getSegmentCount() <= segments / 2);
+            for (int i = 0; i < 4000; i += 4) {
+                MockBean bean = store.load(i);
+                assertNotNull(bean);
+                assertArrayEquals(state(i, 200), bean.state);
+            }
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testConcurrentPassivation() throws Exception {
+        final MappedSegmentPersistentObjectStore<Integer, MockBean> store = createStore();
+        store.start();
+        try {
+            final int threadCount = 8;
+            final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+            final CountDownLatch done = new CountDownLatch(threadCount);
+            for (int t = 0; t < threadCount; t++) {
+                final int thread = t;
+                new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            for (int round = 0; round < 20; round++) {
+                                for (int i = 0; i < 200; i++) {
+                                    store.store(new MockBean(thread * 1000 + i, round + i));
+                                }
+                                for (int i = 0; i < 200; i++) {
+                                    final MockBean bean = store.load(thread * 1000 + i);
+                                    assertArrayEquals(state(thread * 1000 + i, round + i), bean.state);
+                                }
+                            }
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                }).start();
+            }
+            assertTrue(done.await(60, TimeUnit.SECONDS));
+            if (failure.get() != null) {
+                throw new AssertionError(failure.get());
+            }
+        } finally {
+            store.stop();
+        }
+    }
+
+    /**
+     * A storm of passivations is appended to a few segments instead of creating a file per bean.
+     */
+    @Test
+    public void testPassivationStorm() {
+        final int count = 20000;
+        final MappedSegmentPersistentObjectStore<Integer, MockBean> store = createStore();
+        store.start();
+        try {
+            for (int i = 0; i < count; i++) {
+                store.store(new MockBean(i, 500));
+            }
+            final String[] files = directory.list();
+            assertNotNull(files);
+            // a 64k segment holds about a hundred beans of 500 bytes
+            assertTrue(files.length <= count / 50);
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(state(i, 500), store.load(i).state);
+            }
+        } finally {
+            store.stop();
+        }
+    }
+
+    private MappedSegmentPersistentObjectStore<Integer, MockBean> createStore() {
+        return new MappedSegmentPersistentObjectStore<Integer, MockBean>(new MockPassivationManager(), directory.getPath(), SEGMENT_SIZE);
+    }
+
+    static byte[] state(int id, int size) {
+        final byte[] state = new byte[size];
+        for (int i = 0; i < size; i++) {
+            state[i] = (byte) (id + i);
+        }
+        return state;
+    }
+
+    static class MockBean implements Cacheable<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Integer id;
+        final byte[] state;
+
+        MockBean(int id, int size) {
+            this.id = id;
+            this.state = state(id, size);
+        }
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isModified() {
+            return true;
+        }
+    }
+
+    static class MockPassivationManager implements PassivationManager<Integer, MockBean> {
+        private final MarshallingConfiguration configuration = new MarshallingConfiguration();
+
+        @Override
+        public int getCurrentMarshallingVersion() {
+            return 1;
+        }
+
+        @Override
+        public MarshallingConfiguration getMarshallingConfiguration(int version) {
+            return configuration;
+        }
+
+        @Override
+        public void postActivate(MockBean obj) {
+        }
+
+        @Override
+        public void prePassivate(MockBean obj) {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.cache.spi.PersistentObjectStore;
+import org.jboss.as.ejb3.cache.spi.impl.MappedSegmentPersistentObjectStoreTestCase.MockBean;
+import org.jboss.as.ejb3.cache.spi.impl.MappedSegmentPersistentObjectStoreTestCase.MockPassivationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the passivation and activation throughput of the {@link FilePersistentObjectStore} and the
+ * {@link MappedSegmentPersistentObjectStore}, for a single bean and for a storm of passivations followed by the
+ * activation of all of them. Not run by the build; after <code>mvn test-compile</code> run it with:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jboss.as.ejb3.cache.spi.impl.PersistentObjectStoreBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PersistentObjectStoreBenchmark {
+    private static final int STORM = 1000;
+
+    @Param({ "file", "segment" })
+    public String type;
+
+    @Param({ "256", "16384" })
+    public int stateSize;
+
+    private PersistentObjectStore<Integer, MockBean> store;
+    private MockBean[] beans;
+
+    @Setup
+    public void setup() throws IOException {
+        final File directory = File.createTempFile("passivation", "");
+        directory.delete();
+        if ("file".equals(this.type)) {
+            this.store = new FilePersistentObjectStore<Integer, MockBean>(new MockPassivationManager(), directory.getPath(), 100);
+        } else {
+            this.store = new MappedSegmentPersistentObjectStore<Integer, MockBean>(new MockPassivationManager(), directory.getPath());
+        }
+        this.store.start();
+        this.beans = new MockBean[STORM];
+        for (int i = 0; i < STORM; i++) {
+            this.beans[i] = new MockBean(i, this.stateSize);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.store.stop();
+    }
+
+    @Benchmark
+    public MockBean passivateAndActivate() {
+        this.store.store(this.beans[0]);
+        return this.store.load(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STORM)
+    public MockBean passivateAndActivateStorm() {
+        for (MockBean bean : this.beans) {
+            this.store.store(bean);
+        }
+        MockBean bean = null;
+        for (int i = 0; i < STORM; i++) {
+            bean = this.store.load(i);
+        }
+        return bean;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PersistentObjectStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of invocations of a singleton method with <code>@Lock(READ)</code>, as locked by the
+ * {@link ContainerManagedConcurrencyInterceptor}: the read lock of the bean's {@link EJBReadWriteLock} is acquired with
+ * a timeout, the method body consumes <code>work</code> tokens of CPU and the lock is released. The
+ * <code>read</code> benchmark runs with 1 to 16 threads, <code>readWhileWriting</code> runs three readers next to a
+ * thread invoking a <code>@Lock(WRITE)</code> method. Not run by the build; after <code>mvn test-compile</code> run it
+ * with:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jboss.as.ejb3.concurrency.EJBReadWriteLockBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EJBReadWriteLockBenchmark {
+    private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+    @Param({ "0", "100" })
+    public long work;
+
+    private Lock readLock;
+    private Lock writeLock;
+
+    @Setup
+    public void setup() {
+        final EJBReadWriteLock lock = new EJBReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+    }
+
+    @Benchmark
+    public void read() throws InterruptedException {
+        invoke(this.readLock);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public void reader() throws InterruptedException {
+        invoke(this.readLock);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public void writer() throws InterruptedException {
+        invoke(this.writeLock);
+    }
+
+    private void invoke(final Lock lock) throws InterruptedException {
+        if (!lock.tryLock(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException();
+        }
+        try {
+            Blackhole.consumeCPU(this.work);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder().include(EJBReadWriteLockBenchmark.class.getSimpleName() + ".read$").threads(threads).build()).run();
+        }
+        new Runner(new OptionsBuilder().include(EJBReadWriteLockBenchmark.class.getSimpleName() + ".readWhileWriting").build()).run();
+    }
+}
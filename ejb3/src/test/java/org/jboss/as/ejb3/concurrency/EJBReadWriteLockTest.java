@@ -162,6 +162,82 @@ public class EJBReadWriteLockTest {
 
     }
 
+    /**
+     * Tests that the loopback check sees reentrant read locks, and that the read locks are released
+     * once the thread has unlocked all of them
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testIllegalLoopBackWithReentrantReadLock() throws Exception {
+        Lock readLock = this.ejbReadWriteLock.readLock();
+        Lock writeLock = this.ejbReadWriteLock.writeLock();
+        readLock.lock();
+        readLock.lock();
+        readLock.unlock();
+        try {
+            writeLock.lock();
+            writeLock.unlock();
+            Assert.fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException ilbe) {
+            // expected, one read lock is still held
+        } finally {
+            readLock.unlock();
+        }
+        Assert.assertTrue("Could not obtain write lock after releasing all read locks", writeLock.tryLock());
+        writeLock.unlock();
+    }
+
+    /**
+     * Tests that read locks held by other threads make the write lock wait rather than fail with
+     * a {@link javax.ejb.IllegalLoopbackException}, and that many concurrent readers leave the lock free
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        final int threadCount = 8;
+        final CountDownLatch locked = new CountDownLatch(threadCount);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 10000; j++) {
+                            readLock.lock();
+                            readLock.unlock();
+                        }
+                        readLock.lock();
+                        try {
+                            locked.countDown();
+                            release.await();
+                        } finally {
+                            readLock.unlock();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+        Lock writeLock = this.ejbReadWriteLock.writeLock();
+        try {
+            // the read locks belong to other threads, so this is not a loopback
+            Assert.assertFalse("Unexpected acquired write lock", writeLock.tryLock(100, TimeUnit.MILLISECONDS));
+        } finally {
+            release.countDown();
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue("Could not obtain write lock after all readers are done", writeLock.tryLock(2, TimeUnit.SECONDS));
+        writeLock.unlock();
+    }
+
     /**
      * An implementation of {@link Runnable} which in its {@link #run()} method
      * will first obtain a lock and then will go to sleep for the specified amount
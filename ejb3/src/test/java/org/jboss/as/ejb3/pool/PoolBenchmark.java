@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.jboss.as.ejb3.pool.striped.StripedMaxPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the get/release throughput of the {@link StrictMaxPool} and the {@link StripedMaxPool} when shared by 1 to
+ * 64 threads, with a pool that is smaller than and one that is as large as the largest thread count. Not run by the
+ * build; after <code>mvn test-compile</code> run it with:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jboss.as.ejb3.pool.PoolBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PoolBenchmark {
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    @Param({ "strict", "striped" })
+    public String type;
+
+    @Param({ "20", "64" })
+    public int maxSize;
+
+    private Pool<Object> pool;
+
+    @Setup
+    public void setup() {
+        final StatelessObjectFactory<Object> factory = new StatelessObjectFactory<Object>() {
+            public Object create() {
+                return new Object();
+            }
+
+            public void destroy(Object obj) {
+            }
+        };
+        if ("strict".equals(this.type)) {
+            this.pool = new StrictMaxPool<Object>(factory, this.maxSize, 5, TimeUnit.MINUTES);
+        } else {
+            this.pool = new StripedMaxPool<Object>(factory, this.maxSize, 5, TimeUnit.MINUTES);
+        }
+        this.pool.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.stop();
+    }
+
+    @Benchmark
+    public Object getAndRelease() {
+        final Object instance = this.pool.get();
+        this.pool.release(instance);
+        return instance;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder().include(PoolBenchmark.class.getSimpleName()).threads(threads).build()).run();
+        }
+    }
+}
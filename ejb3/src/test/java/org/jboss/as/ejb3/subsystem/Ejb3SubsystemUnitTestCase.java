@@ -31,6 +31,9 @@ import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.cache.spi.impl.MappedSegmentPersistentObjectStore;
 import org.jboss.as.model.test.FailedOperationTransformationConfig;
 import org.jboss.as.model.test.ModelFixer;
 import org.jboss.as.model.test.ModelTestUtils;
@@ -62,6 +65,44 @@ public class Ejb3SubsystemUnitTestCase extends AbstractSubsystemBaseTest {
         return readResource("subsystem.xml");
     }
 
+    @Test
+    public void testPoolNamesAreUnique() throws Exception {
+        KernelServices services = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXml(getSubsystemXml())
+                .build();
+        Assert.assertTrue(services.isSuccessfulBoot());
+
+        PathAddress subsystemAddress = PathAddress.pathAddress(EJB3Extension.SUBSYSTEM_PATH);
+        ModelNode addStriped = Util.createAddOperation(subsystemAddress.append(
+                PathElement.pathElement(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL, "slsb-strict-max-pool")));
+        addStriped.get(EJB3SubsystemModel.MAX_POOL_SIZE).set(10);
+        Assert.assertEquals(ModelDescriptionConstants.FAILED, services.executeOperation(addStriped).get(ModelDescriptionConstants.OUTCOME).asString());
+
+        ModelNode addStrict = Util.createAddOperation(subsystemAddress.append(
+                PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL, "slsb-striped-max-pool")));
+        addStrict.get(EJB3SubsystemModel.MAX_POOL_SIZE).set(10);
+        Assert.assertEquals(ModelDescriptionConstants.FAILED, services.executeOperation(addStrict).get(ModelDescriptionConstants.OUTCOME).asString());
+
+        ModelNode addOther = Util.createAddOperation(subsystemAddress.append(
+                PathElement.pathElement(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL, "other-striped-max-pool")));
+        addOther.get(EJB3SubsystemModel.MAX_POOL_SIZE).set(10);
+        services.executeForResult(addOther);
+    }
+
+    @Test
+    public void testSegmentSizeLowerBound() throws Exception {
+        KernelServices services = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXml(getSubsystemXml())
+                .build();
+        Assert.assertTrue(services.isSuccessfulBoot());
+
+        PathAddress address = PathAddress.pathAddress(EJB3Extension.SUBSYSTEM_PATH).append(FilePassivationStoreResourceDefinition.INSTANCE.getPathElement().getKey(), "file");
+        ModelNode tooSmall = Util.getWriteAttributeOperation(address, EJB3SubsystemModel.SEGMENT_SIZE, new ModelNode(MappedSegmentPersistentObjectStore.MIN_SEGMENT_SIZE - 1));
+        Assert.assertEquals(ModelDescriptionConstants.FAILED, services.executeOperation(tooSmall).get(ModelDescriptionConstants.OUTCOME).asString());
+
+        services.executeForResult(Util.getWriteAttributeOperation(address, EJB3SubsystemModel.SEGMENT_SIZE, new ModelNode(MappedSegmentPersistentObjectStore.MIN_SEGMENT_SIZE)));
+    }
+
     @Test
     public void testTransformerAS712() throws Exception {
         testTransformer_1_1_0("7.1.2.Final");
@@ -138,6 +179,26 @@ public class Ejb3SubsystemUnitTestCase extends AbstractSubsystemBaseTest {
         map.put(EJB3SubsystemRootResourceDefinition.DEFAULT_SECURITY_DOMAIN.getName(),
                 new FailedOperationTransformationConfig.NewAttributesConfig(EJB3SubsystemRootResourceDefinition.DEFAULT_SECURITY_DOMAIN));
 
+        Map<String, FailedOperationTransformationConfig.PathAddressConfig> fileStore = new HashMap<String, FailedOperationTransformationConfig.PathAddressConfig>();
+        fileStore.put(FilePassivationStoreResourceDefinition.IDLE_TIMEOUT_UNIT.getName(),
+                new FailedOperationTransformationConfig.RejectExpressionsConfig(FilePassivationStoreResourceDefinition.IDLE_TIMEOUT_UNIT));
+        fileStore.put(FilePassivationStoreResourceDefinition.SEGMENT_SIZE.getName(),
+                new FailedOperationTransformationConfig.NewAttributesConfig(FilePassivationStoreResourceDefinition.SEGMENT_SIZE));
+
+        Map<String, FailedOperationTransformationConfig.PathAddressConfig> timerService = new HashMap<String, FailedOperationTransformationConfig.PathAddressConfig>();
+        timerService.put(TimerServiceResourceDefinition.PATH.getName(),
+                new FailedOperationTransformationConfig.RejectExpressionsConfig(TimerServiceResourceDefinition.PATH));
+        timerService.put(TimerServiceResourceDefinition.DATA_STORE_MODE.getName(),
+                new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.DATA_STORE_MODE));
+        timerService.put(TimerServiceResourceDefinition.DATABASE_TABLE_NAME.getName(),
+                new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.DATABASE_TABLE_NAME));
+        timerService.put(TimerServiceResourceDefinition.DATABASE_PAGE_SIZE.getName(),
+                new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.DATABASE_PAGE_SIZE));
+        timerService.put(TimerServiceResourceDefinition.SCHEDULER.getName(),
+                new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.SCHEDULER));
+        timerService.put(TimerServiceResourceDefinition.SCHEDULER_TICK_DURATION.getName(),
+                new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.SCHEDULER_TICK_DURATION));
+
         return new FailedOperationTransformationConfig()
                 .addFailedAttribute(subsystemAddress, new FailedOperationTransformationConfig.ChainedConfig(map))
                 .addFailedAttribute(subsystemAddress.append(PathElement.pathElement(EJB3SubsystemModel.THREAD_POOL)),
@@ -145,11 +206,11 @@ public class Ejb3SubsystemUnitTestCase extends AbstractSubsystemBaseTest {
                 .addFailedAttribute(subsystemAddress.append(StrictMaxPoolResourceDefinition.INSTANCE.getPathElement()),
                         new FailedOperationTransformationConfig.RejectExpressionsConfig(StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT))
                 .addFailedAttribute(subsystemAddress.append(FilePassivationStoreResourceDefinition.INSTANCE.getPathElement()),
-                        new FailedOperationTransformationConfig.RejectExpressionsConfig(FilePassivationStoreResourceDefinition.IDLE_TIMEOUT_UNIT))
+                        new FailedOperationTransformationConfig.ChainedConfig(fileStore))
                 .addFailedAttribute(subsystemAddress.append(ClusterPassivationStoreResourceDefinition.INSTANCE.getPathElement()),
                         new FailedOperationTransformationConfig.RejectExpressionsConfig(ClusterPassivationStoreResourceDefinition.IDLE_TIMEOUT_UNIT))
                 .addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH),
-                        new FailedOperationTransformationConfig.RejectExpressionsConfig(TimerServiceResourceDefinition.PATH))
+                        new FailedOperationTransformationConfig.ChainedConfig(timerService))
                 .addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.REMOTE_SERVICE_PATH, ChannelCreationOptionResource.INSTANCE.getPathElement()),
                         new FailedOperationTransformationConfig.RejectExpressionsConfig(ChannelCreationOptionResource.CHANNEL_CREATION_OPTION_VALUE));
     }
@@ -0,0 +1,247 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.scheduler.ExecutorTimeoutTask;
+import org.jboss.as.ejb3.timerservice.scheduler.ScheduledTimeout;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutTask;
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimingWheelScheduler}.
+ */
+public class TimingWheelSchedulerTestCase {
+
+    private TimingWheelScheduler scheduler;
+
+    @Before
+    public void before() {
+        scheduler = new TimingWheelScheduler(1, TimeUnit.MILLISECONDS);
+        scheduler.start();
+    }
+
+    @After
+    public void after() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testExpiresNotBeforeDeadline() throws Exception {
+        // the delays span the first two levels of the wheel
+        final long[] delays = {0, 5, 50, 255, 256, 300, 700};
+        final CountDownLatch latch = new CountDownLatch(delays.length);
+        final Map<Long, Long> actual = Collections.synchronizedMap(new HashMap<Long, Long>());
+        final long start = System.currentTimeMillis();
+        for (final long delay : delays) {
+            scheduler.schedule(new TimeoutTask() {
+                @Override
+                public void expire(final long scheduledTime) {
+                    actual.put(delay, System.currentTimeMillis() - start);
+                    latch.countDown();
+                }
+            }, delay, 0);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (final long delay : delays) {
+            assertTrue("timeout with delay " + delay + " expired after " + actual.get(delay), actual.get(delay) >= delay);
+        }
+    }
+
+    @Test
+    public void testScheduledTimeIsReported() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] scheduled = new long[1];
+        final long expected = System.currentTimeMillis() + 20;
+        scheduler.schedule(new TimeoutTask() {
+            @Override
+            public void expire(final long scheduledTime) {
+                scheduled[0] = scheduledTime;
+                latch.countDown();
+            }
+        }, 20, 0);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(Math.abs(scheduled[0] - expected) <= 5);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final TimeoutTask task = new TimeoutTask() {
+            @Override
+            public void expire(final long scheduledTime) {
+                count.incrementAndGet();
+            }
+        };
+        final ScheduledTimeout pending = scheduler.schedule(task, 50, 0);
+        final ScheduledTimeout placed = scheduler.schedule(task, 400, 0);
+        assertTrue(pending.cancel());
+        Thread.sleep(100);
+        assertTrue(placed.cancel());
+        assertFalse(placed.cancel());
+        Thread.sleep(500);
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void testFixedRate() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final ScheduledTimeout timeout = scheduler.schedule(new TimeoutTask() {
+            @Override
+            public void expire(final long scheduledTime) {
+                latch.countDown();
+            }
+        }, 0, 10);
+        final long start = System.currentTimeMillis();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 40);
+        assertTrue(timeout.cancel());
+    }
+
+    @Test
+    public void testManyTimeouts() throws Exception {
+        final int count = 100000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final TimeoutTask task = new TimeoutTask() {
+            @Override
+            public void expire(final long scheduledTime) {
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule(task, i % 500, 0);
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTasksSharingAnExecutorAreBatched() throws Exception {
+        final int count = 100;
+        final ExecutorService threads = Executors.newFixedThreadPool(4);
+        final AtomicInteger submitted = new AtomicInteger();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                submitted.incrementAndGet();
+                threads.execute(command);
+            }
+        };
+        final AtomicInteger expired = new AtomicInteger();
+        final CountDownLatch ran = new CountDownLatch(count);
+        // all timeouts are picked up with the first tick of a wheel started after they have been scheduled
+        final TimingWheelScheduler wheel = new TimingWheelScheduler(1, TimeUnit.MILLISECONDS);
+        try {
+            for (int i = 0; i < count; i++) {
+                wheel.schedule(new TestTask(executor) {
+                    @Override
+                    public void expired(final long scheduledTime) {
+                        expired.incrementAndGet();
+                    }
+
+                    @Override
+                    public void run() {
+                        ran.countDown();
+                    }
+                }, 0, 0);
+            }
+            wheel.start();
+            assertTrue(ran.await(10, TimeUnit.SECONDS));
+            assertEquals(count, expired.get());
+            final int processors = Runtime.getRuntime().availableProcessors();
+            assertTrue(submitted.get() + " submissions", submitted.get() <= Math.max(processors, (count + 15) / 16));
+        } finally {
+            wheel.shutdown();
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedBatch() throws Exception {
+        final int count = 10;
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        final AtomicInteger ran = new AtomicInteger();
+        final CountDownLatch rejected = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule(new TestTask(executor) {
+                @Override
+                public void run() {
+                    ran.incrementAndGet();
+                }
+
+                @Override
+                public void rejected() {
+                    rejected.countDown();
+                }
+            }, 0, 0);
+        }
+        assertTrue(rejected.await(10, TimeUnit.SECONDS));
+        assertEquals(0, ran.get());
+    }
+
+    private abstract static class TestTask implements ExecutorTimeoutTask {
+        private final Executor executor;
+
+        TestTask(final Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void expire(final long scheduledTime) {
+            throw new AssertionError("the wheel batches executor tasks");
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        @Override
+        public void expired(final long scheduledTime) {
+        }
+
+        @Override
+        public void rejected() {
+        }
+    }
+}
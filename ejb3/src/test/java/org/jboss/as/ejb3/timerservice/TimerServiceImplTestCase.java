@@ -0,0 +1,46 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2010, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the backoff of {@link TimerServiceImpl} when a timer expiration cannot be claimed.
+ */
+public class TimerServiceImplTestCase {
+
+    @Test
+    public void testClaimRetryDelayDoubles() {
+        assertEquals(TimerServiceImpl.CLAIM_RETRY_DELAY, TimerServiceImpl.getClaimRetryDelay(1));
+        assertEquals(2 * TimerServiceImpl.CLAIM_RETRY_DELAY, TimerServiceImpl.getClaimRetryDelay(2));
+        assertEquals(4 * TimerServiceImpl.CLAIM_RETRY_DELAY, TimerServiceImpl.getClaimRetryDelay(3));
+    }
+
+    @Test
+    public void testClaimRetryDelayIsCapped() {
+        assertEquals(TimerServiceImpl.MAX_CLAIM_RETRY_DELAY, TimerServiceImpl.getClaimRetryDelay(7));
+        assertEquals(TimerServiceImpl.MAX_CLAIM_RETRY_DELAY, TimerServiceImpl.getClaimRetryDelay(64));
+        assertEquals(TimerServiceImpl.MAX_CLAIM_RETRY_DELAY, TimerServiceImpl.getClaimRetryDelay(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2010, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimerTable} against an in-memory H2 database.
+ */
+public class TimerTableTestCase {
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+    private TimerTable table;
+
+    @Before
+    public void before() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:timers");
+        // the in-memory database lives as long as a connection to it is open
+        keepAlive = dataSource.getConnection();
+        table = new TimerTable(dataSource, DatabaseTimerPersistence.DEFAULT_TABLE_NAME);
+        table.create();
+    }
+
+    @After
+    public void after() throws Exception {
+        final Statement statement = keepAlive.createStatement();
+        statement.execute("DROP ALL OBJECTS");
+        statement.close();
+        keepAlive.close();
+    }
+
+    @Test
+    public void testCreateIsIdempotent() throws Exception {
+        table.create();
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        table.write(rows(row("t1", 10L, 1), row("t2", 20L, 2)), none(), Collections.<String>emptyList());
+        assertArrayEquals(new byte[] {1}, table.load("t1", "bean"));
+        assertArrayEquals(new byte[] {2}, table.load("t2", "bean"));
+        assertNull(table.load("t1", "other"));
+
+        table.write(none(), rows(row("t1", 11L, 3)), Collections.singletonList("t2"));
+        assertArrayEquals(new byte[] {3}, table.load("t1", "bean"));
+        assertNull(table.load("t2", "bean"));
+
+        // an update of a timer that has been removed does not bring it back
+        table.write(none(), rows(row("t2", 21L, 4)), Collections.<String>emptyList());
+        assertNull(table.load("t2", "bean"));
+
+        // a new timer that already has a row is updated
+        table.write(rows(row("t1", 12L, 5)), none(), Collections.<String>emptyList());
+        assertArrayEquals(new byte[] {5}, table.load("t1", "bean"));
+    }
+
+    @Test
+    public void testPaging() throws Exception {
+        final List<TimerTable.Row> rows = new ArrayList<TimerTable.Row>();
+        for (int i = 0; i < 250; i++) {
+            rows.add(row("t" + (1000 + i), (long) i, i));
+        }
+        table.write(rows, none(), Collections.<String>emptyList());
+
+        final Set<String> ids = new HashSet<String>();
+        String last = null;
+        int pages = 0;
+        List<TimerTable.Row> page;
+        do {
+            page = table.loadPage("bean", null, last, 100);
+            for (TimerTable.Row row : page) {
+                assertTrue(ids.add(row.id));
+                last = row.id;
+            }
+            pages++;
+        } while (page.size() == 100);
+        assertEquals(250, ids.size());
+        assertEquals(3, pages);
+        assertTrue(table.loadPage("other", null, null, 100).isEmpty());
+    }
+
+    @Test
+    public void testTableName() throws Exception {
+        final TimerTable custom = new TimerTable(dataSource, "CUSTOM_TIMER");
+        custom.create();
+        custom.write(rows(row("t1", 10L, 1)), none(), Collections.<String>emptyList());
+        assertArrayEquals(new byte[] {1}, custom.load("t1", "bean"));
+        assertNull(table.load("t1", "bean"));
+    }
+
+    @Test
+    public void testPagingByPrimaryKey() throws Exception {
+        final List<TimerTable.Row> rows = new ArrayList<TimerTable.Row>();
+        for (int i = 0; i < 30; i++) {
+            rows.add(new TimerTable.Row("t" + (100 + i), "bean", i % 3, (long) i, "ACTIVE", new byte[] {(byte) i}));
+        }
+        rows.add(row("t200", 0L, 0));
+        table.write(rows, none(), Collections.<String>emptyList());
+
+        final Set<String> ids = new HashSet<String>();
+        String last = null;
+        List<TimerTable.Row> page;
+        do {
+            page = table.loadPage("bean", 1, last, 4);
+            for (TimerTable.Row row : page) {
+                assertEquals(1, Integer.parseInt(row.id.substring(1)) % 3);
+                assertTrue(ids.add(row.id));
+                last = row.id;
+            }
+        } while (page.size() == 4);
+        assertEquals(10, ids.size());
+        assertTrue(table.loadPage("bean", 5, null, 4).isEmpty());
+        assertTrue(table.loadPage("other", 1, null, 4).isEmpty());
+        // timers without a primary key are only loaded with all timers of the bean
+        assertEquals(31, table.loadPage("bean", null, null, 100).size());
+    }
+
+    @Test
+    public void testClaim() throws Exception {
+        table.write(rows(row("t1", 10L, 1)), none(), Collections.<String>emptyList());
+        assertTrue(table.claim("t1", 10L, 20L, "IN_TIMEOUT"));
+        // the expiration has been claimed already
+        assertFalse(table.claim("t1", 10L, 20L, "IN_TIMEOUT"));
+        assertTrue(table.claim("t1", 20L, null, "IN_TIMEOUT"));
+        assertFalse(table.claim("t1", 20L, null, "IN_TIMEOUT"));
+        assertFalse(table.claim("unknown", 10L, 20L, "IN_TIMEOUT"));
+    }
+
+    @Test
+    public void testClaimDoesNotWaitForTheStore() throws Exception {
+        table.write(rows(row("t1", 10L, 1)), none(), Collections.<String>emptyList());
+        final AtomicInteger failures = new AtomicInteger(1);
+        final TimerTable failing = new TimerTable(failingDataSource(failures), DatabaseTimerPersistence.DEFAULT_TABLE_NAME);
+        try {
+            failing.claim("t1", 10L, 20L, "IN_TIMEOUT");
+            fail("The claim should have failed");
+        } catch (SQLException expected) {
+        }
+        // the timer tries again later, the same claim then succeeds
+        assertTrue(failing.claim("t1", 10L, 20L, "IN_TIMEOUT"));
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testClaimReportsPersistentFailure() throws Exception {
+        table.write(rows(row("t1", 10L, 1)), none(), Collections.<String>emptyList());
+        final AtomicInteger failures = new AtomicInteger(Integer.MAX_VALUE);
+        final TimerTable failing = new TimerTable(failingDataSource(failures), DatabaseTimerPersistence.DEFAULT_TABLE_NAME);
+        try {
+            failing.claim("t1", 10L, 20L, "IN_TIMEOUT");
+            fail("The claim should have failed");
+        } catch (SQLException expected) {
+        }
+        // the failure is not taken as a claim by another node, the expiration can still be claimed
+        assertTrue(table.claim("t1", 10L, 20L, "IN_TIMEOUT"));
+    }
+
+    /**
+     * Nodes racing for the same expirations never run the same expiration twice.
+     */
+    @Test
+    public void testConcurrentClaims() throws Exception {
+        table.write(rows(row("t1", 0L, 1)), none(), Collections.<String>emptyList());
+        final int nodes = 4;
+        final int expirations = 200;
+        final AtomicInteger claimed = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int n = 0; n < nodes; n++) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (long i = 0; i < expirations; i++) {
+                            if (table.claim("t1", i, i + 1, "IN_TIMEOUT")) {
+                                claimed.incrementAndGet();
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(claimed.get() > 0);
+        // every successful claim moved the expiration on by one, so none of them has been claimed twice
+        assertTrue(table.claim("t1", claimed.get(), claimed.get() + 1L, "IN_TIMEOUT"));
+    }
+
+    /**
+     * A datasource whose connections fail as long as there are failures left.
+     */
+    private DataSource failingDataSource(final AtomicInteger failures) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                if (method.getName().equals("getConnection") && failures.getAndDecrement() > 0) {
+                    throw new SQLException("Connection refused");
+                }
+                try {
+                    return method.invoke(dataSource, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    private static TimerTable.Row row(final String id, final Long nextDate, final int data) {
+        return new TimerTable.Row(id, "bean", null, nextDate, "ACTIVE", new byte[] {(byte) data});
+    }
+
+    private static List<TimerTable.Row> rows(final TimerTable.Row... rows) {
+        final List<TimerTable.Row> result = new ArrayList<TimerTable.Row>();
+        Collections.addAll(result, rows);
+        return result;
+    }
+
+    private static List<TimerTable.Row> none() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2010, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private File directory;
+
+    @Before
+    public void before() throws Exception {
+        directory = File.createTempFile("timer-journal", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void after() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        TimerJournal journal = new TimerJournal(directory);
+        journal.open();
+        journal.put("bean", "t1", new byte[] {1});
+        journal.put("bean", "t2", new byte[] {2});
+        journal.put("bean", "t1", new byte[] {3});
+        journal.put("other", "t3", new byte[] {4});
+        journal.remove("bean", "t2");
+        journal.close();
+
+        journal = new TimerJournal(directory);
+        journal.open();
+        final Map<String, byte[]> timers = journal.getTimers("bean");
+        assertEquals(1, timers.size());
+        assertArrayEquals(new byte[] {3}, timers.get("t1"));
+        assertArrayEquals(new byte[] {4}, journal.getTimers("other").get("t3"));
+        assertTrue(journal.getTimers("unknown").isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void testTornRecordIsDiscarded() throws Exception {
+        TimerJournal journal = new TimerJournal(directory);
+        journal.open();
+        journal.put("bean", "t1", new byte[] {1});
+        journal.close();
+
+        // a record of which only the header made it to disk
+        final File segment = segments()[0];
+        final FileOutputStream out = new FileOutputStream(segment, true);
+        out.write(new byte[] {0, 0, 0, 100, 1, 2, 3});
+        out.close();
+        final long length = segment.length();
+
+        journal = new TimerJournal(directory);
+        journal.open();
+        assertArrayEquals(new byte[] {1}, journal.getTimers("bean").get("t1"));
+        journal.put("bean", "t2", new byte[] {2});
+        journal.close();
+        assertEquals(length - 7, segment.length());
+
+        journal = new TimerJournal(directory);
+        journal.open();
+        assertEquals(2, journal.getTimers("bean").size());
+        journal.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1024, 100);
+        journal.open();
+        for (int i = 0; i < 1000; i++) {
+            journal.put("bean", "t" + (i % 10), new byte[] {(byte) i});
+        }
+        assertEquals(10, journal.getLiveRecordCount());
+        journal.close();
+        // without compaction the journal would take up well over 10 segments of 1k
+        assertTrue(segments().length < 10);
+
+        journal = new TimerJournal(directory, 1024, 100);
+        journal.open();
+        final Map<String, byte[]> timers = journal.getTimers("bean");
+        assertEquals(10, timers.size());
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(new byte[] {(byte) (990 + i)}, timers.get("t" + i));
+        }
+        journal.close();
+    }
+
+    /**
+     * A segment which cannot be deleted after compaction must not bring back the timers removed before.
+     */
+    @Test
+    public void testCompactionKeepsUndeletableSegment() throws Exception {
+        final List<File> kept = new ArrayList<File>();
+        TimerJournal journal = new TimerJournal(directory, 1024 * 1024, 100) {
+            @Override
+            boolean deleteSegment(final File segment) {
+                // only the first segment cannot be deleted
+                if (kept.isEmpty() || kept.contains(segment)) {
+                    kept.add(segment);
+                    return false;
+                }
+                return super.deleteSegment(segment);
+            }
+        };
+        journal.open();
+        for (int i = 0; i < 200; i++) {
+            journal.put("bean", "t" + i, new byte[] {(byte) i});
+        }
+        for (int i = 0; i < 190; i++) {
+            journal.remove("bean", "t" + i);
+        }
+        journal.close();
+        assertTrue(kept.size() > 1);
+        assertTrue(kept.get(0).exists());
+
+        journal = new TimerJournal(directory);
+        journal.open();
+        final Map<String, byte[]> timers = journal.getTimers("bean");
+        assertEquals(10, timers.size());
+        for (int i = 190; i < 200; i++) {
+            assertArrayEquals(new byte[] {(byte) i}, timers.get("t" + i));
+        }
+        journal.close();
+    }
+
+    /**
+     * Many threads writing at the same time share the forces to disk.
+     */
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory);
+        journal.open();
+        final int threads = 16;
+        final int writes = 200;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final List<Thread> writers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            final String timedObjectId = "bean" + i;
+            writers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < writes; j++) {
+                            journal.put(timedObjectId, "t" + (j % 5), new byte[] {(byte) j});
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        // writes waiting at the same time are forced to disk together
+        assertTrue(journal.getForceCount() < threads * writes);
+        journal.close();
+
+        final TimerJournal replayed = new TimerJournal(directory);
+        replayed.open();
+        for (int i = 0; i < threads; i++) {
+            final Map<String, byte[]> timers = replayed.getTimers("bean" + i);
+            assertEquals(5, timers.size());
+            assertArrayEquals(new byte[] {(byte) (writes - 1)}, timers.get("t" + ((writes - 1) % 5)));
+        }
+        replayed.close();
+    }
+
+    private File[] segments() {
+        return directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.endsWith(".journal");
+            }
+        });
+    }
+}
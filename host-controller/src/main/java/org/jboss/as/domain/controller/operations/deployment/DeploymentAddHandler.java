@@ -98,7 +98,7 @@ public class DeploymentAddHandler implements OperationStepHandler {
 
         byte[] hash = null;
 
-        if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
+        if (contentItemNode.hasDefined(CONTENT_HASH.getName()) && !DeploymentHandlerUtils.hasContentStreamDefined(contentItemNode)) {
             hash = contentItemNode.require(CONTENT_HASH.getName()).asBytes();
             // If we are the master, validate that we actually have this content. If we're not the master
             // we do not need the content until it's added to a server group we care about, so we defer
@@ -125,7 +125,7 @@ public class DeploymentAddHandler implements OperationStepHandler {
             InputStream in = DeploymentHandlerUtils.getInputStream(context, contentItemNode);
             try {
                 try {
-                    hash = contentRepository.addContent(in);
+                    hash = DeploymentHandlerUtils.addContent(contentRepository, in, contentItemNode);
                 } catch (IOException e) {
                     throw createFailureException(e.toString());
                 }
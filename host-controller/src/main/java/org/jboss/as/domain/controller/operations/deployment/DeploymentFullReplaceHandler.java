@@ -90,7 +90,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
         ModelNode content = operation.require(CONTENT);
         // TODO: JBAS-9020: for the moment overlays are not supported, so there is a single content item
         ModelNode contentItemNode = content.require(0);
-        if (contentItemNode.hasDefined(HASH)) {
+        if (contentItemNode.hasDefined(HASH) && !DeploymentHandlerUtils.hasContentStreamDefined(contentItemNode)) {
             hash = contentItemNode.require(HASH).asBytes();
             if (contentRepository != null) {
                 // We are the master DC. Validate that we actually have this content.
@@ -111,7 +111,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
             InputStream in = DeploymentHandlerUtils.getInputStream(context, contentItemNode);
             try {
                 try {
-                    hash = contentRepository.addContent(in);
+                    hash = DeploymentHandlerUtils.addContent(contentRepository, in, contentItemNode);
                 } catch (IOException e) {
                     throw createFailureException(e.toString());
                 }
@@ -72,6 +72,9 @@ public class JacORBExtension implements Extension {
                 MANAGEMENT_API_MINOR_VERSION, MANAGEMENT_API_MICRO_VERSION);
         final ManagementResourceRegistration subsystemRegistration = subsystem.registerSubsystemModel(JacORBSubsystemResource.INSTANCE);
         subsystemRegistration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
+        if (context.isRuntimeOnlyRegistrationValid()) {
+            StubStrategyMetricsHandler.INSTANCE.registerMetrics(subsystemRegistration);
+        }
         subsystem.registerXMLElementWriter(PARSER);
 
         if (context.isRegisterTransformers()) {
@@ -99,6 +99,12 @@ public final class JacORBSubsystemConstants {
     public static final String PROPERTY_KEY = "key";
     public static final String PROPERTY_VALUE = "value";
 
+    // runtime metrics.
+
+    public static final String STUB_STRATEGIES_CREATED = "stub-strategies-created";
+    public static final String STUB_STRATEGY_CACHE_HITS = "stub-strategy-cache-hits";
+    public static final String STUB_STRATEGY_CREATION_TIME = "stub-strategy-creation-time";
+
     // constants for common org.omg properties.
     public static final String ORB_ADDRESS = "OAIAddr";
     public static final String ORB_PORT = "OAPort";
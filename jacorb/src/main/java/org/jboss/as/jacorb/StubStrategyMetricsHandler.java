@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jacorb;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.jacorb.rmi.marshal.strategy.StubStrategy;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler for the metrics of the marshalling strategies built for IIOP stubs.
+ */
+public class StubStrategyMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final SimpleAttributeDefinition STUB_STRATEGIES_CREATED = new SimpleAttributeDefinitionBuilder(
+            JacORBSubsystemConstants.STUB_STRATEGIES_CREATED, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STUB_STRATEGY_CACHE_HITS = new SimpleAttributeDefinitionBuilder(
+            JacORBSubsystemConstants.STUB_STRATEGY_CACHE_HITS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STUB_STRATEGY_CREATION_TIME = new SimpleAttributeDefinitionBuilder(
+            JacORBSubsystemConstants.STUB_STRATEGY_CREATION_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final StubStrategyMetricsHandler INSTANCE = new StubStrategyMetricsHandler();
+
+    private StubStrategyMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+        if (JacORBSubsystemConstants.STUB_STRATEGIES_CREATED.equals(name)) {
+            context.getResult().set(StubStrategy.getCreatedCount());
+        } else if (JacORBSubsystemConstants.STUB_STRATEGY_CACHE_HITS.equals(name)) {
+            context.getResult().set(StubStrategy.getCacheHitCount());
+        } else if (JacORBSubsystemConstants.STUB_STRATEGY_CREATION_TIME.equals(name)) {
+            context.getResult().set(StubStrategy.getCreationTime());
+        }
+        context.stepCompleted();
+    }
+
+    void registerMetrics(final ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(STUB_STRATEGIES_CREATED, this);
+        resourceRegistration.registerMetric(STUB_STRATEGY_CACHE_HITS, this);
+        resourceRegistration.registerMetric(STUB_STRATEGY_CREATION_TIME, this);
+    }
+}
@@ -49,6 +49,19 @@ import org.omg.CORBA_2_3.portable.OutputStream;
  * @author <a href="mailto:reverbel@ime.usp.br">Francisco Reverbel</a>
  */
 public class CDRStream {
+
+    /**
+     * Class specific readers, keyed by abbreviated name.
+     */
+    private static final ClassLoaderCache<String, CDRStreamReader> readers =
+            new ClassLoaderCache<String, CDRStreamReader>();
+
+    /**
+     * Class specific writers, keyed by abbreviated name.
+     */
+    private static final ClassLoaderCache<String, CDRStreamWriter> writers =
+            new ClassLoaderCache<String, CDRStreamWriter>();
+
     /**
      * Returns the abbreviated name of the marshaller for given
      * <code>Class</code>.
@@ -133,8 +146,21 @@ public class CDRStream {
     /**
      * Returns a <code>CDRStreamReader</code> given an abbreviated name
      * and a <code>ClassLoader</code> for valuetype classes.
+     * <p/>
+     * Readers that are specific to a class are cached per class loader.
      */
     public static CDRStreamReader readerFor(String s, ClassLoader cl) {
+        if (cl == null || !isClassSpecific(s)) {
+            return createReaderFor(s, cl);
+        }
+        CDRStreamReader reader = readers.get(cl, s);
+        if (reader == null) {
+            reader = readers.putIfAbsent(cl, s, createReaderFor(s, cl));
+        }
+        return reader;
+    }
+
+    private static CDRStreamReader createReaderFor(String s, ClassLoader cl) {
         switch (s.charAt(0)) {
 
             case 'A':
@@ -197,8 +223,21 @@ public class CDRStream {
     /**
      * Returns a <code>CDRStreamWriter</code> given an abbreviated name
      * and a <code>ClassLoader</code> for valuetype classes.
+     * <p/>
+     * Writers that are specific to a class are cached per class loader.
      */
     public static CDRStreamWriter writerFor(String s, ClassLoader cl) {
+        if (cl == null || !isClassSpecific(s)) {
+            return createWriterFor(s, cl);
+        }
+        CDRStreamWriter writer = writers.get(cl, s);
+        if (writer == null) {
+            writer = writers.putIfAbsent(cl, s, createWriterFor(s, cl));
+        }
+        return writer;
+    }
+
+    private static CDRStreamWriter createWriterFor(String s, ClassLoader cl) {
         switch (s.charAt(0)) {
 
             case 'A':
@@ -350,6 +389,16 @@ public class CDRStream {
 
     // Private -----------------------------------------------------------------
 
+    /**
+     * Returns true if the marshaller for an abbreviated name needs a class
+     * to be loaded, which is the case of valuetypes, IDL interfaces and
+     * remote interfaces.
+     */
+    private static boolean isClassSpecific(String s) {
+        char c = s.charAt(0);
+        return c == 'L' || c == 'N' || c == 'R';
+    }
+
     // Static inner classes (all of them private) ------------------------------
 
     /**
@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jacorb.rmi.marshal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of marshalling objects resolved against a given <code>ClassLoader</code>.
+ * <p/>
+ * Class loaders are held weakly, so the entries of an undeployed application
+ * go away together with its class loader. Values are held weakly as well, because
+ * they usually reference classes of that same class loader and would otherwise keep
+ * it reachable; a value stays cached for as long as a stub or skeleton uses it.
+ * <p/>
+ * Lookups take no lock. Entries whose class loader or value has been collected
+ * are removed by the next access to the cache. The class loader passed to it must
+ * not be null.
+ *
+ * @param <K> the key type within a class loader
+ * @param <V> the cached value type
+ */
+public final class ClassLoaderCache<K, V> {
+
+    private final ConcurrentMap<Object, ConcurrentMap<K, ValueReference<K, V>>> cache =
+            new ConcurrentHashMap<Object, ConcurrentMap<K, ValueReference<K, V>>>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    /**
+     * Returns the value cached for a key in the given <code>ClassLoader</code>,
+     * or null if there is none.
+     */
+    public V get(ClassLoader cl, K key) {
+        expungeStaleEntries();
+        final ConcurrentMap<K, ValueReference<K, V>> values = cache.get(new LookupKey(cl));
+        if (values == null) {
+            return null;
+        }
+        final ValueReference<K, V> ref = values.get(key);
+        if (ref == null) {
+            return null;
+        }
+        final V value = ref.get();
+        if (value == null) {
+            values.remove(key, ref);
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value for a key in the given <code>ClassLoader</code>.
+     *
+     * @return the value now cached for the key, which is the given value unless
+     *         another thread has cached one first
+     */
+    public V putIfAbsent(ClassLoader cl, K key, V value) {
+        expungeStaleEntries();
+        final ConcurrentMap<K, ValueReference<K, V>> values = valuesFor(cl);
+        final ValueReference<K, V> ref = new ValueReference<K, V>(value, key, values, queue);
+        for (; ; ) {
+            final ValueReference<K, V> existing = values.putIfAbsent(key, ref);
+            if (existing == null) {
+                return value;
+            }
+            final V existingValue = existing.get();
+            if (existingValue != null) {
+                return existingValue;
+            }
+            if (values.replace(key, existing, ref)) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of class loaders with cached values.
+     */
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the number of values cached in the given <code>ClassLoader</code>.
+     */
+    int size(ClassLoader cl) {
+        final ConcurrentMap<K, ValueReference<K, V>> values = cache.get(new LookupKey(cl));
+        return values == null ? 0 : values.size();
+    }
+
+    private ConcurrentMap<K, ValueReference<K, V>> valuesFor(ClassLoader cl) {
+        final ConcurrentMap<K, ValueReference<K, V>> values = cache.get(new LookupKey(cl));
+        if (values != null) {
+            return values;
+        }
+        final ConcurrentMap<K, ValueReference<K, V>> newValues = new ConcurrentHashMap<K, ValueReference<K, V>>();
+        final ConcurrentMap<K, ValueReference<K, V>> existing = cache.putIfAbsent(new ClassLoaderReference(cl, queue), newValues);
+        return existing == null ? newValues : existing;
+    }
+
+    private void expungeStaleEntries() {
+        Reference<?> ref;
+        while ((ref = queue.poll()) != null) {
+            if (ref instanceof ClassLoaderReference) {
+                cache.remove(ref);
+            } else {
+                ((ValueReference<?, ?>) ref).expunge();
+            }
+        }
+    }
+
+    /**
+     * Key of the entries of a class loader, which does not keep it reachable.
+     * Equal to the {@link LookupKey} of the same class loader.
+     */
+    private static final class ClassLoaderReference extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        ClassLoaderReference(ClassLoader cl, ReferenceQueue<Object> queue) {
+            super(cl, queue);
+            this.hash = System.identityHashCode(cl);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            final ClassLoader cl = get();
+            if (obj instanceof LookupKey) {
+                return ((LookupKey) obj).cl == cl;
+            }
+            return cl != null && obj instanceof ClassLoaderReference && ((ClassLoaderReference) obj).get() == cl;
+        }
+    }
+
+    /**
+     * Key used to look up the entries of a class loader, which lives no longer than the lookup.
+     * A cleared {@link ClassLoaderReference} never equals it, because the class loader is
+     * still reachable through it.
+     */
+    private static final class LookupKey {
+        final ClassLoader cl;
+
+        LookupKey(ClassLoader cl) {
+            this.cl = cl;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(cl);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof ClassLoaderReference) {
+                return ((ClassLoaderReference) obj).get() == cl;
+            }
+            return obj instanceof LookupKey && ((LookupKey) obj).cl == cl;
+        }
+    }
+
+    /**
+     * Reference to a cached value, which removes its entry once the value is collected.
+     */
+    private static final class ValueReference<K, V> extends WeakReference<V> {
+        private final K key;
+        private final ConcurrentMap<K, ValueReference<K, V>> values;
+
+        ValueReference(V value, K key, ConcurrentMap<K, ValueReference<K, V>> values, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+            this.values = values;
+        }
+
+        void expunge() {
+            values.remove(key, this);
+        }
+    }
+}
@@ -24,11 +24,13 @@ package org.jboss.as.jacorb.rmi.marshal.strategy;
 import java.rmi.NoSuchObjectException;
 import java.rmi.Remote;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.rmi.UnexpectedException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.rmi.PortableRemoteObject;
 
@@ -40,6 +42,7 @@ import org.omg.CORBA_2_3.portable.InputStream;
 import org.omg.CORBA_2_3.portable.OutputStream;
 
 import org.jboss.as.jacorb.rmi.marshal.CDRStream;
+import org.jboss.as.jacorb.rmi.marshal.ClassLoaderCache;
 import org.jboss.as.jacorb.rmi.marshal.CDRStreamReader;
 import org.jboss.as.jacorb.rmi.marshal.CDRStreamWriter;
 
@@ -48,12 +51,25 @@ import org.jboss.as.jacorb.rmi.marshal.CDRStreamWriter;
  * the sequence of method parameters into a CDR output stream, how to unmarshal
  * from a CDR input stream the return value of the method, and how to unmarshal
  * from a CDR input stream an application exception thrown by the method.
+ * <p/>
+ * Strategies are immutable, so the ones built by {@link #forMethod} are cached
+ * per class loader and shared by all stubs with the same method signature.
  *
  * @author <a href="mailto:reverbel@ime.usp.br">Francisco Reverbel</a>
  * @version $Revision: 81018 $
  */
 public class StubStrategy {
 
+    /**
+     * Strategies already built, keyed by method signature.
+     */
+    private static final ClassLoaderCache<Signature, StubStrategy> strategies =
+            new ClassLoaderCache<Signature, StubStrategy>();
+
+    private static final AtomicLong createdCount = new AtomicLong();
+    private static final AtomicLong cacheHitCount = new AtomicLong();
+    private static final AtomicLong creationTime = new AtomicLong();
+
     /**
      * Each <code>CDRStreamWriter</code> in the array marshals a method
      * parameter.
@@ -113,8 +129,53 @@ public class StubStrategy {
         // from a stub class dynamically assembled by an instance of
         // org.jboss.proxy.ProxyAssembler.
 
-        return new StubStrategy(paramTypes, excepIds,
+        if (cl == null) {
+            cl = Thread.currentThread().getContextClassLoader();
+        }
+        if (cl == null) {
+            return create(paramTypes, excepIds, excepTypes, retvalType, cl);
+        }
+        Signature signature = new Signature(paramTypes, excepIds, excepTypes, retvalType);
+        StubStrategy strategy = strategies.get(cl, signature);
+        if (strategy != null) {
+            cacheHitCount.incrementAndGet();
+            return strategy;
+        }
+        strategy = create(paramTypes, excepIds, excepTypes, retvalType, cl);
+        return strategies.putIfAbsent(cl, signature, strategy);
+    }
+
+    /**
+     * Returns the number of <code>StubStrategy</code> instances built so far.
+     */
+    public static long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Returns the number of stubs that reused a cached <code>StubStrategy</code>.
+     */
+    public static long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Returns the total time, in nanoseconds, spent building
+     * <code>StubStrategy</code> instances.
+     */
+    public static long getCreationTime() {
+        return creationTime.get();
+    }
+
+    private static StubStrategy create(String[] paramTypes, String[] excepIds,
+                                       String[] excepTypes, String retvalType,
+                                       ClassLoader cl) {
+        long start = System.nanoTime();
+        StubStrategy strategy = new StubStrategy(paramTypes, excepIds,
                 excepTypes, retvalType, cl);
+        creationTime.addAndGet(System.nanoTime() - start);
+        createdCount.incrementAndGet();
+        return strategy;
     }
 
 
@@ -360,4 +421,46 @@ public class StubStrategy {
 
     } // end of inner class ExceptionReader
 
+    /**
+     * The method signature a <code>StubStrategy</code> is built from.
+     */
+    private static final class Signature {
+        private final String[] paramTypes;
+        private final String[] excepIds;
+        private final String[] excepTypes;
+        private final String retvalType;
+        private final int hashCode;
+
+        Signature(String[] paramTypes, String[] excepIds,
+                  String[] excepTypes, String retvalType) {
+            this.paramTypes = paramTypes.clone();
+            this.excepIds = excepIds.clone();
+            this.excepTypes = excepTypes.clone();
+            this.retvalType = retvalType;
+            int h = Arrays.hashCode(this.paramTypes);
+            h = 31 * h + Arrays.hashCode(this.excepIds);
+            h = 31 * h + Arrays.hashCode(this.excepTypes);
+            this.hashCode = 31 * h + retvalType.hashCode();
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) o;
+            return hashCode == other.hashCode
+                    && retvalType.equals(other.retvalType)
+                    && Arrays.equals(paramTypes, other.paramTypes)
+                    && Arrays.equals(excepIds, other.excepIds)
+                    && Arrays.equals(excepTypes, other.excepTypes);
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+    } // end of inner class Signature
+
 }
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jacorb.rmi.marshal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ClassLoaderCacheTestCase {
+
+    private final ClassLoader loader = newClassLoader();
+
+    @Test
+    public void testPutIfAbsent() {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        Object first = new Object();
+        Object second = new Object();
+        assertNull(cache.get(loader, "key"));
+
+        assertSame(first, cache.putIfAbsent(loader, "key", first));
+        assertSame(first, cache.putIfAbsent(loader, "key", second));
+        assertSame(first, cache.get(loader, "key"));
+        assertNull(cache.get(loader, "other"));
+    }
+
+    @Test
+    public void testClassLoadersAreSeparate() {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        ClassLoader other = newClassLoader();
+        Object first = new Object();
+        Object second = new Object();
+
+        cache.putIfAbsent(loader, "key", first);
+        assertNull(cache.get(other, "key"));
+        assertSame(second, cache.putIfAbsent(other, "key", second));
+        assertSame(first, cache.get(loader, "key"));
+        assertSame(second, cache.get(other, "key"));
+    }
+
+    @Test
+    public void testUnusedValuesAreEvicted() {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        WeakReference<Object> ref = new WeakReference<Object>(cache.putIfAbsent(loader, "key", new Object()));
+
+        awaitCollection(ref);
+        assertNull(cache.get(loader, "key"));
+
+        // the cleared entry is replaced
+        Object value = new Object();
+        assertSame(value, cache.putIfAbsent(loader, "key", value));
+        assertSame(value, cache.get(loader, "key"));
+    }
+
+    @Test
+    public void testClearedValueIsRemovedOnLookup() {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        WeakReference<Object> ref = new WeakReference<Object>(cache.putIfAbsent(loader, "key", new Object()));
+        Object value = new Object();
+        cache.putIfAbsent(loader, "other", value);
+
+        awaitCollection(ref);
+        assertNull(cache.get(loader, "key"));
+        assertEquals(1, cache.size(loader));
+        assertSame(value, cache.get(loader, "other"));
+    }
+
+    @Test
+    public void testCollectedClassLoaderIsRemoved() {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        ClassLoader cl = newClassLoader();
+        cache.putIfAbsent(cl, "key", new Object[]{cl});
+        Object value = new Object();
+        cache.putIfAbsent(loader, "key", value);
+        assertEquals(2, cache.size());
+        WeakReference<ClassLoader> ref = new WeakReference<ClassLoader>(cl);
+        cl = null;
+
+        awaitCollection(ref);
+        for (int i = 0; i < 100 && cache.size() > 1; ++i) {
+            assertSame(value, cache.get(loader, "key"));
+            System.gc();
+        }
+        assertEquals(1, cache.size());
+        assertSame(value, cache.get(loader, "key"));
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsent() throws Exception {
+        final ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        final ClassLoader cl = newClassLoader();
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object>> results = new ArrayList<Future<Object>>();
+            for (int i = 0; i < threads; ++i) {
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        start.await();
+                        Object value = cache.get(cl, "key");
+                        return value != null ? value : cache.putIfAbsent(cl, "key", new Object());
+                    }
+                }));
+            }
+            start.countDown();
+            Object value = results.get(0).get();
+            for (Future<Object> result : results) {
+                assertSame(value, result.get());
+            }
+            assertEquals(1, cache.size());
+            assertEquals(1, cache.size(cl));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClassLoaderIsNotRetained() {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>();
+        ClassLoader cl = newClassLoader();
+        // cached values typically reference classes of their class loader
+        Object value = new Object[]{cl};
+        cache.putIfAbsent(cl, "key", value);
+        WeakReference<ClassLoader> ref = new WeakReference<ClassLoader>(cl);
+        cl = null;
+        value = null;
+
+        awaitCollection(ref);
+    }
+
+    static ClassLoader newClassLoader() {
+        return new URLClassLoader(new URL[0], ClassLoaderCacheTestCase.class.getClassLoader());
+    }
+
+    static void awaitCollection(WeakReference<?> ref) {
+        for (int i = 0; i < 100 && ref.get() != null; ++i) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (ref.get() != null) {
+            fail("the cache keeps " + ref.get() + " reachable");
+        }
+    }
+}
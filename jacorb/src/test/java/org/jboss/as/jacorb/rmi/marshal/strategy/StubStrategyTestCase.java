@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jacorb.rmi.marshal.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+public class StubStrategyTestCase {
+
+    private static final String[] NONE = new String[0];
+
+    private final ClassLoader loader = new URLClassLoader(new URL[0], StubStrategyTestCase.class.getClassLoader());
+
+    @Test
+    public void testStrategyIsReused() {
+        long created = StubStrategy.getCreatedCount();
+        long hits = StubStrategy.getCacheHitCount();
+        long time = StubStrategy.getCreationTime();
+
+        StubStrategy strategy = StubStrategy.forMethod(new String[]{"I", "G"}, NONE, NONE, "V", loader);
+        assertEquals(created + 1, StubStrategy.getCreatedCount());
+        assertEquals(hits, StubStrategy.getCacheHitCount());
+        assertTrue(StubStrategy.getCreationTime() > time);
+
+        assertSame(strategy, StubStrategy.forMethod(new String[]{"I", "G"}, new String[0], new String[0], "V", loader));
+        assertEquals(created + 1, StubStrategy.getCreatedCount());
+        assertEquals(hits + 1, StubStrategy.getCacheHitCount());
+    }
+
+    @Test
+    public void testSignature() {
+        String[] paramTypes = {"I", "G"};
+        StubStrategy strategy = StubStrategy.forMethod(paramTypes, NONE, NONE, "V", loader);
+        // the cache keeps its own copy of the signature
+        paramTypes[1] = "J";
+        assertSame(strategy, StubStrategy.forMethod(new String[]{"I", "G"}, NONE, NONE, "V", loader));
+
+        assertNotSame(strategy, StubStrategy.forMethod(new String[]{"I", "J"}, NONE, NONE, "V", loader));
+        assertNotSame(strategy, StubStrategy.forMethod(new String[]{"I"}, NONE, NONE, "V", loader));
+        assertNotSame(strategy, StubStrategy.forMethod(new String[]{"I", "G"}, NONE, NONE, "I", loader));
+    }
+
+    @Test
+    public void testClassLoadersAreSeparate() {
+        ClassLoader other = new URLClassLoader(new URL[0], StubStrategyTestCase.class.getClassLoader());
+        StubStrategy strategy = StubStrategy.forMethod(new String[]{"Z"}, NONE, NONE, "V", loader);
+        assertNotSame(strategy, StubStrategy.forMethod(new String[]{"Z"}, NONE, NONE, "V", other));
+    }
+
+    @Test
+    public void testContextClassLoader() {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            StubStrategy strategy = StubStrategy.forMethod(new String[]{"D"}, NONE, NONE, "V", null);
+            assertSame(strategy, StubStrategy.forMethod(new String[]{"D"}, NONE, NONE, "V", loader));
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    public void testUnusedStrategyIsEvicted() {
+        WeakReference<StubStrategy> ref = new WeakReference<StubStrategy>(
+                StubStrategy.forMethod(new String[]{"S"}, NONE, NONE, "V", loader));
+        for (int i = 0; i < 100 && ref.get() != null; ++i) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (ref.get() != null) {
+            fail("the cache keeps an unused strategy reachable");
+        }
+
+        long created = StubStrategy.getCreatedCount();
+        StubStrategy.forMethod(new String[]{"S"}, NONE, NONE, "V", loader);
+        assertEquals(created + 1, StubStrategy.getCreatedCount());
+    }
+}
@@ -30,7 +30,6 @@ import org.jboss.as.controller.ModelController;
 import org.jboss.as.jmx.model.ConfiguredDomains;
 import org.jboss.as.jmx.model.ModelControllerMBeanServerPlugin;
 import org.jboss.as.server.Services;
-import org.jboss.as.server.jmx.MBeanServerPlugin;
 import org.jboss.as.server.jmx.PluggableMBeanServer;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder.DependencyType;
@@ -58,7 +57,7 @@ public class MBeanServerService implements Service<PluggableMBeanServer> {
     private final InjectedValue<ModelController> modelControllerValue = new InjectedValue<ModelController>();
 
     private PluggableMBeanServer mBeanServer;
-    private MBeanServerPlugin showModelPlugin;
+    private ModelControllerMBeanServerPlugin showModelPlugin;
 
     private MBeanServerService(final String resolvedDomainName, final String expressionsDomainName, final boolean legacyWithProperPropertyFormat) {
         this.resolvedDomainName = resolvedDomainName;
@@ -92,6 +91,10 @@ public class MBeanServerService implements Service<PluggableMBeanServer> {
     /** {@inheritDoc} */
     public synchronized void stop(final StopContext context) {
         mBeanServer.removePlugin(showModelPlugin);
+        if (showModelPlugin != null) {
+            showModelPlugin.close();
+            showModelPlugin = null;
+        }
         mBeanServer = null;
     }
 
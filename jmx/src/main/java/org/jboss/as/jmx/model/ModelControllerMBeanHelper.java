@@ -24,10 +24,12 @@ package org.jboss.as.jmx.model;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
@@ -35,8 +37,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VAL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.jmx.JmxMessages.MESSAGES;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -53,15 +58,17 @@ import javax.management.ObjectName;
 import javax.management.QueryExp;
 import javax.management.ReflectionException;
 
+import org.jboss.as.controller.ModelChangeListener;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.ModelController.OperationTransactionControl;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
-import org.jboss.as.jmx.model.RootResourceIterator.ResourceAction;
 import org.jboss.as.server.operations.RootResourceHack;
 import org.jboss.as.server.operations.RootResourceHack.ResourceAndRegistration;
 import org.jboss.dmr.ModelNode;
@@ -80,12 +87,17 @@ public class ModelControllerMBeanHelper {
     private final TypeConverters converters;
     private final ConfiguredDomains configuredDomains;
     private final String domain;
+    private final ObjectNameIndex index;
+    /** Whether the controller keeps the index up to date */
+    private final boolean indexTracksModel;
+    private volatile ImmutableManagementResourceRegistration rootRegistration;
 
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain, ModelController controller) {
         this.converters = converters;
         this.configuredDomains = configuredDomains;
         this.domain = domain;
         this.controller = controller;
+        this.index = new ObjectNameIndex(domain, CORE_SERVICE_PLATFORM_MBEAN);
 
         ModelNode op = new ModelNode();
         op.get(OP).set(READ_ATTRIBUTE_OPERATION);
@@ -97,87 +109,85 @@ public class ModelControllerMBeanHelper {
             throw new IllegalStateException(error);
         }
         standalone = result.require(RESULT).asString().equals("STANDALONE");
+
+        indexTracksModel = controller instanceof ModelChangeListener.Registry;
+        if (indexTracksModel) {
+            ((ModelChangeListener.Registry) controller).addModelChangeListener(index);
+        }
     }
 
-    int getMBeanCount() {
-        return new RootResourceIterator<Integer>(getRootResourceAndRegistration().getResource(), new ResourceAction<Integer>() {
-            int count;
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                count++;
-                return true;
-            }
+    /**
+     * Stops keeping the index up to date.
+     */
+    void close() {
+        if (indexTracksModel) {
+            ((ModelChangeListener.Registry) controller).removeModelChangeListener(index);
+        }
+    }
 
-            public Integer getResult() {
-                return count;
-            }
-        }).iterate();
+    int getMBeanCount() {
+        return getIndex().size();
     }
 
     Set<ObjectInstance> queryMBeans(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectInstance>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectInstance>>() {
-            Set<ObjectInstance> set = new HashSet<ObjectInstance>();
-
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(domain, address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(new ObjectInstance(resourceName, CLASS_NAME));
-                }
-                return true;
-            }
-
-            @Override
-            public Set<ObjectInstance> getResult() {
-                return set;
-            }
-        }).iterate();
+        final Set<ObjectInstance> set = new HashSet<ObjectInstance>();
+        for (ObjectName resourceName : queryNames(name, query)) {
+            set.add(new ObjectInstance(resourceName, CLASS_NAME));
+        }
+        return set;
     }
 
     Set<ObjectName> queryNames(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectName>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectName>>() {
-            Set<ObjectName> set = new HashSet<ObjectName>();
-
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(domain, address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(resourceName);
-                }
-                return true;
+        final ObjectNameIndex nameIndex = getIndex();
+        final Set<ObjectName> set = new HashSet<ObjectName>();
+        if (name != null && !name.isPattern()) {
+            final ObjectNameIndex.Entry entry = nameIndex.get(name);
+            if (entry != null) {
+                //TODO check query
+                set.add(entry.getName());
             }
-
-            @Override
-            public Set<ObjectName> getResult() {
-                return set;
+            return set;
+        }
+        for (ObjectNameIndex.Entry entry : nameIndex.getEntries()) {
+            final ObjectName resourceName = entry.getName();
+            if (name == null || name.apply(resourceName)) {
+                //TODO check query
+                set.add(resourceName);
             }
-        }).iterate();
+        }
+        return set;
     }
 
 
     PathAddress resolvePathAddress(final ObjectName name) {
-        return ObjectNameAddressUtil.resolvePathAddress(domain, getRootResourceAndRegistration().getResource(), name);
+        final ObjectNameIndex.Entry entry = getIndex().get(name);
+        if (entry != null) {
+            return entry.getAddress();
+        }
+        return ObjectNameAddressUtil.resolvePathAddress(domain, getModel(), name);
     }
 
 
     MBeanInfo getMBeanInfo(final ObjectName name) throws InstanceNotFoundException {
-        ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        final ObjectNameIndex.Entry entry = getIndex().get(name);
+        if (entry != null) {
+            final ImmutableManagementResourceRegistration registration = getMBeanRegistration(entry.getAddress(), getRootRegistration());
+            final Object key = getRegistrationKey(registration);
+            MBeanInfo info = entry.getMBeanInfo(key);
+            if (info == null) {
+                info = MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, entry.getAddress(), registration);
+                entry.setMBeanInfo(key, info);
+            }
+            return info;
+        }
+
+        // not exposed by the queries, but still accessible
+        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, getModel(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
 
-        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, address, getMBeanRegistration(address, reg));
+        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, address, getMBeanRegistration(address, getRootRegistration()));
     }
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
@@ -195,10 +205,38 @@ public class ModelControllerMBeanHelper {
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
+        if (attributes.length < 2) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(reg, address, name, attribute)));
+                } catch (AttributeNotFoundException e) {
+                    throw new ReflectionException(e);
+                }
+            }
+            return list;
+        }
+
+        // read all attributes with a single operation
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg.getRegistration());
+        final ModelNode description = getModelDescription(registration, address);
+        final String[] attributeNames = new String[attributes.length];
+        boolean includeRuntime = false;
+        for (int i = 0; i < attributes.length; i++) {
+            try {
+                attributeNames[i] = findAttributeName(description.get(ATTRIBUTES), attributes[i]);
+            } catch (AttributeNotFoundException e) {
+                throw new ReflectionException(e);
+            }
+            includeRuntime |= isRuntimeAttribute(registration, attributeNames[i]);
+        }
+        final ModelNode values = readAttributes(address, includeRuntime);
         AttributeList list = new AttributeList();
-        for (String attribute : attributes) {
+        for (int i = 0; i < attributes.length; i++) {
+            final String attributeName = attributeNames[i];
             try {
-                list.add(new Attribute(attribute, getAttribute(reg, address, name, attribute)));
+                final ModelNode value = values != null && values.has(attributeName) ? values.get(attributeName) : readAttribute(address, attributeName);
+                list.add(new Attribute(attributes[i], converters.fromModelNode(description.require(ATTRIBUTES).require(attributeName), value)));
             } catch (AttributeNotFoundException e) {
                 throw new ReflectionException(e);
             }
@@ -207,14 +245,21 @@ public class ModelControllerMBeanHelper {
     }
 
     private Object getAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String attribute)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
-        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg.getRegistration());
+        final ModelNode description = getModelDescription(registration, address);
+        final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
+        return converters.fromModelNode(description.require(ATTRIBUTES).require(attributeName), readAttribute(address, attributeName));
+    }
+
+    private ModelNode getModelDescription(final ImmutableManagementResourceRegistration registration, final PathAddress address) throws InstanceNotFoundException {
         final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
         if (provider == null) {
             throw MESSAGES.descriptionProviderNotFound(address);
         }
-        final ModelNode description = provider.getModelDescription(null);
-        final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
+        return provider.getModelDescription(null);
+    }
 
+    private ModelNode readAttribute(final PathAddress address, final String attributeName) throws AttributeNotFoundException {
         ModelNode op = new ModelNode();
         op.get(OP).set(READ_ATTRIBUTE_OPERATION);
         op.get(OP_ADDR).set(address.toModelNode());
@@ -224,8 +269,30 @@ public class ModelControllerMBeanHelper {
         if (error != null) {
             throw new AttributeNotFoundException(error);
         }
+        return result.get(RESULT);
+    }
 
-        return converters.fromModelNode(description.require(ATTRIBUTES).require(attributeName), result.get(RESULT));
+    /**
+     * Reads the attributes of a resource with a single {@code read-resource} operation.
+     *
+     * @return the attribute values or {@code null} if they could not be read, in which case the attributes have to be
+     *         read one by one
+     */
+    private ModelNode readAttributes(final PathAddress address, final boolean includeRuntime) {
+        ModelNode op = new ModelNode();
+        op.get(OP).set(READ_RESOURCE_OPERATION);
+        op.get(OP_ADDR).set(address.toModelNode());
+        op.get(INCLUDE_RUNTIME).set(includeRuntime);
+        ModelNode result = execute(op);
+        if (getFailureDescription(result) != null || !result.hasDefined(RESULT)) {
+            return null;
+        }
+        return result.get(RESULT);
+    }
+
+    private boolean isRuntimeAttribute(final ImmutableManagementResourceRegistration registration, final String attributeName) {
+        final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+        return access == null || access.getStorageType() == AttributeAccess.Storage.RUNTIME;
     }
 
 
@@ -258,7 +325,7 @@ public class ModelControllerMBeanHelper {
     }
 
     private void setAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final Attribute attribute)  throws InvalidAttributeValueException, AttributeNotFoundException, InstanceNotFoundException {
-        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg.getRegistration());
         final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
         if (provider == null) {
             throw MESSAGES.descriptionProviderNotFound(address);
@@ -312,7 +379,7 @@ public class ModelControllerMBeanHelper {
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
-        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg.getRegistration());
 
         String realOperationName = null;
         OperationEntry opEntry = registration.getOperationEntry(PathAddress.EMPTY_ADDRESS, operationName);
@@ -398,6 +465,31 @@ public class ModelControllerMBeanHelper {
         return MESSAGES.mbeanNotFound(name);
     }
 
+    private ObjectNameIndex getIndex() {
+        if (!indexTracksModel) {
+            index.modelChanged(getRootResourceAndRegistration().getResource(), Collections.singleton(PathAddress.EMPTY_ADDRESS));
+        }
+        return index;
+    }
+
+    /**
+     * Gets the model for resolving addresses which are not in the index. Where the index tracks the model this is the
+     * published model, which is only read, rather than a copy.
+     */
+    private Resource getModel() {
+        return indexTracksModel ? index.getModel() : getRootResourceAndRegistration().getResource();
+    }
+
+    private ImmutableManagementResourceRegistration getRootRegistration() {
+        // the root registration is never replaced, only what is registered below it changes
+        ImmutableManagementResourceRegistration registration = rootRegistration;
+        if (registration == null) {
+            registration = RootResourceHack.INSTANCE.getRootRegistration(controller);
+            rootRegistration = registration;
+        }
+        return registration;
+    }
+
     private ResourceAndRegistration getRootResourceAndRegistration() {
         return RootResourceHack.INSTANCE.getRootResource(controller);
     }
@@ -406,9 +498,22 @@ public class ModelControllerMBeanHelper {
         return controller.execute(op, null, OperationTransactionControl.COMMIT, null);
     }
 
-    private ImmutableManagementResourceRegistration getMBeanRegistration(PathAddress address, ResourceAndRegistration reg) throws InstanceNotFoundException {
+    /**
+     * Describes what the MBeanInfo of a resource is built from. Attributes, operations and children can be registered
+     * while the server runs, so the key changes along with them.
+     */
+    private static Object getRegistrationKey(ImmutableManagementResourceRegistration registration) {
+        final List<Object> key = new ArrayList<Object>(4);
+        key.add(registration);
+        key.add(new HashSet<String>(registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)));
+        key.add(new HashSet<String>(registration.getOperationDescriptions(PathAddress.EMPTY_ADDRESS, false).keySet()));
+        key.add(new HashSet<PathElement>(registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)));
+        return key;
+    }
+
+    private ImmutableManagementResourceRegistration getMBeanRegistration(PathAddress address, ImmutableManagementResourceRegistration root) throws InstanceNotFoundException {
         //TODO Populate MBeanInfo
-        ImmutableManagementResourceRegistration resourceRegistration = reg.getRegistration().getSubModel(address);
+        ImmutableManagementResourceRegistration resourceRegistration = root.getSubModel(address);
         if (resourceRegistration == null) {
             throw MESSAGES.registrationNotFound(address);
         }
@@ -434,10 +539,6 @@ public class ModelControllerMBeanHelper {
         throw MESSAGES.attributeNotFound(attributeName);
     }
 
-    private boolean isExcludeAddress(PathAddress pathAddress) {
-        return pathAddress.equals(CORE_SERVICE_PLATFORM_MBEAN);
-    }
-
     public static ObjectName createRootObjectName(String domain) {
         try {
             return ObjectName.getInstance(domain, "management-root", "server");
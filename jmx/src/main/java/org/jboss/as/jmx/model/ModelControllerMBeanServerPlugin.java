@@ -71,6 +71,18 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
                 new ModelControllerMBeanHelper(TypeConverters.createExpressionTypeConverters(), configuredDomains, configuredDomains.getExprDomain(), controller) : null;
     }
 
+    /**
+     * Releases the resources of the plugin once it has been removed from the MBeanServer.
+     */
+    public void close() {
+        if (legacyHelper != null) {
+            legacyHelper.close();
+        }
+        if (exprHelper != null) {
+            exprHelper.close();
+        }
+    }
+
     @Override
     public boolean accepts(ObjectName objectName) {
         String domain = objectName.getDomain();
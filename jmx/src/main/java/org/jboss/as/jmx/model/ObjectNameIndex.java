@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jmx.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.ModelChangeListener;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.registry.Resource.ResourceEntry;
+
+/**
+ * Index of the ObjectNames of the resources in the model, which is kept up to date by the changes of the model.
+ * <p/>
+ * A change only walks the resources below the addresses it affects. Resources which are no longer there are dropped
+ * from the index, new ones are added and the entries of all others are kept as they are. Lookups do not block and
+ * never walk the model.
+ * <p/>
+ * Each entry also holds the {@link MBeanInfo} of its resource once it has been created, together with a key describing
+ * the registration it was created from. It is only handed out again for the same key, see {@link Entry#getMBeanInfo(Object)}.
+ */
+class ObjectNameIndex implements ModelChangeListener {
+
+    private final String domain;
+    private final PathAddress excludedAddress;
+    private final ConcurrentMap<ObjectName, Entry> entries = new ConcurrentHashMap<ObjectName, Entry>();
+    private final Entry root;
+    private volatile Resource model;
+
+    /**
+     * @param domain the domain of the ObjectNames
+     * @param excludedAddress the address of a subtree of the model which is not exposed
+     */
+    ObjectNameIndex(final String domain, final PathAddress excludedAddress) {
+        this.domain = domain;
+        this.excludedAddress = excludedAddress;
+        this.root = new Entry(PathAddress.EMPTY_ADDRESS, ObjectNameAddressUtil.createObjectName(domain, PathAddress.EMPTY_ADDRESS));
+    }
+
+    @Override
+    public synchronized void modelChanged(final Resource model, final Set<PathAddress> addresses) {
+        this.model = model;
+        for (PathAddress address : addresses) {
+            if (!isExcluded(address) && !hasAncestorIn(address, addresses)) {
+                update(address);
+            }
+        }
+    }
+
+    /**
+     * @return the number of resources in the index
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param name the ObjectName of a resource
+     * @return the entry of the resource or {@code null} if the model does not contain it
+     */
+    Entry get(final ObjectName name) {
+        return entries.get(name);
+    }
+
+    Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * @return the model the index was last brought up to date with or {@code null} if it has not been yet
+     */
+    Resource getModel() {
+        return model;
+    }
+
+    private boolean isExcluded(final PathAddress address) {
+        return address.size() >= excludedAddress.size() && address.subAddress(0, excludedAddress.size()).equals(excludedAddress);
+    }
+
+    private static boolean hasAncestorIn(final PathAddress address, final Set<PathAddress> addresses) {
+        for (int i = 0; i < address.size(); i++) {
+            if (addresses.contains(address.subAddress(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void update(final PathAddress address) {
+        if (address.size() == 0) {
+            index(root, model);
+            return;
+        }
+        final Resource resource = navigate(address);
+        final PathAddress parentAddress = address.subAddress(0, address.size() - 1);
+        final PathElement element = address.getLastElement();
+        final Entry parent = find(parentAddress);
+        if (resource == null) {
+            if (parent != null) {
+                final Entry removed = parent.children.remove(element);
+                if (removed != null) {
+                    remove(removed);
+                }
+            }
+        } else if (parent == null) {
+            // the parent was not indexed either
+            update(parentAddress);
+        } else {
+            index(parent, element, resource);
+        }
+    }
+
+    private void index(final Entry parent, final PathElement element, final Resource resource) {
+        Entry entry = parent.children.get(element);
+        if (entry == null) {
+            final PathAddress address = parent.address.append(element);
+            entry = new Entry(address, ObjectNameAddressUtil.createObjectName(domain, address));
+            parent.children.put(element, entry);
+        }
+        index(entry, resource);
+    }
+
+    private void index(final Entry entry, final Resource resource) {
+        entries.put(entry.name, entry);
+        final Set<PathElement> elements = new HashSet<PathElement>();
+        for (String type : resource.getChildTypes()) {
+            if (resource.hasChildren(type)) {
+                for (ResourceEntry child : resource.getChildren(type)) {
+                    final PathElement element = child.getPathElement();
+                    final Resource childResource = resource.getChild(element);
+                    if (childResource != null && !entry.address.append(element).equals(excludedAddress)) {
+                        elements.add(element);
+                        index(entry, element, childResource);
+                    }
+                }
+            }
+        }
+        final Iterator<Map.Entry<PathElement, Entry>> i = entry.children.entrySet().iterator();
+        while (i.hasNext()) {
+            final Map.Entry<PathElement, Entry> child = i.next();
+            if (!elements.contains(child.getKey())) {
+                i.remove();
+                remove(child.getValue());
+            }
+        }
+    }
+
+    private void remove(final Entry entry) {
+        entries.remove(entry.name, entry);
+        for (Entry child : entry.children.values()) {
+            remove(child);
+        }
+    }
+
+    private Resource navigate(final PathAddress address) {
+        Resource resource = model;
+        for (PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return null;
+            }
+        }
+        return resource;
+    }
+
+    private Entry find(final PathAddress address) {
+        Entry entry = root;
+        for (PathElement element : address) {
+            entry = entry.children.get(element);
+            if (entry == null) {
+                return null;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * A resource in the index.
+     */
+    static final class Entry {
+        private final PathAddress address;
+        private final ObjectName name;
+        /** Only used while the index is brought up to date */
+        private final Map<PathElement, Entry> children = new HashMap<PathElement, Entry>();
+        private volatile CachedMBeanInfo mbeanInfo;
+
+        private Entry(final PathAddress address, final ObjectName name) {
+            this.address = address;
+            this.name = name;
+        }
+
+        PathAddress getAddress() {
+            return address;
+        }
+
+        ObjectName getName() {
+            return name;
+        }
+
+        /**
+         * @param key describes the registration the MBeanInfo is created from
+         * @return the cached MBeanInfo or {@code null} if it has not been created yet or was created from a different
+         *         registration
+         */
+        MBeanInfo getMBeanInfo(final Object key) {
+            final CachedMBeanInfo cached = mbeanInfo;
+            return cached != null && cached.key.equals(key) ? cached.info : null;
+        }
+
+        void setMBeanInfo(final Object key, final MBeanInfo info) {
+            this.mbeanInfo = new CachedMBeanInfo(key, info);
+        }
+    }
+
+    private static final class CachedMBeanInfo {
+        private final Object key;
+        private final MBeanInfo info;
+
+        private CachedMBeanInfo(final Object key, final MBeanInfo info) {
+            this.key = key;
+            this.info = info;
+        }
+    }
+}
@@ -33,12 +33,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -51,6 +55,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -110,6 +115,7 @@ import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.subsystem.test.AbstractSubsystemTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.ControllerInitializer;
+import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceName;
@@ -148,6 +154,8 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
     private final static ObjectName EXPR_SUBSYSTEM_NAME = createObjectName(EXPR_DOMAIN + ":subsystem=jmx");
     private final static ObjectName EXPR_BAD_NAME = createObjectName(LEGACY_DOMAIN + ":type=bad");
 
+    private KernelServices kernelServices;
+
     public ModelControllerMBeanTestCase() {
         super(JMXExtension.SUBSYSTEM_NAME, new JMXExtension());
     }
@@ -759,6 +767,59 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
                 Collections.singletonList(9), 10, ModelType.INT);
     }
 
+    @Test
+    public void testReadAttributeListWithRuntimeAttributes() throws Exception {
+        MBeanServerConnection connection = setupAndGetConnection(new MBeanInfoAdditionalInitialization(TYPE_STANDALONE, new RuntimeAttributeExtension()));
+        final ObjectName name = createObjectName(LEGACY_DOMAIN + ":subsystem=test");
+        final AtomicInteger reads = RuntimeAttributeExtension.RUNTIME_READS;
+        reads.set(0);
+
+        // the configuration attributes do not need the runtime attribute to be read
+        AttributeList list = connection.getAttributes(name, new String[] {"configInt", "undefinedInt"});
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(1, assertGetFromList(Integer.class, list, "configInt").intValue());
+        Assert.assertNull(getFromList(list, "undefinedInt"));
+        Assert.assertEquals(1, assertCast(Integer.class, connection.getAttribute(name, "configInt")).intValue());
+        Assert.assertEquals(0, reads.get());
+
+        // all attributes are read with one operation, which reads the runtime attribute once
+        list = connection.getAttributes(name, new String[] {"configInt", "runtimeInt", "undefinedInt"});
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals(1, assertGetFromList(Integer.class, list, "configInt").intValue());
+        Assert.assertEquals(1, assertGetFromList(Integer.class, list, "runtimeInt").intValue());
+        Assert.assertNull(getFromList(list, "undefinedInt"));
+        Assert.assertEquals(1, reads.get());
+
+        list = connection.getAttributes(name, new String[] {"runtimeInt", "configInt"});
+        Assert.assertEquals(2, assertGetFromList(Integer.class, list, "runtimeInt").intValue());
+        Assert.assertEquals(3, assertCast(Integer.class, connection.getAttribute(name, "runtimeInt")).intValue());
+        Assert.assertEquals(3, reads.get());
+    }
+
+    @Test
+    public void testReadAttributeListAfterManagementWrite() throws Exception {
+        MBeanServerConnection connection = setupAndGetConnection(new MBeanInfoAdditionalInitialization(TYPE_STANDALONE, new RuntimeAttributeExtension()));
+        final ObjectName name = createObjectName(LEGACY_DOMAIN + ":subsystem=test");
+        final String[] attrNames = new String[] {"configInt", "undefinedInt"};
+
+        AttributeList list = connection.getAttributes(name, attrNames);
+        Assert.assertEquals(1, assertGetFromList(Integer.class, list, "configInt").intValue());
+        Assert.assertNull(getFromList(list, "undefinedInt"));
+
+        // written through the management model rather than through the MBean
+        ModelNode op = new ModelNode();
+        op.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        op.get(OP_ADDR).set(PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, "test")).toModelNode());
+        op.get(NAME).set("undefined-int");
+        op.get(VALUE).set(5);
+        Assert.assertEquals(SUCCESS, kernelServices.executeOperation(op).get(OUTCOME).asString());
+
+        list = connection.getAttributes(name, attrNames);
+        Assert.assertEquals(1, assertGetFromList(Integer.class, list, "configInt").intValue());
+        Assert.assertEquals(5, assertGetFromList(Integer.class, list, "undefinedInt").intValue());
+        Assert.assertEquals(5, assertCast(Integer.class, connection.getAttribute(name, "undefinedInt")).intValue());
+    }
+
     private void checkAttributeList(String[] attrNames, AttributeList list, int roInt, int i, BigInteger bi, BigDecimal bd, boolean b,
             byte[] bytes, double d, String s, List<Integer> lst, long l, ModelType type) {
         Assert.assertEquals(list.size(), attrNames.length);
@@ -1176,6 +1237,16 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
         return assertCast(clazz, value);
     }
 
+    private static Object getFromList(AttributeList list, String name) {
+        for (Attribute attr : list.asList()) {
+            if (attr.getName().equals(name)) {
+                return attr.getValue();
+            }
+        }
+        Assert.fail("No attribute " + name);
+        return null;
+    }
+
     private static <T> T assertCast(Class<T> clazz, Object value) {
         Assert.assertTrue("value " + value.getClass().getName() + " can not be changed to a " + clazz.getName(), clazz.isAssignableFrom(value.getClass()));
         return clazz.cast(value);
@@ -1202,7 +1273,7 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
                 + "<expose-expression-model/>"
                 + "<remoting-connector/>" + "</subsystem>"
                 + additionalInitialization.getExtraXml();
-        createKernelServicesBuilder(additionalInitialization).setSubsystemXml(subsystemXml).build();
+        kernelServices = createKernelServicesBuilder(additionalInitialization).setSubsystemXml(subsystemXml).build();
 
         // Make sure that we can connect to the MBean server
         String host = "localhost";
@@ -1566,6 +1637,63 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
         }
     }
 
+    static class RuntimeAttributeExtension implements Extension {
+
+        static final AtomicInteger RUNTIME_READS = new AtomicInteger();
+
+        @Override
+        public void initialize(ExtensionContext context) {
+            final SubsystemRegistration subsystem = context.registerSubsystem("test", 1, 0, 0);
+            final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(new DescriptionProvider() {
+
+                @Override
+                public ModelNode getModelDescription(Locale locale) {
+                    ModelNode node = new ModelNode();
+                    node.get(DESCRIPTION).set("A test subsystem");
+                    node.get(ATTRIBUTES, "config-int", TYPE).set(ModelType.INT);
+                    node.get(ATTRIBUTES, "config-int", DESCRIPTION).set("A configuration int");
+                    node.get(ATTRIBUTES, "undefined-int", TYPE).set(ModelType.INT);
+                    node.get(ATTRIBUTES, "undefined-int", DESCRIPTION).set("An undefined int");
+                    node.get(ATTRIBUTES, "runtime-int", TYPE).set(ModelType.INT);
+                    node.get(ATTRIBUTES, "runtime-int", DESCRIPTION).set("A runtime int");
+                    return node;
+                }
+            });
+            registration.registerOperationHandler(ADD, TestSubystemAdd.INSTANCE, TestSubystemAdd.INSTANCE, false);
+            registration.registerReadOnlyAttribute("config-int", null, Storage.CONFIGURATION);
+            registration.registerReadWriteAttribute("undefined-int", null, new WriteAttributeHandlers.ModelTypeValidatingHandler(ModelType.INT), Storage.CONFIGURATION);
+            registration.registerReadOnlyAttribute("runtime-int", new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    context.getResult().set(RUNTIME_READS.incrementAndGet());
+                    context.stepCompleted();
+                }
+            }, Storage.RUNTIME);
+        }
+
+        @Override
+        public void initializeParsers(ExtensionParsingContext context) {
+            context.setSubsystemXmlMapping("test", TestExtension.NAMESPACE, new TestExtension.TestExtensionParser());
+        }
+
+        static class TestSubystemAdd extends AbstractAddStepHandler implements DescriptionProvider {
+            static final TestSubystemAdd INSTANCE = new TestSubystemAdd();
+
+            @Override
+            protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+                model.get("config-int").set(1);
+            }
+
+            @Override
+            public ModelNode getModelDescription(Locale locale) {
+                ModelNode node = new ModelNode();
+                node.get(NAME).set(ADD);
+                node.get(DESCRIPTION).set("Add the test subsystem");
+                return node;
+            }
+        }
+    }
+
     static class SubsystemWithChildrenExtension implements Extension {
 
         static final String NAMESPACE = "urn:jboss:mbean.model.test";
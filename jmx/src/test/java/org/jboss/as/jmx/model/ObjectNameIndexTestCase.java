@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jmx.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ObjectNameIndex}.
+ */
+public class ObjectNameIndexTestCase {
+
+    private static final String DOMAIN = "jboss.as";
+    private static final PathElement EXCLUDED = PathElement.pathElement("core-service", "platform-mbean");
+    private static final PathElement SUBSYSTEM_ONE = PathElement.pathElement("subsystem", "one");
+    private static final PathElement SUBSYSTEM_TWO = PathElement.pathElement("subsystem", "two");
+    private static final PathElement CHILD = PathElement.pathElement("child", "a");
+    private static final PathElement OTHER_CHILD = PathElement.pathElement("child", "b");
+
+    private final ObjectNameIndex index = new ObjectNameIndex(DOMAIN, PathAddress.pathAddress(EXCLUDED));
+
+    @Test
+    public void testIndex() throws Exception {
+        final Resource root = createModel();
+        index.modelChanged(root, addresses(PathAddress.EMPTY_ADDRESS));
+
+        assertSame(root, index.getModel());
+        assertEquals(4, index.size());
+        final Set<ObjectName> names = new HashSet<ObjectName>();
+        for (ObjectNameIndex.Entry entry : index.getEntries()) {
+            names.add(entry.getName());
+        }
+        assertEquals(names.size(), index.size());
+        assertEquals(PathAddress.EMPTY_ADDRESS, index.get(ModelControllerMBeanHelper.createRootObjectName(DOMAIN)).getAddress());
+        assertEquals(PathAddress.pathAddress(SUBSYSTEM_ONE, CHILD), index.get(new ObjectName("jboss.as:subsystem=one,child=a")).getAddress());
+        assertNull(index.get(new ObjectName("jboss.as:core-service=platform-mbean")));
+        assertNull(index.get(new ObjectName("jboss.as:core-service=platform-mbean,type=runtime")));
+    }
+
+    @Test
+    public void testAddAndRemove() throws Exception {
+        final Resource root = createModel();
+        index.modelChanged(root, addresses(PathAddress.EMPTY_ADDRESS));
+        final ObjectNameIndex.Entry one = index.get(new ObjectName("jboss.as:subsystem=one"));
+
+        root.getChild(SUBSYSTEM_ONE).registerChild(OTHER_CHILD, Resource.Factory.create());
+        index.modelChanged(root, addresses(PathAddress.pathAddress(SUBSYSTEM_ONE, OTHER_CHILD)));
+        assertEquals(5, index.size());
+        assertNotNull(index.get(new ObjectName("jboss.as:subsystem=one,child=b")));
+        // addresses which were indexed already keep their entries
+        assertSame(one, index.get(new ObjectName("jboss.as:subsystem=one")));
+
+        root.getChild(SUBSYSTEM_ONE).removeChild(CHILD);
+        index.modelChanged(root, addresses(PathAddress.pathAddress(SUBSYSTEM_ONE, CHILD)));
+        assertEquals(4, index.size());
+        assertNull(index.get(new ObjectName("jboss.as:subsystem=one,child=a")));
+
+        // removing a resource drops its whole subtree
+        root.removeChild(SUBSYSTEM_ONE);
+        index.modelChanged(root, addresses(PathAddress.pathAddress(SUBSYSTEM_ONE)));
+        assertEquals(2, index.size());
+        assertNull(index.get(new ObjectName("jboss.as:subsystem=one,child=b")));
+    }
+
+    @Test
+    public void testOnlyChangedAddressesAreWalked() throws Exception {
+        final Resource root = createModel();
+        index.modelChanged(root, addresses(PathAddress.EMPTY_ADDRESS));
+
+        root.getChild(SUBSYSTEM_ONE).registerChild(OTHER_CHILD, Resource.Factory.create());
+        root.getChild(SUBSYSTEM_TWO).registerChild(OTHER_CHILD, Resource.Factory.create());
+        index.modelChanged(root, addresses(PathAddress.pathAddress(SUBSYSTEM_TWO)));
+        assertNull(index.get(new ObjectName("jboss.as:subsystem=one,child=b")));
+        assertNotNull(index.get(new ObjectName("jboss.as:subsystem=two,child=b")));
+
+        // changes below the excluded address are ignored
+        root.getChild(EXCLUDED).registerChild(PathElement.pathElement("type", "memory"), Resource.Factory.create());
+        index.modelChanged(root, addresses(PathAddress.pathAddress(EXCLUDED), PathAddress.pathAddress(EXCLUDED, PathElement.pathElement("type", "memory"))));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void testParentNotIndexed() throws Exception {
+        final Resource root = createModel();
+        index.modelChanged(root, addresses(PathAddress.EMPTY_ADDRESS));
+
+        final Resource three = Resource.Factory.create();
+        three.registerChild(CHILD, Resource.Factory.create());
+        root.registerChild(PathElement.pathElement("subsystem", "three"), three);
+        index.modelChanged(root, addresses(PathAddress.pathAddress(PathElement.pathElement("subsystem", "three"), CHILD)));
+        assertEquals(6, index.size());
+        assertNotNull(index.get(new ObjectName("jboss.as:subsystem=three")));
+        assertNotNull(index.get(new ObjectName("jboss.as:subsystem=three,child=a")));
+    }
+
+    @Test
+    public void testMBeanInfo() throws Exception {
+        final Resource root = createModel();
+        index.modelChanged(root, addresses(PathAddress.EMPTY_ADDRESS));
+        final ObjectNameIndex.Entry two = index.get(new ObjectName("jboss.as:subsystem=two"));
+        final MBeanInfo info = new MBeanInfo(ModelControllerMBeanHelper.CLASS_NAME, null, null, null, null, null);
+        assertNull(two.getMBeanInfo("registration"));
+        two.setMBeanInfo("registration", info);
+        assertSame(info, two.getMBeanInfo("registration"));
+        // the registration gained something since the MBeanInfo was created
+        assertNull(two.getMBeanInfo("changed registration"));
+
+        // the MBeanInfo is kept for as long as the resource is there
+        index.modelChanged(root, addresses(PathAddress.EMPTY_ADDRESS));
+        assertSame(info, index.get(new ObjectName("jboss.as:subsystem=two")).getMBeanInfo("registration"));
+        root.removeChild(SUBSYSTEM_TWO);
+        index.modelChanged(root, addresses(PathAddress.pathAddress(SUBSYSTEM_TWO)));
+        root.registerChild(SUBSYSTEM_TWO, Resource.Factory.create());
+        index.modelChanged(root, addresses(PathAddress.pathAddress(SUBSYSTEM_TWO)));
+        assertNull(index.get(new ObjectName("jboss.as:subsystem=two")).getMBeanInfo("registration"));
+    }
+
+    private static Set<PathAddress> addresses(PathAddress... addresses) {
+        final Set<PathAddress> set = new HashSet<PathAddress>();
+        Collections.addAll(set, addresses);
+        return set;
+    }
+
+    private static Resource createModel() {
+        final Resource root = Resource.Factory.create();
+        final Resource one = Resource.Factory.create();
+        one.registerChild(CHILD, Resource.Factory.create());
+        root.registerChild(SUBSYSTEM_ONE, one);
+        root.registerChild(SUBSYSTEM_TWO, Resource.Factory.create());
+        final Resource platform = Resource.Factory.create();
+        platform.registerChild(PathElement.pathElement("type", "runtime"), Resource.Factory.create());
+        root.registerChild(EXCLUDED, platform);
+        return root;
+    }
+}
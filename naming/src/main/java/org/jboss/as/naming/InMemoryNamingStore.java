@@ -32,12 +32,10 @@ import static org.jboss.as.naming.util.NamingUtils.nameNotFoundException;
 import static org.jboss.as.naming.util.NamingUtils.notAContextException;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -45,7 +43,6 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
-import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 import javax.naming.Reference;
 import javax.naming.event.EventContext;
@@ -58,19 +55,27 @@ import javax.naming.spi.ResolveResult;
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
  * nodes or binding nodes.  The context nodes are allowed to have children and can be represented by a NamingContext.  A
  * binding node is only allowed to have a normal object binding.
+ * <p/>
+ * The tree is immutable. A write copies the nodes on the path to the changed entry and publishes the new root with a
+ * compare-and-set, retrying if another write got in first, so readers never block and always see a consistent tree.
+ * Children are kept in sorted arrays, which lets a lookup walk the tree without allocating.
  *
  * @author John E. Bailey
  */
 public class InMemoryNamingStore implements WritableNamingStore {
 
-    /* The root node of the tree.  Represents a JNDI name of "" */
-    private final ContextNode root = new ContextNode(null, null, new CompositeName(), new NamingContext(this, null));
+    private static final String[] NO_NAMES = new String[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    /* The binding of the root node of the tree.  Represents a JNDI name of "" */
+    private final Binding rootBinding = new Binding("", Context.class.getName(), new NamingContext(this, null));
+
+    /* The root node of the current version of the tree */
+    private final AtomicReference<Node> root = new AtomicReference<Node>(new Node(new CompositeName(), rootBinding, NO_NAMES, NO_NODES));
 
     /* Naming Event Coordinator */
     private final NamingEventCoordinator eventCoordinator;
 
-    private final ReentrantLock writeLock = new ReentrantLock();
-
     /**
      * Construct instance with no event support.
      */
@@ -97,13 +102,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         if (isLastComponentEmpty(name)) {
             throw emptyNameException();
         }
-
-        writeLock.lock();
-        try {
-            root.accept(new BindVisitor(true, name, object, bindType.getName()));
-        } finally {
-            writeLock.unlock();
-        }
+        update(new Bind(name, object, bindType.getName()));
     }
 
     /** {@inheritDoc} */
@@ -116,13 +115,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         if (isLastComponentEmpty(name)) {
             throw emptyNameException();
         }
-
-        writeLock.lock();
-        try {
-            root.accept(new RebindVisitor(name, object, bindType.getName()));
-        } finally {
-            writeLock.unlock();
-        }
+        update(new Rebind(name, object, bindType.getName()));
     }
 
     /**
@@ -135,13 +128,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         if (isLastComponentEmpty(name)) {
             throw emptyNameException();
         }
-
-        writeLock.lock();
-        try {
-            root.accept(new UnbindVisitor(name));
-        } finally {
-            writeLock.unlock();
-        }
+        update(new Unbind(name));
     }
 
     /**
@@ -156,7 +143,18 @@ public class InMemoryNamingStore implements WritableNamingStore {
             final Name emptyName = new CompositeName("");
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
-        return root.accept(new LookupVisitor(name));
+        final int size = name.size();
+        Node node = root.get();
+        for (int i = 0; !isEnd(name, i, size); i++) {
+            if (node.isBinding()) {
+                final Name remainingName = name.getSuffix(node.fullName.size());
+                final Object boundObject = node.binding.getObject();
+                checkReferenceForContinuation(remainingName, boundObject);
+                return new ResolveResult(boundObject, remainingName);
+            }
+            node = node.getChild(name.get(i));
+        }
+        return node.binding.getObject();
     }
 
     @Override
@@ -174,7 +172,13 @@ public class InMemoryNamingStore implements WritableNamingStore {
      */
     public List<NameClassPair> list(final Name name) throws NamingException {
         final Name nodeName = name.isEmpty() ? new CompositeName("") : name;
-        return root.accept(new ListVisitor(nodeName));
+        final Node node = findContext(nodeName);
+        final List<NameClassPair> nameClassPairs = new ArrayList<NameClassPair>(node.children.length);
+        for (Node childNode : node.children) {
+            final Binding binding = childNode.binding;
+            nameClassPairs.add(new NameClassPair(binding.getName(), binding.getClassName(), true));
+        }
+        return nameClassPairs;
     }
 
     /**
@@ -185,15 +189,21 @@ public class InMemoryNamingStore implements WritableNamingStore {
      * @throws NamingException
      */
     public List<Binding> listBindings(final Name name) throws NamingException {
-        final Name nodeName = name.isEmpty() ? new CompositeName("") : name;
-        return root.accept(new ListBindingsVisitor(name));
+        final Node node = findContext(name);
+        final List<Binding> bindings = new ArrayList<Binding>(node.children.length);
+        for (Node childNode : node.children) {
+            bindings.add(childNode.binding);
+        }
+        return bindings;
     }
 
     public Context createSubcontext(final Name name) throws NamingException {
         if (isLastComponentEmpty(name)) {
             throw emptyNameException();
         }
-        return root.accept(new CreateSubContextVisitor(name));
+        final CreateSubcontext createSubcontext = new CreateSubcontext(name);
+        update(createSubcontext);
+        return createSubcontext.subContext;
     }
 
     /**
@@ -202,12 +212,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
      * @throws NamingException
      */
     public void close() throws NamingException {
-        writeLock.lock();
-        try {
-            root.clear();
-        } finally {
-            writeLock.unlock();
-        }
+        root.set(new Node(new CompositeName(), rootBinding, NO_NAMES, NO_NODES));
     }
 
     /**
@@ -236,7 +241,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
     }
 
-    private void fireEvent(final ContextNode contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
+    private void fireEvent(final Node contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
         final NamingEventCoordinator coordinator = eventCoordinator;
         if (eventCoordinator != null) {
             final Context context = Context.class.cast(contextNode.binding.getObject());
@@ -254,286 +259,282 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
     }
 
-    private abstract class TreeNode {
-        protected final Name fullName;
-        protected final Binding binding;
-
-        private TreeNode(final Name fullName, final Binding binding) {
-            this.fullName = fullName;
-            this.binding = binding;
-        }
-
-        protected abstract <T> T accept(NodeVisitor<T> visitor) throws NamingException;
+    /**
+     * Whether the traversal of a name is complete at the given component, which is the case at its end or if only a
+     * trailing empty component is left.
+     */
+    private static boolean isEnd(final Name name, final int index, final int size) {
+        return index == size || (index == size - 1 && name.get(index).isEmpty());
     }
 
-    private static final AtomicMapFieldUpdater<ContextNode, String, TreeNode> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ContextNode.class, Map.class, "children"));
-
-    private class ContextNode extends TreeNode {
-        volatile Map<String, TreeNode> children = Collections.emptyMap();
-        protected final String name;
-        protected final ContextNode parentNode;
-
-        private ContextNode(final ContextNode parentNode, final String name, final Name fullName, final NamingContext context) {
-            super(fullName, new Binding(getLastComponent(fullName), Context.class.getName(), context));
-            this.name = name;
-            this.parentNode = parentNode;
-        }
-
-        private void addChild(final String childName, final TreeNode childNode) throws NamingException {
-            if (childrenUpdater.putIfAbsent(this, childName, childNode) != null) {
-                throw nameAlreadyBoundException(fullName.add(childName));
+    /**
+     * Finds the context node of the given name, for listing its children.
+     */
+    private Node findContext(final Name name) throws NamingException {
+        final int size = name.size();
+        Node node = root.get();
+        for (int i = 0; !isEnd(name, i, size); i++) {
+            if (node.isBinding()) {
+                checkReferenceForContinuation(name.getSuffix(i), node.binding.getObject());
+                throw notAContextException(node.fullName);
             }
+            node = node.getChild(name.get(i));
         }
-
-        private TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
-            return childrenUpdater.put(this, childName, childNode);
+        if (node.isBinding()) {
+            checkReferenceForContinuation(new CompositeName(), node.binding.getObject());
+            throw notAContextException(name);
         }
+        return node;
+    }
 
-        private TreeNode removeChild(final String childName) throws NameNotFoundException {
-            TreeNode old = childrenUpdater.remove(this, childName);
-            if (old == null) {
-                throw nameNotFoundException(childName, fullName);
-            }
-            if(parentNode != null && children.isEmpty()) {
-                childrenUpdater.remove(parentNode, name);
+    /**
+     * Applies an update to the current tree and publishes the result, starting over if another update was published
+     * in the meantime.
+     */
+    private void update(final Update update) throws NamingException {
+        for (;;) {
+            final Node current = root.get();
+            final Node updated = update(current, update, 0);
+            if (root.compareAndSet(current, updated)) {
+                update.published();
+                return;
             }
-            return old;
-        }
-
-        private void clear() {
-            childrenUpdater.clear(this);
-        }
-
-        protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
-            return visitor.visit(this);
         }
+    }
 
-        public TreeNode addOrGetChild(final String childName, final TreeNode childNode) {
-            TreeNode appearing = childrenUpdater.putIfAbsent(this, childName, childNode);
-            return appearing == null ? childNode : appearing;
-        }
+    /**
+     * Walks down to the context which holds the target of the update and copies the nodes on the way back up.
+     */
+    private Node update(final Node contextNode, final Update update, final int index) throws NamingException {
+        final Name targetName = update.targetName;
+        final int size = targetName.size() - 1;
+        if (isEnd(targetName, index, size)) {
+            return update.apply(contextNode);
+        }
+        final String childName = targetName.get(index);
+        final int position = contextNode.indexOf(childName);
+        final Node child;
+        if (position >= 0) {
+            child = contextNode.children[position];
+            if (child.isBinding()) {
+                if (isEnd(targetName, index + 1, size)) {
+                    checkReferenceForContinuation(targetName.getSuffix(child.fullName.size()), child.binding.getObject());
+                    throw notAContextException(targetName);
+                }
+                checkReferenceForContinuation(targetName.getPrefix(size).getSuffix(index + 1), child.binding.getObject());
+                throw notAContextException(child.fullName);
+            }
+        } else if (update.createIfMissing) {
+            final Name childFullName = targetName.getPrefix(index + 1);
+            final NamingContext subContext = new NamingContext(childFullName, this, new Hashtable<String, Object>());
+            child = new Node(childFullName, new Binding(childName, Context.class.getName(), subContext), NO_NAMES, NO_NODES);
+        } else {
+            throw nameNotFoundException(childName, contextNode.fullName);
+        }
+        final Node updatedChild = update(child, update, index + 1);
+        if (update.removeEmptyContext && updatedChild.children.length == 0 && isEnd(targetName, index + 1, size)) {
+            // the context of an unbound entry goes away with its last entry
+            return contextNode.without(childName);
+        }
+        return contextNode.with(childName, updatedChild);
     }
 
-    private class BindingNode extends TreeNode {
-        private BindingNode(final Name fullName, final Binding binding) {
-            super(fullName, binding);
+    /**
+     * A node of the tree, either a context with children or a binding. Nodes are never modified once published.
+     */
+    private static final class Node {
+        private final Name fullName;
+        private final Binding binding;
+        /* sorted names of the children, null for a binding node */
+        private final String[] names;
+        private final Node[] children;
+
+        private Node(final Name fullName, final Binding binding, final String[] names, final Node[] children) {
+            this.fullName = fullName;
+            this.binding = binding;
+            this.names = names;
+            this.children = children;
         }
 
-        protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
-            return visitor.visit(this);
+        private Node(final Name fullName, final Binding binding) {
+            this(fullName, binding, null, NO_NODES);
         }
-    }
 
-    private interface NodeVisitor<T> {
-        T visit(BindingNode bindingNode) throws NamingException;
-
-        T visit(ContextNode contextNode) throws NamingException;
-    }
-
-    private abstract class NodeTraversingVisitor<T> implements NodeVisitor<T> {
-        private final boolean createIfMissing;
-        private Name currentName;
-        private Name traversedName;
-        protected final Name targetName;
-
-        protected NodeTraversingVisitor(final boolean createIfMissing, final Name targetName) {
-            this.createIfMissing = createIfMissing;
-            this.targetName = currentName = targetName;
-            this.traversedName = new CompositeName();
+        private boolean isBinding() {
+            return names == null;
         }
 
-        protected NodeTraversingVisitor(final Name targetName) {
-            this(false, targetName);
+        private int indexOf(final String childName) {
+            return Arrays.binarySearch(names, childName);
         }
 
-        public final T visit(final BindingNode bindingNode) throws NamingException {
-            if (isEmpty(currentName)) {
-                return found(bindingNode);
+        private Node getChild(final String childName) throws NamingException {
+            final int position = indexOf(childName);
+            if (position < 0) {
+                throw nameNotFoundException(childName, fullName);
             }
-            return foundReferenceInsteadOfContext(bindingNode);
+            return children[position];
         }
 
-        public final T visit(final ContextNode contextNode) throws NamingException {
-            if (isEmpty(currentName)) {
-                return found(contextNode);
-            }
-            final String childName = currentName.get(0);
-            traversedName.add(childName);
-            currentName = currentName.getSuffix(1);
-            final TreeNode node = contextNode.children.get(childName);
-            if (node == null) {
-                if (createIfMissing) {
-                    final NamingContext subContext = new NamingContext((Name)traversedName.clone(), InMemoryNamingStore.this, new Hashtable<String, Object>());
-                    return contextNode.addOrGetChild(childName, new ContextNode(contextNode, childName, (Name)traversedName.clone(), subContext)).accept(this);
-                } else {
-                    throw nameNotFoundException(childName, contextNode.fullName);
-                }
-            }
-            return node.accept(this);
+        private Node getChildOrNull(final String childName) {
+            final int position = indexOf(childName);
+            return position < 0 ? null : children[position];
         }
 
-        protected abstract T found(ContextNode contextNode) throws NamingException;
-
-        protected abstract T found(BindingNode bindingNode) throws NamingException;
-
-        protected T foundReferenceInsteadOfContext(BindingNode bindingNode) throws NamingException {
-            final Object object = bindingNode.binding.getObject();
-            checkReferenceForContinuation(currentName, object);
-            throw notAContextException(bindingNode.fullName);
+        /**
+         * @return a copy of this context with the given child added or replaced
+         */
+        private Node with(final String childName, final Node child) {
+            final int position = indexOf(childName);
+            if (position >= 0) {
+                if (children[position] == child) {
+                    return this;
+                }
+                final Node[] newChildren = children.clone();
+                newChildren[position] = child;
+                return new Node(fullName, binding, names, newChildren);
+            }
+            final int insert = -position - 1;
+            final String[] newNames = new String[names.length + 1];
+            final Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(names, 0, newNames, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            newNames[insert] = childName;
+            newChildren[insert] = child;
+            System.arraycopy(names, insert, newNames, insert + 1, names.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            return new Node(fullName, binding, newNames, newChildren);
+        }
+
+        /**
+         * @return a copy of this context without the given child
+         */
+        private Node without(final String childName) {
+            final int position = indexOf(childName);
+            if (position < 0) {
+                return this;
+            }
+            final String[] newNames = new String[names.length - 1];
+            final Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(names, 0, newNames, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(names, position + 1, newNames, position, names.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            return new Node(fullName, binding, newNames, newChildren);
         }
     }
 
-    private abstract class BindingContextVisitor<T> extends NodeTraversingVisitor<T> {
+    /**
+     * A change to the tree. {@link #apply(Node)} may be called more than once if concurrent updates interfere, so it
+     * only records what {@link #published()} needs to fire the events.
+     */
+    private abstract static class Update {
         protected final Name targetName;
+        protected final String childName;
+        private final boolean createIfMissing;
+        private final boolean removeEmptyContext;
 
-        protected BindingContextVisitor(final boolean createIfMissing, final Name targetName) {
-            super(createIfMissing, targetName.getPrefix(targetName.size() - 1));
-            this.targetName = targetName;
-        }
-
-        protected BindingContextVisitor(final Name targetName) {
-            this(false, targetName);
-        }
-
-        protected final T found(final ContextNode contextNode) throws NamingException {
-            return foundBindContext(contextNode);
+        private Update(final Name targetName, final boolean createIfMissing, final boolean removeEmptyContext) {
+            this.targetName = (Name) targetName.clone();
+            this.childName = getLastComponent(targetName);
+            this.createIfMissing = createIfMissing;
+            this.removeEmptyContext = removeEmptyContext;
         }
 
-        protected final T found(final BindingNode bindingNode) throws NamingException {
-            checkReferenceForContinuation(targetName.getSuffix(bindingNode.fullName.size()), bindingNode.binding.getObject());
-            throw notAContextException(targetName);
-        }
+        /**
+         * @param contextNode the context holding the target
+         * @return the updated context
+         */
+        protected abstract Node apply(Node contextNode) throws NamingException;
 
-        protected abstract T foundBindContext(final ContextNode contextNode) throws NamingException;
+        protected abstract void published();
     }
 
-    private final class BindVisitor extends BindingContextVisitor<Void> {
-        private final Object object;
-        private final String className;
+    private final class Bind extends Update {
+        private final Binding binding;
+        private Node contextNode;
 
-        private BindVisitor(final boolean createIfMissing, final Name name, final Object object, final String className) {
-            super(createIfMissing, name);
-            this.object = object;
-            this.className = className;
+        private Bind(final Name name, final Object object, final String className) {
+            super(name, true, false);
+            this.binding = new Binding(childName, className, object, true);
         }
 
-        protected Void foundBindContext(final ContextNode contextNode) throws NamingException {
-            final String childName = getLastComponent(targetName);
-            final Binding binding = new Binding(childName, className, object, true);
-            final BindingNode bindingNode = new BindingNode(targetName, binding);
-            contextNode.addChild(childName, bindingNode);
-            fireEvent(contextNode, targetName, null, binding, NamingEvent.OBJECT_ADDED, "bind");
-            return null;
+        protected Node apply(final Node contextNode) throws NamingException {
+            if (contextNode.getChildOrNull(childName) != null) {
+                throw nameAlreadyBoundException(targetName);
+            }
+            this.contextNode = contextNode;
+            return contextNode.with(childName, new Node(targetName, binding));
         }
-    }
-
-    private final class RebindVisitor extends BindingContextVisitor<Void> {
-        private final Object object;
-        private final String className;
 
-        private RebindVisitor(final Name name, final Object object, final String className) {
-            super(name);
-            this.object = object;
-            this.className = className;
+        protected void published() {
+            fireEvent(contextNode, targetName, null, binding, NamingEvent.OBJECT_ADDED, "bind");
         }
+    }
 
-        protected Void foundBindContext(final ContextNode contextNode) throws NamingException {
-            final String childName = getLastComponent(targetName);
-            final Binding binding = new Binding(childName, className, object, true);
-            final BindingNode bindingNode = new BindingNode(targetName, binding);
-            final TreeNode previous = contextNode.replaceChild(childName, bindingNode);
+    private final class Rebind extends Update {
+        private final Binding binding;
+        private Node contextNode;
+        private Binding previousBinding;
 
-            final Binding previousBinding = previous != null ? previous.binding : null;
-            fireEvent(contextNode, targetName, previousBinding, binding, previousBinding != null ? NamingEvent.OBJECT_CHANGED : NamingEvent.OBJECT_ADDED, "rebind");
-            return null;
+        private Rebind(final Name name, final Object object, final String className) {
+            super(name, false, false);
+            this.binding = new Binding(childName, className, object, true);
         }
-    }
 
-    private final class UnbindVisitor extends BindingContextVisitor<Void> {
-
-        private UnbindVisitor(final Name targetName) throws NamingException {
-            super(targetName);
+        protected Node apply(final Node contextNode) throws NamingException {
+            final Node previous = contextNode.getChildOrNull(childName);
+            this.contextNode = contextNode;
+            this.previousBinding = previous != null ? previous.binding : null;
+            return contextNode.with(childName, new Node(targetName, binding));
         }
 
-        protected Void foundBindContext(final ContextNode contextNode) throws NamingException {
-            final TreeNode previous = contextNode.removeChild(getLastComponent(targetName));
-            fireEvent(contextNode, targetName, previous.binding, null, NamingEvent.OBJECT_REMOVED, "unbind");
-            return null;
+        protected void published() {
+            fireEvent(contextNode, targetName, previousBinding, binding, previousBinding != null ? NamingEvent.OBJECT_CHANGED : NamingEvent.OBJECT_ADDED, "rebind");
         }
     }
 
-    private final class LookupVisitor extends NodeTraversingVisitor<Object> {
-        private LookupVisitor(final Name targetName) {
-            super(targetName);
-        }
+    private final class Unbind extends Update {
+        private Node contextNode;
+        private Binding previousBinding;
 
-        protected Object found(final ContextNode contextNode) throws NamingException {
-            return contextNode.binding.getObject();
+        private Unbind(final Name name) {
+            super(name, false, true);
         }
 
-        protected Object found(final BindingNode bindingNode) throws NamingException {
-            return bindingNode.binding.getObject();
+        protected Node apply(final Node contextNode) throws NamingException {
+            final Node previous = contextNode.getChild(childName);
+            this.contextNode = contextNode;
+            this.previousBinding = previous.binding;
+            return contextNode.without(childName);
         }
 
-        protected Object foundReferenceInsteadOfContext(final BindingNode bindingNode) throws NamingException {
-            final Name remainingName = targetName.getSuffix(bindingNode.fullName.size());
-            final Object boundObject = bindingNode.binding.getObject();
-            checkReferenceForContinuation(remainingName, boundObject);
-            return new ResolveResult(boundObject, remainingName);
+        protected void published() {
+            fireEvent(contextNode, targetName, previousBinding, null, NamingEvent.OBJECT_REMOVED, "unbind");
         }
     }
 
-    private final class ListVisitor extends NodeTraversingVisitor<List<NameClassPair>> {
-        private ListVisitor(final Name targetName) {
-            super(targetName);
-        }
-
-        protected List<NameClassPair> found(final ContextNode contextNode) throws NamingException {
-            final List<NameClassPair> nameClassPairs = new ArrayList<NameClassPair>();
-            for (TreeNode childNode : contextNode.children.values()) {
-                final Binding binding = childNode.binding;
-                nameClassPairs.add(new NameClassPair(binding.getName(), binding.getClassName(), true));
-            }
-            return nameClassPairs;
-        }
-
-        protected List<NameClassPair> found(final BindingNode bindingNode) throws NamingException {
-            checkReferenceForContinuation(new CompositeName(), bindingNode.binding.getObject());
-            throw notAContextException(targetName);
-        }
-    }
+    private final class CreateSubcontext extends Update {
+        private final NamingContext subContext;
+        private final Binding binding;
+        private Node contextNode;
 
-    private final class ListBindingsVisitor extends NodeTraversingVisitor<List<Binding>> {
-        private ListBindingsVisitor(final Name targetName) {
-            super(targetName);
+        private CreateSubcontext(final Name name) {
+            super(name, false, false);
+            this.subContext = new NamingContext(targetName, InMemoryNamingStore.this, new Hashtable<String, Object>());
+            this.binding = new Binding(childName, Context.class.getName(), subContext);
         }
 
-        protected List<Binding> found(final ContextNode contextNode) throws NamingException {
-            final List<Binding> bindings = new ArrayList<Binding>();
-            for (TreeNode childNode : contextNode.children.values()) {
-                bindings.add(childNode.binding);
+        protected Node apply(final Node contextNode) throws NamingException {
+            if (contextNode.getChildOrNull(childName) != null) {
+                throw nameAlreadyBoundException(targetName);
             }
-            return bindings;
-        }
-
-        protected List<Binding> found(final BindingNode bindingNode) throws NamingException {
-            checkReferenceForContinuation(new CompositeName(), bindingNode.binding.getObject());
-            throw notAContextException(targetName);
-        }
-    }
-
-    private final class CreateSubContextVisitor extends BindingContextVisitor<Context> {
-        private CreateSubContextVisitor(final Name targetName) throws NamingException {
-            super(targetName);
+            this.contextNode = contextNode;
+            return contextNode.with(childName, new Node(targetName, binding, NO_NAMES, NO_NODES));
         }
 
-        protected Context foundBindContext(ContextNode contextNode) throws NamingException {
-            final NamingContext subContext = new NamingContext(targetName, InMemoryNamingStore.this, new Hashtable<String, Object>());
-            final String childName = getLastComponent(targetName);
-            final ContextNode subContextNode = new ContextNode(contextNode, childName, targetName, subContext);
-            contextNode.addChild(getLastComponent(targetName), subContextNode);
-            fireEvent(contextNode, targetName, null, subContextNode.binding, NamingEvent.OBJECT_ADDED, "createSubcontext");
-            return subContext;
+        protected void published() {
+            fireEvent(contextNode, targetName, null, binding, NamingEvent.OBJECT_ADDED, "createSubcontext");
         }
     }
 }
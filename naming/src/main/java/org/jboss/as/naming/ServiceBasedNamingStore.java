@@ -30,7 +30,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -62,6 +65,18 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    /**
+     * Controllers of bound services, keyed by the name they were looked up with, so that repeated lookups skip building
+     * the service name and the registry lookup. Only bindings added to this store are cached, and only while they are
+     * bound. {@link ManagedReferenceFactory} values are still dereferenced on every lookup, as each lookup may yield a
+     * new instance.
+     */
+    private final ConcurrentMap<Name, CachedBinding> lookupCache = new ConcurrentHashMap<Name, CachedBinding>();
+    /**
+     * Incremented on every unbind, a cached binding is only valid for the generation it was resolved in.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -76,8 +91,27 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final CachedBinding cached = lookupCache.get(name);
+        if (cached != null) {
+            if (cached.generation == generation.get()) {
+                final Object obj = lookupCached(name, cached, dereference);
+                if (obj != null) {
+                    LookupCacheStatistics.getInstance().hit();
+                    return obj;
+                }
+            } else {
+                lookupCache.remove(name, cached);
+            }
+        }
+        LookupCacheStatistics.getInstance().miss();
+        final long currentGeneration = generation.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        final Object value = getValue(name.toString(), lookupName, controller);
+        if (value != null && boundServices.contains(lookupName)) {
+            cache(name, new CachedBinding(controller, currentGeneration));
+        }
+        Object obj = dereference ? dereference(name.toString(), value) : value;
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
@@ -122,19 +156,41 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
-        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
-        final Object object;
-        if (controller != null) {
-            try {
-                object = controller.getValue();
-            } catch (IllegalStateException e) {
-                //occurs if the service is not actually up
-                throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
-            }
-        } else {
+        final Object object = getValue(name, lookupName, serviceRegistry.getService(lookupName));
+        return dereference ? dereference(name, object) : object;
+    }
+
+    private Object getValue(final String name, final ServiceName lookupName, final ServiceController<?> controller) throws NamingException {
+        if (controller == null) {
+            return null;
+        }
+        try {
+            return controller.getValue();
+        } catch (IllegalStateException e) {
+            //occurs if the service is not actually up
+            throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
+        }
+    }
+
+    /**
+     * Looks up a cached binding. The value is still taken from the controller, so a binder service which is no longer
+     * up is noticed even before it unbinds.
+     *
+     * @return the bound object, or <code>null</code> if the full lookup has to decide
+     */
+    private Object lookupCached(final Name name, final CachedBinding cached, final boolean dereference) throws NamingException {
+        final Object value;
+        try {
+            value = cached.controller.getValue();
+        } catch (IllegalStateException e) {
+            lookupCache.remove(name, cached);
             return null;
         }
-        if (dereference && object instanceof ManagedReferenceFactory) {
+        return dereference ? dereference(name.toString(), value) : value;
+    }
+
+    private Object dereference(final String name, final Object object) throws NamingException {
+        if (object instanceof ManagedReferenceFactory) {
             try {
                 return ManagedReferenceFactory.class.cast(object).getReference().getInstance();
             } catch (Exception e) {
@@ -146,6 +202,15 @@ public class ServiceBasedNamingStore implements NamingStore {
         return object;
     }
 
+    private void cache(final Name name, final CachedBinding binding) {
+        final Name key = (Name) name.clone();
+        lookupCache.put(key, binding);
+        // an unbind may have cleared the cache while the binding was resolved
+        if (binding.generation != generation.get()) {
+            lookupCache.remove(key, binding);
+        }
+    }
+
     public List<NameClassPair> list(final Name name) throws NamingException {
         final ServiceName lookupName = buildServiceName(name);
         final ServiceName floor = boundServices.floor(lookupName);
@@ -243,6 +308,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        invalidateLookupCache();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -261,6 +327,12 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidateLookupCache();
+    }
+
+    private void invalidateLookupCache() {
+        generation.incrementAndGet();
+        lookupCache.clear();
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -313,4 +385,14 @@ public class ServiceBasedNamingStore implements NamingStore {
     protected ServiceRegistry getServiceRegistry() {
         return serviceRegistry;
     }
+
+    private static final class CachedBinding {
+        private final ServiceController<?> controller;
+        private final long generation;
+
+        private CachedBinding(final ServiceController<?> controller, final long generation) {
+            this.controller = controller;
+            this.generation = generation;
+        }
+    }
 }
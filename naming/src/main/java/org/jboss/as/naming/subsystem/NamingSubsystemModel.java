@@ -35,6 +35,8 @@ public interface NamingSubsystemModel {
     String CLASS = "class";
 
     String LOOKUP = "lookup";
+    String LOOKUP_CACHE_HITS = "lookup-cache-hits";
+    String LOOKUP_CACHE_MISSES = "lookup-cache-misses";
 
     String OBJECT_FACTORY = "object-factory";
     String OBJECT_FACTORY_ENV = "environment";
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.CompositeName;
+import javax.naming.Name;
+import javax.naming.NamingException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of the {@link InMemoryNamingStore}: lookups by four threads, a bind followed by an unbind,
+ * and lookups by three threads while a fourth keeps binding and unbinding. The store holds <code>bindings</code>
+ * entries spread over ten application contexts. Not run by the build; after <code>mvn test-compile</code> run it with:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jboss.as.naming.InMemoryNamingStoreBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InMemoryNamingStoreBenchmark {
+
+    @Param({ "100", "10000" })
+    public int bindings;
+
+    private InMemoryNamingStore store;
+    private Name lookupName;
+    private Name bindName;
+    private Object value;
+
+    @Setup
+    public void setup() throws NamingException {
+        this.store = new InMemoryNamingStore();
+        for (int i = 0; i < this.bindings; i++) {
+            this.store.bind(name(i), new Object());
+        }
+        this.lookupName = name(this.bindings / 2);
+        this.bindName = new CompositeName("app0/module/benchmark");
+        this.value = new Object();
+    }
+
+    @TearDown
+    public void tearDown() throws NamingException {
+        this.store.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object lookup() throws NamingException {
+        return this.store.lookup(this.lookupName);
+    }
+
+    @Benchmark
+    public void bindAndUnbind() throws NamingException {
+        this.store.bind(this.bindName, this.value);
+        this.store.unbind(this.bindName);
+    }
+
+    @Benchmark
+    @Group("lookupWhileBinding")
+    @GroupThreads(3)
+    public Object reader() throws NamingException {
+        return this.store.lookup(this.lookupName);
+    }
+
+    @Benchmark
+    @Group("lookupWhileBinding")
+    @GroupThreads(1)
+    public void writer() throws NamingException {
+        this.store.bind(this.bindName, this.value);
+        this.store.unbind(this.bindName);
+    }
+
+    private static Name name(final int i) throws NamingException {
+        return new CompositeName("app" + (i % 10) + "/module/bean" + i);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InMemoryNamingStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
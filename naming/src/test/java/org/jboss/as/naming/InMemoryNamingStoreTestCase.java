@@ -35,10 +35,16 @@ import javax.naming.NameClassPair;
 import javax.naming.NameNotFoundException;
 import javax.naming.Reference;
 import javax.naming.spi.ResolveResult;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -265,4 +271,113 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testConcurrentBindsInSameContext() throws Exception {
+        final int threadCount = 4;
+        final int bindsPerThread = 500;
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            final int thread = t;
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < bindsPerThread; i++) {
+                            nameStore.bind(new CompositeName("shared/t" + thread + "/item" + i), new Object());
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(threadCount, nameStore.list(new CompositeName("shared")).size());
+        for (int t = 0; t < threadCount; t++) {
+            assertEquals(bindsPerThread, nameStore.list(new CompositeName("shared/t" + t)).size());
+        }
+    }
+
+    /**
+     * Lookups keep resolving while a writer keeps binding and unbinding entries next to the looked up ones.
+     */
+    @Test
+    public void testLookupsWhileBinding() throws Exception {
+        final int contexts = 20;
+        final int entries = 50;
+        for (int i = 0; i < contexts; i++) {
+            for (int j = 0; j < entries; j++) {
+                nameStore.bind(new CompositeName("java:global/app" + i + "/bean" + j), new Object());
+            }
+        }
+        final Name[] names = new Name[contexts * entries];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new CompositeName("java:global/app" + (i % contexts) + "/bean" + (i % entries));
+        }
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong lookups = new AtomicLong();
+        final AtomicLong binds = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final int readerCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        final CountDownLatch done = new CountDownLatch(readerCount + 1);
+        final List<Thread> threads = new ArrayList<Thread>();
+        threads.add(new Thread(new Runnable() {
+            public void run() {
+                try {
+                    int i = 0;
+                    while (running.get()) {
+                        final Name name = new CompositeName("java:global/app" + (i % contexts) + "/extra");
+                        nameStore.bind(name, new Object());
+                        nameStore.unbind(name);
+                        binds.addAndGet(2);
+                        i++;
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    done.countDown();
+                }
+            }
+        }));
+        for (int r = 0; r < readerCount; r++) {
+            threads.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        int i = 0;
+                        long count = 0;
+                        while (running.get()) {
+                            assertNotNull(nameStore.lookup(names[i]));
+                            i = (i + 1) % names.length;
+                            count++;
+                        }
+                        lookups.addAndGet(count);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(1000);
+        running.set(false);
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(lookups.get() > 0);
+        assertTrue(binds.get() > 0);
+        for (int i = 0; i < contexts; i++) {
+            assertEquals(entries, nameStore.list(new CompositeName("java:global/app" + i)).size());
+        }
+    }
 }
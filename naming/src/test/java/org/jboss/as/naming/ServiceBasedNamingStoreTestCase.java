@@ -31,12 +31,15 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
+import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -98,6 +101,62 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupCache() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("cached", "bar");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        final LookupCacheStatistics statistics = LookupCacheStatistics.getInstance();
+        assertEquals(value, store.lookup(new CompositeName("cached/bar")));
+        final long hits = statistics.getHits();
+        assertEquals(value, store.lookup(new CompositeName("cached/bar")));
+        assertTrue(statistics.getHits() > hits);
+
+        // unbinding invalidates the cached binding
+        unbindObject(bindingName);
+        try {
+            store.lookup(new CompositeName("cached/bar"));
+            fail("Should have thrown name not found");
+        } catch (NameNotFoundException expected) {
+        }
+        final Object other = new Object();
+        bindObject(bindingName, other);
+        assertEquals(other, store.lookup(new CompositeName("cached/bar")));
+    }
+
+    @Test
+    public void testLookupCacheDereferencesFactories() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("cached", "factory");
+        final CountDownLatch latch = new CountDownLatch(1);
+        container.addService(bindingName, new Service<ManagedReferenceFactory>() {
+            public void start(StartContext context) throws StartException {
+                store.add(bindingName);
+                latch.countDown();
+            }
+
+            public void stop(StopContext context) {
+                store.remove(bindingName);
+            }
+
+            public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
+                return new ManagedReferenceFactory() {
+                    public ManagedReference getReference() {
+                        return new ValueManagedReference(Values.immediateValue(new Object()));
+                    }
+                };
+            }
+        }).install();
+        latch.await();
+
+        // each lookup still gets an instance of its own
+        final Object first = store.lookup(new CompositeName("cached/factory"));
+        final Object second = store.lookup(new CompositeName("cached/factory"));
+        assertNotNull(first);
+        assertNotNull(second);
+        assertTrue(first != second);
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -407,6 +466,7 @@ public class ServiceBasedNamingStoreTestCase {
             }
 
             public void stop(StopContext context) {
+                store.remove(serviceName);
             }
 
             public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
@@ -415,4 +475,18 @@ public class ServiceBasedNamingStoreTestCase {
         }).install();
         latch.await();
     }
+
+    private void unbindObject(final ServiceName serviceName) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ServiceController<?> controller = container.getRequiredService(serviceName);
+        controller.addListener(new AbstractServiceListener<Object>() {
+            public void transition(ServiceController<? extends Object> controller, ServiceController.Transition transition) {
+                if (transition.getAfter() == ServiceController.Substate.REMOVED) {
+                    latch.countDown();
+                }
+            }
+        });
+        controller.setMode(ServiceController.Mode.REMOVE);
+        latch.await();
+    }
 }
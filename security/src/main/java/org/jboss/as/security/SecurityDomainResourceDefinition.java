@@ -21,6 +21,7 @@
  */
 package org.jboss.as.security;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.security.Principal;
@@ -37,9 +38,13 @@ import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.OperationEntry.Flag;
+import org.jboss.as.security.plugins.AuthenticationCache;
+import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -58,6 +63,45 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    public static final SimpleAttributeDefinition CACHE_MAX_ENTRIES = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_ENTRIES, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_MAX_ENTRIES))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_CONCURRENCY_LEVEL = new SimpleAttributeDefinitionBuilder(Constants.CACHE_CONCURRENCY_LEVEL, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_CONCURRENCY_LEVEL))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_LIFESPAN = new SimpleAttributeDefinitionBuilder(Constants.CACHE_LIFESPAN, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(-1, Long.MAX_VALUE, true, true))
+            .setDefaultValue(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_LIFESPAN))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_MAX_IDLE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_IDLE, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(-1, Long.MAX_VALUE, true, true))
+            .setDefaultValue(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_MAX_IDLE))
+            .build();
+
+    /** Attributes added in version 1.2 of the management model */
+    static final SimpleAttributeDefinition[] CACHE_ATTRIBUTES = { CACHE_MAX_ENTRIES, CACHE_CONCURRENCY_LEVEL, CACHE_LIFESPAN, CACHE_MAX_IDLE };
+
+    public static final SimpleAttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HITS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_MISSES = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MISSES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_EVICTIONS = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTIONS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
 
     SecurityDomainResourceDefinition(boolean registerRuntimeOnly) {
@@ -68,7 +112,14 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
 
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
-
+        for (SimpleAttributeDefinition attribute : CACHE_ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, new SecurityDomainReloadWriteHandler(attribute));
+        }
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(CACHE_HITS, CacheStatisticsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_MISSES, CacheStatisticsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_EVICTIONS, CacheStatisticsHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -132,6 +183,37 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    static final class CacheStatisticsHandler extends AbstractRuntimeOnlyHandler {
+        static final CacheStatisticsHandler INSTANCE = new CacheStatisticsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ModelNode opAddr = operation.require(OP_ADDR);
+            PathAddress address = PathAddress.pathAddress(opAddr);
+            final String securityDomain = address.getLastElement().getValue();
+            final String metric = operation.require(NAME).asString();
+
+            ServiceController<SecurityDomainContext> controller = getSecurityDomainService(context, securityDomain);
+            if (controller != null) {
+                waitFor(controller);
+                AuthenticationCache cache = controller.getValue().getAuthenticationCache();
+                // only the default cache keeps statistics
+                if (cache != null) {
+                    if (Constants.CACHE_HITS.equals(metric)) {
+                        context.getResult().set(cache.getHits());
+                    } else if (Constants.CACHE_MISSES.equals(metric)) {
+                        context.getResult().set(cache.getMisses());
+                    } else if (Constants.CACHE_EVICTIONS.equals(metric)) {
+                        context.getResult().set(cache.getEvictions());
+                    }
+                }
+            } else {
+                throw SecurityMessages.MESSAGES.noAuthenticationCacheAvailable(securityDomain);
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     static final class FlushOperation extends AbstractRuntimeOnlyHandler {
         static final FlushOperation INSTANCE = new FlushOperation();
         static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinition(Constants.FLUSH_CACHE,
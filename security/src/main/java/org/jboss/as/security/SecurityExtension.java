@@ -35,6 +35,7 @@ import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.DiscardUndefinedAttributesTransformer;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.as.controller.transform.ResourceTransformationContext;
@@ -124,7 +125,10 @@ public class SecurityExtension implements Extension {
 
     private void registerTransformers(SubsystemRegistration subsystemRegistration) {
         TransformersSubRegistration subsystemTransformer = subsystemRegistration.registerModelTransformers(ModelVersion.create(1, 1), null);
-        TransformersSubRegistration securityDomain = subsystemTransformer.registerSubResource(SECURITY_DOMAIN_PATH);
+        DiscardUndefinedAttributesTransformer cacheAttributes = new DiscardUndefinedAttributesTransformer(SecurityDomainResourceDefinition.CACHE_ATTRIBUTES);
+        TransformersSubRegistration securityDomain = subsystemTransformer.registerSubResource(SECURITY_DOMAIN_PATH, cacheAttributes, cacheAttributes);
+        securityDomain.registerOperationTransformer(ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION, cacheAttributes.getWriteAttributeTransformer());
+        securityDomain.registerOperationTransformer(ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION, cacheAttributes.getUndefineAttributeTransformer());
 
         ModulesToAttributeTransformer loginModule = new ModulesToAttributeTransformer(Constants.LOGIN_MODULE, Constants.LOGIN_MODULES);
         securityDomain.registerSubResource(PATH_CLASSIC_AUTHENTICATION, loginModule, loginModule)
@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.plugins;
+
+import java.security.Principal;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EvictionListener;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+
+/**
+ * Bounded authentication cache of a security domain, which expires entries after a maximum lifespan and/or a maximum
+ * idle time and keeps hit, miss and eviction statistics.
+ * <p/>
+ * Expired entries are removed when they are looked up, so a principal whose entry expired is authenticated again by
+ * the login modules. A JAAS logout is performed for every entry leaving the cache.
+ */
+public class AuthenticationCache extends AbstractMap<Principal, DomainInfo> implements ConcurrentMap<Principal, DomainInfo> {
+
+    private final BoundedConcurrentHashMap<Principal, CacheEntry> entries;
+    private final long lifespan;
+    private final long maxIdle;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries the maximum number of cached principals
+     * @param concurrencyLevel the estimated number of concurrently updating threads
+     * @param lifespan the time in ms after which an entry expires, or a value less than 1 for no limit
+     * @param maxIdle the time in ms an entry expires after it was last used, or a value less than 1 for no limit
+     */
+    public AuthenticationCache(int maxEntries, int concurrencyLevel, long lifespan, long maxIdle) {
+        this.entries = new BoundedConcurrentHashMap<Principal, CacheEntry>(maxEntries, concurrencyLevel, Eviction.LIRS,
+                new CacheEvictionListener());
+        this.lifespan = lifespan;
+        this.maxIdle = maxIdle;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo get(Object key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            if (!entry.isExpired(now, lifespan, maxIdle)) {
+                entry.lastAccessed = now;
+                hits.incrementAndGet();
+                return entry.domainInfo;
+            }
+            expire(key, entry);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo put(Principal key, DomainInfo value) {
+        return unwrap(entries.put(key, new CacheEntry(value)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo putIfAbsent(Principal key, DomainInfo value) {
+        return unwrap(entries.putIfAbsent(key, new CacheEntry(value)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo replace(Principal key, DomainInfo value) {
+        return unwrap(entries.replace(key, new CacheEntry(value)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean replace(Principal key, DomainInfo oldValue, DomainInfo newValue) {
+        CacheEntry entry = entries.get(key);
+        return entry != null && entry.domainInfo == oldValue && entries.replace(key, entry, new CacheEntry(newValue));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DomainInfo remove(Object key) {
+        DomainInfo removed = unwrap(entries.remove(key));
+        if (removed != null) {
+            removed.logout();
+        }
+        return removed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean remove(Object key, Object value) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.domainInfo == value && entries.remove(key, entry)) {
+            entry.domainInfo.logout();
+            return true;
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Object key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isExpired(System.currentTimeMillis(), lifespan, maxIdle)) {
+                return true;
+            }
+            expire(key, entry);
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Expired entries count until they are removed.
+     */
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        for (CacheEntry entry : entries.values()) {
+            entry.domainInfo.logout();
+        }
+        entries.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Entries found to be expired while iterating are removed, like they are by {@link #get(Object)}, and the entries
+     * removed through the iterator are logged out, like they are by {@link #remove(Object)}. This applies to the
+     * {@link #keySet()} and {@link #values()} views as well.
+     */
+    @Override
+    public Set<Map.Entry<Principal, DomainInfo>> entrySet() {
+        return new AbstractSet<Map.Entry<Principal, DomainInfo>>() {
+            @Override
+            public Iterator<Map.Entry<Principal, DomainInfo>> iterator() {
+                final Iterator<Map.Entry<Principal, CacheEntry>> iterator = entries.entrySet().iterator();
+                final long now = System.currentTimeMillis();
+                return new Iterator<Map.Entry<Principal, DomainInfo>>() {
+                    private Map.Entry<Principal, CacheEntry> next = findNext();
+                    private Map.Entry<Principal, CacheEntry> current;
+
+                    private Map.Entry<Principal, CacheEntry> findNext() {
+                        while (iterator.hasNext()) {
+                            Map.Entry<Principal, CacheEntry> entry = iterator.next();
+                            if (!entry.getValue().isExpired(now, lifespan, maxIdle)) {
+                                return entry;
+                            }
+                            expire(entry.getKey(), entry.getValue());
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Map.Entry<Principal, DomainInfo> next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        current = next;
+                        next = findNext();
+                        return new SimpleImmutableEntry<Principal, DomainInfo>(current.getKey(), current.getValue().domainInfo);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (current == null) {
+                            throw new IllegalStateException();
+                        }
+                        if (entries.remove(current.getKey(), current.getValue())) {
+                            current.getValue().domainInfo.logout();
+                        }
+                        current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+
+    /**
+     * Gets the number of lookups which found a valid entry.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups which found no entry or an expired one.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of entries removed because the cache was full or because they expired.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private void expire(Object key, CacheEntry entry) {
+        if (entries.remove(key, entry)) {
+            evictions.incrementAndGet();
+            entry.domainInfo.logout();
+        }
+    }
+
+    private static DomainInfo unwrap(CacheEntry entry) {
+        return entry != null ? entry.domainInfo : null;
+    }
+
+    private static final class CacheEntry {
+        final DomainInfo domainInfo;
+        final long created;
+        volatile long lastAccessed;
+
+        CacheEntry(DomainInfo domainInfo) {
+            this.domainInfo = domainInfo;
+            this.created = System.currentTimeMillis();
+            this.lastAccessed = created;
+        }
+
+        boolean isExpired(long now, long lifespan, long maxIdle) {
+            return (lifespan > 0 && now - created >= lifespan) || (maxIdle > 0 && now - lastAccessed >= maxIdle);
+        }
+    }
+
+    /**
+     * Listener to perform a JAAS logout when an entry is evicted from the cache.
+     */
+    private class CacheEvictionListener implements EvictionListener<Principal, CacheEntry> {
+
+        /** {@inheritDoc} */
+        @Override
+        public void onEntryEviction(Map<Principal, CacheEntry> evicted) {
+            for (CacheEntry entry : evicted.values()) {
+                evictions.incrementAndGet();
+                entry.domainInfo.logout();
+            }
+        }
+
+        @Override
+        public void onEntryChosenForEviction(CacheEntry entry) {
+            // Do nothing
+        }
+
+        @Override
+        public void onEntryActivated(Object key) {
+            // Do nothing
+        }
+
+        @Override
+        public void onEntryRemoved(Object key) {
+            // Do nothing
+        }
+    }
+}
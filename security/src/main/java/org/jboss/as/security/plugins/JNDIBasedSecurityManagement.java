@@ -279,6 +279,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
     public SecurityDomainContext createSecurityDomainContext(String securityDomain, Object cacheFactory) throws Exception {
         log.debugf("Creating SDC for domain=" + securityDomain);
         AuthenticationManager am = createAuthenticationManager(securityDomain);
+        AuthenticationCache authenticationCache = null;
         // create authentication cache
         if (cacheFactory instanceof EmbeddedCacheManager) {
             EmbeddedCacheManager cacheManager = EmbeddedCacheManager.class.cast(cacheFactory);
@@ -302,6 +303,9 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
                 @SuppressWarnings({ "unchecked", "rawtypes" })
                 CacheableManager<Map, Principal> cm = (CacheableManager<Map, Principal>) am;
                 cm.setCache(cache);
+                if (cache instanceof AuthenticationCache) {
+                    authenticationCache = (AuthenticationCache) cache;
+                }
             }
         }
 
@@ -311,6 +315,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         }
 
         SecurityDomainContext securityDomainContext = new SecurityDomainContext(am);
+        securityDomainContext.setAuthenticationCache(authenticationCache);
         securityDomainContext.setAuthorizationManager(createAuthorizationManager(securityDomain));
         securityDomainContext.setAuditManager(createAuditManager(securityDomain));
         securityDomainContext.setIdentityTrustManager(createIdentityTrustManager(securityDomain));
@@ -70,12 +70,23 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final String cacheType;
 
+    private final DefaultAuthenticationCacheFactory defaultCacheFactory;
+
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
             String cacheType) {
+        this(name, applicationPolicy, jsseSecurityDomain, cacheType, new DefaultAuthenticationCacheFactory());
+    }
+
+    /**
+     * @param defaultCacheFactory creates the authentication cache if the cache type is "default"
+     */
+    public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
+            String cacheType, DefaultAuthenticationCacheFactory defaultCacheFactory) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
         this.cacheType = cacheType;
+        this.defaultCacheFactory = defaultCacheFactory;
     }
 
     /** {@inheritDoc} */
@@ -92,7 +103,7 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         if ("infinispan".equals(cacheType)) {
             cacheFactory = cacheManagerValue.getValue();
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            cacheFactory = defaultCacheFactory;
         }
         try {
             securityDomainContext = securityManagement.createSecurityDomainContext(name, cacheFactory);
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.test;
+
+import java.security.Principal;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.jboss.as.security.plugins.AuthenticationCache;
+import org.jboss.security.SimplePrincipal;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the expiry and eviction of the {@link AuthenticationCache}.
+ */
+public class AuthenticationCacheUnitTestCase {
+
+    private int logouts;
+
+    @Test
+    public void testLifespan() throws Exception {
+        AuthenticationCache cache = new AuthenticationCache(10, 1, 200, -1);
+        Principal principal = new SimplePrincipal("user");
+        DomainInfo info = domainInfo();
+        cache.put(principal, info);
+        Assert.assertSame(info, cache.get(principal));
+        Assert.assertTrue(cache.containsKey(principal));
+
+        Thread.sleep(300);
+        Assert.assertFalse(cache.containsKey(principal));
+        Assert.assertEquals(1, logouts);
+        Assert.assertNull(cache.get(principal));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertEquals(1, logouts);
+    }
+
+    @Test
+    public void testMaxIdle() throws Exception {
+        AuthenticationCache cache = new AuthenticationCache(10, 1, -1, 500);
+        Principal principal = new SimplePrincipal("user");
+        cache.put(principal, domainInfo());
+
+        Thread.sleep(300);
+        Assert.assertNotNull(cache.get(principal));
+        Thread.sleep(300);
+        // used 300 ms ago
+        Assert.assertTrue(cache.keySet().contains(principal));
+
+        Thread.sleep(600);
+        Assert.assertFalse(cache.keySet().iterator().hasNext());
+        Assert.assertFalse(cache.entrySet().iterator().hasNext());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertEquals(1, logouts);
+    }
+
+    @Test
+    public void testEviction() {
+        AuthenticationCache cache = new AuthenticationCache(10, 1, -1, -1);
+        for (int i = 0; i < 50; i++) {
+            cache.put(new SimplePrincipal("user" + i), domainInfo());
+        }
+        Assert.assertTrue(cache.size() <= 10);
+        Assert.assertEquals(50 - cache.size(), cache.getEvictions());
+        Assert.assertEquals(cache.getEvictions(), logouts);
+    }
+
+    @Test
+    public void testRemove() {
+        AuthenticationCache cache = new AuthenticationCache(10, 1, -1, -1);
+        Principal first = new SimplePrincipal("first");
+        Principal second = new SimplePrincipal("second");
+        Principal third = new SimplePrincipal("third");
+        cache.put(first, domainInfo());
+        cache.put(second, domainInfo());
+        cache.put(third, domainInfo());
+
+        Assert.assertNotNull(cache.remove(first));
+        Assert.assertEquals(1, logouts);
+
+        Iterator<Map.Entry<Principal, DomainInfo>> entries = cache.entrySet().iterator();
+        Principal removed = entries.next().getKey();
+        entries.remove();
+        Assert.assertFalse(cache.containsKey(removed));
+        Assert.assertEquals(2, logouts);
+
+        Iterator<Principal> keys = cache.keySet().iterator();
+        keys.next();
+        keys.remove();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(3, logouts);
+
+        // removals are not evictions
+        Assert.assertEquals(0, cache.getEvictions());
+    }
+
+    private DomainInfo domainInfo() {
+        return new DomainInfo() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void logout() {
+                logouts++;
+            }
+        };
+    }
+}
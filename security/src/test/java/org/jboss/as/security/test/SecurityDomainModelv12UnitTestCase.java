@@ -26,14 +26,18 @@ import java.util.List;
 
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.model.test.FailedOperationTransformationConfig;
+import org.jboss.as.model.test.ModelTestUtils;
 import org.jboss.as.security.SecurityExtension;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.as.subsystem.test.KernelServicesBuilder;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -44,6 +48,8 @@ import org.junit.Test;
  */
 public class SecurityDomainModelv12UnitTestCase extends AbstractSubsystemBaseTest {
 
+    private static final String[] CACHE_ATTRIBUTES = { "cache-max-entries", "cache-concurrency-level", "cache-lifespan", "cache-max-idle" };
+
     public SecurityDomainModelv12UnitTestCase() {
         super(SecurityExtension.SUBSYSTEM_NAME, new SecurityExtension());
     }
@@ -110,4 +116,56 @@ public class SecurityDomainModelv12UnitTestCase extends AbstractSubsystemBaseTes
         checkSubsystemModelTransformation(mainServices,modelVersion);
 
     }
+
+    @Test
+    public void testCacheAttributes() throws Exception {
+        standardSubsystemTest("securitysubsystemv12-cache.xml");
+
+        KernelServices services = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXmlResource("securitysubsystemv12-cache.xml")
+                .build();
+        Assert.assertTrue(services.isSuccessfulBoot());
+        ModelNode domains = services.readWholeModel().get("subsystem", "security", "security-domain");
+        ModelNode cached = domains.get("cached");
+        Assert.assertEquals(500, cached.get("cache-max-entries").asInt());
+        Assert.assertEquals(4, cached.get("cache-concurrency-level").asInt());
+        Assert.assertEquals(ModelType.EXPRESSION, cached.get("cache-lifespan").getType());
+        Assert.assertEquals(60000L, cached.get("cache-lifespan").resolve().asLong());
+        Assert.assertEquals(30000L, cached.get("cache-max-idle").asLong());
+        for (String attribute : CACHE_ATTRIBUTES) {
+            Assert.assertFalse(attribute, domains.get("defaults").hasDefined(attribute));
+        }
+
+        PathAddress address = PathAddress.pathAddress().append("subsystem", "security").append("security-domain", "defaults");
+        ModelNode writeOp = Util.createOperation("write-attribute", address);
+        writeOp.get("name").set("cache-max-entries");
+        writeOp.get("value").set(0);
+        Assert.assertEquals("failed", services.executeOperation(writeOp).get("outcome").asString());
+        writeOp.get("value").set(100);
+        services.executeForResult(writeOp);
+        ModelNode readOp = Util.createOperation("read-attribute", address);
+        readOp.get("name").set("cache-max-entries");
+        Assert.assertEquals(100, services.executeForResult(readOp).asInt());
+    }
+
+    @Test
+    public void testRejectCacheAttributes() throws Exception {
+        ModelVersion modelVersion = ModelVersion.create(1, 1, 0);
+        KernelServicesBuilder builder = createKernelServicesBuilder(null);
+        builder.createLegacyKernelServicesBuilder(null, modelVersion)
+                .addMavenResourceURL("org.jboss.as:jboss-as-security:7.1.2.Final")
+                .addMavenResourceURL("org.jboss.as:jboss-as-controller:7.1.2.Final")
+                .addParentFirstClassPattern("org.jboss.as.controller.*");
+
+        KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        Assert.assertTrue(mainServices.getLegacyServices(modelVersion).isSuccessfulBoot());
+
+        // the attributes are discarded if undefined, and rejected otherwise
+        List<ModelNode> xmlOps = builder.parseXmlResource("securitysubsystemv12-cache.xml");
+        PathAddress cached = PathAddress.pathAddress(PathElement.pathElement("subsystem", "security"), PathElement.pathElement("security-domain", "cached"));
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, xmlOps,
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(cached, new FailedOperationTransformationConfig.NewAttributesConfig(CACHE_ATTRIBUTES)));
+    }
 }
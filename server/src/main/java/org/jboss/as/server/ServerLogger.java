@@ -401,4 +401,12 @@ public interface ServerLogger extends BasicLogger {
     @LogMessage(level = Logger.Level.INFO)
     @Message(id = 15970, value = "Defer %s for %s making it %s")
     void infoDeferDeploymentPhase(Phase phase, String deploymentName, Mode mode);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15971, value = "Could not read cached annotation index %s, it will be discarded")
+    void cannotReadCachedAnnotationIndex(String file, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15972, value = "Could not write annotation index %s to the cache")
+    void cannotWriteCachedAnnotationIndex(String file, @Cause Throwable cause);
 }
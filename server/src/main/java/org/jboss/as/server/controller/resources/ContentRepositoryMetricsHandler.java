@@ -0,0 +1,87 @@
+/*
+* JBoss, Home of Professional Open Source.
+* Copyright 2011, Red Hat Middleware LLC, and individual contributors
+* as indicated by the @author tags. See the copyright.txt file in the
+* distribution for a full listing of individual contributors.
+*
+* This is free software; you can redistribute it and/or modify it
+* under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation; either version 2.1 of
+* the License, or (at your option) any later version.
+*
+* This software is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+* Lesser General Public License for more details.
+*
+* You should have received a copy of the GNU Lesser General Public
+* License along with this software; if not, write to the Free
+* Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+* 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+*/
+package org.jboss.as.server.controller.resources;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.repository.ContentRepositoryMetrics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler for the throughput metrics of the content repository.
+ */
+public class ContentRepositoryMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final SimpleAttributeDefinition CONTENT_ADDED_COUNT = SimpleAttributeDefinitionBuilder.create("content-added-count", ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition CONTENT_ADDED_BYTES = SimpleAttributeDefinitionBuilder.create("content-added-bytes", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition CONTENT_ADD_TIME = SimpleAttributeDefinitionBuilder.create("content-add-time", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private final ContentRepository contentRepository;
+
+    private ContentRepositoryMetricsHandler(final ContentRepository contentRepository) {
+        this.contentRepository = contentRepository;
+    }
+
+    /**
+     * Registers the metrics of the given repository, if it keeps any.
+     */
+    public static void registerMetrics(final ManagementResourceRegistration resourceRegistration, final ContentRepository contentRepository) {
+        if (contentRepository instanceof ContentRepositoryMetrics) {
+            final ContentRepositoryMetricsHandler handler = new ContentRepositoryMetricsHandler(contentRepository);
+            resourceRegistration.registerMetric(CONTENT_ADDED_COUNT, handler);
+            resourceRegistration.registerMetric(CONTENT_ADDED_BYTES, handler);
+            resourceRegistration.registerMetric(CONTENT_ADD_TIME, handler);
+        }
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ContentRepositoryMetrics metrics = (ContentRepositoryMetrics) contentRepository;
+        if (CONTENT_ADDED_COUNT.getName().equals(name)) {
+            context.getResult().set(metrics.getAddedContentCount());
+        } else if (CONTENT_ADDED_BYTES.getName().equals(name)) {
+            context.getResult().set(metrics.getAddedBytes());
+        } else if (CONTENT_ADD_TIME.getName().equals(name)) {
+            context.getResult().set(metrics.getAddTime());
+        }
+        context.stepCompleted();
+    }
+}
@@ -43,6 +43,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.EnumValidator;
@@ -107,6 +108,17 @@ public class DeploymentAttributes {
     public static final AttributeDefinition STATUS = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.STATUS, ModelType.STRING, false)
         .setValidator(new EnumValidator<AbstractDeploymentUnitService.DeploymentStatus>(AbstractDeploymentUnitService.DeploymentStatus.class, false))
         .build();
+    public static final AttributeDefinition ANNOTATION_INDEX_TIME = SimpleAttributeDefinitionBuilder.create("annotation-index-time", ModelType.LONG, true)
+        .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+        .setStorageRuntime()
+        .build();
+    public static final AttributeDefinition ANNOTATION_INDEX_CACHE_HITS = SimpleAttributeDefinitionBuilder.create("annotation-index-cache-hits", ModelType.LONG, true)
+        .setStorageRuntime()
+        .build();
+    public static final AttributeDefinition ANNOTATION_INDEX_CACHE_MISSES = SimpleAttributeDefinitionBuilder.create("annotation-index-cache-misses", ModelType.LONG, true)
+        .setStorageRuntime()
+        .build();
+    public static final AttributeDefinition[] SERVER_METRICS = new AttributeDefinition[] {ANNOTATION_INDEX_TIME, ANNOTATION_INDEX_CACHE_HITS, ANNOTATION_INDEX_CACHE_MISSES};
 
     //Managed content value attributes
     public static final SimpleAttributeDefinition CONTENT_INPUT_STREAM_INDEX =
@@ -343,7 +355,9 @@ public class DeploymentAttributes {
                     }
                 }
             }
-            if (managedNames.size() > 1) {
+            // the hash may accompany the content it identifies, so that content the repository already has is not stored again
+            final int contentSources = managedNames.contains(CONTENT_HASH.getName()) && managedNames.size() > 1 ? managedNames.size() - 1 : managedNames.size();
+            if (contentSources > 1) {
                 throw MESSAGES.cannotHaveMoreThanOneManagedContentItem(MANAGED_CONTENT_ATTRIBUTES.keySet());
             }
             if (unmanagedNames.size() > 0 && managedNames.size() > 0) {
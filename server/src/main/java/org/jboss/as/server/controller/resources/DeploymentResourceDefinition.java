@@ -30,6 +30,7 @@ import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.server.deployment.DeploymentAnnotationIndexMetricHandler;
 import org.jboss.as.server.deployment.DeploymentStatusHandler;
 
 /**
@@ -61,6 +62,11 @@ public abstract class DeploymentResourceDefinition extends SimpleResourceDefinit
                 resourceRegistration.registerReadOnlyAttribute(attr, null);
             }
         }
+        if (parent == DeploymentResourceParent.SERVER) {
+            for (AttributeDefinition metric : DeploymentAttributes.SERVER_METRICS) {
+                resourceRegistration.registerMetric(metric, DeploymentAnnotationIndexMetricHandler.INSTANCE);
+            }
+        }
     }
 
     protected DeploymentResourceParent getParent() {
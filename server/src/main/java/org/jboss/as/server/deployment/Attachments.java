@@ -28,6 +28,7 @@ import java.util.jar.Manifest;
 
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexStatistics;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.AdditionalModuleSpecification;
 import org.jboss.as.server.deployment.module.ExtensionInfo;
@@ -89,9 +90,9 @@ public final class Attachments {
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
     /**
-     * The deployment hash
+     * The content repository hash of the deployment, not present for deployments that are not in the repository
      */
-    //public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
+    public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
 
     /**
      * The special status listener attachment.
@@ -184,6 +185,21 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<String>> INDEX_IGNORE_PATHS = AttachmentKey.createList(String.class);
 
+    /**
+     * Annotation indexing statistics for a top level deployment and all its sub deployments.
+     */
+    public static final AttachmentKey<AnnotationIndexStatistics> ANNOTATION_INDEX_STATISTICS = AttachmentKey.create(AnnotationIndexStatistics.class);
+
+    /**
+     * The number of threads used to index the resource roots of a top level deployment and its sub deployments.
+     */
+    public static final AttachmentKey<Integer> ANNOTATION_INDEX_PARALLELISM = AttachmentKey.create(Integer.class);
+
+    /**
+     * The maximum size in bytes of the server wide annotation index cache, 0 to not use the cache.
+     */
+    public static final AttachmentKey<Long> ANNOTATION_INDEX_CACHE_MAX_SIZE = AttachmentKey.create(Long.class);
+
     /**
      * Sub deployment services
      */
@@ -74,6 +74,16 @@ public class ContentOverrideDeploymentUnitProcessor implements DeploymentUnitPro
         }
     }
 
+    /**
+     * Returns whether content overlays have been mounted over the contents of the given top level deployment.
+     *
+     * @param deploymentUnit the top level deployment unit
+     * @return {@code true} if the deployment contents differ from the deployed content
+     */
+    public static boolean hasContentOverrides(final DeploymentUnit deploymentUnit) {
+        return !deploymentUnit.getAttachmentList(MOUNTED_FILES).isEmpty();
+    }
+
     @Override
     public void undeploy(final DeploymentUnit context) {
         for (Closeable closable : context.getAttachmentList(MOUNTED_FILES)) {
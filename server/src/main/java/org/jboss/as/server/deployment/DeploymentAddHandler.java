@@ -29,9 +29,11 @@ import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENAB
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.PERSISTENT;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.SERVER_ADD_ATTRIBUTES;
+import static org.jboss.as.server.deployment.DeploymentHandlerUtils.addContent;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.asString;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.createFailureException;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.getInputStream;
+import static org.jboss.as.server.deployment.DeploymentHandlerUtils.hasContentStreamDefined;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.hasValidContentAdditionParameterDefined;
 
 import java.io.IOException;
@@ -110,7 +112,7 @@ public class DeploymentAddHandler implements OperationStepHandler {
         newModel.get(RUNTIME_NAME.getName()).set(runtimeName);
 
         final DeploymentHandlerUtil.ContentItem contentItem;
-        if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
+        if (contentItemNode.hasDefined(CONTENT_HASH.getName()) && !hasContentStreamDefined(contentItemNode)) {
             byte[] hash = contentItemNode.require(CONTENT_HASH.getName()).asBytes();
             contentItem = addFromHash(hash, name, context);
         } else if (hasValidContentAdditionParameterDefined(contentItemNode)) {
@@ -166,7 +168,7 @@ public class DeploymentAddHandler implements OperationStepHandler {
         InputStream in = getInputStream(context, contentItemNode);
         try {
             try {
-                hash = contentRepository.addContent(in);
+                hash = addContent(contentRepository, in, contentItemNode);
             } catch (IOException e) {
                 throw createFailureException(e.toString());
             }
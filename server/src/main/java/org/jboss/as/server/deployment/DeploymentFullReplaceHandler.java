@@ -28,9 +28,11 @@ import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONT
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.CONTENT_RELATIVE_TO;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENABLED;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+import static org.jboss.as.server.deployment.DeploymentHandlerUtils.addContent;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.asString;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.createFailureException;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.getInputStream;
+import static org.jboss.as.server.deployment.DeploymentHandlerUtils.hasContentStreamDefined;
 import static org.jboss.as.server.deployment.DeploymentHandlerUtils.hasValidContentAdditionParameterDefined;
 
 import java.io.IOException;
@@ -101,7 +103,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
         final DeploymentHandlerUtil.ContentItem contentItem;
         ModelNode contentItemNode = content.require(0);
         final byte[] originalHash = replaceNode.get(CONTENT).get(0).hasDefined(CONTENT_HASH.getName()) ? CONTENT_HASH.resolveModelAttribute(context, replaceNode.get(CONTENT).get(0)).asBytes() : null;
-        if (contentItemNode.hasDefined(CONTENT_HASH.getName())) {
+        if (contentItemNode.hasDefined(CONTENT_HASH.getName()) && !hasContentStreamDefined(contentItemNode)) {
             byte[] hash = CONTENT_HASH.resolveModelAttribute(context, contentItemNode).asBytes();
 
             contentItem = addFromHash(hash);
@@ -173,7 +175,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler {
         InputStream in = getInputStream(context, contentItemNode);
         try {
             try {
-                hash = contentRepository.addContent(in);
+                hash = addContent(contentRepository, in, contentItemNode);
             } catch (IOException e) {
                 throw createFailureException(e.toString());
             }
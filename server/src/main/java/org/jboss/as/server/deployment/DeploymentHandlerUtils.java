@@ -35,6 +35,7 @@ import java.util.List;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.controller.resources.DeploymentAttributes;
 import org.jboss.dmr.ModelNode;
@@ -118,6 +119,33 @@ public abstract class DeploymentHandlerUtils {
         return false;
     }
 
+    /**
+     * Checks whether a content item carries the content itself rather than just the hash of content that is
+     * already in the repository.
+     *
+     * @param contentItem the content item to check.
+     *
+     * @return {@code true} if the content item has an input stream index, bytes or a url.
+     */
+    public static boolean hasContentStreamDefined(ModelNode contentItem) {
+        return contentItem.hasDefined(DeploymentAttributes.CONTENT_INPUT_STREAM_INDEX.getName())
+                || contentItem.hasDefined(DeploymentAttributes.CONTENT_BYTES.getName())
+                || contentItem.hasDefined(DeploymentAttributes.CONTENT_URL.getName());
+    }
+
+    /**
+     * Stores the content read from the stream in the repository. If the content item also carries the hash
+     * of the content, the repository does not read content it already has and verifies the rest against the hash.
+     *
+     * @return the hash of the content.
+     */
+    public static byte[] addContent(ContentRepository contentRepository, InputStream in, ModelNode contentItem) throws IOException {
+        if (contentItem.hasDefined(DeploymentAttributes.CONTENT_HASH.getName())) {
+            return contentRepository.addContent(in, contentItem.get(DeploymentAttributes.CONTENT_HASH.getName()).asBytes());
+        }
+        return contentRepository.addContent(in);
+    }
+
     protected static void validateOnePieceOfContent(final ModelNode content) throws OperationFailedException {
         // TODO: implement overlays
         if (content.asList().size() != 1)
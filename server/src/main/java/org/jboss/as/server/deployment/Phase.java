@@ -196,6 +196,7 @@ public enum Phase {
     public static final int STRUCTURE_EE_VAULT_PROPERTY_RESOLVER        = 0x0562;
     public static final int STRUCTURE_EE_SYSTEM_PROPERTY_RESOLVER       = 0x0563;
     public static final int STRUCTURE_EE_PROPERTY_RESOLVER              = 0x0564;
+    public static final int STRUCTURE_EE_ANNOTATION_INDEX_CONFIG        = 0x0570;
     public static final int STRUCTURE_JDBC_DRIVER                       = 0x0600;
     public static final int STRUCTURE_RAR                               = 0x0700;
     public static final int STRUCTURE_WAR_DEPLOYMENT_INIT               = 0x0800;
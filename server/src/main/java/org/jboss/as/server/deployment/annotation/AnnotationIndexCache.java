@@ -0,0 +1,310 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.repository.HashUtil;
+import org.jboss.as.server.ServerLogger;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ContentOverrideDeploymentUnitProcessor;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A server wide cache of annotation indexes, stored below <code>jboss.server.data.dir</code>.
+ * <p/>
+ * Entries are keyed by the content repository hash of the deployment and the path of the resource root within it,
+ * so the archives of a deployment are only indexed the first time that content is deployed, even across restarts.
+ * Computing a key does not read the archive. Deployments that are not in the content repository and deployments
+ * with content overlays are not cached, nor are resource roots outside of the deployment.
+ * <p/>
+ * Every entry starts with a header naming the cache format and Jandex version it was written with; entries written
+ * by another version are discarded. If the Jandex version cannot be determined the cache is disabled. The total size of the cache is bounded, when it grows beyond the limit the
+ * least recently used entries are deleted. The limit is set by the <code>annotation-index-cache-max-size</code>
+ * attribute of the EE subsystem, see {@link #setMaxSize(long)}.
+ */
+public final class AnnotationIndexCache {
+
+    /**
+     * The default maximum size of the cache in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 100L * 1024 * 1024;
+
+    private static final String SUFFIX = ".idx";
+    private static final String JANDEX_VERSION = jandexVersion();
+    private static final String HEADER = "annotation-index-cache-2:" + JANDEX_VERSION;
+
+    private final File directory;
+    private volatile long maxSize;
+    private final AtomicLong size = new AtomicLong();
+
+    public AnnotationIndexCache(final File directory, final long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        final File[] entries = directory.listFiles();
+        if (entries != null) {
+            long total = 0;
+            for (File entry : entries) {
+                if (entry.getName().endsWith(SUFFIX)) {
+                    total += entry.length();
+                } else {
+                    // left over by a server that was killed while writing
+                    entry.delete();
+                }
+            }
+            size.set(total);
+        }
+    }
+
+    /**
+     * Creates the cache in the given data directory, with the {@link #DEFAULT_MAX_SIZE default maximum size}.
+     *
+     * @param dataDir the server data directory
+     * @return the cache, or <code>null</code> if the Jandex version is not known
+     */
+    public static AnnotationIndexCache create(final File dataDir) {
+        if (JANDEX_VERSION == null) {
+            // an entry written by another Jandex version could not be told apart
+            return null;
+        }
+        final File directory = new File(dataDir, "annotation-index");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return null;
+        }
+        return new AnnotationIndexCache(directory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Gets the maximum size of the cache.
+     *
+     * @return the maximum size in bytes, 0 if the cache is disabled
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum size of the cache, evicting the least recently used entries if it is already larger.
+     *
+     * @param maxSize the maximum size in bytes, 0 deletes all entries and disables the cache
+     */
+    public void setMaxSize(final long maxSize) {
+        if (this.maxSize == maxSize) {
+            return;
+        }
+        this.maxSize = maxSize;
+        if (size.get() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Computes the cache key of a resource root.
+     *
+     * @param resourceRoot the resource root
+     * @param deploymentUnit the deployment unit the resource root belongs to
+     * @return the key, or <code>null</code> if the resource root cannot be cached
+     */
+    public String key(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit) {
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final byte[] contentHash = topLevel.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (contentHash == null || deploymentRoot == null || ContentOverrideDeploymentUnitProcessor.hasContentOverrides(topLevel)) {
+            return null;
+        }
+        final VirtualFile root = resourceRoot.getRoot();
+        final String path;
+        if (root.equals(deploymentRoot.getRoot())) {
+            path = "";
+        } else {
+            try {
+                path = root.getPathNameRelativeTo(deploymentRoot.getRoot());
+            } catch (IllegalArgumentException e) {
+                // not part of the deployment content
+                return null;
+            }
+        }
+        return key(contentHash, path, resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS));
+    }
+
+    /**
+     * Computes the cache key of the resource root at the given path of a deployment.
+     */
+    static String key(final byte[] contentHash, final String path, final List<String> ignorePaths) {
+        final MessageDigest digest = sha1();
+        digest.update(contentHash);
+        digest.update(utf8(path));
+        // paths excluded from indexing change the index, so they are part of the key
+        if (ignorePaths != null && !ignorePaths.isEmpty()) {
+            final String[] sorted = ignorePaths.toArray(new String[ignorePaths.size()]);
+            Arrays.sort(sorted);
+            for (String ignorePath : sorted) {
+                digest.update((byte) 0);
+                digest.update(utf8(ignorePath));
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    /**
+     * Reads a cached index.
+     *
+     * @param key the key computed by {@link #key(ResourceRoot, DeploymentUnit)}
+     * @return the index, or <code>null</code> if there is no usable entry for the key
+     */
+    public Index get(final String key) {
+        final File file = new File(directory, key + SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (!HEADER.equals(in.readUTF())) {
+                // written by another version
+                VFSUtils.safeClose(in);
+                in = null;
+                delete(file);
+                return null;
+            }
+            final Index index = new IndexReader(in).read();
+            // keep track of the last use for the eviction
+            file.setLastModified(System.currentTimeMillis());
+            return index;
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotReadCachedAnnotationIndex(file.getPath(), e);
+            VFSUtils.safeClose(in);
+            in = null;
+            delete(file);
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    /**
+     * Stores an index in the cache, evicting the least recently used entries if the cache grows too large.
+     *
+     * @param key the key computed by {@link #key(ResourceRoot, DeploymentUnit)}
+     * @param index the index
+     */
+    public void put(final String key, final Index index) {
+        final File file = new File(directory, key + SUFFIX);
+        final File tmp = new File(directory, key + SUFFIX + "." + Thread.currentThread().getId() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeUTF(HEADER);
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            final long length = tmp.length();
+            if (file.exists()) {
+                // another deployment cached the same content concurrently
+                delete(tmp);
+                return;
+            }
+            if (!tmp.renameTo(file)) {
+                delete(tmp);
+                return;
+            }
+            if (size.addAndGet(length) > maxSize) {
+                evict();
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotWriteCachedAnnotationIndex(file.getPath(), e);
+            VFSUtils.safeClose(out);
+            delete(tmp);
+        }
+    }
+
+    private synchronized void evict() {
+        final File[] entries = directory.listFiles();
+        if (entries == null) {
+            return;
+        }
+        Arrays.sort(entries, new Comparator<File>() {
+            public int compare(File o1, File o2) {
+                final long m1 = o1.lastModified();
+                final long m2 = o2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        for (File entry : entries) {
+            if (size.get() <= maxSize) {
+                break;
+            }
+            if (entry.getName().endsWith(SUFFIX)) {
+                delete(entry);
+            }
+        }
+    }
+
+    private void delete(final File file) {
+        final long length = file.length();
+        if (file.delete() && file.getName().endsWith(SUFFIX)) {
+            size.addAndGet(-length);
+        }
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] utf8(final String value) {
+        try {
+            return value.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String jandexVersion() {
+        final Package pkg = Index.class.getPackage();
+        return pkg == null ? null : pkg.getImplementationVersion();
+    }
+}
@@ -22,21 +22,47 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
-import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.msc.value.Value;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p/>
+ * The resource roots of a deployment unit are indexed in parallel on the server executor. The number of threads used
+ * is taken from the {@link Attachments#ANNOTATION_INDEX_PARALLELISM} attachment of the top level deployment, which the
+ * EE subsystem sets from its <code>annotation-index-parallelism</code> attribute. It defaults to the number of
+ * available processors, a value of 1 indexes the resource roots one after the other on the deployment thread.
+ * <p/>
+ * If an {@link AnnotationIndexCache} is configured, indexes of archives that were indexed before are read from it. Its
+ * maximum size is taken from the {@link Attachments#ANNOTATION_INDEX_CACHE_MAX_SIZE} attachment of the top level
+ * deployment, which the EE subsystem sets from its <code>annotation-index-cache-max-size</code> attribute. A value of 0
+ * disables the cache.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final AnnotationIndexCache cache;
+    private final Value<ExecutorService> executor;
+
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache, final Value<ExecutorService> executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +73,39 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        AnnotationIndexStatistics statistics = topLevel.getAttachment(Attachments.ANNOTATION_INDEX_STATISTICS);
+        if (statistics == null) {
+            // the top level deployment is always processed before its sub deployments
+            statistics = new AnnotationIndexStatistics();
+            topLevel.putAttachment(Attachments.ANNOTATION_INDEX_STATISTICS, statistics);
+        }
+        final long start = System.nanoTime();
+        try {
+            ResourceRootIndexer.indexResourceRoots(deploymentUnit, DeploymentUtils.allResourceRoots(deploymentUnit), getParallelism(topLevel),
+                    executor == null ? null : executor.getValue(), getCache(topLevel), statistics);
+        } finally {
+            statistics.addIndexTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
+        context.removeAttachment(Attachments.ANNOTATION_INDEX_STATISTICS);
+    }
+
+    private AnnotationIndexCache getCache(final DeploymentUnit topLevel) {
+        if (cache == null) {
+            return null;
+        }
+        final Long maxSize = topLevel.getAttachment(Attachments.ANNOTATION_INDEX_CACHE_MAX_SIZE);
+        if (maxSize != null) {
+            cache.setMaxSize(maxSize);
+        }
+        return cache.getMaxSize() > 0 ? cache : null;
+    }
+
+    private static int getParallelism(final DeploymentUnit topLevel) {
+        final Integer parallelism = topLevel.getAttachment(Attachments.ANNOTATION_INDEX_PARALLELISM);
+        return parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors();
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Annotation indexing statistics of a top level deployment, including all its sub deployments.
+ */
+public final class AnnotationIndexStatistics {
+
+    private final AtomicLong indexTime = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * @return the time in milliseconds spent building annotation indexes
+     */
+    public long getIndexTime() {
+        return indexTime.get();
+    }
+
+    /**
+     * @return the number of resource roots whose index was read from the {@link AnnotationIndexCache}
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return the number of resource roots which had to be indexed because the {@link AnnotationIndexCache} had no
+     * index for them
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    void addIndexTime(long millis) {
+        indexTime.addAndGet(millis);
+    }
+
+    void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    void cacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+}
@@ -23,16 +23,31 @@
 package org.jboss.as.server.deployment.annotation;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
@@ -47,21 +62,183 @@ import org.jboss.vfs.util.SuffixMatchFilter;
  */
 public class ResourceRootIndexer {
 
+    /**
+     * The number of class files a single indexing task handles. Resource roots with more classes than this are
+     * split into several tasks whose indexes are merged afterwards.
+     */
+    static final int CHUNK_SIZE = 500;
+
     /**
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
-        if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
+        if (!requiresIndex(resourceRoot)) {
             return;
         }
 
+        final VirtualFile virtualFile = resourceRoot.getRoot();
+        try {
+            final List<VirtualFile> classChildren = getClassFiles(resourceRoot);
+            final Index index = indexClasses(virtualFile, classChildren);
+            resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+            ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+        } catch (Throwable t) {
+            throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
+        }
+    }
+
+    /**
+     * Creates and attaches the annotation index to each of the given resource roots that does not have one yet. Resource
+     * roots with many classes are split into chunks, and up to <code>parallelism</code> chunks are indexed at the same
+     * time. The calling thread indexes chunks too, the remaining workers are borrowed from <code>executor</code>.
+     *
+     * @param deploymentUnit the deployment unit the resource roots belong to
+     * @param resourceRoots the resource roots to index
+     * @param parallelism the maximum number of threads to use
+     * @param executor the executor to run additional workers on, may be <code>null</code> to index on the calling thread only
+     * @param cache the cache to look up and store indexes in, may be <code>null</code>
+     * @param statistics the statistics to record cache hits and misses in, may be <code>null</code>
+     * @throws DeploymentUnitProcessingException if indexing one of the roots fails
+     */
+    public static void indexResourceRoots(final DeploymentUnit deploymentUnit, final List<ResourceRoot> resourceRoots, final int parallelism, final Executor executor,
+                                          final AnnotationIndexCache cache, final AnnotationIndexStatistics statistics) throws DeploymentUnitProcessingException {
+        final Map<ResourceRoot, List<VirtualFile>> classFiles = new LinkedHashMap<ResourceRoot, List<VirtualFile>>();
+        final Map<ResourceRoot, String> cacheKeys = new HashMap<ResourceRoot, String>();
+        int tasks = 0;
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            if (classFiles.containsKey(resourceRoot) || !requiresIndex(resourceRoot)) {
+                continue;
+            }
+            final List<VirtualFile> classChildren;
+            try {
+                if (cache != null) {
+                    final String key = cache.key(resourceRoot, deploymentUnit);
+                    if (key != null) {
+                        final Index cached = cache.get(key);
+                        if (cached != null) {
+                            resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                            ServerLogger.DEPLOYMENT_LOGGER.tracef("Found cached index for archive %s", resourceRoot.getRoot());
+                            if (statistics != null) {
+                                statistics.cacheHit();
+                            }
+                            continue;
+                        }
+                        cacheKeys.put(resourceRoot, key);
+                        if (statistics != null) {
+                            statistics.cacheMiss();
+                        }
+                    }
+                }
+                classChildren = getClassFiles(resourceRoot);
+            } catch (Throwable t) {
+                throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
+            }
+            classFiles.put(resourceRoot, classChildren);
+            tasks += Math.max((classChildren.size() + CHUNK_SIZE - 1) / CHUNK_SIZE, 1);
+        }
+        if (classFiles.isEmpty()) {
+            return;
+        }
+        if (executor == null || parallelism <= 1 || tasks <= 1) {
+            for (Map.Entry<ResourceRoot, List<VirtualFile>> entry : classFiles.entrySet()) {
+                final ResourceRoot resourceRoot = entry.getKey();
+                try {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, indexClasses(resourceRoot.getRoot(), entry.getValue()));
+                } catch (Throwable t) {
+                    throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
+                }
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", resourceRoot.getRoot());
+                cache(cache, cacheKeys.get(resourceRoot), resourceRoot);
+            }
+            return;
+        }
+
+        final Queue<FutureTask<Index>> queue = new ConcurrentLinkedQueue<FutureTask<Index>>();
+        final Map<ResourceRoot, List<FutureTask<Index>>> results = new LinkedHashMap<ResourceRoot, List<FutureTask<Index>>>();
+        for (Map.Entry<ResourceRoot, List<VirtualFile>> entry : classFiles.entrySet()) {
+            final VirtualFile virtualFile = entry.getKey().getRoot();
+            final List<VirtualFile> classChildren = entry.getValue();
+            final List<FutureTask<Index>> chunks = new ArrayList<FutureTask<Index>>();
+            int i = 0;
+            do {
+                final List<VirtualFile> chunk = classChildren.subList(i, Math.min(i + CHUNK_SIZE, classChildren.size()));
+                chunks.add(new FutureTask<Index>(new Callable<Index>() {
+                    public Index call() throws Exception {
+                        return indexClasses(virtualFile, chunk);
+                    }
+                }));
+                i += CHUNK_SIZE;
+            } while (i < classChildren.size());
+            queue.addAll(chunks);
+            results.put(entry.getKey(), chunks);
+        }
+
+        // the workers and the calling thread take chunks from the same queue, so every chunk is indexed even if
+        // the executor cannot run the workers right away
+        final Runnable worker = new Runnable() {
+            public void run() {
+                FutureTask<Index> task;
+                while ((task = queue.poll()) != null) {
+                    task.run();
+                }
+            }
+        };
+        final int workers = Math.min(parallelism, tasks) - 1;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        try {
+            for (Map.Entry<ResourceRoot, List<FutureTask<Index>>> entry : results.entrySet()) {
+                final List<Index> indexes = new ArrayList<Index>();
+                for (FutureTask<Index> future : entry.getValue()) {
+                    indexes.add(future.get());
+                }
+                final ResourceRoot resourceRoot = entry.getKey();
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, merge(indexes));
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", resourceRoot.getRoot());
+                cache(cache, cacheKeys.get(resourceRoot), resourceRoot);
+            }
+        } catch (ExecutionException e) {
+            throw ServerMessages.MESSAGES.deploymentIndexingFailed(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ServerMessages.MESSAGES.deploymentIndexingFailed(e);
+        } finally {
+            // stop the workers from picking up the rest of a failed deployment
+            queue.clear();
+        }
+    }
+
+    private static void cache(final AnnotationIndexCache cache, final String key, final ResourceRoot resourceRoot) {
+        final Index index = resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX);
+        if (cache != null && key != null && index != null) {
+            cache.put(key, index);
+        }
+    }
+
+    /**
+     * Attaches a pre-computed index if the resource root ships one.
+     *
+     * @return <code>true</code> if the resource root still has to be indexed
+     */
+    private static boolean requiresIndex(final ResourceRoot resourceRoot) {
+        if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
+            return false;
+        }
+
         VirtualFile indexFile = resourceRoot.getRoot().getChild(ModuleIndexBuilder.INDEX_LOCATION);
         if (indexFile.exists()) {
             try {
                 IndexReader reader = new IndexReader(indexFile.openStream());
                 resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, reader.read());
                 ServerLogger.DEPLOYMENT_LOGGER.tracef("Found and read index at: %s", indexFile);
-                return;
+                return false;
             } catch (Exception e) {
                 ServerLogger.DEPLOYMENT_LOGGER.cannotLoadAnnotationIndex(indexFile.getPathName());
             }
@@ -69,10 +246,10 @@ public class ResourceRootIndexer {
 
         // if this flag is present and set to false then do not index the resource
         Boolean shouldIndexResource = resourceRoot.getAttachment(Attachments.INDEX_RESOURCE_ROOT);
-        if (shouldIndexResource != null && !shouldIndexResource) {
-            return;
-        }
+        return shouldIndexResource == null || shouldIndexResource;
+    }
 
+    private static List<VirtualFile> getClassFiles(final ResourceRoot resourceRoot) throws Exception {
         final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
         final Set<String> indexIgnorePaths;
         if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
@@ -82,33 +259,66 @@ public class ResourceRootIndexer {
         }
 
         final VirtualFile virtualFile = resourceRoot.getRoot();
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+
+        return virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+    }
+
+    private static Index indexClasses(final VirtualFile virtualFile, final List<VirtualFile> classChildren) {
         final Indexer indexer = new Indexer();
-        try {
-            final VisitorAttributes visitorAttributes = new VisitorAttributes();
-            visitorAttributes.setLeavesOnly(true);
-            visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                public boolean accepts(VirtualFile file) {
-                    return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
-                }
-            });
+        for (VirtualFile classFile : classChildren) {
+            InputStream inputStream = null;
+            try {
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
+            } catch (Exception e) {
+                ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        return indexer.complete();
+    }
 
-            final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-            for (VirtualFile classFile : classChildren) {
-                InputStream inputStream = null;
-                try {
-                    inputStream = classFile.openStream();
-                    indexer.index(inputStream);
-                } catch (Exception e) {
-                    ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
-                } finally {
-                    VFSUtils.safeClose(inputStream);
+    /**
+     * Merges the indexes of the chunks of a single resource root into one index.
+     */
+    static Index merge(final List<Index> indexes) {
+        if (indexes.size() == 1) {
+            return indexes.get(0);
+        }
+        final Map<DotName, List<AnnotationInstance>> annotations = new HashMap<DotName, List<AnnotationInstance>>();
+        final Map<DotName, List<ClassInfo>> subclasses = new HashMap<DotName, List<ClassInfo>>();
+        final Map<DotName, ClassInfo> classes = new HashMap<DotName, ClassInfo>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                classes.put(classInfo.name(), classInfo);
+                final DotName superName = classInfo.superName();
+                if (superName != null) {
+                    List<ClassInfo> list = subclasses.get(superName);
+                    if (list == null) {
+                        list = new ArrayList<ClassInfo>();
+                        subclasses.put(superName, list);
+                    }
+                    list.add(classInfo);
+                }
+                // the class annotation map also holds the annotations of fields, methods and parameters
+                for (Map.Entry<DotName, List<AnnotationInstance>> entry : classInfo.annotations().entrySet()) {
+                    List<AnnotationInstance> list = annotations.get(entry.getKey());
+                    if (list == null) {
+                        list = new ArrayList<AnnotationInstance>();
+                        annotations.put(entry.getKey(), list);
+                    }
+                    list.addAll(entry.getValue());
                 }
             }
-            final Index index = indexer.complete();
-            resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
-        } catch (Throwable t) {
-            throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
         }
+        return Index.create(annotations, subclasses, classes);
     }
 }
@@ -30,6 +30,7 @@ import java.io.InputStream;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.repository.ContentRepositoryMetrics;
 import org.jboss.as.repository.DeploymentFileRepository;
 import org.jboss.as.repository.LocalDeploymentFileRepository;
 import org.jboss.msc.service.Service;
@@ -44,7 +45,7 @@ import org.jboss.vfs.VirtualFile;
 /**
  * @author Emanuel Muckenhuber
  */
-public class RemoteFileRepositoryService implements CompositeContentRepository, Service<CompositeContentRepository> {
+public class RemoteFileRepositoryService implements CompositeContentRepository, ContentRepositoryMetrics, Service<CompositeContentRepository> {
 
     private final InjectedValue<HostControllerClient> clientInjectedValue = new InjectedValue<HostControllerClient>();
 
@@ -92,6 +93,26 @@ public class RemoteFileRepositoryService implements CompositeContentRepository,
         return contentRepository.addContent(stream);
     }
 
+    @Override
+    public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+        return contentRepository.addContent(stream, expectedHash);
+    }
+
+    @Override
+    public long getAddedContentCount() {
+        return ((ContentRepositoryMetrics) contentRepository).getAddedContentCount();
+    }
+
+    @Override
+    public long getAddedBytes() {
+        return ((ContentRepositoryMetrics) contentRepository).getAddedBytes();
+    }
+
+    @Override
+    public long getAddTime() {
+        return ((ContentRepositoryMetrics) contentRepository).getAddTime();
+    }
+
     @Override
     public VirtualFile getContent(byte[] hash) {
         return contentRepository.getContent(hash);
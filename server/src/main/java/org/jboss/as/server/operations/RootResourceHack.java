@@ -65,22 +65,39 @@ public class RootResourceHack implements OperationStepHandler {
     @Override
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
         ResourceAndRegistration threadResource = resource.get();
-        if (threadResource == null || threadResource != ResourceAndRegistration.NULL) {
+        if (threadResource == ResourceAndRegistration.NULL) {
+            resource.set(new ResourceAndRegistration(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true), context.getResourceRegistration()));
+        } else if (threadResource == ResourceAndRegistration.REGISTRATION_ONLY) {
+            resource.set(new ResourceAndRegistration(null, context.getResourceRegistration()));
+        } else {
             throw ServerMessages.MESSAGES.internalUseOnly();
         }
-        resource.set(new ResourceAndRegistration(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true), context.getResourceRegistration()));
         context.stepCompleted();
     }
 
     public ResourceAndRegistration getRootResource(ModelController controller) {
-        resource.set(ResourceAndRegistration.NULL);
+        return execute(controller, ResourceAndRegistration.NULL);
+    }
+
+    /**
+     * Gets the root registration without copying the model.
+     *
+     * @param controller the controller
+     * @return the root registration
+     */
+    public ImmutableManagementResourceRegistration getRootRegistration(ModelController controller) {
+        return execute(controller, ResourceAndRegistration.REGISTRATION_ONLY).getRegistration();
+    }
+
+    private ResourceAndRegistration execute(ModelController controller, ResourceAndRegistration request) {
+        resource.set(request);
         ResourceAndRegistration reg = null;
         try {
             controller.execute(OPERATION, null, OperationTransactionControl.COMMIT, null);
         } finally {
             reg = resource.get();
             resource.remove();
-            if (ResourceAndRegistration.NULL == reg) {
+            if (request == reg) {
                 throw ServerMessages.MESSAGES.cannotGetRootResource();
             }
         }
@@ -89,6 +106,7 @@ public class RootResourceHack implements OperationStepHandler {
 
     public static class ResourceAndRegistration {
         private static final ResourceAndRegistration NULL = new ResourceAndRegistration(null, null);
+        private static final ResourceAndRegistration REGISTRATION_ONLY = new ResourceAndRegistration(null, null);
         private final Resource resource;
         private final ImmutableManagementResourceRegistration registry;
 
@@ -26,6 +26,7 @@ import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONFIGURATION_WRITE_INTERVAL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
@@ -376,6 +377,7 @@ public class StandaloneXml extends CommonXml implements ManagementXml.Delegate {
         parseNamespaces(reader, address, list);
 
         ModelNode serverName = null;
+        ModelNode writeInterval = null;
 
         // attributes
         final int count = reader.getAttributeCount();
@@ -389,6 +391,10 @@ public class StandaloneXml extends CommonXml implements ManagementXml.Delegate {
                             serverName = ServerRootResourceDefinition.NAME.parse(value, reader);
                             break;
                         }
+                        case CONFIGURATION_WRITE_INTERVAL: {
+                            writeInterval = ServerRootResourceDefinition.CONFIGURATION_WRITE_INTERVAL.parse(value, reader);
+                            break;
+                        }
                         default:
                             throw unexpectedAttribute(reader, i);
                     }
@@ -416,6 +422,9 @@ public class StandaloneXml extends CommonXml implements ManagementXml.Delegate {
         }
 
         setServerName(address, list, serverName);
+        if (writeInterval != null) {
+            list.add(Util.getWriteAttributeOperation(address, CONFIGURATION_WRITE_INTERVAL, writeInterval));
+        }
 
         // elements - sequence
 
@@ -1066,6 +1075,7 @@ public class StandaloneXml extends CommonXml implements ManagementXml.Delegate {
         if (modelNode.hasDefined(NAME)) {
             ServerRootResourceDefinition.NAME.marshallAsAttribute(modelNode, false, writer);
         }
+        ServerRootResourceDefinition.CONFIGURATION_WRITE_INTERVAL.marshallAsAttribute(modelNode, false, writer);
 
         writer.writeDefaultNamespace(Namespace.CURRENT.getUriString());
         writeNamespaces(writer, modelNode);
@@ -130,6 +130,11 @@ public class DeploymentAddHandlerTestCase {
             return null;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return null;
+        }
+
         @Override
         public void addContentReference(byte[] hash, Object reference) {
         }
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link AnnotationIndexCache} and the merging of chunk indexes.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("annotation-index", "test");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, 1024 * 1024);
+        Assert.assertNull(cache.get("abc"));
+
+        cache.put("abc", index(Test.class));
+        final Index index = cache.get("abc");
+        Assert.assertNotNull(index);
+        Assert.assertNotNull(index.getClassByName(DotName.createSimple(Test.class.getName())));
+    }
+
+    @Test
+    public void testDiscardForeignEntry() throws Exception {
+        final File entry = new File(directory, "abc.idx");
+        final FileOutputStream out = new FileOutputStream(entry);
+        try {
+            out.write(new byte[] {0, 3, 'f', 'o', 'o'});
+        } finally {
+            out.close();
+        }
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, 1024 * 1024);
+        Assert.assertNull(cache.get("abc"));
+        Assert.assertFalse(entry.exists());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, 1);
+        cache.put("abc", index(Test.class));
+        Assert.assertNull(cache.get("abc"));
+    }
+
+    @Test
+    public void testSetMaxSize() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, 1024 * 1024);
+        cache.put("abc", index(Test.class));
+        Assert.assertNotNull(cache.get("abc"));
+
+        cache.setMaxSize(0);
+        Assert.assertEquals(0, cache.getMaxSize());
+        Assert.assertNull(cache.get("abc"));
+        Assert.assertEquals(0, directory.listFiles().length);
+
+        // the size of the deleted entries is no longer accounted for
+        cache.setMaxSize(1024 * 1024);
+        cache.put("abc", index(Test.class));
+        Assert.assertNotNull(cache.get("abc"));
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        final byte[] hash = {1, 2, 3};
+        final String key = AnnotationIndexCache.key(hash, "lib/a.jar", null);
+        Assert.assertEquals(key, AnnotationIndexCache.key(new byte[] {1, 2, 3}, "lib/a.jar", Collections.<String>emptyList()));
+        Assert.assertFalse(key.equals(AnnotationIndexCache.key(new byte[] {1, 2, 4}, "lib/a.jar", null)));
+        Assert.assertFalse(key.equals(AnnotationIndexCache.key(hash, "lib/b.jar", null)));
+        Assert.assertFalse(key.equals(AnnotationIndexCache.key(hash, "lib/a.jar", Arrays.asList("org/foo"))));
+        Assert.assertEquals(AnnotationIndexCache.key(hash, "lib/a.jar", Arrays.asList("org/foo", "org/bar")),
+                AnnotationIndexCache.key(hash, "lib/a.jar", Arrays.asList("org/bar", "org/foo")));
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        final Index merged = ResourceRootIndexer.merge(Arrays.asList(index(Test.class), index(AnnotationIndexCacheTestCase.class)));
+        Assert.assertNotNull(merged.getClassByName(DotName.createSimple(Test.class.getName())));
+        Assert.assertNotNull(merged.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+        Assert.assertEquals(testCount(), merged.getAnnotations(DotName.createSimple(Test.class.getName())).size());
+    }
+
+    private static int testCount() {
+        int count = 0;
+        for (Method method : AnnotationIndexCacheTestCase.class.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Index index(Class<?> clazz) throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        return indexer.complete();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.VFS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests indexing several resource roots on more than one thread with the {@link ResourceRootIndexer}.
+ */
+public class ResourceRootIndexerTestCase {
+
+    private File directory;
+    private List<ResourceRoot> resourceRoots;
+
+    @Before
+    public void createResourceRoots() throws IOException {
+        directory = File.createTempFile("resource-root-indexer", "test");
+        directory.delete();
+        directory.mkdirs();
+        resourceRoots = Arrays.asList(
+                resourceRoot("a", ResourceRootIndexerTestCase.class, AnnotationIndexCacheTestCase.class),
+                resourceRoot("b", Test.class, Assert.class),
+                resourceRoot("c", Before.class, After.class));
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    @Test
+    public void testParallelIndexMatchesSerialIndex() throws Exception {
+        ResourceRootIndexer.indexResourceRoots(null, resourceRoots, 1, null, null, null);
+        final List<Set<String>> serial = new ArrayList<Set<String>>();
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            serial.add(classNames(resourceRoot));
+            resourceRoot.removeAttachment(Attachments.ANNOTATION_INDEX);
+        }
+
+        final AtomicInteger workers = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ResourceRootIndexer.indexResourceRoots(null, resourceRoots, 4, new Executor() {
+                public void execute(Runnable command) {
+                    workers.incrementAndGet();
+                    executor.execute(command);
+                }
+            }, null, null);
+        } finally {
+            executor.shutdown();
+        }
+        // one chunk per resource root, the calling thread indexes one of the three
+        Assert.assertEquals(2, workers.get());
+        for (int i = 0; i < resourceRoots.size(); i++) {
+            Assert.assertEquals(serial.get(i), classNames(resourceRoots.get(i)));
+            Assert.assertEquals(2, serial.get(i).size());
+        }
+    }
+
+    @Test
+    public void testCallingThreadIndexesWhenWorkersDoNotRun() throws Exception {
+        final List<Runnable> pending = new ArrayList<Runnable>();
+        ResourceRootIndexer.indexResourceRoots(null, resourceRoots, 4, new Executor() {
+            public void execute(Runnable command) {
+                pending.add(command);
+            }
+        }, null, null);
+        Assert.assertEquals(2, pending.size());
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            Assert.assertEquals(2, classNames(resourceRoot).size());
+        }
+        // the workers find nothing left to do once they get to run
+        for (Runnable worker : pending) {
+            worker.run();
+        }
+    }
+
+    @Test
+    public void testCallingThreadIndexesWhenWorkersAreRejected() throws Exception {
+        ResourceRootIndexer.indexResourceRoots(null, resourceRoots, 4, new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, null, null);
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            Assert.assertEquals(2, classNames(resourceRoot).size());
+        }
+    }
+
+    private ResourceRoot resourceRoot(final String name, final Class<?>... classes) throws IOException {
+        final File root = new File(directory, name);
+        for (Class<?> clazz : classes) {
+            final String path = clazz.getName().replace('.', '/') + ".class";
+            final File file = new File(root, path);
+            file.getParentFile().mkdirs();
+            final InputStream in = clazz.getClassLoader().getResourceAsStream(path);
+            try {
+                final OutputStream out = new FileOutputStream(file);
+                try {
+                    final byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                } finally {
+                    out.close();
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return new ResourceRoot(VFS.getChild(root.getAbsolutePath()), null);
+    }
+
+    private static Set<String> classNames(final ResourceRoot resourceRoot) {
+        final Index index = resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX);
+        Assert.assertNotNull(index);
+        final Set<String> names = new HashSet<String>();
+        for (ClassInfo classInfo : index.getKnownClasses()) {
+            names.add(classInfo.name().toString());
+        }
+        return names;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -462,6 +462,11 @@ public class ServerControllerUnitTestCase {
             return null;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return null;
+        }
+
         @Override
         public boolean syncContent(byte[] hash) {
             return hasContent(hash);
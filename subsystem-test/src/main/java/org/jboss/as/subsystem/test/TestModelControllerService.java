@@ -145,6 +145,11 @@ class TestModelControllerService extends ModelTestModelControllerService {
             return null;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return null;
+        }
+
         @Override
         public VirtualFile getContent(byte[] hash) {
             return null;
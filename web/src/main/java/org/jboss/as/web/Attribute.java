@@ -41,6 +41,7 @@ enum Attribute {
     CHECK_INTERVAL(Constants.CHECK_INTERVAL),
     CIPHER_SUITE(Constants.CIPHER_SUITE),
     DEFAULT_VIRTUAL_SERVER(Constants.DEFAULT_VIRTUAL_SERVER),
+    DELTA_REPLICATION(Constants.DELTA_REPLICATION),
     DEFAULT_WEB_MODULE(Constants.DEFAULT_WEB_MODULE),
     DEVELOPMENT(Constants.DEVELOPMENT),
     DIRECTORY(Constants.DIRECTORY),
@@ -92,6 +93,7 @@ enum Attribute {
     SESSION_CACHE_SIZE(Constants.SESSION_CACHE_SIZE),
     SESSION_TIMEOUT(Constants.SESSION_TIMEOUT),
     SMAP(Constants.SMAP),
+    SNAPSHOT_COALESCING(Constants.SNAPSHOT_COALESCING),
     SOCKET_BINDING(Constants.SOCKET_BINDING),
     SOURCE_VM(Constants.SOURCE_VM),
     SUBSTITUTION(Constants.SUBSTITUTION),
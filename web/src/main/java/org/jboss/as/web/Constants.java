@@ -43,11 +43,13 @@ public interface Constants {
     String CONNECTOR = "connector";
     String CONTAINER = "container";
     String DEFAULT_VIRTUAL_SERVER = "default-virtual-server";
+    String DELTA_REPLICATION = "delta-replication";
     String DEFAULT_WEB_MODULE = "default-web-module";
     String DEVELOPMENT = "development";
     String DIRECTORY = "directory";
     String DISABLED = "disabled";
     String DISPLAY_SOURCE_FRAGMENT = "display-source-fragment";
+    String DISTRIBUTABLE = "distributable";
     String DOMAIN = "domain";
     String DUMP_SMAP = "dump-smap";
     String ENABLED = "enabled";
@@ -98,6 +100,7 @@ public interface Constants {
     String SESSION_CACHE_SIZE = "session-cache-size";
     String SESSION_TIMEOUT = "session-timeout";
     String SMAP = "smap";
+    String SNAPSHOT_COALESCING = "snapshot-coalescing";
     String SOCKET_BINDING = "socket-binding";
     String SOURCE_VM = "source-vm";
     String SSL = "ssl";
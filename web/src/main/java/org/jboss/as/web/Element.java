@@ -37,6 +37,7 @@ enum Element {
     CONNECTOR(Constants.CONNECTOR),
     CONTAINER_CONFIG(Constants.CONFIGURATION),
     DIRECTORY(Constants.DIRECTORY),
+    DISTRIBUTABLE(Constants.DISTRIBUTABLE),
     JSP_CONFIGURATION(Constants.JSP_CONFIGURATION),
     MIME_MAPPING(Constants.MIME_MAPPING),
     REWRITE(Constants.REWRITE),
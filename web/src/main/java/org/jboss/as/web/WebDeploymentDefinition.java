@@ -36,6 +36,7 @@ import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.web.session.DistributableSessionManagerMBean;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
@@ -102,44 +103,78 @@ public class WebDeploymentDefinition extends SimpleResourceDefinition {
                 context.getFailureDescription().set(WebMessages.MESSAGES.unknownMetric(operation.require(ModelDescriptionConstants.NAME).asString()));
             } else {
                 final Context webContext = Context.class.cast(controller.getValue());
-                ManagerBase sm = (ManagerBase) webContext.getManager();
-                ModelNode result = new ModelNode();
-                switch (stat) {
-                    case ACTIVE_SESSIONS:
-                        // todo: what about other manager implementations?
+                context.getResult().set(getStatValue(stat, (ManagerBase) webContext.getManager()));
+            }
+
+            context.stepCompleted();
+        }
+
+        static ModelNode getStatValue(SessionStat stat, ManagerBase sm) {
+            ModelNode result = new ModelNode();
+            switch (stat) {
+                case ACTIVE_SESSIONS:
+                    // todo: what about other manager implementations?
 //                  if (sm.getDistributable() && (sm instanceof DistributableSessionManager)) {
 //                     result.set(((DistributableSessionManager)sm).getActiveSessionCount());
 //                  }
-                        result.set(sm.getActiveSessions());
-                        break;
-                    case EXPIRED_SESSIONS:
-                        result.set(sm.getExpiredSessions());
-                        break;
-                    case MAX_ACTIVE_SESSIONS:
-                        result.set(sm.getMaxActive());
-                        break;
-                    case SESSIONS_CREATED:
-                        result.set(sm.getSessionCounter());
-                        break;
-                    case DUPLICATED_SESSION_IDS:
-                        result.set(sm.getDuplicates());
-                        break;
-                    case SESSION_AVG_ALIVE_TIME:
-                        result.set(sm.getSessionAverageAliveTime());
-                        break;
-                    case SESSION_MAX_ALIVE_TIME:
-                        result.set(sm.getSessionMaxAliveTime());
-                        break;
-                    case REJECTED_SESSIONS:
-                        result.set(sm.getRejectedSessions());
-                        break;
-                    default:
-                        throw new IllegalStateException(WebMessages.MESSAGES.unknownMetric(stat));
-                }
-                context.getResult().set(result);
+                    result.set(sm.getActiveSessions());
+                    break;
+                case EXPIRED_SESSIONS:
+                    result.set(sm.getExpiredSessions());
+                    break;
+                case MAX_ACTIVE_SESSIONS:
+                    result.set(sm.getMaxActive());
+                    break;
+                case SESSIONS_CREATED:
+                    result.set(sm.getSessionCounter());
+                    break;
+                case DUPLICATED_SESSION_IDS:
+                    result.set(sm.getDuplicates());
+                    break;
+                case SESSION_AVG_ALIVE_TIME:
+                    result.set(sm.getSessionAverageAliveTime());
+                    break;
+                case SESSION_MAX_ALIVE_TIME:
+                    result.set(sm.getSessionMaxAliveTime());
+                    break;
+                case REJECTED_SESSIONS:
+                    result.set(sm.getRejectedSessions());
+                    break;
+                case LAST_EXPIRATION_CHECKED_SESSIONS:
+                    // only distributable managers track the expiration process, the others leave it undefined
+                    if (sm instanceof DistributableSessionManagerMBean) {
+                        result.set(((DistributableSessionManagerMBean) sm).getLastExpirationCheckedSessionCount());
+                    }
+                    break;
+                case LAST_EXPIRATION_PROCESSING_TIME:
+                    if (sm instanceof DistributableSessionManagerMBean) {
+                        result.set(((DistributableSessionManagerMBean) sm).getLastExpirationProcessingTime());
+                    }
+                    break;
+                case EXPIRATION_CHECKED_SESSIONS:
+                    if (sm instanceof DistributableSessionManagerMBean) {
+                        result.set(((DistributableSessionManagerMBean) sm).getExpirationCheckedSessionCount());
+                    }
+                    break;
+                case EXPIRATION_FULL_SCANS:
+                    if (sm instanceof DistributableSessionManagerMBean) {
+                        result.set(((DistributableSessionManagerMBean) sm).getExpirationFullScanCount());
+                    }
+                    break;
+                case SNAPSHOT_REPLICATION_LAG:
+                    if (sm instanceof DistributableSessionManagerMBean) {
+                        result.set(((DistributableSessionManagerMBean) sm).getSnapshotReplicationLag());
+                    }
+                    break;
+                case SNAPSHOT_BACKLOG:
+                    if (sm instanceof DistributableSessionManagerMBean) {
+                        result.set(((DistributableSessionManagerMBean) sm).getSnapshotBacklog());
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException(WebMessages.MESSAGES.unknownMetric(stat));
             }
-
-            context.stepCompleted();
+            return result;
         }
 
     }
@@ -152,7 +187,13 @@ public class WebDeploymentDefinition extends SimpleResourceDefinition {
         SESSION_AVG_ALIVE_TIME(new SimpleAttributeDefinition("session-avg-alive-time", ModelType.INT, false)),
         SESSION_MAX_ALIVE_TIME(new SimpleAttributeDefinition("session-max-alive-time", ModelType.INT, false)),
         REJECTED_SESSIONS(new SimpleAttributeDefinition("rejected-sessions", ModelType.INT, false)),
-        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinition("max-active-sessions", ModelType.INT, false));
+        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinition("max-active-sessions", ModelType.INT, false)),
+        LAST_EXPIRATION_CHECKED_SESSIONS(new SimpleAttributeDefinition("last-expiration-checked-sessions", ModelType.INT, true)),
+        LAST_EXPIRATION_PROCESSING_TIME(new SimpleAttributeDefinition("last-expiration-processing-time", ModelType.LONG, true)),
+        EXPIRATION_CHECKED_SESSIONS(new SimpleAttributeDefinition("expiration-checked-sessions", ModelType.LONG, true)),
+        EXPIRATION_FULL_SCANS(new SimpleAttributeDefinition("expiration-full-scans", ModelType.INT, true)),
+        SNAPSHOT_REPLICATION_LAG(new SimpleAttributeDefinition("snapshot-replication-lag", ModelType.LONG, true)),
+        SNAPSHOT_BACKLOG(new SimpleAttributeDefinition("snapshot-backlog", ModelType.INT, true));
 
         private static final Map<String, SessionStat> MAP = new HashMap<String, SessionStat>();
 
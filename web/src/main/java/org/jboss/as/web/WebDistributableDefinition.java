@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * The settings shared by all distributable web applications.
+ */
+public class WebDistributableDefinition extends SimpleResourceDefinition {
+    public static final WebDistributableDefinition INSTANCE = new WebDistributableDefinition();
+
+    protected static final SimpleAttributeDefinition SNAPSHOT_COALESCING =
+            new SimpleAttributeDefinitionBuilder(Constants.SNAPSHOT_COALESCING, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new ModelTypeValidator(ModelType.BOOLEAN, true))
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
+    protected static final SimpleAttributeDefinition DELTA_REPLICATION =
+            new SimpleAttributeDefinitionBuilder(Constants.DELTA_REPLICATION, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new ModelTypeValidator(ModelType.BOOLEAN, true))
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
+    protected static final SimpleAttributeDefinition[] DISTRIBUTABLE_ATTRIBUTES = {
+            // IMPORTANT -- keep these in xsd order as this order controls marshalling
+            SNAPSHOT_COALESCING,
+            DELTA_REPLICATION
+    };
+
+    private WebDistributableDefinition() {
+        super(WebExtension.DISTRIBUTABLE_PATH,
+                WebExtension.getResourceDescriptionResolver("configuration.distributable"),
+                WebDistributableAdd.INSTANCE,
+                new ReloadRequiredRemoveStepHandler());
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resources) {
+        for (SimpleAttributeDefinition def : DISTRIBUTABLE_ATTRIBUTES) {
+            resources.registerReadWriteAttribute(def, null, new ReloadRequiredWriteAttributeHandler(def));
+        }
+    }
+}
@@ -81,6 +81,7 @@ public class WebExtension implements Extension {
     protected static final PathElement JSP_CONFIGURATION_PATH = PathElement.pathElement(Constants.CONFIGURATION, Constants.JSP_CONFIGURATION);
     protected static final PathElement STATIC_RESOURCES_PATH = PathElement.pathElement(Constants.CONFIGURATION, Constants.STATIC_RESOURCES);
     protected static final PathElement CONTAINER_PATH = PathElement.pathElement(Constants.CONFIGURATION, Constants.CONTAINER);
+    protected static final PathElement DISTRIBUTABLE_PATH = PathElement.pathElement(Constants.CONFIGURATION, Constants.DISTRIBUTABLE);
 
     protected static final PathElement ACCESS_LOG_PATH = PathElement.pathElement(Constants.CONFIGURATION, Constants.ACCESS_LOG);
     protected static final PathElement ACCESS_LOG_ALIAS = PathElement.pathElement(Constants.ACCESS_LOG, Constants.CONFIGURATION);
@@ -159,6 +160,9 @@ public class WebExtension implements Extension {
         // configuration=container
         registration.registerSubModel(WebContainerDefinition.INSTANCE);
 
+        // configuration=distributable
+        registration.registerSubModel(WebDistributableDefinition.INSTANCE);
+
 
         //deployment
         final ManagementResourceRegistration deployments = subsystem.registerDeploymentModel(WebDeploymentDefinition.INSTANCE);
@@ -191,6 +195,7 @@ public class WebExtension implements Extension {
 
         final TransformersSubRegistration transformers = registration.registerModelTransformers(ModelVersion.create(1, 1, 0), ResourceTransformer.DEFAULT);
         transformers.registerSubResource(VALVE_PATH, true);
+        transformers.registerSubResource(DISTRIBUTABLE_PATH, true);
         // configuration
         rejectExpressions(transformers, JSP_CONFIGURATION_PATH, WebJSPDefinition.JSP_ATTRIBUTES);
         rejectExpressions(transformers, STATIC_RESOURCES_PATH, WebStaticResources.STATIC_ATTRIBUTES);
@@ -100,6 +100,9 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler {
         final boolean useNative = WebDefinition.NATIVE.resolveModelAttribute(context, fullModel).asBoolean();
         final ModelNode instanceIdModel = WebDefinition.INSTANCE_ID.resolveModelAttribute(context, fullModel);
         final String instanceId = instanceIdModel.isDefined() ? instanceIdModel.asString() : null;
+        final ModelNode distributable = fullModel.get(Constants.CONFIGURATION, Constants.DISTRIBUTABLE);
+        final boolean snapshotCoalescing = WebDistributableDefinition.SNAPSHOT_COALESCING.resolveModelAttribute(context, distributable).asBoolean();
+        final boolean deltaReplication = WebDistributableDefinition.DELTA_REPLICATION.resolveModelAttribute(context, distributable).asBoolean();
 
         final WebServerService service = new WebServerService(defaultVirtualServer, useNative, instanceId, TEMP_DIR);
 
@@ -127,7 +130,7 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 processorTarget.addDeploymentProcessor(WebExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_EL_EXPRESSION_FACTORY, new ELExpressionFactoryProcessor());
 
                 processorTarget.addDeploymentProcessor(WebExtension.SUBSYSTEM_NAME, Phase.INSTALL, Phase.INSTALL_SERVLET_INIT_DEPLOYMENT, new ServletContainerInitializerDeploymentProcessor());
-                processorTarget.addDeploymentProcessor(WebExtension.SUBSYSTEM_NAME, Phase.INSTALL, Phase.INSTALL_WAR_DEPLOYMENT, new WarDeploymentProcessor(defaultVirtualServer, service));
+                processorTarget.addDeploymentProcessor(WebExtension.SUBSYSTEM_NAME, Phase.INSTALL, Phase.INSTALL_WAR_DEPLOYMENT, new WarDeploymentProcessor(defaultVirtualServer, service, snapshotCoalescing, deltaReplication));
             }
         }, OperationContext.Stage.RUNTIME);
 
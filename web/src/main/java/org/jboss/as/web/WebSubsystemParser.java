@@ -39,6 +39,7 @@ import static org.jboss.as.web.Constants.CONDITION;
 import static org.jboss.as.web.Constants.CONFIGURATION;
 import static org.jboss.as.web.Constants.CONNECTOR;
 import static org.jboss.as.web.Constants.CONTAINER;
+import static org.jboss.as.web.Constants.DISTRIBUTABLE;
 import static org.jboss.as.web.Constants.FLAGS;
 import static org.jboss.as.web.Constants.JSP_CONFIGURATION;
 import static org.jboss.as.web.Constants.MIME_MAPPING;
@@ -109,6 +110,9 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         WebDefinition.NATIVE.marshallAsAttribute(node, true, writer);
         if (node.hasDefined(CONFIGURATION)) {
             writeContainerConfig(writer, node.get(CONFIGURATION));
+            if (node.get(CONFIGURATION).hasDefined(DISTRIBUTABLE)) {
+                writeDistributable(writer, node.get(CONFIGURATION, DISTRIBUTABLE));
+            }
         }
         if (node.hasDefined(CONNECTOR)) {
             for (final Property connector : node.get(CONNECTOR).asPropertyList()) {
@@ -274,6 +278,13 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         }
     }
 
+    private void writeDistributable(XMLExtendedStreamWriter writer, ModelNode config) throws XMLStreamException {
+        writer.writeEmptyElement(Element.DISTRIBUTABLE.getLocalName());
+        for (SimpleAttributeDefinition def : WebDistributableDefinition.DISTRIBUTABLE_ATTRIBUTES) {
+            def.marshallAsAttribute(config, false, writer);
+        }
+    }
+
     private boolean writeStaticResources(XMLExtendedStreamWriter writer, ModelNode config) throws XMLStreamException {
 
         boolean startWritten = false;
@@ -409,6 +420,10 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
                             parseValve(reader, address, list);
                             break;
                         }
+                        case DISTRIBUTABLE: {
+                            parseDistributable(reader, address, list);
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -426,6 +441,30 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
 
     }
 
+    private static void parseDistributable(XMLExtendedStreamReader reader, PathAddress parent, List<ModelNode> list) throws XMLStreamException {
+        final ModelNode distributable = new ModelNode();
+        distributable.get(OP).set(ADD);
+        distributable.get(OP_ADDR).set(PathAddress.pathAddress(parent, WebExtension.DISTRIBUTABLE_PATH).toModelNode());
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case SNAPSHOT_COALESCING:
+                    WebDistributableDefinition.SNAPSHOT_COALESCING.parseAndSetParameter(value, distributable, reader);
+                    break;
+                case DELTA_REPLICATION:
+                    WebDistributableDefinition.DELTA_REPLICATION.parseAndSetParameter(value, distributable, reader);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+        list.add(distributable);
+    }
+
     private static void parseValve(XMLExtendedStreamReader reader, PathAddress parent, List<ModelNode> list) throws XMLStreamException {
         String name = null;
         final ModelNode valve = new ModelNode();
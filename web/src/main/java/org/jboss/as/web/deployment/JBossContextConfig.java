@@ -126,6 +126,8 @@ public class JBossContextConfig extends ContextConfig {
     private Set<String> overlays = new HashSet<String>();
     private final InjectedValue<DistributedCacheManagerFactory> factory = new InjectedValue<DistributedCacheManagerFactory>();
     private Map<String, AuthenticatorValve> authenValves = null;
+    private boolean snapshotCoalescing;
+    private boolean deltaReplication;
     /**
      * <p>
      * Creates a new instance of {@code JBossContextConfig}.
@@ -136,11 +138,13 @@ public class JBossContextConfig extends ContextConfig {
         this.deploymentUnitContext = deploymentUnitContext;
     }
 
-    public JBossContextConfig(DeploymentUnit deploymentUnitContext, WebServerService service) {
+    public JBossContextConfig(DeploymentUnit deploymentUnitContext, WebServerService service, boolean snapshotCoalescing, boolean deltaReplication) {
         super();
         this.deploymentUnitContext = deploymentUnitContext;
         if (service !=null)
             this.authenValves = service.getAuthenValves();
+        this.snapshotCoalescing = snapshotCoalescing;
+        this.deltaReplication = deltaReplication;
     }
 
     @Override
@@ -279,7 +283,9 @@ public class JBossContextConfig extends ContextConfig {
         if (module != null && metaData.getDistributable() != null) {
             try {
                 ClassResolver resolver = ModularClassResolver.getInstance(module.getModuleLoader());
-                context.setManager(new DistributableSessionManager<OutgoingDistributableSessionData>(this.factory.getValue(), metaData, new ClassLoaderAwareClassResolver(resolver, module.getClassLoader())));
+                DistributableSessionManager<OutgoingDistributableSessionData> manager = new DistributableSessionManager<OutgoingDistributableSessionData>(this.factory.getValue(), metaData, new ClassLoaderAwareClassResolver(resolver, module.getClassLoader()), this.deltaReplication);
+                manager.setSnapshotCoalescing(this.snapshotCoalescing);
+                context.setManager(manager);
                 context.setDistributable(true);
             } catch (Exception e) {
                 WebLogger.WEB_LOGGER.clusteringNotSupported();
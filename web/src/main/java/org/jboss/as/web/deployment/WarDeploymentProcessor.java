@@ -99,13 +99,17 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
 
     private final String defaultHost;
     private final WebServerService service;
+    private final boolean snapshotCoalescing;
+    private final boolean deltaReplication;
 
-    public WarDeploymentProcessor(String defaultHost, WebServerService service) {
+    public WarDeploymentProcessor(String defaultHost, WebServerService service, boolean snapshotCoalescing, boolean deltaReplication) {
         if (defaultHost == null) {
             throw MESSAGES.nullDefaultHost();
         }
         this.defaultHost = defaultHost;
         this.service = service;
+        this.snapshotCoalescing = snapshotCoalescing;
+        this.deltaReplication = deltaReplication;
     }
 
     public WarDeploymentProcessor(String defaultHost) {
@@ -114,6 +118,8 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
         }
         this.defaultHost = defaultHost;
         this.service = null;
+        this.snapshotCoalescing = false;
+        this.deltaReplication = false;
     }
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -166,7 +172,7 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
 
         // Create the context
         final StandardContext webContext = contextFactory.createContext(deploymentUnit);
-        final JBossContextConfig config = new JBossContextConfig(deploymentUnit, this.service);
+        final JBossContextConfig config = new JBossContextConfig(deploymentUnit, this.service, this.snapshotCoalescing, this.deltaReplication);
 
         // Add SecurityAssociationValve right at the beginning
         webContext.addValve(new SecurityContextAssociationValve(deploymentUnit));
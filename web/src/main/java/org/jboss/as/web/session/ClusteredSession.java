@@ -426,6 +426,13 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
         return (this.lastAccessedTime);
     }
 
+    /**
+     * Gets the time of the current or most recent request for this session, which is what its timeout is based on.
+     */
+    long getThisAccessedTimeInternal() {
+        return this.thisAccessedTime;
+    }
+
     @Override
     public Manager getManager() {
         return (this.manager);
@@ -460,6 +467,9 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
         this.maxInactiveInterval = interval;
         checkAlwaysReplicateTimestamp();
         sessionMetadataDirty();
+        if (this.manager != null) {
+            this.manager.maxInactiveIntervalChanged(this);
+        }
     }
 
     @Override
@@ -66,4 +66,10 @@ public interface ClusteredSessionManager<O extends OutgoingDistributableSessionD
      * Gets the <code>DistributedCacheManager</code> through which we interact with the distributed cache.
      */
     DistributedCacheManager<O> getDistributedCacheManager();
+
+    /**
+     * Notifies the manager that the maximum inactive interval of the given session was changed.
+     * @param session the session
+     */
+    void maxInactiveIntervalChanged(ClusteredSession<O> session);
 }
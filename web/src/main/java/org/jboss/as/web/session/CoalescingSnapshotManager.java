@@ -0,0 +1,315 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import static org.jboss.as.web.WebLogger.WEB_SESSION_LOGGER;
+import static org.jboss.as.web.WebMessages.MESSAGES;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.clustering.web.BatchingManager;
+import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
+
+/**
+ * A snapshot manager that collects all modified sessions over a given period of time and distributes them in batches.
+ * <p/>
+ * Unlike {@link IntervalSnapshotManager}, which uses a thread per web application and a batch per session, the sessions of
+ * all web applications using this snapshot manager are distributed by a single shared {@link Distributor}, in as few
+ * batches as possible: a batch holds the sessions of every web application whose interval has elapsed. A session
+ * modified several times during an interval is only distributed once. A failure rolls back the batch it occurred in, just
+ * like it does for all sessions touched by a request with instant replication.
+ * <p/>
+ * The number of sessions waiting to be distributed is bounded; once the backlog is full, modified sessions are
+ * distributed by the request thread like with instant replication.
+ */
+public class CoalescingSnapshotManager extends SnapshotManager {
+
+    static final int DEFAULT_MAX_BACKLOG = 10000;
+    static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private static final Distributor DISTRIBUTOR = new Distributor(DEFAULT_MAX_BATCH_SIZE);
+
+    private final ClusteredSessionManager<? extends OutgoingDistributableSessionData> manager;
+    private final int interval;
+    private final int maxBacklog;
+    private final Distributor distributor;
+
+    // the modified sessions, mapped to the time they were first queued
+    private final ConcurrentMap<ClusteredSession<? extends OutgoingDistributableSessionData>, Long> sessions = new ConcurrentHashMap<ClusteredSession<? extends OutgoingDistributableSessionData>, Long>();
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    private final AtomicLong replicationLag = new AtomicLong();
+
+    private volatile boolean processingAllowed = false;
+    // when the distributor last took the sessions of this manager; only used by the distributor
+    private long lastDistribution;
+
+    public CoalescingSnapshotManager(ClusteredSessionManager<? extends OutgoingDistributableSessionData> manager, String path, int interval) {
+        this(manager, path, interval, DEFAULT_MAX_BACKLOG, DISTRIBUTOR);
+    }
+
+    CoalescingSnapshotManager(ClusteredSessionManager<? extends OutgoingDistributableSessionData> manager, String path, int interval, int maxBacklog, Distributor distributor) {
+        super(manager, path);
+        this.manager = manager;
+        this.interval = interval;
+        this.maxBacklog = maxBacklog;
+        this.distributor = distributor;
+    }
+
+    /**
+     * Queue the modified session for the distributor
+     */
+    @Override
+    public void snapshot(ClusteredSession<? extends OutgoingDistributableSessionData> session) {
+        if (session == null) return;
+        try {
+            if (this.sessions.putIfAbsent(session, Long.valueOf(System.currentTimeMillis())) == null) {
+                if ((this.backlog.incrementAndGet() > this.maxBacklog) && (this.sessions.remove(session) != null)) {
+                    this.backlog.decrementAndGet();
+                    this.manager.storeSession(session);
+                }
+            }
+        } catch (Exception e) {
+            getLog().error(MESSAGES.failedQueueingSessionReplication(session), e);
+        }
+    }
+
+    /**
+     * Gets the time in ms the session that waited longest in the most recently distributed interval was waiting to be
+     * distributed.
+     */
+    @Override
+    public long getReplicationLag() {
+        return this.replicationLag.get();
+    }
+
+    @Override
+    public int getBacklog() {
+        return this.backlog.get();
+    }
+
+    /**
+     * Start the snapshot manager
+     */
+    @Override
+    public synchronized void start() {
+        if (this.processingAllowed) return;
+        this.processingAllowed = true;
+        this.distributor.register(this);
+    }
+
+    /**
+     * Stop the snapshot manager
+     */
+    @Override
+    public synchronized void stop() {
+        if (this.processingAllowed) {
+            this.processingAllowed = false;
+            this.distributor.unregister(this);
+        }
+        this.sessions.clear();
+        this.backlog.set(0);
+    }
+
+    /**
+     * Distributes the sessions queued by the snapshot managers registered with it. It runs as often as the shortest
+     * interval of those managers, and takes the sessions of each manager whose own interval has elapsed since it last took
+     * them.
+     */
+    static class Distributor implements Runnable {
+        private final int maxBatchSize;
+        private final List<CoalescingSnapshotManager> managers = new CopyOnWriteArrayList<CoalescingSnapshotManager>();
+        private ScheduledExecutorService scheduler;
+        private ScheduledFuture<?> future;
+        private int period;
+
+        Distributor(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        synchronized void register(CoalescingSnapshotManager manager) {
+            manager.lastDistribution = System.currentTimeMillis();
+            this.managers.add(manager);
+            this.schedule();
+        }
+
+        synchronized void unregister(CoalescingSnapshotManager manager) {
+            this.managers.remove(manager);
+            this.schedule();
+        }
+
+        synchronized boolean isScheduled() {
+            return this.future != null;
+        }
+
+        private void schedule() {
+            if (this.managers.isEmpty()) {
+                if (this.future != null) {
+                    this.future.cancel(false);
+                    this.future = null;
+                    this.scheduler.shutdown();
+                    this.scheduler = null;
+                }
+                return;
+            }
+            int period = Integer.MAX_VALUE;
+            for (CoalescingSnapshotManager manager : this.managers) {
+                period = Math.min(period, manager.interval);
+            }
+            if ((this.future != null) && (period == this.period)) return;
+            if (this.future != null) {
+                this.future.cancel(false);
+            }
+            if (this.scheduler == null) {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable task) {
+                        Thread thread = new Thread(task, "ClusteredSessionDistributor");
+                        thread.setDaemon(true);
+                        // don't pin the class loader of whichever deployment happened to start us
+                        thread.setContextClassLoader(CoalescingSnapshotManager.class.getClassLoader());
+                        return thread;
+                    }
+                });
+                executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                this.scheduler = executor;
+            }
+            this.period = period;
+            this.future = this.scheduler.scheduleWithFixedDelay(this, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.distribute(System.currentTimeMillis());
+            } catch (Throwable e) {
+                WEB_SESSION_LOGGER.error(MESSAGES.exceptionProcessingSessions(), e);
+            }
+        }
+
+        /**
+         * Distributes the queued sessions of every manager whose interval has elapsed. Must only be called by one thread at
+         * a time.
+         *
+         * @param now the current time in ms
+         */
+        void distribute(long now) {
+            List<QueuedSession> batch = new ArrayList<QueuedSession>(this.maxBatchSize);
+            // the time the longest waiting session of each manager was queued
+            Map<CoalescingSnapshotManager, Long> oldest = new HashMap<CoalescingSnapshotManager, Long>();
+            for (CoalescingSnapshotManager manager : this.managers) {
+                if (now - manager.lastDistribution < manager.interval) continue;
+                manager.lastDistribution = now;
+                Iterator<Map.Entry<ClusteredSession<? extends OutgoingDistributableSessionData>, Long>> entries = manager.sessions.entrySet().iterator();
+                while (entries.hasNext() && manager.processingAllowed) {
+                    Map.Entry<ClusteredSession<? extends OutgoingDistributableSessionData>, Long> entry = entries.next();
+                    if (manager.sessions.remove(entry.getKey(), entry.getValue())) {
+                        manager.backlog.decrementAndGet();
+                        batch.add(new QueuedSession(manager, entry.getKey()));
+                        Long queued = oldest.get(manager);
+                        if ((queued == null) || (queued.longValue() > entry.getValue().longValue())) {
+                            oldest.put(manager, entry.getValue());
+                        }
+                        if (batch.size() == this.maxBatchSize) {
+                            this.store(batch);
+                            batch.clear();
+                        }
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                this.store(batch);
+            }
+            long time = System.currentTimeMillis();
+            for (Map.Entry<CoalescingSnapshotManager, Long> entry : oldest.entrySet()) {
+                entry.getKey().replicationLag.set(time - entry.getValue().longValue());
+            }
+        }
+
+        private void store(List<QueuedSession> batch) {
+            // sessions of web applications sharing a transaction manager end up in the same batch
+            List<BatchingManager> batchingManagers = new ArrayList<BatchingManager>(1);
+            Thread thread = Thread.currentThread();
+            ClassLoader current = thread.getContextClassLoader();
+            try {
+                for (QueuedSession queued : batch) {
+                    CoalescingSnapshotManager manager = queued.manager;
+                    // Confirm the manager hasn't been stopped
+                    if (!manager.processingAllowed) continue;
+
+                    BatchingManager batchingManager = null;
+                    try {
+                        batchingManager = manager.manager.getDistributedCacheManager().getBatchingManager();
+                        if (!batchingManager.isBatchInProgress()) {
+                            batchingManager.startBatch();
+                            batchingManagers.add(batchingManager);
+                        }
+                        thread.setContextClassLoader(manager.getManager().getContainer().getLoader().getClassLoader());
+                        manager.manager.storeSession(queued.session);
+                    } catch (Exception e) {
+                        manager.getLog().error(MESSAGES.failedToStoreSession(queued.session.getRealId()), e);
+                        if (batchingManager != null) {
+                            try {
+                                batchingManager.setBatchRollbackOnly();
+                            } catch (Exception rollbackException) {
+                                WEB_SESSION_LOGGER.error(MESSAGES.exceptionRollingBackTransaction(), rollbackException);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                thread.setContextClassLoader(current);
+                for (BatchingManager batchingManager : batchingManagers) {
+                    try {
+                        batchingManager.endBatch();
+                    } catch (RuntimeException e) {
+                        WEB_SESSION_LOGGER.error(MESSAGES.exceptionProcessingSessions(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class QueuedSession {
+        final CoalescingSnapshotManager manager;
+        final ClusteredSession<? extends OutgoingDistributableSessionData> session;
+
+        QueuedSession(CoalescingSnapshotManager manager, ClusteredSession<? extends OutgoingDistributableSessionData> session) {
+            this.manager = manager;
+            this.session = session;
+        }
+    }
+}
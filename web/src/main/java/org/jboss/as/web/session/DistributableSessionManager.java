@@ -42,6 +42,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
@@ -120,12 +121,35 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
     private volatile int maxUnreplicatedInterval;
 
+    /** Whether the sessions of the interval snapshot mode are distributed by a {@link CoalescingSnapshotManager} */
+    private volatile boolean snapshotCoalescing;
+
+    /** Whether only the difference to the previously replicated attributes is replicated for SESSION granularity */
+    private final boolean deltaReplication;
+
     /** Id/timestamp of sessions in distributedcache that we haven't loaded locally */
     private final Map<String, OwnedSessionUpdate> unloadedSessions = new ConcurrentHashMap<String, OwnedSessionUpdate>();
     /** Sessions that have been created but not yet loaded. Used to ensure concurrent threads trying to load the same session */
     private final ConcurrentMap<String, ClusteredSession<O>> embryonicSessions = new ConcurrentHashMap<String, ClusteredSession<O>>();
+    /** When the sessions and unloaded sessions need to be looked at again by processExpirationPassivation() */
+    private final SessionExpirationIndex expirationIndex = new SessionExpirationIndex();
+    /** Whether the next processExpirationPassivation() has to look at every session, e.g. to rebuild the index */
+    private volatile boolean expirationFullScanRequired = true;
+    /** The settings the deadlines in the expiration index were computed with */
+    private int indexedMaxInactiveInterval;
+    private int indexedMaxUnreplicatedInterval;
+    /** Number of sessions looked at by processExpirationPassivation() since the last reset */
+    private final AtomicLong expirationCheckedCount = new AtomicLong();
+    /** Number of processExpirationPassivation() runs that had to look at every session since the last reset */
+    private final AtomicInteger expirationFullScanCount = new AtomicInteger();
+    private volatile int lastExpirationCheckedCount;
+    private volatile long lastExpirationProcessingTime;
 
     public DistributableSessionManager(DistributedCacheManagerFactory factory, JBossWebMetaData metaData, ClassResolver resolver) throws ClusteringNotSupportedException {
+        this(factory, metaData, resolver, false);
+    }
+
+    public DistributableSessionManager(DistributedCacheManagerFactory factory, JBossWebMetaData metaData, ClassResolver resolver, boolean deltaReplication) throws ClusteringNotSupportedException {
         super(metaData);
 
         PassivationConfig passivationConfig = metaData.getPassivationConfig();
@@ -148,6 +172,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
         this.notificationPolicy = this.createClusteredSessionNotificationPolicy();
         this.resolver = resolver;
+        this.deltaReplication = deltaReplication;
         this.distributedCacheManager = factory.getDistributedCacheManager(this);
     }
 
@@ -247,6 +272,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
             case INTERVAL: {
                 int interval = this.getSnapshotInterval();
                 if (interval > 0) {
+                    if (this.snapshotCoalescing) {
+                        return new CoalescingSnapshotManager(this, ctxPath, interval);
+                    }
                     return new IntervalSnapshotManager(this, ctxPath, interval);
                 }
                 WebLogger.WEB_SESSION_LOGGER.invalidSnapshotInterval();
@@ -297,6 +325,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
                 OwnedSessionUpdate osu = new OwnedSessionUpdate(owner, lastMod, maxLife, false);
                 unloadedSessions.put(realId, osu);
+                scheduleExpiration(realId, osu);
             }
 
             if (passivate) {
@@ -338,6 +367,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         this.distributedCacheManager.evictSession(realId, osu.getOwner());
         osu.setPassivated(true);
         sessionPassivated();
+        scheduleExpiration(realId, osu);
     }
 
     private void sessionPassivated() {
@@ -432,6 +462,8 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         // Clean up maps
         this.sessions.clear();
         this.unloadedSessions.clear();
+        this.expirationIndex.clear();
+        this.expirationFullScanRequired = true;
 
         this.passivatedCount.set(0);
 
@@ -514,7 +546,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
 
                 // Put the session in the unloadedSessions map. This will
                 // expose the session to regular invalidation.
-                Object obj = unloadedSessions.put(realId, new OwnedSessionUpdate(null, session.getLastAccessedTimeInternal(), session.getMaxInactiveInterval(), true));
+                OwnedSessionUpdate osu = new OwnedSessionUpdate(null, session.getLastAccessedTimeInternal(), session.getMaxInactiveInterval(), true);
+                Object obj = unloadedSessions.put(realId, osu);
+                scheduleExpiration(realId, osu);
                 if (obj == null) {
                     log.tracef("New session %s added to unloaded session map", realId);
                 } else {
@@ -917,6 +951,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         String realId = session.getRealId();
         Object existing = sessions.put(realId, session);
         unloadedSessions.remove(realId);
+        scheduleExpiration(session);
 
         if (!session.equals(existing)) {
             if (replicate) {
@@ -953,6 +988,27 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         return (interval != null) ? interval.intValue() : -1;
     }
 
+    /**
+     * Gets whether the sessions of all web applications using the interval snapshot mode are distributed together in as
+     * few batches as possible.
+     */
+    public boolean isSnapshotCoalescing() {
+        return this.snapshotCoalescing;
+    }
+
+    /**
+     * Sets whether the sessions of all web applications using the interval snapshot mode are distributed together in as
+     * few batches as possible. Takes effect when the manager is started.
+     */
+    public void setSnapshotCoalescing(boolean snapshotCoalescing) {
+        this.snapshotCoalescing = snapshotCoalescing;
+    }
+
+    @Override
+    public boolean isDeltaReplicationEnabled() {
+        return this.deltaReplication;
+    }
+
     @Override
     public void setMaxUnreplicatedInterval(int maxUnreplicatedInterval) {
         this.maxUnreplicatedInterval = maxUnreplicatedInterval;
@@ -995,6 +1051,45 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         return this.maxPassivatedCount.get();
     }
 
+    @Override
+    public long getSnapshotReplicationLag() {
+        SnapshotManager snapshotManager = this.snapshotManager;
+        return (snapshotManager != null) ? snapshotManager.getReplicationLag() : 0;
+    }
+
+    @Override
+    public int getSnapshotBacklog() {
+        SnapshotManager snapshotManager = this.snapshotManager;
+        return (snapshotManager != null) ? snapshotManager.getBacklog() : 0;
+    }
+
+    @Override
+    public int getLastExpirationCheckedSessionCount() {
+        return this.lastExpirationCheckedCount;
+    }
+
+    @Override
+    public long getLastExpirationProcessingTime() {
+        return this.lastExpirationProcessingTime;
+    }
+
+    @Override
+    public long getExpirationCheckedSessionCount() {
+        return this.expirationCheckedCount.get();
+    }
+
+    @Override
+    public int getExpirationFullScanCount() {
+        return this.expirationFullScanCount.get();
+    }
+
+    @Override
+    public void resetStats() {
+        super.resetStats();
+        this.expirationCheckedCount.set(0);
+        this.expirationFullScanCount.set(0);
+    }
+
     @Override
     public long getPassivationMaxIdleTime() {
         return this.passivationMaxIdleTime;
@@ -1114,6 +1209,11 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         }
     }
 
+    @Override
+    public void sessionAttributesReplicated(String realId, int bytes, boolean delta) {
+        this.getReplicationStatistics().updateReplicatedBytes(realId, bytes, delta);
+    }
+
     @Override
     public boolean sessionChangedInDistributedCache(String realId, String dataOwner, int distributedVersion, long timestamp, DistributableSessionMetadata metadata) {
         boolean updated = true;
@@ -1129,7 +1229,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         } else {
             int maxLife = metadata == null ? getMaxInactiveInterval() : metadata.getMaxInactiveInterval();
 
-            Object existing = unloadedSessions.put(realId, new OwnedSessionUpdate(dataOwner, timestamp, maxLife, false));
+            OwnedSessionUpdate osu = new OwnedSessionUpdate(dataOwner, timestamp, maxLife, false);
+            Object existing = unloadedSessions.put(realId, osu);
+            scheduleExpiration(realId, osu);
             if (existing == null) {
                 calcActiveSessions();
                 log.tracef("New session %s added to unloaded session map", realId);
@@ -1149,12 +1251,33 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         long passivationMax = passivationMaxIdleTime * 1000L;
         long passivationMin = passivationMinIdleTime * 1000L;
 
+        // We may have not gotten replication of a timestamp for requests
+        // that occurred w/in maxUnreplicatedInterval of the previous
+        // request. So we add a grace period to avoid flushing a session early
+        // and permanently losing part of its node structure in JBoss Cache.
+        long maxUnrep = maxUnreplicatedInterval < 0 ? 60 : maxUnreplicatedInterval;
+
+        // Normally only the sessions that are due according to the expiration
+        // index need to be looked at. All of them have to be if the deadlines
+        // in the index are based on different settings, or if sessions may
+        // need to be passivated early because there are too many of them
+        boolean fullScan = this.expirationFullScanRequired || (this.indexedMaxInactiveInterval != maxInactiveInterval)
+                || (this.indexedMaxUnreplicatedInterval != maxUnreplicatedInterval)
+                || (passivate && (maxActiveAllowed > 0) && (passivationMin > 0) && (calcActiveSessions() >= maxActiveAllowed));
+
         log.trace("processExpirationPassivation(): Looking for sessions that have expired ...");
         log.tracef("processExpirationPassivation(): active sessions = %d", calcActiveSessions());
         log.tracef("processExpirationPassivation(): expired sessions = %d", expiredCounter.get());
         if (passivate) {
             log.tracef("processExpirationPassivation(): passivated count = %d", getPassivatedSessionCount());
         }
+        if (fullScan) {
+            log.trace("processExpirationPassivation(): checking all sessions");
+        }
+
+        long begin = System.currentTimeMillis();
+        int checked = 0;
+        List<String> due = null;
 
         // Holder for sessions or OwnedSessionUpdates that survive expiration,
         // sorted by last accessed time
@@ -1165,116 +1288,44 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
             // were going to be re-requested by the thread
             SessionInvalidationTracker.suspend();
 
-            // First, handle the sessions we are actively managing
-            for (Session s: this.sessions.values()) {
-                if (!this.started) return;
-
-                boolean likelyExpired = false;
-                String realId = null;
+            if (fullScan) {
+                // Stays set should we not get to the end
+                this.expirationFullScanRequired = true;
+                this.indexedMaxInactiveInterval = maxInactiveInterval;
+                this.indexedMaxUnreplicatedInterval = maxUnreplicatedInterval;
+                this.expirationFullScanCount.incrementAndGet();
 
-                try {
-                    ClusteredSession<O> session = cast(s);
-
-                    realId = session.getRealId();
-                    likelyExpired = expire;
-
-                    if (expire) {
-                        // JBAS-2403. Check for outdated sessions where we think
-                        // the local copy has timed out. If found, refresh the
-                        // session from the cache in case that might change the timeout
-                        likelyExpired = (session.isValid(false) == false);
-                        if (likelyExpired && this.outdatedSessionChecker.isSessionOutdated(session)) {
-                            // With JBC, every time we get a notification from the distributed
-                            // cache of an update, we get the latest timestamp. So
-                            // we shouldn't need to do a full session load here. A load
-                            // adds a risk of an unintended data gravitation. However,
-                            // with a database instead of JBC we don't get notifications
-
-                            // JBAS-2792 don't assign the result of loadSession to session
-                            // just update the object from the cache or fall through if
-                            // the session has been removed from the cache
-                            loadSession(session.getRealId());
-                        }
-
-                        // Do a normal invalidation check that will expire the
-                        // session if it has timed out
-                        // DON'T SYNCHRONIZE on session here -- isValid() and
-                        // expire() are meant to be multi-threaded and synchronize
-                        // properly internally; synchronizing externally can lead
-                        // to deadlocks!!
-                        if (!session.isValid())
-                            continue;
-
-                        likelyExpired = false;
-                    }
-
-                    // we now have a valid session; store it so we can check later
-                    // if we need to passivate it
-                    if (passivate) {
-                        passivationChecks.add(new PassivationCheck(session));
-                    }
-
-                } catch (Exception e) {
-                    if (likelyExpired) {
-                        // JBAS-7397 clean up
-                        bruteForceCleanup(realId, e);
-                    } else {
-                        log.error(MESSAGES.failToPassivateLoad(realId), e);
-                    }
+                // First, handle the sessions we are actively managing
+                for (Session s: this.sessions.values()) {
+                    if (!this.started) return;
 
+                    checked++;
+                    this.checkExpiration(cast(s), expire, passivate, passivationChecks);
                 }
-            }
 
-            // Next, handle any unloaded sessions
-
-            // We may have not gotten replication of a timestamp for requests
-            // that occurred w/in maxUnreplicatedInterval of the previous
-            // request. So we add a grace period to avoid flushing a session early
-            // and permanently losing part of its node structure in JBoss Cache.
-            long maxUnrep = maxUnreplicatedInterval < 0 ? 60 : maxUnreplicatedInterval;
+                // Next, handle any unloaded sessions
+                for (Map.Entry<String, OwnedSessionUpdate> entry : this.unloadedSessions.entrySet()) {
+                    if (!this.started) return;
 
-            for (Map.Entry<String, OwnedSessionUpdate> entry : this.unloadedSessions.entrySet()) {
-                if (!this.started) return;
-
-                String realId = entry.getKey();
-                OwnedSessionUpdate osu = entry.getValue();
-                boolean likelyExpired = false;
-
-                long now = System.currentTimeMillis();
-                long elapsed = (now - osu.getUpdateTime());
-                try {
-                    likelyExpired = expire && osu.getMaxInactive() >= 1 && elapsed >= (osu.getMaxInactive() + maxUnrep) * 1000L;
-                    if (likelyExpired) {
-                        // if (osu.passivated && osu.owner == null)
-                        if (osu.isPassivated()) {
-                            // Passivated session needs to be expired. A call to
-                            // findSession will bring it out of passivation
-                            Session session = findSession(realId);
-                            if (session != null) {
-                                session.isValid(); // will expire
-                                continue;
-                            }
-                        }
+                    checked++;
+                    this.checkExpiration(entry.getKey(), entry.getValue(), expire, passivate, maxUnrep, passivationChecks);
+                }
+            } else {
+                due = this.expirationIndex.poll(begin);
+                for (String realId : due) {
+                    if (!this.started) return;
 
-                        // If we get here either !osu.passivated, or we don't own
-                        // the session or the session couldn't be reactivated (invalidated by user).
-                        // Either way, do a cleanup
-                        this.distributedCacheManager.removeSessionLocal(realId, osu.getOwner());
-                        unloadedSessions.remove(realId);
-                        this.getReplicationStatistics().removeStats(realId);
-
-                    } else if (passivate && !osu.isPassivated()) {
-                        // we now have a valid session; store it so we can check later
-                        // if we need to passivate it
-                        passivationChecks.add(new PassivationCheck(realId, osu));
-                    }
-                } catch (Exception e) {
-                    // JBAS-7397 Don't try forever
-                    if (likelyExpired) {
-                        // JBAS-7397
-                        bruteForceCleanup(realId, e);
+                    ClusteredSession<O> session = cast(this.sessions.get(realId));
+                    if (session != null) {
+                        checked++;
+                        this.checkExpiration(session, expire, passivate, passivationChecks);
                     } else {
-                        log.error(MESSAGES.failToPassivateUnloaded(realId), e);
+                        OwnedSessionUpdate osu = this.unloadedSessions.get(realId);
+                        // otherwise the session went away in the meantime
+                        if (osu != null) {
+                            checked++;
+                            this.checkExpiration(realId, osu, expire, passivate, maxUnrep, passivationChecks);
+                        }
                     }
                 }
             }
@@ -1308,20 +1359,207 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                     }
                 }
             }
+
+            // Finally, tell the index when to look at the survivors again
+            if (fullScan) {
+                for (Session s: this.sessions.values()) {
+                    this.scheduleExpiration(cast(s));
+                }
+                for (Map.Entry<String, OwnedSessionUpdate> entry : this.unloadedSessions.entrySet()) {
+                    this.scheduleExpiration(entry.getKey(), entry.getValue());
+                }
+                this.expirationFullScanRequired = false;
+            } else {
+                for (String realId : due) {
+                    ClusteredSession<O> session = cast(this.sessions.get(realId));
+                    if (session != null) {
+                        this.scheduleExpiration(session);
+                    } else {
+                        OwnedSessionUpdate osu = this.unloadedSessions.get(realId);
+                        if (osu != null) {
+                            this.scheduleExpiration(realId, osu);
+                        }
+                    }
+                }
+            }
         } catch (Exception ex) {
             log.error(MESSAGES.processExpirationPassivationException(ex.getLocalizedMessage()), ex);
         } finally {
             SessionInvalidationTracker.resume();
+
+            this.lastExpirationCheckedCount = checked;
+            this.lastExpirationProcessingTime = System.currentTimeMillis() - begin;
+            this.expirationCheckedCount.addAndGet(checked);
         }
 
         log.trace("processExpirationPassivation(): Completed ...");
         log.tracef("processExpirationPassivation(): active sessions = %d", calcActiveSessions());
         log.tracef("processExpirationPassivation(): expired sessions = %d", expiredCounter.get());
+        log.tracef("processExpirationPassivation(): checked %d sessions in %d ms", checked, this.lastExpirationProcessingTime);
         if (passivate) {
             log.tracef("processExpirationPassivation(): passivated count = %d", getPassivatedSessionCount());
         }
     }
 
+    /**
+     * Expires the given session if it has timed out.
+     *
+     * @param passivationChecks where to add the session if it survives and passivation is enabled
+     */
+    private void checkExpiration(ClusteredSession<O> session, boolean expire, boolean passivate, Collection<PassivationCheck> passivationChecks) {
+        boolean likelyExpired = false;
+        String realId = null;
+
+        try {
+            realId = session.getRealId();
+            likelyExpired = expire;
+
+            if (expire) {
+                // JBAS-2403. Check for outdated sessions where we think
+                // the local copy has timed out. If found, refresh the
+                // session from the cache in case that might change the timeout
+                likelyExpired = (session.isValid(false) == false);
+                if (likelyExpired && this.outdatedSessionChecker.isSessionOutdated(session)) {
+                    // With JBC, every time we get a notification from the distributed
+                    // cache of an update, we get the latest timestamp. So
+                    // we shouldn't need to do a full session load here. A load
+                    // adds a risk of an unintended data gravitation. However,
+                    // with a database instead of JBC we don't get notifications
+
+                    // JBAS-2792 don't assign the result of loadSession to session
+                    // just update the object from the cache or fall through if
+                    // the session has been removed from the cache
+                    loadSession(session.getRealId());
+                }
+
+                // Do a normal invalidation check that will expire the
+                // session if it has timed out
+                // DON'T SYNCHRONIZE on session here -- isValid() and
+                // expire() are meant to be multi-threaded and synchronize
+                // properly internally; synchronizing externally can lead
+                // to deadlocks!!
+                if (!session.isValid())
+                    return;
+
+                likelyExpired = false;
+            }
+
+            // we now have a valid session; store it so we can check later
+            // if we need to passivate it
+            if (passivate) {
+                passivationChecks.add(new PassivationCheck(session));
+            }
+
+        } catch (Exception e) {
+            if (likelyExpired) {
+                // JBAS-7397 clean up
+                bruteForceCleanup(realId, e);
+            } else {
+                log.error(MESSAGES.failToPassivateLoad(realId), e);
+            }
+        }
+    }
+
+    /**
+     * Cleans up the given unloaded session if it has timed out.
+     *
+     * @param maxUnrep the grace period in seconds added to the timeout of the session
+     * @param passivationChecks where to add the session if it survives and passivation is enabled
+     */
+    private void checkExpiration(String realId, OwnedSessionUpdate osu, boolean expire, boolean passivate, long maxUnrep, Collection<PassivationCheck> passivationChecks) {
+        boolean likelyExpired = false;
+
+        long now = System.currentTimeMillis();
+        long elapsed = (now - osu.getUpdateTime());
+        try {
+            likelyExpired = expire && osu.getMaxInactive() >= 1 && elapsed >= (osu.getMaxInactive() + maxUnrep) * 1000L;
+            if (likelyExpired) {
+                // if (osu.passivated && osu.owner == null)
+                if (osu.isPassivated()) {
+                    // Passivated session needs to be expired. A call to
+                    // findSession will bring it out of passivation
+                    Session session = findSession(realId);
+                    if (session != null) {
+                        session.isValid(); // will expire
+                        return;
+                    }
+                }
+
+                // If we get here either !osu.passivated, or we don't own
+                // the session or the session couldn't be reactivated (invalidated by user).
+                // Either way, do a cleanup
+                this.distributedCacheManager.removeSessionLocal(realId, osu.getOwner());
+                unloadedSessions.remove(realId);
+                this.getReplicationStatistics().removeStats(realId);
+
+            } else if (passivate && !osu.isPassivated()) {
+                // we now have a valid session; store it so we can check later
+                // if we need to passivate it
+                passivationChecks.add(new PassivationCheck(realId, osu));
+            }
+        } catch (Exception e) {
+            // JBAS-7397 Don't try forever
+            if (likelyExpired) {
+                // JBAS-7397
+                bruteForceCleanup(realId, e);
+            } else {
+                log.error(MESSAGES.failToPassivateUnloaded(realId), e);
+            }
+        }
+    }
+
+    /**
+     * Schedules the next look at the given session by {@link #processExpirationPassivation()}: when it will have timed out,
+     * or when it will have been idle long enough to be passivated, whichever comes first. Deadlines are not moved when the
+     * session is accessed; a session that turns out not to be due yet is simply scheduled again.
+     */
+    private void scheduleExpiration(ClusteredSession<O> session) {
+        String realId = session.getRealId();
+        if (realId == null) return;
+
+        long deadline = Long.MAX_VALUE;
+        int maxInactive = session.getMaxInactiveInterval();
+        if ((maxInactiveInterval >= 0) && (maxInactive > 0)) {
+            deadline = session.getThisAccessedTimeInternal() + maxInactive * 1000L;
+        }
+        if (isPassivationEnabled() && (passivationMaxIdleTime >= 0)) {
+            deadline = Math.min(deadline, session.getLastAccessedTimeInternal() + passivationMaxIdleTime * 1000L + 1);
+        }
+        this.scheduleExpiration(realId, deadline);
+    }
+
+    /**
+     * Schedules the next look at the given unloaded session by {@link #processExpirationPassivation()}.
+     */
+    private void scheduleExpiration(String realId, OwnedSessionUpdate osu) {
+        long deadline = Long.MAX_VALUE;
+        if ((maxInactiveInterval >= 0) && (osu.getMaxInactive() >= 1)) {
+            long maxUnrep = maxUnreplicatedInterval < 0 ? 60 : maxUnreplicatedInterval;
+            deadline = osu.getUpdateTime() + (osu.getMaxInactive() + maxUnrep) * 1000L;
+        }
+        if (isPassivationEnabled() && (passivationMaxIdleTime >= 0) && !osu.isPassivated()) {
+            deadline = Math.min(deadline, osu.getUpdateTime() + passivationMaxIdleTime * 1000L + 1);
+        }
+        this.scheduleExpiration(realId, deadline);
+    }
+
+    private void scheduleExpiration(String realId, long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            this.expirationIndex.unschedule(realId);
+        } else {
+            this.expirationIndex.schedule(realId, deadline);
+        }
+    }
+
+    @Override
+    public void maxInactiveIntervalChanged(ClusteredSession<O> session) {
+        String realId = session.getRealId();
+        // sessions that are not under management yet get scheduled once added
+        if ((realId != null) && (this.sessions.get(realId) == session)) {
+            this.scheduleExpiration(session);
+        }
+    }
+
     /**
      * Loads a session from the distributed store. If an existing session with the id is already under local management, that
      * session's internal state will be updated from the distributed store. Otherwise a new session will be created and added to
@@ -1394,6 +1632,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                                 if (!passivated) {
                                     session.tellNew(ClusteredSessionNotificationCause.FAILOVER);
                                 }
+                            } else {
+                                // the distributed copy may come with a different timeout
+                                scheduleExpiration(session);
                             }
                             long elapsed = System.currentTimeMillis() - begin;
                             this.getReplicationStatistics().updateLoadStats(realId, elapsed);
@@ -100,6 +100,18 @@ public interface DistributableSessionManagerMBean extends SessionManagerMBean {
      */
     int getSnapshotInterval();
 
+    /**
+     * Gets the time in ms the longest waiting of the sessions most recently distributed by the "interval" snapshot mode
+     * waited before it was distributed. Always <code>0</code> for "instant" mode.
+     */
+    long getSnapshotReplicationLag();
+
+    /**
+     * Gets the number of modified sessions waiting to be distributed by the "interval" snapshot mode. Always <code>0</code>
+     * for "instant" mode.
+     */
+    int getSnapshotBacklog();
+
     /**
      * Get the maximum interval between requests, in seconds, after which a request will trigger replication of the session's
      * metadata regardless of whether the request has otherwise made the session dirty. Such replication ensures that other
@@ -183,6 +195,29 @@ public interface DistributableSessionManagerMBean extends SessionManagerMBean {
      */
     long getPassivationMinIdleTime();
 
+    /**
+     * Gets the number of sessions looked at by the most recent run of the background expiration and passivation process.
+     * Usually only the sessions that may have timed out or may need passivation by now are looked at.
+     */
+    int getLastExpirationCheckedSessionCount();
+
+    /**
+     * Gets the time in ms the most recent run of the background expiration and passivation process took.
+     */
+    long getLastExpirationProcessingTime();
+
+    /**
+     * Gets the number of sessions looked at by the background expiration and passivation process since the last reset.
+     */
+    long getExpirationCheckedSessionCount();
+
+    /**
+     * Gets the number of runs of the background expiration and passivation process since the last reset that had to look
+     * at all sessions, either because the session timeout settings changed or because sessions may need to be passivated
+     * to comply with a {@link SessionManagerMBean#getMaxActiveAllowed()} setting.
+     */
+    int getExpirationFullScanCount();
+
     /**
      * Gets the number of duplicated session ids generated.
      */
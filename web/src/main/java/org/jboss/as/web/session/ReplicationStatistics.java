@@ -54,6 +54,10 @@ public class ReplicationStatistics implements Serializable {
         public long maxLoadTime;
         public long totalLoadlTime;
 
+        public long replicatedBytes;
+        public long maxReplicatedBytes;
+        public long deltaReplicationCount;
+
         public void reset() {
             replicationCount = 0;
             minPassivationTime = Long.MAX_VALUE;
@@ -66,6 +70,9 @@ public class ReplicationStatistics implements Serializable {
             minLoadTime = Long.MAX_VALUE;
             maxLoadTime = 0;
             totalLoadlTime = 0;
+            replicatedBytes = 0;
+            maxReplicatedBytes = 0;
+            deltaReplicationCount = 0;
         }
     }
 
@@ -99,6 +106,23 @@ public class ReplicationStatistics implements Serializable {
             stat.maxReplicationTime = elapsed;
     }
 
+    /**
+     * Update the number of session attribute bytes replicated for the given ctx. This does not synchronize on the
+     * TimeStatistic so the results are an approximate values.
+     *
+     * @param ctx the session to update the statistics for.
+     * @param bytes the number of attribute bytes written to the distributed cache.
+     * @param delta whether only the difference to the previously replicated attributes was written.
+     */
+    public void updateReplicatedBytes(String ctx, int bytes, boolean delta) {
+        TimeStatistic stat = getTimeStatistic(ctx);
+        stat.replicatedBytes += bytes;
+        if (stat.maxReplicatedBytes < bytes)
+            stat.maxReplicatedBytes = bytes;
+        if (delta)
+            stat.deltaReplicationCount++;
+    }
+
     public void updateLoadStats(String ctx, long elapsed) {
         TimeStatistic stat = getTimeStatistic(ctx);
         stat.loadCount++;
@@ -165,6 +189,12 @@ public class ReplicationStatistics implements Serializable {
                 tmp.append(stat.maxLoadTime);
                 tmp.append(", totaLoadlTime=");
                 tmp.append(stat.totalLoadlTime);
+                tmp.append(", replicatedBytes=");
+                tmp.append(stat.replicatedBytes);
+                tmp.append(", maxReplicatedBytes=");
+                tmp.append(stat.maxReplicatedBytes);
+                tmp.append(", deltaReplicationCount=");
+                tmp.append(stat.deltaReplicationCount);
                 tmp.append("];");
             }
         }
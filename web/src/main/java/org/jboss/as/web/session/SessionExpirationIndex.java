@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hashed timing wheel of the times at which the sessions of a manager need to be looked at again by the background
+ * expiration and passivation process.
+ * <p/>
+ * Deadlines are only hints: a session whose deadline is reached is handed back to the manager, which decides whether it
+ * actually expires or passivates it and schedules it again otherwise. Deadlines therefore never have to be moved forward
+ * when a session is accessed, only when it may need attention earlier than scheduled. Each slot covers one tick; a
+ * deadline further away than one revolution of the wheel simply stays in its slot until the right revolution comes by.
+ * <p/>
+ * Scheduling is thread safe; {@link #poll(long)} must only be called by one thread at a time.
+ */
+class SessionExpirationIndex {
+
+    static final long DEFAULT_TICK = 1000L;
+    static final int DEFAULT_SLOTS = 1024;
+
+    private final long tick;
+    private final int mask;
+    private final AtomicReferenceArray<ConcurrentMap<String, Long>> slots;
+    /** The current deadline of every scheduled session; an entry in a slot only counts if it still matches this. */
+    private final ConcurrentMap<String, Long> deadlines = new ConcurrentHashMap<String, Long>();
+    /** Entries whose slot {@link #poll(long)} may already have passed; these are looked at on every poll. */
+    private final ConcurrentMap<String, Long> overdue = new ConcurrentHashMap<String, Long>(16, 0.75f, 1);
+    /** The last tick {@link #poll(long)} visited. */
+    private volatile long lastTick;
+
+    SessionExpirationIndex() {
+        this(DEFAULT_TICK, DEFAULT_SLOTS, System.currentTimeMillis());
+    }
+
+    SessionExpirationIndex(long tick, int slots, long now) {
+        if (tick <= 0 || slots <= 0 || (slots & (slots - 1)) != 0) {
+            throw new IllegalArgumentException();
+        }
+        this.tick = tick;
+        this.mask = slots - 1;
+        this.slots = new AtomicReferenceArray<ConcurrentMap<String, Long>>(slots);
+        this.lastTick = (now / tick) - 1;
+    }
+
+    /**
+     * Schedules the session with the given id to be returned by {@link #poll(long)} once the given time is reached,
+     * replacing any previous deadline.
+     *
+     * @param id the real id of the session
+     * @param deadline the time in ms
+     */
+    void schedule(String id, long deadline) {
+        Long value = Long.valueOf(deadline);
+        Long previous = this.deadlines.put(id, value);
+        if (previous != null) {
+            if (previous.longValue() == deadline) return;
+            this.removeFromSlot(id, previous);
+        }
+        long slotTick = deadline / this.tick;
+        if (slotTick > this.lastTick) {
+            this.slot(slotTick).put(id, value);
+            // poll() publishes the tick before visiting the slots, so if we still
+            // don't see it here the slot will be visited after our put
+            if (slotTick > this.lastTick) return;
+        }
+        this.overdue.put(id, value);
+    }
+
+    /**
+     * Removes the session with the given id from the index.
+     *
+     * @param id the real id of the session
+     */
+    void unschedule(String id) {
+        Long previous = this.deadlines.remove(id);
+        if (previous != null) {
+            this.removeFromSlot(id, previous);
+        }
+    }
+
+    /**
+     * Removes and returns the ids of all sessions whose deadline is at or before the given time. Only the slots passed
+     * since the previous call are visited.
+     *
+     * @param now the current time in ms
+     * @return the ids of the sessions that are due; never <code>null</code>
+     */
+    List<String> poll(long now) {
+        List<String> due = new ArrayList<String>();
+        long nowTick = now / this.tick;
+        long from = this.lastTick + 1;
+        if (nowTick >= from) {
+            this.lastTick = nowTick;
+        }
+        this.drain(this.overdue, now, nowTick, due);
+        // a gap of a full revolution or more means every slot has to be looked at, but only once
+        long to = Math.min(nowTick, from + this.mask);
+        for (long t = from; t <= to; t++) {
+            ConcurrentMap<String, Long> slot = this.slots.get((int) (t & this.mask));
+            if (slot != null) {
+                this.drain(slot, now, nowTick, due);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Gets the number of scheduled sessions.
+     */
+    int size() {
+        return this.deadlines.size();
+    }
+
+    void clear() {
+        this.deadlines.clear();
+        this.overdue.clear();
+        for (int i = 0; i <= this.mask; i++) {
+            this.slots.set(i, null);
+        }
+    }
+
+    private void drain(ConcurrentMap<String, Long> slot, long now, long nowTick, List<String> due) {
+        Iterator<Map.Entry<String, Long>> entries = slot.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Long> entry = entries.next();
+            String id = entry.getKey();
+            Long deadline = entry.getValue();
+            if (!deadline.equals(this.deadlines.get(id))) {
+                // unscheduled or rescheduled elsewhere in the meantime
+                slot.remove(id, deadline);
+            } else if (deadline.longValue() <= now) {
+                slot.remove(id, deadline);
+                if (this.deadlines.remove(id, deadline)) {
+                    due.add(id);
+                }
+            } else if ((slot != this.overdue) && (deadline.longValue() / this.tick <= nowTick)) {
+                // due within the current tick, whose slot won't be visited again
+                slot.remove(id, deadline);
+                this.overdue.put(id, deadline);
+            }
+        }
+    }
+
+    private void removeFromSlot(String id, Long deadline) {
+        this.overdue.remove(id, deadline);
+        ConcurrentMap<String, Long> slot = this.slots.get((int) ((deadline.longValue() / this.tick) & this.mask));
+        if (slot != null) {
+            slot.remove(id, deadline);
+        }
+    }
+
+    private ConcurrentMap<String, Long> slot(long slotTick) {
+        int index = (int) (slotTick & this.mask);
+        ConcurrentMap<String, Long> slot = this.slots.get(index);
+        if (slot == null) {
+            slot = new ConcurrentHashMap<String, Long>(16, 0.75f, 1);
+            if (!this.slots.compareAndSet(index, null, slot)) {
+                slot = this.slots.get(index);
+            }
+        }
+        return slot;
+    }
+}
@@ -63,6 +63,20 @@ public abstract class SnapshotManager {
      */
     public abstract void stop();
 
+    /**
+     * Gets the time in ms modified sessions recently had to wait before they were distributed.
+     */
+    public long getReplicationLag() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of modified sessions waiting to be distributed.
+     */
+    public int getBacklog() {
+        return 0;
+    }
+
     protected String getContextPath() {
         return contextPath;
     }
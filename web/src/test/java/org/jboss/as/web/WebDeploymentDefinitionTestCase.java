@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.catalina.session.ManagerBase;
+import org.jboss.as.web.WebDeploymentDefinition.SessionManagerStatsHandler;
+import org.jboss.as.web.WebDeploymentDefinition.SessionStat;
+import org.jboss.as.web.session.DistributableSessionManager;
+import org.junit.Test;
+
+/**
+ * Unit tests of the session metrics of {@link WebDeploymentDefinition}.
+ */
+public class WebDeploymentDefinitionTestCase {
+
+    @Test
+    public void testExpirationStats() {
+        DistributableSessionManager<?> manager = mock(DistributableSessionManager.class);
+        when(manager.getLastExpirationCheckedSessionCount()).thenReturn(3);
+        when(manager.getLastExpirationProcessingTime()).thenReturn(5L);
+        when(manager.getExpirationCheckedSessionCount()).thenReturn(42L);
+        when(manager.getExpirationFullScanCount()).thenReturn(2);
+
+        assertEquals(3, SessionManagerStatsHandler.getStatValue(SessionStat.LAST_EXPIRATION_CHECKED_SESSIONS, manager).asInt());
+        assertEquals(5L, SessionManagerStatsHandler.getStatValue(SessionStat.LAST_EXPIRATION_PROCESSING_TIME, manager).asLong());
+        assertEquals(42L, SessionManagerStatsHandler.getStatValue(SessionStat.EXPIRATION_CHECKED_SESSIONS, manager).asLong());
+        assertEquals(2, SessionManagerStatsHandler.getStatValue(SessionStat.EXPIRATION_FULL_SCANS, manager).asInt());
+    }
+
+    @Test
+    public void testSnapshotStats() {
+        DistributableSessionManager<?> manager = mock(DistributableSessionManager.class);
+        when(manager.getSnapshotReplicationLag()).thenReturn(250L);
+        when(manager.getSnapshotBacklog()).thenReturn(7);
+
+        assertEquals(250L, SessionManagerStatsHandler.getStatValue(SessionStat.SNAPSHOT_REPLICATION_LAG, manager).asLong());
+        assertEquals(7, SessionManagerStatsHandler.getStatValue(SessionStat.SNAPSHOT_BACKLOG, manager).asInt());
+        assertFalse(SessionManagerStatsHandler.getStatValue(SessionStat.SNAPSHOT_BACKLOG, mock(ManagerBase.class)).isDefined());
+    }
+
+    @Test
+    public void testExpirationStatsOfLocalSessions() {
+        ManagerBase manager = mock(ManagerBase.class);
+
+        assertFalse(SessionManagerStatsHandler.getStatValue(SessionStat.LAST_EXPIRATION_CHECKED_SESSIONS, manager).isDefined());
+        assertFalse(SessionManagerStatsHandler.getStatValue(SessionStat.LAST_EXPIRATION_PROCESSING_TIME, manager).isDefined());
+        assertFalse(SessionManagerStatsHandler.getStatValue(SessionStat.EXPIRATION_CHECKED_SESSIONS, manager).isDefined());
+        assertFalse(SessionManagerStatsHandler.getStatValue(SessionStat.EXPIRATION_FULL_SCANS, manager).isDefined());
+    }
+}
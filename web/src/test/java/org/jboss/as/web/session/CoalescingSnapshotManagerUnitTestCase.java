@@ -0,0 +1,298 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.catalina.Session;
+import org.jboss.as.clustering.web.BatchingManager;
+import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Unit tests of {@link CoalescingSnapshotManager}.
+ */
+public class CoalescingSnapshotManagerUnitTestCase {
+
+    // long enough for the scheduled distribution never to run during a test
+    private static final int INTERVAL = 60000;
+
+    private final CoalescingSnapshotManager.Distributor distributor = new CoalescingSnapshotManager.Distributor(3);
+    private final TestBatchingManager batchingManager = new TestBatchingManager();
+    private final List<CoalescingSnapshotManager> snapshotManagers = new ArrayList<CoalescingSnapshotManager>();
+
+    @After
+    public void tearDown() {
+        for (CoalescingSnapshotManager snapshotManager : this.snapshotManagers) {
+            snapshotManager.stop();
+        }
+    }
+
+    @Test
+    public void testCoalescing() {
+        CoalescingSnapshotManager snapshotManager = this.start(INTERVAL, 10);
+        ClusteredSession<?> a = session();
+        ClusteredSession<?> b = session();
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(b);
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(a);
+        assertEquals(2, snapshotManager.getBacklog());
+
+        this.distributor.distribute(System.currentTimeMillis() + INTERVAL);
+        assertEquals(1, this.batchingManager.batches.size());
+        assertEquals(new HashSet<Session>(Arrays.asList(a, b)), new HashSet<Session>(this.batchingManager.batches.get(0)));
+        assertEquals(2, this.batchingManager.batches.get(0).size());
+        assertEquals(1, this.batchingManager.ended);
+        assertEquals(0, snapshotManager.getBacklog());
+
+        // nothing left to distribute
+        this.distributor.distribute(System.currentTimeMillis() + 2 * INTERVAL);
+        assertEquals(1, this.batchingManager.batches.size());
+        assertTrue(this.batchingManager.unbatched.isEmpty());
+    }
+
+    @Test
+    public void testBatchesSpanApplications() {
+        CoalescingSnapshotManager first = this.start(INTERVAL, 10);
+        CoalescingSnapshotManager second = this.start(INTERVAL, 10);
+        ClusteredSession<?> a = session();
+        ClusteredSession<?> b = session();
+        ClusteredSession<?> c = session();
+        ClusteredSession<?> d = session();
+        first.snapshot(a);
+        first.snapshot(b);
+        second.snapshot(c);
+        second.snapshot(d);
+
+        this.distributor.distribute(System.currentTimeMillis() + INTERVAL);
+        // at most 3 sessions per batch
+        assertEquals(2, this.batchingManager.batches.size());
+        List<Session> batch = this.batchingManager.batches.get(0);
+        assertEquals(3, batch.size());
+        assertTrue(batch.contains(a));
+        assertTrue(batch.contains(b));
+        assertTrue(batch.contains(c) || batch.contains(d));
+        assertEquals(1, this.batchingManager.batches.get(1).size());
+        assertEquals(2, this.batchingManager.ended);
+        assertEquals(0, first.getBacklog());
+        assertEquals(0, second.getBacklog());
+    }
+
+    @Test
+    public void testIntervals() {
+        CoalescingSnapshotManager first = this.start(INTERVAL, 10);
+        CoalescingSnapshotManager second = this.start(5 * INTERVAL, 10);
+        long started = System.currentTimeMillis();
+        ClusteredSession<?> a = session();
+        ClusteredSession<?> b = session();
+        first.snapshot(a);
+        second.snapshot(b);
+
+        this.distributor.distribute(started + INTERVAL);
+        assertEquals(1, this.batchingManager.batches.size());
+        assertEquals(Arrays.<Session>asList(a), this.batchingManager.batches.get(0));
+        assertEquals(1, second.getBacklog());
+
+        this.distributor.distribute(started + 5 * INTERVAL);
+        assertEquals(2, this.batchingManager.batches.size());
+        assertEquals(Arrays.<Session>asList(b), this.batchingManager.batches.get(1));
+        assertEquals(0, second.getBacklog());
+    }
+
+    @Test
+    public void testBacklogFull() {
+        CoalescingSnapshotManager snapshotManager = this.start(INTERVAL, 2);
+        ClusteredSession<?> a = session();
+        ClusteredSession<?> b = session();
+        ClusteredSession<?> c = session();
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(b);
+        // distributed by the calling thread
+        snapshotManager.snapshot(c);
+        assertEquals(Arrays.<Session>asList(c), this.batchingManager.unbatched);
+        assertEquals(2, snapshotManager.getBacklog());
+
+        // already queued
+        snapshotManager.snapshot(a);
+        assertEquals(1, this.batchingManager.unbatched.size());
+
+        this.distributor.distribute(System.currentTimeMillis() + INTERVAL);
+        assertEquals(new HashSet<Session>(Arrays.asList(a, b)), new HashSet<Session>(this.batchingManager.batches.get(0)));
+        assertEquals(0, snapshotManager.getBacklog());
+    }
+
+    @Test
+    public void testStop() {
+        CoalescingSnapshotManager first = this.start(INTERVAL, 10);
+        CoalescingSnapshotManager second = this.start(INTERVAL, 10);
+        assertTrue(this.distributor.isScheduled());
+        first.snapshot(session());
+        first.snapshot(session());
+
+        first.stop();
+        assertEquals(0, first.getBacklog());
+        this.distributor.distribute(System.currentTimeMillis() + INTERVAL);
+        assertTrue(this.batchingManager.batches.isEmpty());
+        assertTrue(this.distributor.isScheduled());
+
+        second.stop();
+        assertFalse(this.distributor.isScheduled());
+    }
+
+    @Test
+    public void testStopWhileDistributing() {
+        final CoalescingSnapshotManager snapshotManager = this.start(INTERVAL, 10);
+        for (int i = 0; i < 3; ++i) {
+            snapshotManager.snapshot(session());
+        }
+        // the undeployment stops the manager after the first session was stored
+        this.batchingManager.onStore = new Runnable() {
+            @Override
+            public void run() {
+                snapshotManager.stop();
+            }
+        };
+
+        this.distributor.distribute(System.currentTimeMillis() + INTERVAL);
+        assertEquals(1, this.batchingManager.batches.size());
+        assertEquals(1, this.batchingManager.batches.get(0).size());
+        assertEquals(1, this.batchingManager.ended);
+        assertEquals(0, snapshotManager.getBacklog());
+        assertFalse(this.distributor.isScheduled());
+    }
+
+    @Test
+    public void testFailureRollsBackBatch() {
+        CoalescingSnapshotManager snapshotManager = this.start(INTERVAL, 10);
+        snapshotManager.snapshot(session());
+        snapshotManager.snapshot(session());
+        this.batchingManager.onStore = new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        };
+
+        this.distributor.distribute(System.currentTimeMillis() + INTERVAL);
+        assertEquals(1, this.batchingManager.batches.size());
+        assertEquals(2, this.batchingManager.batches.get(0).size());
+        assertEquals(1, this.batchingManager.ended);
+        assertEquals(1, this.batchingManager.rolledBack);
+        assertEquals(0, snapshotManager.getBacklog());
+
+        // the next batch is not affected
+        this.batchingManager.onStore = null;
+        snapshotManager.snapshot(session());
+        this.distributor.distribute(System.currentTimeMillis() + 2 * INTERVAL);
+        assertEquals(2, this.batchingManager.ended);
+        assertEquals(1, this.batchingManager.rolledBack);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CoalescingSnapshotManager start(int interval, int maxBacklog) {
+        ClusteredSessionManager<OutgoingDistributableSessionData> manager = mock(ClusteredSessionManager.class, RETURNS_DEEP_STUBS);
+        when(manager.getDistributedCacheManager().getBatchingManager()).thenReturn(this.batchingManager);
+        when(manager.getContainer().getLoader().getClassLoader()).thenReturn(this.getClass().getClassLoader());
+        when(manager.storeSession(any(Session.class))).thenAnswer(this.batchingManager);
+
+        CoalescingSnapshotManager snapshotManager = new CoalescingSnapshotManager(manager, "/test", interval, maxBacklog, this.distributor);
+        this.snapshotManagers.add(snapshotManager);
+        snapshotManager.start();
+        return snapshotManager;
+    }
+
+    private static ClusteredSession<?> session() {
+        return mock(ClusteredSession.class);
+    }
+
+    /**
+     * Records the sessions stored in each batch, shared by all web applications like a transaction manager.
+     */
+    static class TestBatchingManager implements BatchingManager, Answer<Boolean> {
+        final List<List<Session>> batches = new ArrayList<List<Session>>();
+        final List<Session> unbatched = new ArrayList<Session>();
+        int ended;
+        int rolledBack;
+        volatile Runnable onStore;
+        private boolean inProgress;
+        private boolean rollbackOnly;
+
+        @Override
+        public boolean isBatchInProgress() {
+            return this.inProgress;
+        }
+
+        @Override
+        public void startBatch() {
+            assertFalse(this.inProgress);
+            this.inProgress = true;
+            this.batches.add(new ArrayList<Session>());
+        }
+
+        @Override
+        public void setBatchRollbackOnly() {
+            assertTrue(this.inProgress);
+            this.rollbackOnly = true;
+        }
+
+        @Override
+        public void endBatch() {
+            assertTrue(this.inProgress);
+            this.inProgress = false;
+            this.ended += 1;
+            if (this.rollbackOnly) {
+                this.rollbackOnly = false;
+                this.rolledBack += 1;
+            }
+        }
+
+        @Override
+        public Boolean answer(InvocationOnMock invocation) {
+            Session session = (Session) invocation.getArguments()[0];
+            if (this.inProgress) {
+                this.batches.get(this.batches.size() - 1).add(session);
+            } else {
+                this.unbatched.add(session);
+            }
+            Runnable onStore = this.onStore;
+            if (onStore != null) {
+                onStore.run();
+            }
+            return Boolean.TRUE;
+        }
+    }
+}
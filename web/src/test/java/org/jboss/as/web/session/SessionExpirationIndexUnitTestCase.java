@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link SessionExpirationIndex}.
+ */
+public class SessionExpirationIndexUnitTestCase {
+
+    private static final long START = 1000000L;
+
+    @Test
+    public void testPollReturnsDueSessionsOnly() {
+        SessionExpirationIndex index = new SessionExpirationIndex(1000L, 16, START);
+        index.schedule("a", START + 1500);
+        index.schedule("b", START + 3000);
+        index.schedule("c", START + 3500);
+
+        assertEquals(Collections.emptyList(), index.poll(START + 1000));
+        assertEquals(Arrays.asList("a"), index.poll(START + 2000));
+        // b is due, c is in the same tick but not yet due
+        assertEquals(Arrays.asList("b"), index.poll(START + 3200));
+        assertEquals(Arrays.asList("c"), index.poll(START + 3600));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testRescheduleAndUnschedule() {
+        SessionExpirationIndex index = new SessionExpirationIndex(1000L, 16, START);
+        index.schedule("a", START + 2000);
+        index.schedule("a", START + 5000);
+        index.schedule("b", START + 2000);
+        index.unschedule("b");
+
+        assertEquals(Collections.emptyList(), index.poll(START + 4000));
+        assertEquals(Arrays.asList("a"), index.poll(START + 5000));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testDeadlinesBeyondOneRevolution() {
+        SessionExpirationIndex index = new SessionExpirationIndex(1000L, 16, START);
+        index.schedule("a", START + 40000);
+
+        for (long now = START; now < START + 40000; now += 3000) {
+            assertEquals(Collections.emptyList(), index.poll(now));
+        }
+        assertEquals(Arrays.asList("a"), index.poll(START + 40000));
+    }
+
+    @Test
+    public void testPastDeadlinesAreDueOnNextPoll() {
+        SessionExpirationIndex index = new SessionExpirationIndex(1000L, 16, START);
+        index.poll(START + 5000);
+        index.schedule("a", START);
+        index.schedule("b", START + 5500);
+
+        assertEquals(Arrays.asList("a"), index.poll(START + 5100));
+        assertEquals(Arrays.asList("b"), index.poll(START + 5600));
+    }
+
+    @Test
+    public void testLongGapBetweenPolls() {
+        SessionExpirationIndex index = new SessionExpirationIndex(1000L, 16, START);
+        for (int i = 0; i < 100; i++) {
+            index.schedule(String.valueOf(i), START + i * 500L);
+        }
+
+        List<String> due = index.poll(START + 100000);
+        assertEquals(100, due.size());
+        assertEquals(100, new HashSet<String>(due).size());
+        assertTrue(index.poll(START + 200000).isEmpty());
+    }
+
+    /**
+     * Counts the sessions the index hands back over a simulated hour of 10 second expiration runs, with sessions timing
+     * out after 30 minutes. A full scan would look at every session on every run.
+     */
+    @Test
+    public void testCheckedSessionsPerRun() {
+        final int sessions = 100000;
+        final long timeout = 30 * 60 * 1000L;
+        SessionExpirationIndex index = new SessionExpirationIndex(SessionExpirationIndex.DEFAULT_TICK, SessionExpirationIndex.DEFAULT_SLOTS, START);
+        for (int i = 0; i < sessions; i++) {
+            // last accesses spread over the last 30 minutes, 18 ms apart
+            index.schedule(String.valueOf(i), START + timeout - i * (timeout / sessions));
+        }
+        long checked = 0;
+        int runs = 0;
+        for (long t = START; t < START + 60 * 60 * 1000L; t += 10000L) {
+            for (String id : index.poll(t)) {
+                checked++;
+                // every other session got accessed since it was scheduled
+                if (Integer.parseInt(id) % 2 == 0) {
+                    index.schedule(id, t + timeout);
+                }
+            }
+            runs++;
+        }
+        assertEquals(360, runs);
+        // every session once, and the accessed ones whose first check came at least 30 minutes before the end once more:
+        // sessions 556 to 99998, the ones last accessed more than 10 seconds before the start
+        assertEquals(sessions + (99998 - 556) / 2 + 1, checked);
+        // the accessed sessions are still scheduled
+        assertEquals(sessions / 2, index.size());
+    }
+}